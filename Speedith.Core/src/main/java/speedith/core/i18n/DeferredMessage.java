@@ -0,0 +1,80 @@
+package speedith.core.i18n;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * A translated message that is looked up and formatted only when it is first
+ * {@link DeferredMessage#getMessage() requested}.
+ * <p>Exceptions that are thrown and caught often (e.g.: when an inference
+ * rule is not applicable) can carry a deferred message instead of a formatted
+ * string, so that the message costs nothing unless it is actually displayed.
+ * Use {@link Translations#deferredI18n(java.lang.String, java.lang.Object[])}
+ * to create deferred messages.</p>
+ * <p>Instances of this class are thread-safe. The arguments are not copied,
+ * so they should be immutable.</p>
+ */
+public final class DeferredMessage implements Serializable {
+
+    private static final long serialVersionUID = 0x6a0f3c2be8d14a95L;
+
+    private final Locale locale;
+    private final String key;
+    private final Object[] args;
+    private transient volatile String message;
+
+    DeferredMessage(Locale locale, String key, Object[] args) {
+        this.locale = locale;
+        this.key = key;
+        this.args = args;
+    }
+
+    /**
+     * Returns the key of the translated string.
+     *
+     * @return the key of the translated string.
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Returns the formatted message (in the language of the locale of this
+     * message or of the current locale, if no locale was given).
+     *
+     * @return the formatted message.
+     */
+    public String getMessage() {
+        String result = message;
+        if (result == null) {
+            result = args == null || args.length == 0 ? Translations.i18n(locale, key) : Translations.i18n(locale, key, args);
+            message = result;
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return getMessage();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof DeferredMessage)) {
+            return false;
+        }
+        DeferredMessage other = (DeferredMessage) obj;
+        return key.equals(other.key)
+                && (locale == null ? other.locale == null : locale.equals(other.locale))
+                && Arrays.equals(args, other.args);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * key.hashCode() + Arrays.hashCode(args);
+    }
+}
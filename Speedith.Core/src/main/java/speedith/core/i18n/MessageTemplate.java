@@ -0,0 +1,110 @@
+package speedith.core.i18n;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Formattable;
+
+/**
+ * A translated string that has been split into its literal parts and its
+ * argument slots once, so that formatting it does not parse the format
+ * specification again.
+ * <p>Only the plain {@code %s}, {@code %d}, {@code %n} and {@code %%}
+ * specifiers are precompiled (these are the only ones used by the string
+ * bundles). Strings with any other specifiers, and arguments that {@code %d}
+ * or {@code %s} would not print with {@link String#valueOf(java.lang.Object)},
+ * are formatted with {@link String#format(java.lang.String, java.lang.Object[])}
+ * so that the result is always the same as that of {@code String.format}.</p>
+ * <p>Instances of this class are immutable.</p>
+ */
+final class MessageTemplate {
+
+    private static final char StringSlot = 's';
+    private static final char IntegerSlot = 'd';
+
+    private final String pattern;
+    /**
+     * The literal parts of the pattern ({@code parts.length == slots.length + 1})
+     * or {@code null} if the pattern could not be precompiled.
+     */
+    private final String[] parts;
+    private final char[] slots;
+
+    MessageTemplate(String pattern) {
+        this.pattern = pattern;
+        ArrayList<String> literalParts = new ArrayList<>();
+        StringBuilder slotTypes = new StringBuilder();
+        StringBuilder part = new StringBuilder();
+        boolean precompiled = true;
+        for (int i = 0; i < pattern.length() && precompiled; i++) {
+            char c = pattern.charAt(i);
+            if (c != '%') {
+                part.append(c);
+            } else if (i + 1 >= pattern.length()) {
+                precompiled = false;
+            } else {
+                char conversion = pattern.charAt(++i);
+                switch (conversion) {
+                    case '%':
+                        part.append('%');
+                        break;
+                    case 'n':
+                        part.append(System.lineSeparator());
+                        break;
+                    case StringSlot:
+                    case IntegerSlot:
+                        literalParts.add(part.toString());
+                        part.setLength(0);
+                        slotTypes.append(conversion);
+                        break;
+                    default:
+                        precompiled = false;
+                }
+            }
+        }
+        literalParts.add(part.toString());
+        this.parts = precompiled ? literalParts.toArray(new String[literalParts.size()]) : null;
+        this.slots = precompiled ? slotTypes.toString().toCharArray() : null;
+    }
+
+    /**
+     * Returns the translated string as it is (without formatting).
+     *
+     * @return the translated string.
+     */
+    String getPattern() {
+        return pattern;
+    }
+
+    /**
+     * Returns the same string as {@code String.format(getPattern(), args)}.
+     *
+     * @param args the arguments to the formatted string.
+     * @return the formatted string.
+     */
+    String format(Object... args) {
+        if (!canFormat(args)) {
+            return String.format(pattern, args);
+        }
+        StringBuilder sb = new StringBuilder(pattern.length() + 16 * slots.length);
+        sb.append(parts[0]);
+        for (int i = 0; i < slots.length; i++) {
+            sb.append(String.valueOf(args[i])).append(parts[i + 1]);
+        }
+        return sb.toString();
+    }
+
+    private boolean canFormat(Object[] args) {
+        if (parts == null || args == null || args.length < slots.length) {
+            return false;
+        }
+        for (int i = 0; i < slots.length; i++) {
+            Object arg = args[i];
+            if (slots[i] == IntegerSlot
+                    ? !(arg == null || arg instanceof Integer || arg instanceof Long || arg instanceof Short || arg instanceof Byte || arg instanceof BigInteger)
+                    : arg instanceof Formattable) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -27,6 +27,8 @@
 package speedith.core.i18n;
 
 import java.util.Locale;
+import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * This class provides translated strings for Speedith Core library.
@@ -37,6 +39,11 @@ import java.util.Locale;
  * {@code i18n("STRING_RESOURCE_KEY"); }
  * <p>Additional strings can be added to the {@code "speedith/core/i18n/strings"}
  * bundle (see {@link speedith.core.i18n.Translations#StringsBundle}).</p>
+ * <p>Translated strings are cached per locale and their format specifications
+ * are parsed only once. Messages of exceptions that are often thrown and
+ * caught should be {@link Translations#deferredI18n(java.lang.String,
+ * java.lang.Object[]) deferred}, so that they are formatted only if they are
+ * displayed.</p>
  * @author Matej Urbas [matej.urbas@gmail.com]
  */
 public final class Translations {
@@ -52,6 +59,14 @@ public final class Translations {
     public static final String StringsBundle = "speedith/core/i18n/strings";
     // </editor-fold>
 
+    // <editor-fold defaultstate="collapsed" desc="Fields">
+    /**
+     * The precompiled translated strings (keyed by the locale and the key of
+     * the string).
+     */
+    private static final ConcurrentHashMap<Locale, ConcurrentHashMap<String, MessageTemplate>> templates = new ConcurrentHashMap<>();
+    // </editor-fold>
+
     // <editor-fold defaultstate="collapsed" desc="Translated Strings">
     /**
      * Returns a string in the language of the current locale.
@@ -61,7 +76,7 @@ public final class Translations {
      * @return a string in the language of the current locale.
      */
     public static String i18n(String key) {
-        return java.util.ResourceBundle.getBundle(StringsBundle).getString(key);
+        return getTemplate(Locale.getDefault(), key).getPattern();
     }
 
     /**
@@ -73,7 +88,7 @@ public final class Translations {
      * @return a string in the language of the current locale.
      */
     public static String i18n(String key, Object... args) {
-        return String.format(java.util.ResourceBundle.getBundle(StringsBundle).getString(key), args);
+        return getTemplate(Locale.getDefault(), key).format(args);
     }
 
     /**
@@ -88,7 +103,7 @@ public final class Translations {
         if (locale == null) {
             return i18n(key);
         } else {
-            return java.util.ResourceBundle.getBundle(StringsBundle, locale).getString(key);
+            return getTemplate(locale, key).getPattern();
         }
     }
 
@@ -105,8 +120,42 @@ public final class Translations {
         if (locale == null) {
             return i18n(key, args);
         } else {
-            return String.format(java.util.ResourceBundle.getBundle(StringsBundle, locale).getString(key), args);
+            return getTemplate(locale, key).format(args);
+        }
+    }
+
+    /**
+     * Returns a message that will be looked up and formatted (in the language
+     * of the locale that is current at that time) only when it is {@link
+     * DeferredMessage#getMessage() requested}.
+     * @param key the key of the <a href="http://download.oracle.com/javase/6/docs/api/java/util/Formatter.html#syntax">format specification string</a> to fetch.
+     * @param args the arguments to the formatted string (the same as arguments to {@link String#format(java.lang.String, java.lang.Object[])}).
+     * @return a deferred message.
+     */
+    public static DeferredMessage deferredI18n(String key, Object... args) {
+        if (key == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "key"));
+        }
+        return new DeferredMessage(null, key, args);
+    }
+    // </editor-fold>
+
+    // <editor-fold defaultstate="collapsed" desc="Private Helper Methods">
+    private static MessageTemplate getTemplate(Locale locale, String key) {
+        ConcurrentHashMap<String, MessageTemplate> localeTemplates = templates.get(locale);
+        if (localeTemplates == null) {
+            localeTemplates = new ConcurrentHashMap<>();
+            ConcurrentHashMap<String, MessageTemplate> existing = templates.putIfAbsent(locale, localeTemplates);
+            if (existing != null) {
+                localeTemplates = existing;
+            }
+        }
+        MessageTemplate template = localeTemplates.get(key);
+        if (template == null) {
+            template = new MessageTemplate(ResourceBundle.getBundle(StringsBundle, locale).getString(key));
+            localeTemplates.put(key, template);
         }
+        return template;
     }
     // </editor-fold>
-}
\ No newline at end of file
+}
@@ -0,0 +1,207 @@
+package speedith.core.lang;
+
+import java.util.*;
+
+import static speedith.core.i18n.Translations.i18n;
+
+/**
+ * A flattened, n-ary view of a chain of nested compound spider diagrams that
+ * all use the same {@link Operator#isAssociative() associative} operator.
+ * <p>For example, the diagram {@code (A & (B & C)) & D} is viewed as a single
+ * conjunction of the operands {@code A}, {@code B}, {@code C} and {@code D}
+ * (in this order).</p>
+ * <p>Compound spider diagrams themselves stay binary. This view merely
+ * flattens a chain once (without recursion, so chains may be arbitrarily deep)
+ * and remembers where each operand lies in the binary tree. The {@link
+ * AssociativeChain#getOperandSubDiagramOffset(int) sub-diagram offsets} of
+ * operands are relative to the {@link AssociativeChain#getDiagram() root of the
+ * chain} and map directly to sub-diagram indices in the binary view.</p>
+ * <p>Use {@link AssociativeChain#toBinaryDiagram(Operator, java.util.List)} to
+ * build a (right-nested) binary diagram from a flat list of operands.</p>
+ * <p>Instances of this class are immutable.</p>
+ */
+public class AssociativeChain {
+
+  private final CompoundSpiderDiagram diagram;
+  private final ArrayList<SpiderDiagram> operands;
+  private final int[] operandOffsets;
+
+  private AssociativeChain(CompoundSpiderDiagram diagram, ArrayList<SpiderDiagram> operands, int[] operandOffsets) {
+    this.diagram = diagram;
+    this.operands = operands;
+    this.operandOffsets = operandOffsets;
+  }
+
+  /**
+   * Flattens the chain of nested compound diagrams with the same operator as
+   * the given diagram.
+   *
+   * @param diagram the root of the chain. Its operator must be associative.
+   * @return the flattened view of the chain.
+   */
+  public static AssociativeChain of(CompoundSpiderDiagram diagram) {
+    if (diagram == null) {
+      throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "diagram"));
+    }
+    if (!diagram.getOperator().isAssociative()) {
+      throw new IllegalArgumentException(i18n("GERR_ILLEGAL_ARGUMENT", "diagram"));
+    }
+    ArrayList<SpiderDiagram> operands = new ArrayList<>();
+    ArrayList<Integer> offsets = new ArrayList<>();
+    ArrayDeque<SpiderDiagram> pending = new ArrayDeque<>();
+    ArrayDeque<Integer> pendingOffsets = new ArrayDeque<>();
+    pending.push(diagram);
+    pendingOffsets.push(0);
+    while (!pending.isEmpty()) {
+      SpiderDiagram current = pending.pop();
+      int offset = pendingOffsets.pop();
+      if (current instanceof CompoundSpiderDiagram && ((CompoundSpiderDiagram) current).getOperator() == diagram.getOperator()) {
+        CompoundSpiderDiagram csd = (CompoundSpiderDiagram) current;
+        // Push the children in reverse, so that they are popped left-to-right.
+        int childOffset = offset + csd.getSubDiagramCount();
+        for (int i = csd.getOperandCount() - 1; i >= 0; i--) {
+          childOffset -= csd.getOperand(i).getSubDiagramCount();
+          pending.push(csd.getOperand(i));
+          pendingOffsets.push(childOffset);
+        }
+      } else {
+        operands.add(current);
+        offsets.add(offset);
+      }
+    }
+    int[] operandOffsets = new int[offsets.size()];
+    for (int i = 0; i < operandOffsets.length; i++) {
+      operandOffsets[i] = offsets.get(i);
+    }
+    return new AssociativeChain(diagram, operands, operandOffsets);
+  }
+
+  /**
+   * Creates a right-nested binary diagram (e.g.: {@code A & (B & (C & D))})
+   * that applies the given associative operator to all the given operands.
+   * <p>If there is only one operand, the operand itself is returned.</p>
+   *
+   * @param operator an associative operator.
+   * @param operands the operands of the chain (at least one).
+   * @return the binary diagram.
+   */
+  public static SpiderDiagram toBinaryDiagram(Operator operator, List<? extends SpiderDiagram> operands) {
+    if (operator == null) {
+      throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "operator"));
+    }
+    if (!operator.isAssociative()) {
+      throw new IllegalArgumentException(i18n("GERR_ILLEGAL_ARGUMENT", "operator"));
+    }
+    if (operands == null || operands.isEmpty()) {
+      throw new IllegalArgumentException(i18n("GERR_EMPTY_ARGUMENT", "operands"));
+    }
+    SpiderDiagram chain = operands.get(operands.size() - 1);
+    for (int i = operands.size() - 2; i >= 0; i--) {
+      chain = SpiderDiagrams.createCompoundSD(operator, operands.get(i), chain);
+    }
+    return chain;
+  }
+
+  /**
+   * Returns the binary diagram at the root of this chain.
+   *
+   * @return the binary diagram at the root of this chain.
+   */
+  public CompoundSpiderDiagram getDiagram() {
+    return diagram;
+  }
+
+  public Operator getOperator() {
+    return diagram.getOperator();
+  }
+
+  public int getOperandCount() {
+    return operands.size();
+  }
+
+  public SpiderDiagram getOperand(int index) {
+    return operands.get(index);
+  }
+
+  /**
+   * Returns the operands of this chain from left to right.
+   *
+   * @return an unmodifiable list of the operands.
+   */
+  public List<SpiderDiagram> getOperands() {
+    return Collections.unmodifiableList(operands);
+  }
+
+  /**
+   * Returns the sub-diagram index of the given operand relative to the root
+   * of the chain (i.e.: {@code getDiagram().getSubDiagramAt(offset)} returns
+   * the operand).
+   *
+   * @param index the index of the operand.
+   * @return the sub-diagram index of the operand relative to the root.
+   */
+  public int getOperandSubDiagramOffset(int index) {
+    if (index < 0 || index >= operandOffsets.length) {
+      throw new IndexOutOfBoundsException();
+    }
+    return operandOffsets[index];
+  }
+
+  /**
+   * Returns the index of the operand that contains the sub-diagram at the
+   * given offset (relative to the root of the chain).
+   *
+   * @param subDiagramOffset the sub-diagram index relative to the root.
+   * @return the index of the operand or {@code -1} if the offset points to
+   * one of the binary nodes of the chain itself (or lies outside of it).
+   */
+  public int indexOfOperandAt(int subDiagramOffset) {
+    int index = Arrays.binarySearch(operandOffsets, subDiagramOffset);
+    if (index >= 0) {
+      return index;
+    }
+    int precedingOperand = -index - 2;
+    if (precedingOperand >= 0 && subDiagramOffset < operandOffsets[precedingOperand] + operands.get(precedingOperand).getSubDiagramCount()) {
+      return precedingOperand;
+    }
+    return -1;
+  }
+
+  /**
+   * Returns a diagram in which only the first of every group of
+   * {@link SpiderDiagram#isSEquivalentTo(speedith.core.lang.SpiderDiagram)
+   * s-equivalent} operands is retained. This is sound, because the operator
+   * is associative, commutative and idempotent.
+   *
+   * @return the root of this chain if there are no duplicate operands, or a
+   * new right-nested binary diagram otherwise.
+   */
+  public SpiderDiagram withoutDuplicateOperands() {
+    ArrayList<SpiderDiagram> uniqueOperands = new ArrayList<>();
+    // Only operands with the same fingerprint can be s-equivalent.
+    HashMap<Integer, ArrayList<SpiderDiagram>> fingerprintBuckets = new HashMap<>();
+    SEquivalenceFingerprints fingerprints = new SEquivalenceFingerprints();
+    for (SpiderDiagram operand : operands) {
+      int fingerprint = fingerprints.get(operand);
+      ArrayList<SpiderDiagram> bucket = fingerprintBuckets.get(fingerprint);
+      if (bucket == null) {
+        bucket = new ArrayList<>(1);
+        fingerprintBuckets.put(fingerprint, bucket);
+      }
+      if (!hasSEquivalent(bucket, operand)) {
+        bucket.add(operand);
+        uniqueOperands.add(operand);
+      }
+    }
+    return uniqueOperands.size() == operands.size() ? diagram : toBinaryDiagram(getOperator(), uniqueOperands);
+  }
+
+  private static boolean hasSEquivalent(ArrayList<SpiderDiagram> diagrams, SpiderDiagram diagram) {
+    for (SpiderDiagram other : diagrams) {
+      if (other.isSEquivalentTo(diagram)) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
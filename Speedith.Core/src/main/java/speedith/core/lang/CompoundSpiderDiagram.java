@@ -31,6 +31,7 @@ import java.util.*;
 
 import static speedith.core.i18n.Translations.i18n;
 
+import speedith.core.metrics.ReasoningEvents;
 import speedith.core.reasoning.args.SubDiagramIndexArg;
 
 /**
@@ -39,7 +40,7 @@ import speedith.core.reasoning.args.SubDiagramIndexArg;
  * conjunction '∧', disjunction '∨', implication '⇒', equivalence '⇔', and
  * negation '¬'.</p> <p>You can construct new compound spider diagrams via the
  * static methods in {@link SpiderDiagrams}.</p> <p>Instances of this class (and
- * its derived classes) are immutable.</p>
+ * its derived classes) are immutable and thread-safe.</p>
  *
  * @author Matej Urbas [matej.urbas@gmail.com]
  */
@@ -81,15 +82,18 @@ public class CompoundSpiderDiagram extends SpiderDiagram {
      * operands}. <p>See {@link Operator#knownOperatorNames()} for a list of all
      * known operators.</p>
      */
-    private Operator operator;
+    private final Operator operator;
     /**
      * A list of operands taken by the {@link CompoundSpiderDiagram#getOperator()
      * operator}.
      */
-    private ArrayList<SpiderDiagram> operands;
-    private boolean hashInvalid = true;
+    private final ArrayList<SpiderDiagram> operands;
+    // 'hash' is published by the volatile write to 'hashComputed'. The count
+    // of sub-diagrams is at least 1, so 0 means that it was not computed yet
+    // (an int is always read and written atomically).
+    private volatile boolean hashComputed;
     private int hash;
-    private int subDiagramCount = -1;
+    private int subDiagramCount;
 
 
     /**
@@ -193,37 +197,67 @@ public class CompoundSpiderDiagram extends SpiderDiagram {
      */
     @Override
     public SpiderDiagram getSubDiagramAt(int index) {
-        if (index == 0) {
-            return this;
-        } else if (index > 0) {
+        if (index < 0) {
+            return null;
+        }
+        SpiderDiagram current = this;
+        while (index > 0 && current instanceof CompoundSpiderDiagram) {
+            // Descend into the operand that contains the sub-diagram.
             --index;
-            for (int i = 0; i < operands.size(); i++) {
-                SpiderDiagram sub = operands.get(i);
+            SpiderDiagram next = null;
+            for (SpiderDiagram sub : ((CompoundSpiderDiagram) current).operands) {
                 int subCount = sub.getSubDiagramCount();
                 if (subCount > index) {
-                    return sub.getSubDiagramAt(index);
+                    next = sub;
+                    break;
                 }
                 index -= subCount;
             }
+            if (next == null) {
+                return null;
+            }
+            current = next;
         }
-        return null;
+        return index == 0 ? current : current.getSubDiagramAt(index);
     }
 
     @Override
     public int getSubDiagramCount() {
-        if (subDiagramCount < 0) {
-            subDiagramCount = 1;
-            for (int i = 0; i < operands.size(); i++) {
-                subDiagramCount += operands.get(i).getSubDiagramCount();
+        int count = subDiagramCount;
+        if (count == 0) {
+            // Compute the counts of nested compound diagrams bottom-up with an
+            // explicit stack (deeply nested diagrams would overflow the call
+            // stack).
+            ArrayList<CompoundSpiderDiagram> stack = new ArrayList<>();
+            stack.add(this);
+            while (!stack.isEmpty()) {
+                CompoundSpiderDiagram current = stack.get(stack.size() - 1);
+                CompoundSpiderDiagram uncountedOperand = null;
+                int currentCount = 1;
+                for (SpiderDiagram operand : current.operands) {
+                    if (operand instanceof CompoundSpiderDiagram && ((CompoundSpiderDiagram) operand).subDiagramCount == 0) {
+                        uncountedOperand = (CompoundSpiderDiagram) operand;
+                        break;
+                    }
+                    currentCount += operand.getSubDiagramCount();
+                }
+                if (uncountedOperand == null) {
+                    current.subDiagramCount = currentCount;
+                    count = currentCount;
+                    stack.remove(stack.size() - 1);
+                } else {
+                    stack.add(uncountedOperand);
+                }
             }
         }
-        return subDiagramCount;
+        return count;
     }
 
     @Override
     public boolean isValid() {
-        for (SpiderDiagram spiderDiagram : operands) {
-            if (!spiderDiagram.isValid()) {
+        // Compound diagrams are valid iff all the unitary diagrams in them are.
+        for (SpiderDiagram subDiagram : this) {
+            if (!(subDiagram instanceof CompoundSpiderDiagram) && !subDiagram.isValid()) {
                 return false;
             }
         }
@@ -235,6 +269,15 @@ public class CompoundSpiderDiagram extends SpiderDiagram {
         if (t == null) {
             throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "t"));
         }
+        if (ReasoningEvents.isEnabled()) {
+            CountingTransformer countingTransformer = new CountingTransformer(t);
+            long start = System.nanoTime();
+            try {
+                return transform(countingTransformer, this, 0, trackParents ? new ArrayList<CompoundSpiderDiagram>() : null, trackParents ? new ArrayList<Integer>() : null);
+            } finally {
+                ReasoningEvents.transformTraversal(t.getClass(), countingTransformer.nodesVisited, System.nanoTime() - start);
+            }
+        }
         return transform(t, this, 0, trackParents ? new ArrayList<CompoundSpiderDiagram>() : null, trackParents ? new ArrayList<Integer>() : null);
     }
 
@@ -243,6 +286,19 @@ public class CompoundSpiderDiagram extends SpiderDiagram {
         if (visitor == null) {
             throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "visitor"));
         }
+        if (ReasoningEvents.isEnabled()) {
+            CountingVisitor<T> countingVisitor = new CountingVisitor<>(visitor);
+            long start = System.nanoTime();
+            try {
+                return __visitRoot(countingVisitor, trackParents);
+            } finally {
+                ReasoningEvents.transformTraversal(visitor.getClass(), countingVisitor.nodesVisited, System.nanoTime() - start);
+            }
+        }
+        return __visitRoot(visitor, trackParents);
+    }
+
+    private <T> T __visitRoot(DiagramVisitor<T> visitor, boolean trackParents) {
         visitor.init(this);
         if (!visitor.isDone()) {
             __visitCompoundSD(
@@ -382,14 +438,31 @@ public class CompoundSpiderDiagram extends SpiderDiagram {
 
     @Override
     public int hashCode() {
-        if (hashInvalid) {
-            hash = operator.hashCode();
-            if (operands != null) {
-                for (SpiderDiagram sd : operands) {
-                    hash += sd.hashCode();
+        if (!hashComputed) {
+            // Compute the hashes of nested compound diagrams bottom-up with an
+            // explicit stack (deeply nested diagrams would overflow the call
+            // stack).
+            ArrayList<CompoundSpiderDiagram> stack = new ArrayList<>();
+            stack.add(this);
+            while (!stack.isEmpty()) {
+                CompoundSpiderDiagram current = stack.get(stack.size() - 1);
+                CompoundSpiderDiagram unhashedOperand = null;
+                int currentHash = current.operator.hashCode();
+                for (SpiderDiagram operand : current.operands) {
+                    if (operand instanceof CompoundSpiderDiagram && !((CompoundSpiderDiagram) operand).hashComputed) {
+                        unhashedOperand = (CompoundSpiderDiagram) operand;
+                        break;
+                    }
+                    currentHash += operand.hashCode();
+                }
+                if (unhashedOperand == null) {
+                    current.hash = currentHash;
+                    current.hashComputed = true;
+                    stack.remove(stack.size() - 1);
+                } else {
+                    stack.add(unhashedOperand);
                 }
             }
-            hashInvalid = false;
         }
         return hash;
     }
@@ -399,12 +472,40 @@ public class CompoundSpiderDiagram extends SpiderDiagram {
         if (sb == null) {
             throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "sb"));
         }
+        // Print nested compound diagrams with an explicit stack of cursors
+        // (deeply nested diagrams would overflow the call stack).
+        ArrayList<CompoundSDIterationCursor> stack = new ArrayList<>();
+        printHeader(sb);
+        stack.add(new CompoundSDIterationCursor(this, 0));
+        while (!stack.isEmpty()) {
+            CompoundSDIterationCursor cursor = stack.get(stack.size() - 1);
+            if (cursor.nextChildIndex < cursor.csd.getOperandCount()) {
+                if (cursor.nextChildIndex > 0) {
+                    sb.append(", ");
+                }
+                SpiderDiagram operand = cursor.csd.getOperand(cursor.nextChildIndex++);
+                sb.append(SDTextArgAttribute).append(Integer.toString(cursor.nextChildIndex)).append(" = ");
+                if (operand instanceof CompoundSpiderDiagram) {
+                    ((CompoundSpiderDiagram) operand).printHeader(sb);
+                    stack.add(new CompoundSDIterationCursor((CompoundSpiderDiagram) operand, 0));
+                } else {
+                    operand.toString(sb);
+                }
+            } else {
+                sb.append('}');
+                stack.remove(stack.size() - 1);
+            }
+        }
+    }
+
+    /**
+     * Prints everything up to the first argument of this compound diagram.
+     */
+    private void printHeader(Appendable sb) throws IOException {
         printId(sb);
         sb.append(" {");
         printOperator(sb);
         sb.append(", ");
-        printArgs(sb);
-        sb.append('}');
     }
 
     private void printId(Appendable sb) throws IOException {
@@ -421,25 +522,11 @@ public class CompoundSpiderDiagram extends SpiderDiagram {
         }
     }
 
-    private void printArg(Appendable sb, int i) throws IOException {
-        sb.append(SDTextArgAttribute).append(Integer.toString(i)).append(" = ");
-        operands.get(i - 1).toString(sb);
-    }
-
     private void printOperator(Appendable sb) throws IOException {
         sb.append(SDTextOperatorAttribute).append(" = ");
         printString(sb, operator.getName());
     }
 
-    private void printArgs(Appendable sb) throws IOException {
-        if (operands.size() > 0) {
-            printArg(sb, 1);
-            for (int i = 2; i <= operands.size(); i++) {
-                printArg(sb.append(", "), i);
-            }
-        }
-    }
-
     @Override
     public String toString() {
         try {
@@ -462,13 +549,120 @@ public class CompoundSpiderDiagram extends SpiderDiagram {
      */
     @SuppressWarnings("AccessingNonPublicFieldOfAnotherObject")
     private boolean __isCsdEqual(CompoundSpiderDiagram other) {
-        return hashCode() == other.hashCode()
-                && getOperator().equals(other.getOperator())
-                && operands.equals(other.operands);
+        // Compare nested compound diagrams pairwise with an explicit stack
+        // (deeply nested diagrams would overflow the call stack).
+        ArrayList<CompoundSpiderDiagram> stack = new ArrayList<>();
+        stack.add(this);
+        stack.add(other);
+        while (!stack.isEmpty()) {
+            CompoundSpiderDiagram otherCsd = stack.remove(stack.size() - 1);
+            CompoundSpiderDiagram thisCsd = stack.remove(stack.size() - 1);
+            if (thisCsd == otherCsd) {
+                continue;
+            }
+            if (thisCsd.hashCode() != otherCsd.hashCode()
+                    || !thisCsd.getOperator().equals(otherCsd.getOperator())
+                    || thisCsd.operands.size() != otherCsd.operands.size()) {
+                return false;
+            }
+            for (int i = 0; i < thisCsd.operands.size(); i++) {
+                SpiderDiagram thisOperand = thisCsd.operands.get(i);
+                SpiderDiagram otherOperand = otherCsd.operands.get(i);
+                if (thisOperand instanceof CompoundSpiderDiagram && otherOperand instanceof CompoundSpiderDiagram) {
+                    stack.add((CompoundSpiderDiagram) thisOperand);
+                    stack.add((CompoundSpiderDiagram) otherOperand);
+                } else if (!thisOperand.equals(otherOperand)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Transforms the given sub-diagram and all its sub-diagrams (the
+     * sub-diagram is at the given index within the whole diagram and has the
+     * given parents). This method never returns {@code null}.
+     */
+    static SpiderDiagram transformSubDiagram(Transformer t, SpiderDiagram sd, int subDiagramIndex, ArrayList<CompoundSpiderDiagram> parents, ArrayList<Integer> childIndices) {
+        SpiderDiagram transformedSD = sd instanceof CompoundSpiderDiagram
+                ? transform(t, (CompoundSpiderDiagram) sd, subDiagramIndex, parents, childIndices)
+                : __applyTransform(sd, t, subDiagramIndex, parents, childIndices, null);
+        return transformedSD == null ? sd : transformedSD;
+    }
+
+    /**
+     * Visits the given sub-diagram and all its sub-diagrams (the sub-diagram
+     * is at the given index within the whole diagram and has the given
+     * parents).
+     */
+    static <T> void visitSubDiagram(DiagramVisitor<T> visitor, SpiderDiagram sd, int subDiagramIndex, ArrayList<CompoundSpiderDiagram> parents, ArrayList<Integer> childIndices, ArrayList<Integer> parentIndices) {
+        if (sd instanceof CompoundSpiderDiagram) {
+            __visitCompoundSD(visitor, (CompoundSpiderDiagram) sd, subDiagramIndex, parents, childIndices, parentIndices);
+        } else {
+            visitor.visit(sd, subDiagramIndex, parents, childIndices, parentIndices);
+        }
     }
 
+    /**
+     * Transforms the given compound diagram and all its sub-diagrams. The
+     * traversal uses an explicit stack of {@link TransformFrame frames} instead
+     * of recursion, so diagrams of any depth can be transformed.
+     */
     @SuppressWarnings("AccessingNonPublicFieldOfAnotherObject")
-    private static SpiderDiagram transform(Transformer t, CompoundSpiderDiagram curSD, int subDiagramIndex, ArrayList<CompoundSpiderDiagram> parents, ArrayList<Integer> childIndices) {
+    private static SpiderDiagram transform(Transformer t, CompoundSpiderDiagram root, int rootSubDiagramIndex, ArrayList<CompoundSpiderDiagram> parents, ArrayList<Integer> childIndices) {
+        ArrayList<TransformFrame> stack = new ArrayList<>();
+        SpiderDiagram transformedSD = __enterCompoundSD(t, root, rootSubDiagramIndex, parents, childIndices, stack);
+        while (!stack.isEmpty()) {
+            TransformFrame frame = stack.get(stack.size() - 1);
+            if (frame.childPending) {
+                // The child at the current index has just been transformed.
+                popChildIndex(childIndices);
+                frame.childPending = false;
+                SpiderDiagram childSD = frame.csd.operands.get(frame.childIndex);
+                // If the child was actually transformed, put it into the list
+                // of transformed children.
+                if (transformedSD != null && !transformedSD.equals(childSD)) {
+                    if (frame.transformedChildren == null) {
+                        frame.transformedChildren = new ArrayList<>(frame.csd.operands);
+                    }
+                    frame.transformedChildren.set(frame.childIndex, transformedSD);
+                }
+                // If the transformer indicates it's finished, stop the
+                // traversal. Otherwise, the next child's sub-diagram index is
+                // increased by the number of sub-diagrams in the previous
+                // child.
+                if (t.isDone()) {
+                    frame.childIndex = frame.csd.operands.size();
+                } else {
+                    frame.subDiagramIndex += childSD.getSubDiagramCount();
+                    ++frame.childIndex;
+                }
+            }
+            if (frame.childIndex < frame.csd.operands.size()) {
+                SpiderDiagram childSD = frame.csd.operands.get(frame.childIndex);
+                pushChildIndex(childIndices, frame.childIndex);
+                frame.childPending = true;
+                transformedSD = __applyTransform(childSD, t, frame.subDiagramIndex + 1, parents, childIndices, stack);
+            } else {
+                // All children have been traversed. Did any of them change? If
+                // none changed, we must return the unchanged diagram. But if at
+                // least one changed, we have to create a new one.
+                popParent(parents);
+                stack.remove(stack.size() - 1);
+                transformedSD = frame.transformedChildren == null ? frame.csd : SpiderDiagrams.createCompoundSD(frame.csd.getOperator(), frame.transformedChildren, false);
+            }
+        }
+        return transformedSD;
+    }
+
+    /**
+     * Passes the compound diagram to the transformer. This method returns the
+     * transformed diagram if the traversal should not descend into the
+     * diagram. Otherwise it pushes a new frame onto the stack (the children
+     * will be traversed next) and returns {@code null}.
+     */
+    private static SpiderDiagram __enterCompoundSD(Transformer t, CompoundSpiderDiagram curSD, int subDiagramIndex, ArrayList<CompoundSpiderDiagram> parents, ArrayList<Integer> childIndices, ArrayList<TransformFrame> stack) {
         // Try to transform this sub-diagram.
         SpiderDiagram transformedSD = t.transform(curSD, subDiagramIndex, parents, childIndices);
         // What did the transformer return? Is it done yet?
@@ -484,42 +678,8 @@ public class CompoundSpiderDiagram extends SpiderDiagram {
             return curSD;
         } else {
             pushParent(parents, curSD);
-            // This array will hold the children (if at least one of them was
-            // transformed).
-            ArrayList<SpiderDiagram> transformedChildren = null;
-            // Now traverse all the children:
-            for (int childIndex = 0; childIndex < curSD.operands.size(); ++childIndex) {
-                SpiderDiagram childSD = curSD.operands.get(childIndex);
-
-                // Transform the child
-                pushChildIndex(childIndices, childIndex);
-                transformedSD = __applyTransform(childSD, t, subDiagramIndex + 1, parents, childIndices);
-                popChildIndex(childIndices);
-
-                // If the child was actually transformed, put it into the list
-                // of transformed children.
-                if (transformedSD != null && !transformedSD.equals(childSD)) {
-                    if (transformedChildren == null) {
-                        transformedChildren = new ArrayList<SpiderDiagram>(curSD.operands);
-                    }
-                    transformedChildren.set(childIndex, transformedSD);
-                }
-                // If the transformed indicates it's finished. Stop the
-                // traversal.
-                if (t.isDone()) {
-                    break;
-                }
-                // When continuing to the next child, we have to increase its
-                // sub diagram index by the number of sub-diagrams in the
-                // previous child. The child index, however, is incremented by
-                // one only (naturally).
-                subDiagramIndex += childSD.getSubDiagramCount();
-            }
-            popParent(parents);
-            // Did any of the children change? If none changed, we must return
-            // the unchanged diagram. But if at least one changed, we have to
-            // create a new one.
-            return transformedChildren == null ? curSD : SpiderDiagrams.createCompoundSD(curSD.getOperator(), transformedChildren, false);
+            stack.add(new TransformFrame(curSD, subDiagramIndex));
+            return null;
         }
     }
 
@@ -527,9 +687,9 @@ public class CompoundSpiderDiagram extends SpiderDiagram {
      * Applies the transformer on the given spider diagram based on the type of
      * the spider diagram.
      */
-    private static SpiderDiagram __applyTransform(SpiderDiagram sd, Transformer t, int subDiagramIndex, ArrayList<CompoundSpiderDiagram> parents, ArrayList<Integer> childIndices) {
+    private static SpiderDiagram __applyTransform(SpiderDiagram sd, Transformer t, int subDiagramIndex, ArrayList<CompoundSpiderDiagram> parents, ArrayList<Integer> childIndices, ArrayList<TransformFrame> stack) {
         if (sd instanceof CompoundSpiderDiagram) {
-            return transform(t, (CompoundSpiderDiagram) sd, subDiagramIndex, parents, childIndices);
+            return __enterCompoundSD(t, (CompoundSpiderDiagram) sd, subDiagramIndex, parents, childIndices, stack);
         } else if (sd instanceof PrimarySpiderDiagram) {
             return t.transform((PrimarySpiderDiagram) sd, subDiagramIndex, parents, childIndices);
         } else {
@@ -538,46 +698,62 @@ public class CompoundSpiderDiagram extends SpiderDiagram {
     }
 
     /**
-     * Applies the visit function of the visitor on the given spider diagram.
-     * This method returns {@code true} if and only if the visitor is done and
-     * no further calls to visit must be made.
+     * Applies the visit function of the visitor on the given spider diagram and
+     * all its sub-diagrams (in the order of their sub-diagram indices). The
+     * traversal uses an explicit stack of cursors instead of recursion, so
+     * diagrams of any depth can be visited. This method returns {@code true}
+     * if and only if the visitor is done and no further calls to visit must be
+     * made.
      */
-    private static <T> boolean __visitCompoundSD(DiagramVisitor<T> visitor, CompoundSpiderDiagram curSD, int subDiagramIndex, ArrayList<CompoundSpiderDiagram> parents, ArrayList<Integer> childIndices, ArrayList<Integer> parentIndices) {
-        // Visit the current spider diagram.
-        visitor.visit(curSD, subDiagramIndex, parents, childIndices, parentIndices);
-
-        // Now visit the child spider diagrams, if it is not finished yet
-        // and if there are actually any child spider diagrams.
-        if (curSD.getOperandCount() > 0 && !visitor.isDone()) {
-            pushParent(parents, curSD);
-            pushParentIndex(parentIndices, subDiagramIndex);
-
-            subDiagramIndex++;
-
-            // Visit all the children.
-            for (int childIndex = 0; childIndex < curSD.operands.size(); ++childIndex) {
-                SpiderDiagram childSD = curSD.operands.get(childIndex);
-                int subDiagramCount = childSD.getSubDiagramCount();
-                // Apply the visitor to the current spider diagram and return
-                // if it's finished.
-                pushChildIndex(childIndices, childIndex);
-                final boolean visitResult = __visitSD(childSD, visitor, subDiagramIndex, parents, childIndices, parentIndices);
-                popChildIndex(childIndices);
-                if (visitResult) {
-                    return true;
-                }
+    private static <T> boolean __visitCompoundSD(DiagramVisitor<T> visitor, CompoundSpiderDiagram root, int rootSubDiagramIndex, ArrayList<CompoundSpiderDiagram> parents, ArrayList<Integer> childIndices, ArrayList<Integer> parentIndices) {
+        ArrayList<VisitFrame> stack = new ArrayList<>();
+        // Visit the root spider diagram.
+        visitor.visit(root, rootSubDiagramIndex, parents, childIndices, parentIndices);
+        if (!visitor.isDone()) {
+            __enterVisitedCompoundSD(root, rootSubDiagramIndex, parents, parentIndices, stack);
+        }
+        while (!stack.isEmpty() && !visitor.isDone()) {
+            VisitFrame frame = stack.get(stack.size() - 1);
+            if (frame.nextChildIndex < frame.csd.getOperandCount()) {
+                int childIndex = frame.nextChildIndex++;
+                SpiderDiagram childSD = frame.csd.operands.get(childIndex);
+                int subDiagramIndex = frame.nextSubDiagramIndex;
                 // When continuing to the next child, we have to increase its
                 // sub diagram index by the number of sub-diagrams in the
                 // previous child. The child index, however, is incremented by
                 // one only (naturally).
-                subDiagramIndex += subDiagramCount;
+                frame.nextSubDiagramIndex += childSD.getSubDiagramCount();
+                pushChildIndex(childIndices, childIndex);
+                visitor.visit(childSD, subDiagramIndex, parents, childIndices, parentIndices);
+                if (visitor.isDone()) {
+                    return true;
+                }
+                if (childSD instanceof CompoundSpiderDiagram && ((CompoundSpiderDiagram) childSD).getOperandCount() > 0) {
+                    // The child index is popped when the child's frame is.
+                    __enterVisitedCompoundSD((CompoundSpiderDiagram) childSD, subDiagramIndex, parents, parentIndices, stack);
+                } else {
+                    popChildIndex(childIndices);
+                }
+            } else {
+                popParent(parents);
+                popParentIndex(parentIndices);
+                stack.remove(stack.size() - 1);
+                if (!stack.isEmpty()) {
+                    popChildIndex(childIndices);
+                }
             }
-            popParent(parents);
-            popParentIndex(parentIndices);
         }
         return visitor.isDone();
     }
 
+    private static void __enterVisitedCompoundSD(CompoundSpiderDiagram curSD, int subDiagramIndex, ArrayList<CompoundSpiderDiagram> parents, ArrayList<Integer> parentIndices, ArrayList<VisitFrame> stack) {
+        if (curSD.getOperandCount() > 0) {
+            pushParent(parents, curSD);
+            pushParentIndex(parentIndices, subDiagramIndex);
+            stack.add(new VisitFrame(curSD, subDiagramIndex + 1));
+        }
+    }
+
     private static void popParentIndex(ArrayList<Integer> parentIndices) {
         if (parentIndices != null) {
             parentIndices.remove(parentIndices.size() - 1);
@@ -590,20 +766,6 @@ public class CompoundSpiderDiagram extends SpiderDiagram {
         }
     }
 
-    /**
-     * Applies the visit function of the visitor on the given spider diagram.
-     * This method returns {@code true} if and only if the visitor is done and
-     * no further calls to visit must be made.
-     */
-    private static <T> boolean __visitSD(SpiderDiagram sd, DiagramVisitor<T> visitor, int subDiagramIndex, ArrayList<CompoundSpiderDiagram> parents, ArrayList<Integer> childIndices, ArrayList<Integer> parentIndices) {
-        if (sd instanceof CompoundSpiderDiagram) {
-            return __visitCompoundSD(visitor, (CompoundSpiderDiagram) sd, subDiagramIndex, parents, childIndices, parentIndices);
-        } else {
-            visitor.visit(sd, subDiagramIndex, parents, childIndices, parentIndices);
-            return visitor.isDone();
-        }
-    }
-
     /**
      * Compares the operands of this and the other compound diagram. <p>This
      * method returns {@code true} iff they have the same number of operands and
@@ -651,4 +813,124 @@ public class CompoundSpiderDiagram extends SpiderDiagram {
             childIndices.remove(childIndices.size() - 1);
         }
     }
+
+    /**
+     * The state of the traversal of a compound diagram's children in
+     * {@link CompoundSpiderDiagram#transform(speedith.core.lang.Transformer, speedith.core.lang.CompoundSpiderDiagram, int, java.util.ArrayList, java.util.ArrayList)}.
+     */
+    private static class TransformFrame {
+
+        final CompoundSpiderDiagram csd;
+        /**
+         * The sub-diagram index of the current child minus one.
+         */
+        int subDiagramIndex;
+        int childIndex;
+        /**
+         * Indicates that the current child is being transformed.
+         */
+        boolean childPending;
+        /**
+         * The children (if at least one of them was transformed).
+         */
+        ArrayList<SpiderDiagram> transformedChildren;
+
+        TransformFrame(CompoundSpiderDiagram csd, int subDiagramIndex) {
+            this.csd = csd;
+            this.subDiagramIndex = subDiagramIndex;
+        }
+    }
+
+    /**
+     * The state of the traversal of a compound diagram's children in
+     * {@link CompoundSpiderDiagram#__visitCompoundSD(speedith.core.lang.DiagramVisitor, speedith.core.lang.CompoundSpiderDiagram, int, java.util.ArrayList, java.util.ArrayList, java.util.ArrayList)}.
+     */
+    private static class VisitFrame {
+
+        final CompoundSpiderDiagram csd;
+        int nextChildIndex;
+        int nextSubDiagramIndex;
+
+        VisitFrame(CompoundSpiderDiagram csd, int nextSubDiagramIndex) {
+            this.csd = csd;
+            this.nextSubDiagramIndex = nextSubDiagramIndex;
+        }
+    }
+
+    /**
+     * Counts the sub-diagrams passed to the wrapped transformer (used only when
+     * {@link ReasoningEvents reasoning events} are enabled).
+     */
+    private static class CountingTransformer implements Transformer {
+
+        private final Transformer transformer;
+        private int nodesVisited;
+
+        CountingTransformer(Transformer transformer) {
+            this.transformer = transformer;
+        }
+
+        @Override
+        public SpiderDiagram transform(PrimarySpiderDiagram sd, int diagramIndex, ArrayList<CompoundSpiderDiagram> parents, ArrayList<Integer> childIndices) {
+            ++nodesVisited;
+            return transformer.transform(sd, diagramIndex, parents, childIndices);
+        }
+
+        @Override
+        public SpiderDiagram transform(NullSpiderDiagram sd, int diagramIndex, ArrayList<CompoundSpiderDiagram> parents, ArrayList<Integer> childIndices) {
+            ++nodesVisited;
+            return transformer.transform(sd, diagramIndex, parents, childIndices);
+        }
+
+        @Override
+        public SpiderDiagram transform(CompoundSpiderDiagram sd, int diagramIndex, ArrayList<CompoundSpiderDiagram> parents, ArrayList<Integer> childIndices) {
+            ++nodesVisited;
+            return transformer.transform(sd, diagramIndex, parents, childIndices);
+        }
+
+        @Override
+        public boolean isDone() {
+            return transformer.isDone();
+        }
+    }
+
+    /**
+     * Counts the sub-diagrams passed to the wrapped visitor (used only when
+     * {@link ReasoningEvents reasoning events} are enabled).
+     */
+    private static class CountingVisitor<T> implements DiagramVisitor<T> {
+
+        private final DiagramVisitor<T> visitor;
+        private int nodesVisited;
+
+        CountingVisitor(DiagramVisitor<T> visitor) {
+            this.visitor = visitor;
+        }
+
+        @Override
+        public void init(SpiderDiagram root) {
+            visitor.init(root);
+        }
+
+        @Override
+        public void end() {
+            visitor.end();
+        }
+
+        @Override
+        public void visit(SpiderDiagram subDiagram, int subDiagramIndex, ArrayList<CompoundSpiderDiagram> parents, ArrayList<Integer> childIndices, ArrayList<Integer> parentIndices) {
+            ++nodesVisited;
+            visitor.visit(subDiagram, subDiagramIndex, parents, childIndices, parentIndices);
+        }
+
+        @Override
+        public boolean isDone() {
+            return visitor.isDone();
+        }
+
+        @Override
+        public T getResult() {
+            return visitor.getResult();
+        }
+    }
 }
@@ -134,6 +134,18 @@ public enum Operator {
     return arity;
   }
 
+  /**
+   * Indicates whether nested applications of this operator may be regrouped
+   * freely (e.g.: {@code (A & B) & C} is equivalent to {@code A & (B & C)}).
+   * <p>Chains of associative operators can be viewed as a single n-ary node
+   * through {@link AssociativeChain}.</p>
+   *
+   * @return {@code true} iff this operator is associative.
+   */
+  public boolean isAssociative() {
+    return this == Conjunction || this == Disjunction;
+  }
+
   /**
    * Returns the name of the operator.
    *
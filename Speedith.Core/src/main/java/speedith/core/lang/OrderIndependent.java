@@ -0,0 +1,14 @@
+package speedith.core.lang;
+
+/**
+ * Marks a {@link Transformer} or a {@link DiagramVisitor} that does not depend
+ * on the order in which sub-diagrams are traversed and that may be called from
+ * several threads at the same time.
+ * <p>Only such transformers and visitors are traversed in parallel by
+ * {@link ParallelTraversal}. Their {@link Transformer#isDone()} (or
+ * {@link DiagramVisitor#isDone()}) is still honoured, but sub-diagrams that are
+ * being traversed concurrently may be passed to them after they report being
+ * done.</p>
+ */
+public interface OrderIndependent {
+}
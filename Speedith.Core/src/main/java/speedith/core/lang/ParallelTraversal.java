@@ -0,0 +1,454 @@
+package speedith.core.lang;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import static speedith.core.i18n.Translations.i18n;
+
+/**
+ * Transforms and visits wide compound spider diagrams on a fork-join pool.
+ * <p>The diagram is split into sub-diagrams that are traversed in parallel:
+ * every compound sub-diagram with at least {@code threshold} sub-diagrams is
+ * passed to the transformer (or visitor) on the calling thread and its
+ * operands are split further. All smaller sub-diagrams are traversed
+ * sequentially in fork-join tasks. Transformed operands are finally put back
+ * together (bottom-up) through the {@link SpiderDiagrams spider diagram
+ * pool}, so the result is the same diagram instance as the one obtained by
+ * the sequential traversal.</p>
+ * <p>Only transformers and visitors that implement {@link OrderIndependent}
+ * are traversed in parallel. All others (as well as diagrams smaller than the
+ * threshold) are traversed sequentially through
+ * {@link SpiderDiagram#transform(speedith.core.lang.Transformer, boolean)} and
+ * {@link SpiderDiagram#visit(speedith.core.lang.DiagramVisitor, boolean)}.</p>
+ */
+public final class ParallelTraversal {
+
+  /**
+   * The default number of sub-diagrams at which a compound diagram is split
+   * into parallel tasks.
+   */
+  public static final int DefaultThreshold = 64;
+
+  private ParallelTraversal() {
+  }
+
+  /**
+   * Transforms the diagram on the shared fork-join pool with the
+   * {@link ParallelTraversal#DefaultThreshold default threshold}.
+   *
+   * @param sd           the diagram to transform.
+   * @param t            the transformer.
+   * @param trackParents indicates whether the parents of the visited
+   *                     sub-diagrams should be tracked.
+   * @return the transformed diagram.
+   */
+  public static SpiderDiagram transform(SpiderDiagram sd, Transformer t, boolean trackParents) {
+    return transform(sd, t, trackParents, PoolHolder.Pool, DefaultThreshold);
+  }
+
+  /**
+   * Transforms the diagram on the given fork-join pool.
+   *
+   * @param sd           the diagram to transform.
+   * @param t            the transformer.
+   * @param trackParents indicates whether the parents of the visited
+   *                     sub-diagrams should be tracked.
+   * @param pool         the pool that runs the parallel tasks.
+   * @param threshold    the number of sub-diagrams at which a compound
+   *                     diagram is split into parallel tasks.
+   * @return the transformed diagram.
+   */
+  public static SpiderDiagram transform(SpiderDiagram sd, Transformer t, boolean trackParents, ForkJoinPool pool, int threshold) {
+    checkArguments(sd, t, "t", pool, threshold);
+    if (!(t instanceof OrderIndependent) || !(sd instanceof CompoundSpiderDiagram) || sd.getSubDiagramCount() < threshold) {
+      return sd.transform(t, trackParents);
+    }
+    Split split = new Split(t, null, threshold, trackParents);
+    split.split((CompoundSpiderDiagram) sd);
+    split.traverse(pool);
+    return split.join();
+  }
+
+  /**
+   * Visits the diagram on the shared fork-join pool with the
+   * {@link ParallelTraversal#DefaultThreshold default threshold}.
+   *
+   * @param <T>          the type of the result produced by the visitor.
+   * @param sd           the diagram to visit.
+   * @param visitor      the visitor.
+   * @param trackParents indicates whether the parents of the visited
+   *                     sub-diagrams should be tracked.
+   * @return the result produced by the visitor.
+   */
+  public static <T> T visit(SpiderDiagram sd, DiagramVisitor<T> visitor, boolean trackParents) {
+    return visit(sd, visitor, trackParents, PoolHolder.Pool, DefaultThreshold);
+  }
+
+  /**
+   * Visits the diagram on the given fork-join pool.
+   *
+   * @param <T>          the type of the result produced by the visitor.
+   * @param sd           the diagram to visit.
+   * @param visitor      the visitor.
+   * @param trackParents indicates whether the parents of the visited
+   *                     sub-diagrams should be tracked.
+   * @param pool         the pool that runs the parallel tasks.
+   * @param threshold    the number of sub-diagrams at which a compound
+   *                     diagram is split into parallel tasks.
+   * @return the result produced by the visitor.
+   */
+  public static <T> T visit(SpiderDiagram sd, DiagramVisitor<T> visitor, boolean trackParents, ForkJoinPool pool, int threshold) {
+    checkArguments(sd, visitor, "visitor", pool, threshold);
+    if (!(visitor instanceof OrderIndependent) || !(sd instanceof CompoundSpiderDiagram) || sd.getSubDiagramCount() < threshold) {
+      return sd.visit(visitor, trackParents);
+    }
+    visitor.init(sd);
+    if (!visitor.isDone()) {
+      Split split = new Split(null, visitor, threshold, trackParents);
+      split.split((CompoundSpiderDiagram) sd);
+      split.traverse(pool);
+    }
+    visitor.end();
+    return visitor.getResult();
+  }
+
+  private static void checkArguments(SpiderDiagram sd, Object traverser, String traverserName, ForkJoinPool pool, int threshold) {
+    if (sd == null) {
+      throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "sd"));
+    }
+    if (traverser == null) {
+      throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", traverserName));
+    }
+    if (pool == null) {
+      throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "pool"));
+    }
+    if (threshold < 1) {
+      throw new IllegalArgumentException(i18n("GERR_ILLEGAL_ARGUMENT", "threshold"));
+    }
+  }
+
+  /**
+   * The large compound diagrams at the top of the traversed diagram (the
+   * {@link SplitNode nodes}) and the smaller sub-diagrams below them (the
+   * {@link SubDiagramTask tasks}).
+   */
+  private static class Split {
+
+    private final Transformer transformer;
+    private final DiagramVisitor<?> visitor;
+    private final int threshold;
+    private final boolean trackParents;
+    /**
+     * The path to the compound diagram that is currently being split (only
+     * the calling thread uses these lists).
+     */
+    private final ArrayList<CompoundSpiderDiagram> parents;
+    private final ArrayList<Integer> childIndices;
+    private final ArrayList<Integer> parentIndices;
+    /**
+     * The nodes in the order in which they were entered (parents before
+     * their children).
+     */
+    private final ArrayList<SplitNode> nodes = new ArrayList<>();
+    private final ArrayList<SubDiagramTask> tasks = new ArrayList<>();
+
+    Split(Transformer transformer, DiagramVisitor<?> visitor, int threshold, boolean trackParents) {
+      this.transformer = transformer;
+      this.visitor = visitor;
+      this.threshold = threshold;
+      this.trackParents = trackParents;
+      this.parents = trackParents ? new ArrayList<CompoundSpiderDiagram>() : null;
+      this.childIndices = trackParents ? new ArrayList<Integer>() : null;
+      this.parentIndices = trackParents && visitor != null ? new ArrayList<Integer>() : null;
+    }
+
+    /**
+     * Walks the large compound diagrams (without recursion) and collects the
+     * smaller sub-diagrams into tasks.
+     */
+    void split(CompoundSpiderDiagram root) {
+      ArrayList<SplitNode> stack = new ArrayList<>();
+      enter(root, 0, null, -1, stack);
+      while (!stack.isEmpty() && !isDone()) {
+        SplitNode node = stack.get(stack.size() - 1);
+        if (node.nextChildIndex < node.csd.getOperandCount()) {
+          int childIndex = node.nextChildIndex++;
+          SpiderDiagram childSD = node.csd.getOperand(childIndex);
+          int subDiagramIndex = node.nextSubDiagramIndex;
+          node.nextSubDiagramIndex += childSD.getSubDiagramCount();
+          push(childIndices, childIndex);
+          if (childSD instanceof CompoundSpiderDiagram && childSD.getSubDiagramCount() >= threshold) {
+            // The child index is popped when the child's node is left.
+            if (!enter((CompoundSpiderDiagram) childSD, subDiagramIndex, node, childIndex, stack)) {
+              pop(childIndices);
+            }
+          } else {
+            tasks.add(new SubDiagramTask(childSD, subDiagramIndex, node, childIndex));
+            pop(childIndices);
+          }
+        } else {
+          stack.remove(stack.size() - 1);
+          pop(parents);
+          pop(parentIndices);
+          if (!stack.isEmpty()) {
+            pop(childIndices);
+          }
+        }
+      }
+    }
+
+    /**
+     * Passes the large compound diagram to the transformer (or visitor) and
+     * returns {@code true} iff its operands should be split further.
+     */
+    private boolean enter(CompoundSpiderDiagram csd, int subDiagramIndex, SplitNode parentNode, int childIndex, ArrayList<SplitNode> stack) {
+      SplitNode node = new SplitNode(csd, subDiagramIndex, parentNode, childIndex);
+      nodes.add(node);
+      if (transformer != null) {
+        node.replacement = transformer.transform(csd, subDiagramIndex, parents, childIndices);
+        if (node.replacement == null && transformer.isDone()) {
+          node.replacement = csd;
+        }
+        if (node.replacement != null) {
+          return false;
+        }
+      } else {
+        visitor.visit(csd, subDiagramIndex, parents, childIndices, parentIndices);
+        if (visitor.isDone()) {
+          return false;
+        }
+      }
+      push(parents, csd);
+      push(parentIndices, subDiagramIndex);
+      stack.add(node);
+      return true;
+    }
+
+    private boolean isDone() {
+      return transformer != null ? transformer.isDone() : visitor.isDone();
+    }
+
+    void traverse(ForkJoinPool pool) {
+      if (tasks.isEmpty()) {
+        return;
+      }
+      long[] weights = new long[tasks.size() + 1];
+      for (int i = 0; i < tasks.size(); i++) {
+        weights[i + 1] = weights[i] + tasks.get(i).sd.getSubDiagramCount();
+      }
+      pool.invoke(new TasksAction(this, weights, 0, tasks.size()));
+    }
+
+    void run(SubDiagramTask task, TaskPath path) {
+      if (isDone()) {
+        return;
+      }
+      path.moveTo(task.parentNode);
+      push(path.childIndices, task.childIndex);
+      if (transformer != null) {
+        task.parentNode.operands[task.childIndex] = CompoundSpiderDiagram.transformSubDiagram(transformer, task.sd, task.subDiagramIndex, path.parents, path.childIndices);
+      } else {
+        CompoundSpiderDiagram.visitSubDiagram(visitor, task.sd, task.subDiagramIndex, path.parents, path.childIndices, path.parentIndices);
+      }
+      pop(path.childIndices);
+    }
+
+    /**
+     * Puts the transformed operands back together (children before their
+     * parents) and returns the transformed root.
+     */
+    SpiderDiagram join() {
+      SpiderDiagram transformedSD = null;
+      for (int i = nodes.size() - 1; i >= 0; i--) {
+        SplitNode node = nodes.get(i);
+        transformedSD = node.replacement == null ? node.createTransformed() : node.replacement;
+        if (node.parentNode != null) {
+          node.parentNode.operands[node.childIndex] = transformedSD;
+        }
+      }
+      return transformedSD;
+    }
+
+    private static <E> void push(ArrayList<E> list, E element) {
+      if (list != null) {
+        list.add(element);
+      }
+    }
+
+    private static void pop(ArrayList<?> list) {
+      if (list != null) {
+        list.remove(list.size() - 1);
+      }
+    }
+  }
+
+  /**
+   * A compound diagram that is too large to be traversed in a single task.
+   */
+  private static class SplitNode {
+
+    final CompoundSpiderDiagram csd;
+    final int subDiagramIndex;
+    final SplitNode parentNode;
+    final int childIndex;
+    final int depth;
+    /**
+     * The (transformed) operands of the diagram. Every task writes to its own
+     * element only.
+     */
+    final SpiderDiagram[] operands;
+    int nextChildIndex;
+    int nextSubDiagramIndex;
+    /**
+     * The diagram returned by the transformer (if it should not be split).
+     */
+    SpiderDiagram replacement;
+
+    SplitNode(CompoundSpiderDiagram csd, int subDiagramIndex, SplitNode parentNode, int childIndex) {
+      this.csd = csd;
+      this.subDiagramIndex = subDiagramIndex;
+      this.parentNode = parentNode;
+      this.childIndex = childIndex;
+      this.depth = parentNode == null ? 0 : parentNode.depth + 1;
+      this.operands = csd.getOperands().toArray(new SpiderDiagram[csd.getOperandCount()]);
+      this.nextSubDiagramIndex = subDiagramIndex + 1;
+    }
+
+    SpiderDiagram createTransformed() {
+      for (int i = 0; i < operands.length; i++) {
+        if (!operands[i].equals(csd.getOperand(i))) {
+          return SpiderDiagrams.createCompoundSD(csd.getOperator(), new ArrayList<>(Arrays.asList(operands)), false);
+        }
+      }
+      return csd;
+    }
+  }
+
+  /**
+   * A sub-diagram that is traversed sequentially. Its parents are not copied
+   * into the task: they are the chain of {@link SplitNode nodes} from its
+   * parent node up to the root, which all tasks share.
+   */
+  private static class SubDiagramTask {
+
+    final SpiderDiagram sd;
+    final int subDiagramIndex;
+    final SplitNode parentNode;
+    final int childIndex;
+
+    SubDiagramTask(SpiderDiagram sd, int subDiagramIndex, SplitNode parentNode, int childIndex) {
+      this.sd = sd;
+      this.subDiagramIndex = subDiagramIndex;
+      this.parentNode = parentNode;
+      this.childIndex = childIndex;
+    }
+  }
+
+  /**
+   * The parents (and their indices) of the tasks that run one after another
+   * on the same thread. Consecutive tasks mostly share their parents, so the
+   * lists are only adjusted below the nearest common {@link SplitNode node}
+   * instead of being rebuilt for every task.
+   */
+  private static class TaskPath {
+
+    final ArrayList<CompoundSpiderDiagram> parents;
+    final ArrayList<Integer> childIndices;
+    final ArrayList<Integer> parentIndices;
+    private SplitNode node;
+
+    TaskPath(boolean trackParents) {
+      this.parents = trackParents ? new ArrayList<CompoundSpiderDiagram>() : null;
+      this.childIndices = trackParents ? new ArrayList<Integer>() : null;
+      this.parentIndices = trackParents ? new ArrayList<Integer>() : null;
+    }
+
+    /**
+     * Makes the lists contain the path from the root to the given node.
+     */
+    void moveTo(SplitNode target) {
+      if (parents == null) {
+        return;
+      }
+      ArrayList<SplitNode> entered = new ArrayList<>();
+      SplitNode ancestor = target;
+      while (ancestor != null && (node == null || ancestor.depth > node.depth)) {
+        entered.add(ancestor);
+        ancestor = ancestor.parentNode;
+      }
+      while (node != ancestor) {
+        if (ancestor != null && node.depth == ancestor.depth) {
+          entered.add(ancestor);
+          ancestor = ancestor.parentNode;
+        }
+        leave();
+      }
+      for (int i = entered.size() - 1; i >= 0; i--) {
+        enter(entered.get(i));
+      }
+    }
+
+    private void enter(SplitNode next) {
+      if (next.parentNode != null) {
+        childIndices.add(next.childIndex);
+      }
+      parents.add(next.csd);
+      parentIndices.add(next.subDiagramIndex);
+      node = next;
+    }
+
+    private void leave() {
+      if (node.parentNode != null) {
+        childIndices.remove(childIndices.size() - 1);
+      }
+      parents.remove(parents.size() - 1);
+      parentIndices.remove(parentIndices.size() - 1);
+      node = node.parentNode;
+    }
+  }
+
+  /**
+   * Runs a range of tasks. The range is halved until the total number of
+   * sub-diagrams in it falls below the threshold.
+   */
+  private static class TasksAction extends RecursiveAction {
+
+    private final Split split;
+    private final long[] weights;
+    private final int from;
+    private final int to;
+
+    TasksAction(Split split, long[] weights, int from, int to) {
+      this.split = split;
+      this.weights = weights;
+      this.from = from;
+      this.to = to;
+    }
+
+    @Override
+    protected void compute() {
+      if (to - from == 1 || weights[to] - weights[from] < split.threshold) {
+        TaskPath path = new TaskPath(split.trackParents);
+        for (int i = from; i < to; i++) {
+          split.run(split.tasks.get(i), path);
+        }
+      } else {
+        int middle = (from + to) >>> 1;
+        invokeAll(new TasksAction(split, weights, from, middle), new TasksAction(split, weights, middle, to));
+      }
+    }
+  }
+
+  /**
+   * The pool is created lazily and shared by all parallel traversals.
+   */
+  private static class PoolHolder {
+
+    static final ForkJoinPool Pool = new ForkJoinPool();
+
+    private PoolHolder() {
+    }
+  }
+}
@@ -41,7 +41,7 @@ import static speedith.core.i18n.Translations.i18n;
  * all necessary information about the habitats of spiders, shaded zones,
  * contour names, zones etc.</p> <p>You can construct new primary spider
  * diagrams via the static methods in {@link SpiderDiagrams}.</p> <p>Instances
- * of this class (and its derived classes) are immutable.</p>
+ * of this class (and its derived classes) are immutable and thread-safe.</p>
  *
  * @author Matej Urbas [matej.urbas@gmail.com]
  */
@@ -84,10 +84,13 @@ public class PrimarySpiderDiagram extends SpiderDiagram {
     private final TreeMap<String, Region> spiderHabitatsMap;
     private final TreeSet<Zone> shadedZones;
     private final TreeSet<Zone> presentZones;
-    private TreeSet<String> contours;
-    private boolean hashInvalid = true;
+    // The lazily computed fields below are derived from the final fields
+    // only, so racing threads compute the same values. 'hash' is published by
+    // the volatile write to 'hashComputed'.
+    private volatile SortedSet<String> contours;
+    private volatile boolean hashComputed;
     private int hash;
-    private Boolean valid;
+    private volatile Boolean valid;
 
     /**
      * Creates an instance of a primary spider diagram with the given spiders,
@@ -326,10 +329,12 @@ public class PrimarySpiderDiagram extends SpiderDiagram {
 
     @Override
     public boolean isValid() {
-        if (valid == null) {
-            valid = checkValid();
+        Boolean isValid = valid;
+        if (isValid == null) {
+            isValid = checkValid();
+            valid = isValid;
         }
-        return valid;
+        return isValid;
     }
 
     @Override
@@ -415,12 +420,12 @@ public class PrimarySpiderDiagram extends SpiderDiagram {
 
     @Override
     public int hashCode() {
-        if (hashInvalid) {
+        if (!hashComputed) {
             hash = (spiders == null ? 0 : spiders.hashCode())
                     + (spiderHabitatsMap == null ? 0 : spiderHabitatsMap.hashCode())
                     + (shadedZones == null ? 0 : shadedZones.hashCode())
                     + (presentZones == null ? 0 : presentZones.hashCode());
-            hashInvalid = false;
+            hashComputed = true;
         }
         return hash;
     }
@@ -579,16 +584,15 @@ public class PrimarySpiderDiagram extends SpiderDiagram {
      * Traverses all zones mentioned in this primary spider diagram and collects
      * all names of contours mentioned in these zones.
      */
-    private void extractContours() {
-        if (contours == null) {
-            contours = new TreeSet<>();
-            if (extractContoursFromHabitats()
-                    || extractContoursFromShadedZones()
-                    || extractContoursFromPresentZones());
-        }
+    private SortedSet<String> extractContours() {
+        TreeSet<String> contours = new TreeSet<>();
+        if (extractContoursFromHabitats(contours)
+                || extractContoursFromShadedZones(contours)
+                || extractContoursFromPresentZones(contours));
+        return Collections.unmodifiableSortedSet(contours);
     }
 
-    private boolean extractContoursFromHabitats() {
+    private boolean extractContoursFromHabitats(TreeSet<String> contours) {
         if (getHabitatsCount() > 0) {
             Region region = spiderHabitatsMap.firstEntry().getValue();
             if (region.getZonesCount() > 0) {
@@ -605,7 +609,7 @@ public class PrimarySpiderDiagram extends SpiderDiagram {
         return false;
     }
 
-    private boolean extractContoursFromShadedZones() {
+    private boolean extractContoursFromShadedZones(TreeSet<String> contours) {
         if (getShadedZonesCount() > 0) {
             Zone zone = shadedZones.first();
             if (zone.getInContoursCount() > 0) {
@@ -619,7 +623,7 @@ public class PrimarySpiderDiagram extends SpiderDiagram {
         return false;
     }
 
-    private boolean extractContoursFromPresentZones() {
+    private boolean extractContoursFromPresentZones(TreeSet<String> contours) {
         if (getPresentZonesCount() > 0) {
             Zone zone = presentZones.first();
             if (zone.getInContoursCount() > 0) {
@@ -707,8 +711,12 @@ public class PrimarySpiderDiagram extends SpiderDiagram {
      * chosen zone of this primary spider diagram.
      */
     SortedSet<String> getContours() {
-        extractContours();
-        return Collections.unmodifiableSortedSet(contours);
+        SortedSet<String> allContours = contours;
+        if (allContours == null) {
+            allContours = extractContours();
+            contours = allContours;
+        }
+        return allContours;
     }
 
     /**
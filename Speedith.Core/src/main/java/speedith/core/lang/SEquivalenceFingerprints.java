@@ -0,0 +1,94 @@
+package speedith.core.lang;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+
+import static speedith.core.i18n.Translations.i18n;
+
+/**
+ * Computes fingerprints of spider diagrams that are the same for all
+ * {@link SpiderDiagram#isSEquivalentTo(speedith.core.lang.SpiderDiagram)
+ * s-equivalent} diagrams: they ignore the names of spiders and the present
+ * zones of primary diagrams. Diagrams that are not s-equivalent may share a
+ * fingerprint.
+ * <p>Fingerprints are meant for bucketing diagrams before comparing them with
+ * {@link SpiderDiagram#isSEquivalentTo(speedith.core.lang.SpiderDiagram)}, so
+ * that only diagrams within the same bucket have to be compared.</p>
+ * <p>An instance remembers the fingerprints of all (sub-)diagrams it has
+ * computed, so shared sub-diagrams are fingerprinted only once. Instances of
+ * this class are not thread-safe.</p>
+ */
+public final class SEquivalenceFingerprints {
+
+    private static final int NullFingerprint = 0x2f5a6c31;
+
+    private final IdentityHashMap<SpiderDiagram, Integer> fingerprints = new IdentityHashMap<>();
+
+    /**
+     * Returns the fingerprint of the given diagram.
+     *
+     * @param diagram the diagram to fingerprint.
+     * @return the fingerprint of the diagram.
+     */
+    public static int getFingerprint(SpiderDiagram diagram) {
+        return new SEquivalenceFingerprints().get(diagram);
+    }
+
+    /**
+     * Returns the fingerprint of the given diagram (and remembers it together
+     * with the fingerprints of its sub-diagrams).
+     * <p>The fingerprints of compound diagrams are computed bottom-up with an
+     * explicit stack (deeply nested diagrams would overflow the call
+     * stack).</p>
+     *
+     * @param diagram the diagram to fingerprint.
+     * @return the fingerprint of the diagram.
+     */
+    public int get(SpiderDiagram diagram) {
+        if (diagram == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "diagram"));
+        }
+        ArrayList<SpiderDiagram> stack = new ArrayList<>();
+        stack.add(diagram);
+        while (!stack.isEmpty()) {
+            SpiderDiagram top = stack.get(stack.size() - 1);
+            if (fingerprints.containsKey(top)) {
+                stack.remove(stack.size() - 1);
+            } else if (top instanceof CompoundSpiderDiagram) {
+                CompoundSpiderDiagram compound = (CompoundSpiderDiagram) top;
+                boolean operandsDone = true;
+                for (SpiderDiagram operand : compound.getOperands()) {
+                    if (!fingerprints.containsKey(operand)) {
+                        stack.add(operand);
+                        operandsDone = false;
+                    }
+                }
+                if (operandsDone) {
+                    int fingerprint = compound.getOperator().hashCode();
+                    for (SpiderDiagram operand : compound.getOperands()) {
+                        fingerprint = 31 * fingerprint + fingerprints.get(operand);
+                    }
+                    fingerprints.put(top, fingerprint);
+                    stack.remove(stack.size() - 1);
+                }
+            } else {
+                fingerprints.put(top, getPrimaryFingerprint(top));
+                stack.remove(stack.size() - 1);
+            }
+        }
+        return fingerprints.get(diagram);
+    }
+
+    private static int getPrimaryFingerprint(SpiderDiagram diagram) {
+        if (!(diagram instanceof PrimarySpiderDiagram)) {
+            return NullFingerprint;
+        }
+        PrimarySpiderDiagram primary = (PrimarySpiderDiagram) diagram;
+        // The sum of the habitats does not depend on the names of spiders.
+        int habitats = 0;
+        for (String spider : primary.getSpiders()) {
+            habitats += primary.getSpiderHabitat(spider).hashCode();
+        }
+        return 31 * habitats + primary.getShadedZones().hashCode();
+    }
+}
@@ -26,6 +26,9 @@
  */
 package speedith.core.lang;
 
+import speedith.core.metrics.Metrics;
+import speedith.core.metrics.ReasoningEvents;
+
 import java.lang.ref.WeakReference;
 import java.util.*;
 
@@ -298,9 +301,11 @@ public class SpiderDiagrams {
       if (exPsd == null) {
         // It is not. Then add the newly created one into the pool and
         // return it.
+        recordPoolLookup(false, false);
         pool.put(psd, new WeakReference<SpiderDiagram>(psd));
         return psd;
       } else {
+        recordPoolLookup(false, true);
         // Otherwise discard the newly created one and return the old one.
         assert (exPsd instanceof PrimarySpiderDiagram) : i18n("GERR_ILLEGAL_STATE_EXPLANATION", i18n("ERR_PRIMARY_SD_EQUALS_NON_PRIMARY_SD"));
         // The diagram is already in the pool. Just return it.
@@ -336,9 +341,11 @@ public class SpiderDiagrams {
         if (copyCollection) {
           csd = new CompoundSpiderDiagram(operator, operands);
         }
+        recordPoolLookup(true, false);
         pool.put(csd, new WeakReference<SpiderDiagram>(csd));
         return csd;
       }
+      recordPoolLookup(true, true);
       // The diagram is already in the pool. Just return it.
       assert (exCsd instanceof CompoundSpiderDiagram) : i18n("GERR_ILLEGAL_STATE_EXPLANATION", i18n("ERR_COMPOUND_SD_EQUALS_NON_COMPOUND_SD"));
       assert (((CompoundSpiderDiagram) exCsd).equals(csd)) : i18n("GERR_ILLEGAL_STATE");
@@ -352,6 +359,13 @@ public class SpiderDiagrams {
     }
   }
 
+  private static void recordPoolLookup(boolean compound, boolean poolHit) {
+    Metrics.increment(poolHit ? Metrics.PoolHits : Metrics.PoolMisses);
+    if (ReasoningEvents.isEnabled()) {
+      ReasoningEvents.diagramInterned(compound, poolHit);
+    }
+  }
+
   private static SpiderDiagram __getSDFromPool(SpiderDiagram psd) {
     WeakReference<SpiderDiagram> poolSD = pool.get(psd);
     return poolSD == null ? null : poolSD.get();
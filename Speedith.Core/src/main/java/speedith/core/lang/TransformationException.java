@@ -26,6 +26,8 @@
  */
 package speedith.core.lang;
 
+import speedith.core.i18n.DeferredMessage;
+
 /**
  * This exception is thrown in a {@link Transformer spider diagram transformer}
  * if the transformation failed for any reason.
@@ -33,19 +35,38 @@ package speedith.core.lang;
  */
 public class TransformationException extends RuntimeException {
     private static final long serialVersionUID = 0x3c0996ff0df83a11L;
+    private final DeferredMessage deferredMessage;
 
     public TransformationException() {
+        this.deferredMessage = null;
     }
 
     public TransformationException(String msg) {
         super(msg);
+        this.deferredMessage = null;
+    }
+
+    /**
+     * Creates an exception whose message is formatted only when it is
+     * requested.
+     * @param msg the deferred detail message.
+     */
+    public TransformationException(DeferredMessage msg) {
+        this.deferredMessage = msg;
     }
 
     public TransformationException(String msg, Throwable cause) {
         super(msg, cause);
+        this.deferredMessage = null;
     }
 
     public TransformationException(Throwable cause) {
         super(cause);
+        this.deferredMessage = null;
+    }
+
+    @Override
+    public String getMessage() {
+        return deferredMessage == null ? super.getMessage() : deferredMessage.getMessage();
     }
 }
@@ -39,18 +39,20 @@ import static speedith.core.i18n.Translations.i18n;
  * <p>For more information see
  * <a href="http://journals.cambridge.org/action/displayAbstract?fromPage=online&aid=6564924" title="10.1112/S1461157000000942">
  * Spider Diagrams (2005)</a>.</p>
- * <p>Instances of this class (and its derived classes) are immutable.</p>
+ * <p>Instances of this class (and its derived classes) are immutable and
+ * thread-safe.</p>
  *
  * @author Matej Urbas [matej.urbas@gmail.com]
  */
 public class Zone implements Comparable<Zone>, SpiderDiagramElement {
 
     // <editor-fold defaultstate="collapsed" desc="Private Fields">
-    private TreeSet<String> inContours;
-    private TreeSet<String> outContours;
-    private boolean hashInvalid = true;
+    private final TreeSet<String> inContours;
+    private final TreeSet<String> outContours;
+    // 'hash' is published by the volatile write to 'hashComputed'.
+    private volatile boolean hashComputed;
     private int hash;
-    private SortedSet<String> allContours;
+    private volatile SortedSet<String> allContours;
     // </editor-fold>
 
     // <editor-fold defaultstate="collapsed" desc="Constructors">
@@ -225,10 +227,10 @@ public class Zone implements Comparable<Zone>, SpiderDiagramElement {
 
     @Override
     public int hashCode() {
-        if (hashInvalid) {
+        if (!hashComputed) {
             hash = (inContours == null || inContours.isEmpty() ? 0 : inContours.hashCode())
                    + (outContours == null || outContours.isEmpty() ? 0 : outContours.hashCode());
-            hashInvalid = false;
+            hashComputed = true;
         }
         return hash;
     }
@@ -313,17 +315,19 @@ public class Zone implements Comparable<Zone>, SpiderDiagramElement {
     }
 
     public SortedSet<String> getAllContours() {
-        if (allContours == null) {
-            TreeSet<String> contours = new TreeSet<>();
+        SortedSet<String> contours = allContours;
+        if (contours == null) {
+            TreeSet<String> allContoursSet = new TreeSet<>();
             if (getInContoursCount() > 0) {
-                contours.addAll(getInContours());
+                allContoursSet.addAll(getInContours());
             }
             if (getOutContoursCount() > 0) {
-                contours.addAll(getOutContours());
+                allContoursSet.addAll(getOutContours());
             }
-            allContours = Collections.unmodifiableSortedSet(contours);
+            contours = Collections.unmodifiableSortedSet(allContoursSet);
+            allContours = contours;
         }
-        return allContours;
+        return contours;
     }
     // </editor-fold>
 }
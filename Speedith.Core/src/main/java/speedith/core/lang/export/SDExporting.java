@@ -30,9 +30,12 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.net.URL;
 import java.util.Set;
 import java.util.Collections;
+import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
 import speedith.core.lang.SpiderDiagram;
 import static speedith.core.i18n.Translations.i18n;
@@ -43,7 +46,8 @@ import static speedith.core.i18n.Translations.i18n;
  * <p>This factory looks up a specific resource file in the JAR (see
  * {@link SDExporting#ExportProvidersRegistry}) where the class names
  * of {@link SDExportProvider}s are listed. These providers are then
- * instantiated and registered with this factory.</p>
+ * registered with this factory. Providers whose format names are listed
+ * with their class names are instantiated only when they are first used.</p>
  * <p>The {@link SDExporter exporter}s can then be used with via the method
  * {@link SDExporting#getExporter(java.lang.String)}, for example.</p>
  * <p>New
@@ -56,13 +60,20 @@ public final class SDExporting {
      * The map containing all currently registered export providers.
      */
     private static final HashMap<String, SDExportProvider> providers = new HashMap<String, SDExportProvider>();
+    /**
+     * The class names of the indexed export providers that have not been
+     * instantiated yet (keyed by their format names).
+     */
+    private static final HashMap<String, String> indexedProviders = new HashMap<String, String>();
     // </editor-fold>
 
     // <editor-fold defaultstate="collapsed" desc="Constructors">
     static {
-        // Register built-in exporters.
-        registerProvider(Isabelle2011ExportProvider.class);
-        registerProvider(OpenproofExportProvider.class);
+        if (!registerIndexedProviders(SDExporting.class.getClassLoader(), SDExporting.BuiltInExportProvidersIndex)) {
+            // Register built-in exporters (if the index is missing).
+            registerProvider(Isabelle2011ExportProvider.class);
+            registerProvider(OpenproofExportProvider.class);
+        }
     }
 
     /**
@@ -77,32 +88,41 @@ public final class SDExporting {
      * the class names of the {@link SDExportProvider text exporting
      * providers} that should be registered.
      * <p>Each line should be a fully qualified name of the {@link SDExportProvider}'s
-     * class that should be registered for Speedith exporting.</p>
+     * class that should be registered for Speedith exporting. The class name
+     * may be followed by a space and the {@link SDExportProvider#getFormatName()
+     * format name}, in which case the provider is instantiated only when it
+     * is first used. Empty lines and lines starting with {@code #} are
+     * ignored.</p>
      */
     public static final String ExportProvidersRegistry = "META-INF/speedith/ExportProviders";
+    /**
+     * The path to the file in the META-INF folder (within the JAR file) listing
+     * the {@link SDExportProvider text exporting providers} of this library
+     * (in the same format as the {@link SDExporting#ExportProvidersRegistry
+     * registry}).
+     * <p>This index is read when this class is initialised, while the
+     * registry is read only by {@link SDExporting#scanForExporters()}.</p>
+     */
+    public static final String BuiltInExportProvidersIndex = "META-INF/speedith/BuiltInExportProviders";
 
     /**
      * The main method to get a {@link SDExporter text exporter} of spider
      * diagrams.
      * <p>You can select the format to which to export.</p>
-     * <p>This method throws an exception if the format does not exist.</p>
+     * <p>This method returns {@code null} if the format does not exist.</p>
      * @param format the name of the format to which to export spider diagrams.
      * @return a {@link SDExporter text exporter} of spider
      * diagrams for the specified text format.
      */
     public static SDExporter getExporter(String format) {
-        SDExportProvider provider = providers.get(format);
-        if (format == null) {
-            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "format"));
-        }
-        return provider.getExporter(null);
+        return getExporter(format, null);
     }
 
     /**
      * The main method to get a {@link SDExporter text exporter} of spider
      * diagrams.
      * <p>You can select the format to which to export.</p>
-     * <p>This method throws an exception if the format does not exist.</p>
+     * <p>This method returns {@code null} if the format does not exist.</p>
      * @param format the name of the format to which to export spider diagrams.
      * @param parameters the parameters to the exporter (given to {@link SDExportProvider#getExporter(java.util.Map)}).
      * <p>You may want to inspect the descriptions of parameters (see {@link SDExportProvider#getParameterDescription(java.lang.String, java.util.Locale)})
@@ -111,11 +131,11 @@ public final class SDExporting {
      * diagrams for the specified text format.
      */
     public static SDExporter getExporter(String format, Map<String, String> parameters) {
-        SDExportProvider provider = providers.get(format);
         if (format == null) {
             throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "format"));
         }
-        return provider.getExporter(parameters);
+        SDExportProvider provider = getProvider(format);
+        return provider == null ? null : provider.getExporter(parameters);
     }
 
     /**
@@ -126,7 +146,18 @@ public final class SDExporting {
      * @return the provider for the given format.
      */
     public static SDExportProvider getProvider(String format) {
-        return providers.get(format);
+        synchronized (providers) {
+            SDExportProvider provider = providers.get(format);
+            if (provider == null && indexedProviders.containsKey(format)) {
+                try {
+                    provider = instantiate(Class.forName(indexedProviders.remove(format)));
+                } catch (ClassNotFoundException ex) {
+                    throw new IllegalArgumentException(i18n("ERR_EXPORT_PROVIDER_CLASS"), ex);
+                }
+                providers.put(format, provider);
+            }
+            return provider;
+        }
     }
 
     /**
@@ -137,7 +168,11 @@ public final class SDExporting {
      * @return a set of all currently supported export formats.
      */
     public static Set<String> getSupportedFormats() {
-        return Collections.unmodifiableSet(providers.keySet());
+        synchronized (providers) {
+            HashSet<String> formats = new HashSet<String>(providers.keySet());
+            formats.addAll(indexedProviders.keySet());
+            return Collections.unmodifiableSet(formats);
+        }
     }
 
     /**
@@ -148,24 +183,7 @@ public final class SDExporting {
      * reason.</p>
      */
     public static void scanForExporters() {
-        InputStream registryStream = Thread.currentThread().getContextClassLoader().getResourceAsStream(ExportProvidersRegistry);
-        if (registryStream != null) {
-            BufferedReader registryReader = new BufferedReader(new InputStreamReader(registryStream));
-            try {
-                String line = registryReader.readLine();
-                while (line != null) {
-                    registerProvider(line);
-                    line = registryReader.readLine();
-                }
-            } catch (Exception ex) {
-                throw new RuntimeException(i18n("ERR_PROVIDER_SCAN_FAILED"), ex);
-            } finally {
-                try {
-                    registryReader.close();
-                } catch (IOException ex) {
-                }
-            }
-        }
+        registerIndexedProviders(Thread.currentThread().getContextClassLoader(), ExportProvidersRegistry);
     }
 
     /**
@@ -180,13 +198,10 @@ public final class SDExporting {
         if (providerClass == null) {
             throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "providerClass"));
         }
-        try {
-            SDExportProvider theProvider = providerClass.asSubclass(SDExportProvider.class).getConstructor().newInstance();
-            synchronized (providers) {
-                providers.put(theProvider.getFormatName(), theProvider);
-            }
-        } catch (Exception ex) {
-            throw new IllegalArgumentException(i18n("ERR_EXPORT_PROVIDER_CLASS"), ex);
+        SDExportProvider theProvider = instantiate(providerClass);
+        synchronized (providers) {
+            indexedProviders.remove(theProvider.getFormatName());
+            providers.put(theProvider.getFormatName(), theProvider);
         }
     }
 
@@ -203,5 +218,77 @@ public final class SDExporting {
     public static void registerProvider(String className) throws ClassNotFoundException {
         registerProvider(Class.forName(className));
     }
+
+    /**
+     * Registers the {@link SDExportProvider} with the given class name under
+     * the given format name. The provider is instantiated when it is first
+     * used.
+     * <p>This method replaces any old export providers that happen to have
+     * the same format name.</p>
+     * @param format the name of the format.
+     * @param className the name of the provider's class to register.
+     */
+    public static void registerProvider(String format, String className) {
+        if (format == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "format"));
+        }
+        if (className == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "className"));
+        }
+        synchronized (providers) {
+            providers.remove(format);
+            indexedProviders.put(format, className);
+        }
+    }
+    // </editor-fold>
+
+    // <editor-fold defaultstate="collapsed" desc="Private Helper Methods">
+    /**
+     * Registers the providers from all the registry files with the given path
+     * that are visible to the given class loader.
+     * @param classLoader the class loader through which to look up the
+     * registry files.
+     * @param registryPath the path of the registry files.
+     * @return {@code true} if at least one registry file was found.
+     */
+    private static boolean registerIndexedProviders(ClassLoader classLoader, String registryPath) {
+        boolean foundRegistry = false;
+        try {
+            Enumeration<URL> registries = classLoader.getResources(registryPath);
+            while (registries.hasMoreElements()) {
+                foundRegistry = true;
+                InputStream registryStream = registries.nextElement().openStream();
+                BufferedReader registryReader = new BufferedReader(new InputStreamReader(registryStream, "UTF-8"));
+                try {
+                    String line = registryReader.readLine();
+                    while (line != null) {
+                        line = line.trim();
+                        if (!line.isEmpty() && !line.startsWith("#")) {
+                            int classNameEnd = line.indexOf(' ');
+                            if (classNameEnd < 0) {
+                                registerProvider(line);
+                            } else {
+                                registerProvider(line.substring(classNameEnd + 1).trim(), line.substring(0, classNameEnd));
+                            }
+                        }
+                        line = registryReader.readLine();
+                    }
+                } finally {
+                    registryReader.close();
+                }
+            }
+        } catch (Exception ex) {
+            throw new RuntimeException(i18n("ERR_PROVIDER_SCAN_FAILED"), ex);
+        }
+        return foundRegistry;
+    }
+
+    private static SDExportProvider instantiate(Class<?> providerClass) {
+        try {
+            return providerClass.asSubclass(SDExportProvider.class).getConstructor().newInstance();
+        } catch (Exception ex) {
+            throw new IllegalArgumentException(i18n("ERR_EXPORT_PROVIDER_CLASS"), ex);
+        }
+    }
     // </editor-fold>
 }
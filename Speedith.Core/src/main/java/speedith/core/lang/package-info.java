@@ -31,5 +31,13 @@
  * <p>The most important class is {@link speedith.core.lang.SpiderDiagram
  * SpiderDiagram}. It it the base class of all the data structures which capture
  * particular spider diagrams.</p>
+ * <p>Spider diagrams, zones and regions are immutable and thread-safe: they
+ * can be shared between threads (e.g.: by parallel proof search) without
+ * copying or locking. Their fields are final and the values they compute
+ * lazily (hash codes, contour sets, validity and sub-diagram counts) are
+ * published through volatile fields or are atomic primitives, so racing
+ * threads at worst compute the same value twice. Spider diagrams are
+ * {@link speedith.core.lang.SpiderDiagrams created} through a synchronized
+ * pool, which also publishes them safely.</p>
  */
 package speedith.core.lang;
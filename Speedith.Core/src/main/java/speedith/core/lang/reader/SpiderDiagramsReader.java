@@ -48,15 +48,18 @@ import org.antlr.runtime.CommonTokenStream;
 import org.antlr.runtime.RecognitionException;
 import org.antlr.runtime.tree.CommonTree;
 import static speedith.core.i18n.Translations.i18n;
+import speedith.core.lang.AssociativeChain;
 import speedith.core.lang.CompoundSpiderDiagram;
 import static speedith.core.lang.CompoundSpiderDiagram.*;
 import speedith.core.lang.NullSpiderDiagram;
+import speedith.core.lang.Operator;
 import speedith.core.lang.PrimarySpiderDiagram;
 import static speedith.core.lang.PrimarySpiderDiagram.*;
 import speedith.core.lang.Region;
 import speedith.core.lang.SpiderDiagram;
 import speedith.core.lang.SpiderDiagrams;
 import speedith.core.lang.Zone;
+import speedith.core.metrics.ReasoningEvents;
 import speedith.core.lang.reader.SpiderDiagramsParser.list_return;
 import speedith.core.lang.reader.SpiderDiagramsParser.spiderDiagram_return;
 
@@ -209,6 +212,21 @@ public final class SpiderDiagramsReader {
 
     // <editor-fold defaultstate="collapsed" desc="Translation Methods (from the AST to SpiderDiagrams)">
     private static SpiderDiagram readSpiderDiagram(CharStream chrStream) throws ReadingException {
+        if (ReasoningEvents.isEnabled()) {
+            boolean success = false;
+            long start = System.nanoTime();
+            try {
+                SpiderDiagram spiderDiagram = parseSpiderDiagram(chrStream);
+                success = true;
+                return spiderDiagram;
+            } finally {
+                ReasoningEvents.parseCompleted(chrStream.size(), System.nanoTime() - start, success);
+            }
+        }
+        return parseSpiderDiagram(chrStream);
+    }
+
+    private static SpiderDiagram parseSpiderDiagram(CharStream chrStream) throws ReadingException {
         SpiderDiagramsLexer lexer = new SpiderDiagramsLexer(chrStream);
         SpiderDiagramsParser parser = new SpiderDiagramsParser(new CommonTokenStream(lexer));
         try {
@@ -406,8 +424,11 @@ public final class SpiderDiagramsReader {
         public static final CompoundSDTranslator BinaryTranslator = new CompoundSDTranslator(SpiderDiagramsParser.SD_BINARY);
         public static final CompoundSDTranslator UnaryTranslator = new CompoundSDTranslator(SpiderDiagramsParser.SD_UNARY);
 
+        private final int headTokenType;
+
         public CompoundSDTranslator(int headTokenType) {
             super(headTokenType);
+            this.headTokenType = headTokenType;
             addMandatoryAttribute(SDTextOperatorAttribute, StringTranslator.Instance);
             addDefaultAttribute(SDTranslator.Instance);
         }
@@ -429,6 +450,11 @@ public final class SpiderDiagramsReader {
                 throw new ReadingException(i18n("ERR_TRANSLATE_UNKNOWN_ATTRIBUTES", attributes.keySet()), (CommonTree) attributes.values().iterator().next().getValue().getChild(0));
             }
             try {
+                Operator knownOperator = Operator.fromString(operator);
+                if (headTokenType == SpiderDiagramsParser.SD_COMPOUND && knownOperator != null && knownOperator.isAssociative() && operands.size() > knownOperator.getArity()) {
+                    // N-ary conjunctions and disjunctions are stored as binary chains.
+                    return (CompoundSpiderDiagram) AssociativeChain.toBinaryDiagram(knownOperator, operands);
+                }
                 return SpiderDiagrams.createCompoundSD(operator, operands, false);
             } catch (Exception e) {
                 throw new ReadingException(e.getLocalizedMessage(), lastSD == null ? mainNode : (CommonTree) lastSD.getValue().getChild(0));
@@ -0,0 +1,218 @@
+package speedith.core.lang.util;
+
+import speedith.core.lang.CompoundSpiderDiagram;
+import speedith.core.lang.PrimarySpiderDiagram;
+import speedith.core.lang.SpiderDiagram;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static speedith.core.i18n.Translations.i18n;
+
+/**
+ * Allocates fresh spider and contour names.
+ * <p>A fresh name consists of a prefix, a number, and an optional suffix
+ * (e.g.: {@code s3} or {@code s3a}). The allocator remembers the highest
+ * number used with every prefix-suffix pair, so a fresh name is found in
+ * constant time regardless of how many names are already taken.</p>
+ * <p>One allocator is meant to be shared by all rule applications on a
+ * diagram (or throughout a proof). All methods are safe to call
+ * concurrently: two calls never return the same name.</p>
+ */
+public class FreshNameAllocator {
+
+  /**
+   * The prefix of fresh spider names.
+   */
+  public static final String SpiderPrefix = "s";
+  /**
+   * The prefix of fresh contour names.
+   */
+  public static final String ContourPrefix = "C";
+
+  private final Set<String> usedNames = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+  private final ConcurrentMap<String, AtomicLong> highestNumbers = new ConcurrentHashMap<>();
+
+  public FreshNameAllocator() {
+  }
+
+  /**
+   * Creates an allocator that will never return any of the given names.
+   *
+   * @param usedNames the names that are already taken.
+   */
+  public FreshNameAllocator(Collection<String> usedNames) {
+    markUsed(usedNames);
+  }
+
+  /**
+   * Creates an allocator that will return names of neither the spiders nor
+   * the contours of the given diagram.
+   *
+   * @param diagram the diagram whose spider and contour names are taken.
+   * @return a new allocator.
+   */
+  public static FreshNameAllocator forDiagram(SpiderDiagram diagram) {
+    FreshNameAllocator allocator = new FreshNameAllocator();
+    allocator.markUsed(diagram);
+    return allocator;
+  }
+
+  /**
+   * Marks the names of all spiders and contours in the given diagram as
+   * taken.
+   *
+   * @param diagram the diagram whose spider and contour names are taken.
+   */
+  public void markUsed(SpiderDiagram diagram) {
+    if (diagram instanceof PrimarySpiderDiagram) {
+      markUsed(((PrimarySpiderDiagram) diagram).getSpiders());
+      markUsed(((PrimarySpiderDiagram) diagram).getAllContours());
+    } else if (diagram instanceof CompoundSpiderDiagram) {
+      for (SpiderDiagram operand : ((CompoundSpiderDiagram) diagram).getOperands()) {
+        markUsed(operand);
+      }
+    }
+  }
+
+  public void markUsed(Collection<String> names) {
+    if (names != null) {
+      for (String name : names) {
+        markUsed(name);
+      }
+    }
+  }
+
+  /**
+   * Marks the given name as taken.
+   *
+   * @param name the name that is taken.
+   */
+  public void markUsed(String name) {
+    if (name == null) {
+      throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "name"));
+    }
+    usedNames.add(name);
+    int suffixStart = name.length();
+    while (suffixStart > 0 && !Character.isDigit(name.charAt(suffixStart - 1))) {
+      --suffixStart;
+    }
+    int numberStart = suffixStart;
+    while (numberStart > 0 && Character.isDigit(name.charAt(numberStart - 1))) {
+      --numberStart;
+    }
+    // Numbers that do not fit into a long can never clash with the ones we allocate.
+    if (numberStart < suffixStart && suffixStart - numberStart < 19) {
+      long number = Long.parseLong(name.substring(numberStart, suffixStart));
+      AtomicLong highestNumber = getHighestNumber(name.substring(0, numberStart), name.substring(suffixStart));
+      long currentHighest;
+      do {
+        currentHighest = highestNumber.get();
+      } while (currentHighest < number && !highestNumber.compareAndSet(currentHighest, number));
+    }
+  }
+
+  /**
+   * Returns {@code true} iff the given name has been either marked as used or
+   * allocated by this allocator.
+   *
+   * @param name the name to check.
+   * @return {@code true} iff the given name is taken.
+   */
+  public boolean isUsed(String name) {
+    return usedNames.contains(name);
+  }
+
+  /**
+   * Returns a fresh spider name of the form {@code s<number>} (e.g.: {@code
+   * s3} if {@code s1} and {@code s2} are taken).
+   *
+   * @return a fresh spider name.
+   */
+  public String freshSpiderName() {
+    return freshNumberedName(SpiderPrefix, "");
+  }
+
+  /**
+   * Returns a fresh contour name of the form {@code C<number>}.
+   *
+   * @return a fresh contour name.
+   */
+  public String freshContourName() {
+    return freshNumberedName(ContourPrefix, "");
+  }
+
+  /**
+   * Returns the given prefix if it is not taken. Otherwise it returns the
+   * prefix followed by a number higher than any other number that was used
+   * with this prefix.
+   *
+   * @param prefix the prefix of the fresh name. It must not end with a digit.
+   * @return a fresh name.
+   */
+  public String freshName(String prefix) {
+    if (prefix == null || prefix.isEmpty()) {
+      throw new IllegalArgumentException(i18n("GERR_EMPTY_ARGUMENT", "prefix"));
+    }
+    if (Character.isDigit(prefix.charAt(prefix.length() - 1))) {
+      throw new IllegalArgumentException(i18n("GERR_ILLEGAL_ARGUMENT", "prefix"));
+    }
+    if (usedNames.add(prefix)) {
+      return prefix;
+    }
+    return freshNumberedName(prefix, "");
+  }
+
+  /**
+   * Returns a name of the form {@code <prefix><number><suffix>}, where the
+   * number is higher than any other number that was used with this prefix and
+   * suffix.
+   *
+   * @param prefix the prefix of the fresh name. It must not end with a digit.
+   * @param suffix the suffix of the fresh name. It must not contain digits.
+   * @return a fresh name.
+   */
+  public String freshName(String prefix, String suffix) {
+    if (prefix == null) {
+      throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "prefix"));
+    }
+    if (suffix == null) {
+      throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "suffix"));
+    }
+    if (!prefix.isEmpty() && Character.isDigit(prefix.charAt(prefix.length() - 1))) {
+      throw new IllegalArgumentException(i18n("GERR_ILLEGAL_ARGUMENT", "prefix"));
+    }
+    for (int i = 0; i < suffix.length(); i++) {
+      if (Character.isDigit(suffix.charAt(i))) {
+        throw new IllegalArgumentException(i18n("GERR_ILLEGAL_ARGUMENT", "suffix"));
+      }
+    }
+    return freshNumberedName(prefix, suffix);
+  }
+
+  private String freshNumberedName(String prefix, String suffix) {
+    AtomicLong highestNumber = getHighestNumber(prefix, suffix);
+    String name;
+    do {
+      name = prefix + highestNumber.incrementAndGet() + suffix;
+    } while (!usedNames.add(name));
+    return name;
+  }
+
+  private AtomicLong getHighestNumber(String prefix, String suffix) {
+    String key = prefix + '\0' + suffix;
+    AtomicLong highestNumber = highestNumbers.get(key);
+    if (highestNumber == null) {
+      AtomicLong newHighestNumber = new AtomicLong();
+      highestNumber = highestNumbers.putIfAbsent(key, newHighestNumber);
+      if (highestNumber == null) {
+        highestNumber = newHighestNumber;
+      }
+    }
+    return highestNumber;
+  }
+}
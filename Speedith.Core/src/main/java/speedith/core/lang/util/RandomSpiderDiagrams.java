@@ -0,0 +1,315 @@
+package speedith.core.lang.util;
+
+import speedith.core.lang.*;
+
+import java.util.*;
+
+import static speedith.core.i18n.Translations.i18n;
+
+/**
+ * Generates random but valid primary and compound spider diagrams.
+ * <p>The generator is fully determined by its seed and configuration, which
+ * makes it a reproducible workload source for benchmarks, fuzzers and load
+ * tests.</p>
+ * <p>Every generated primary diagram contains exactly {@link
+ * RandomSpiderDiagrams#getContourCount() contour count} contours (named
+ * {@code A}, {@code B}, ..., {@code Z}, {@code A1}, ...) and {@link
+ * RandomSpiderDiagrams#getSpiderCount() spider count} spiders (named
+ * {@code s1}, {@code s2}, ...). Each zone over these contours is shaded with
+ * the probability given by the {@link RandomSpiderDiagrams#getShadingDensity()
+ * shading density}. Some of the shaded zones are additionally left out of the
+ * diagram (i.e., they are missing zones). Spiders live only in present zones.</p>
+ * <p>Compound diagrams are built up to the given {@link
+ * RandomSpiderDiagrams#getNestingDepth() nesting depth}, where the operators
+ * are chosen according to the given operator mix (a weight per operator).</p>
+ * <p><span style="font-weight:bold">Note</span>: instances of this class are
+ * not thread-safe. Create one generator per thread.</p>
+ */
+public class RandomSpiderDiagrams {
+
+  /**
+   * The largest number of contours a generated primary diagram may have. All
+   * zones over the contours are enumerated, so the cost grows exponentially
+   * with the number of contours.
+   */
+  public static final int MaxContourCount = 16;
+
+  private final long seed;
+  private final Random rng;
+  private final int contourCount;
+  private final int spiderCount;
+  private final double shadingDensity;
+  private final int nestingDepth;
+  private final EnumMap<Operator, Integer> operatorMix;
+  private final int operatorWeightsSum;
+  private final String[] contours;
+
+  /**
+   * Creates a generator of random spider diagrams.
+   *
+   * @param seed the seed of the random number generator. Two generators with
+   * the same seed and configuration produce exactly the same sequence of
+   * diagrams.
+   * @param contourCount the number of contours in every generated primary
+   * diagram. Must be between 1 and {@link RandomSpiderDiagrams#MaxContourCount}.
+   * @param spiderCount the number of spiders in every generated primary
+   * diagram. Must not be negative.
+   * @param shadingDensity the probability with which a zone is shaded. Must be
+   * between 0 and 1.
+   * @param operatorMix the weights with which operators are chosen when
+   * generating compound diagrams. Operators that are not in the map are never
+   * chosen. If {@code null} or empty, all operators are chosen with equal
+   * probability.
+   * @param nestingDepth the depth of generated compound diagrams. The depth of
+   * a primary diagram is 0. Must not be negative.
+   */
+  public RandomSpiderDiagrams(long seed, int contourCount, int spiderCount, double shadingDensity, Map<Operator, Integer> operatorMix, int nestingDepth) {
+    if (contourCount < 1 || contourCount > MaxContourCount) {
+      throw new IllegalArgumentException(i18n("GERR_INDEX_OUT_OF_RANGE", "contourCount", 1, MaxContourCount));
+    }
+    if (spiderCount < 0) {
+      throw new IllegalArgumentException(i18n("GERR_ILLEGAL_ARGUMENT", "spiderCount"));
+    }
+    if (shadingDensity < 0 || shadingDensity > 1) {
+      throw new IllegalArgumentException(i18n("GERR_ILLEGAL_ARGUMENT", "shadingDensity"));
+    }
+    if (nestingDepth < 0) {
+      throw new IllegalArgumentException(i18n("GERR_ILLEGAL_ARGUMENT", "nestingDepth"));
+    }
+    this.seed = seed;
+    this.rng = new Random(seed);
+    this.contourCount = contourCount;
+    this.spiderCount = spiderCount;
+    this.shadingDensity = shadingDensity;
+    this.nestingDepth = nestingDepth;
+    this.operatorMix = new EnumMap<>(Operator.class);
+    if (operatorMix == null || operatorMix.isEmpty()) {
+      for (Operator operator : Operator.values()) {
+        this.operatorMix.put(operator, 1);
+      }
+    } else {
+      for (Map.Entry<Operator, Integer> entry : operatorMix.entrySet()) {
+        if (entry.getKey() == null || entry.getValue() == null || entry.getValue() < 0) {
+          throw new IllegalArgumentException(i18n("GERR_ILLEGAL_ARGUMENT", "operatorMix"));
+        }
+        if (entry.getValue() > 0) {
+          this.operatorMix.put(entry.getKey(), entry.getValue());
+        }
+      }
+    }
+    int weightsSum = 0;
+    for (Integer weight : this.operatorMix.values()) {
+      weightsSum += weight;
+    }
+    if (weightsSum <= 0) {
+      throw new IllegalArgumentException(i18n("GERR_ILLEGAL_ARGUMENT", "operatorMix"));
+    }
+    this.operatorWeightsSum = weightsSum;
+    this.contours = contourNames(contourCount);
+  }
+
+  /**
+   * Creates a generator of random spider diagrams that chooses all operators
+   * with equal probability.
+   *
+   * @param seed see {@link RandomSpiderDiagrams#RandomSpiderDiagrams(long, int, int, double, java.util.Map, int)}.
+   * @param contourCount see {@link RandomSpiderDiagrams#RandomSpiderDiagrams(long, int, int, double, java.util.Map, int)}.
+   * @param spiderCount see {@link RandomSpiderDiagrams#RandomSpiderDiagrams(long, int, int, double, java.util.Map, int)}.
+   * @param shadingDensity see {@link RandomSpiderDiagrams#RandomSpiderDiagrams(long, int, int, double, java.util.Map, int)}.
+   * @param nestingDepth see {@link RandomSpiderDiagrams#RandomSpiderDiagrams(long, int, int, double, java.util.Map, int)}.
+   */
+  public RandomSpiderDiagrams(long seed, int contourCount, int spiderCount, double shadingDensity, int nestingDepth) {
+    this(seed, contourCount, spiderCount, shadingDensity, null, nestingDepth);
+  }
+
+  // <editor-fold defaultstate="collapsed" desc="Properties">
+  public long getSeed() {
+    return seed;
+  }
+
+  public int getContourCount() {
+    return contourCount;
+  }
+
+  public int getSpiderCount() {
+    return spiderCount;
+  }
+
+  public double getShadingDensity() {
+    return shadingDensity;
+  }
+
+  public int getNestingDepth() {
+    return nestingDepth;
+  }
+
+  /**
+   * Returns the weights with which operators are chosen. Operators with zero
+   * weight are not contained in the returned map.
+   *
+   * @return the weights with which operators are chosen.
+   */
+  public Map<Operator, Integer> getOperatorMix() {
+    return Collections.unmodifiableMap(operatorMix);
+  }
+
+  /**
+   * Returns the names of contours that are used in the generated primary
+   * diagrams.
+   *
+   * @return the names of contours that are used in the generated primary
+   * diagrams.
+   */
+  public List<String> getContours() {
+    return Collections.unmodifiableList(Arrays.asList(contours));
+  }
+  // </editor-fold>
+
+  // <editor-fold defaultstate="collapsed" desc="Generation">
+  /**
+   * Generates a random valid spider diagram of the configured {@link
+   * RandomSpiderDiagrams#getNestingDepth() nesting depth}.
+   *
+   * @return a random valid spider diagram.
+   */
+  public SpiderDiagram nextSpiderDiagram() {
+    return nextSpiderDiagram(nestingDepth);
+  }
+
+  /**
+   * Generates a random valid spider diagram of the given depth. A diagram of
+   * depth 0 is a primary diagram. A compound diagram of depth {@code d} has
+   * at least one operand of depth {@code d - 1} while other operands have a
+   * random depth smaller than {@code d}.
+   *
+   * @param depth the depth of the diagram to generate.
+   * @return a random valid spider diagram.
+   */
+  public SpiderDiagram nextSpiderDiagram(int depth) {
+    if (depth < 0) {
+      throw new IllegalArgumentException(i18n("GERR_ILLEGAL_ARGUMENT", "depth"));
+    }
+    if (depth == 0) {
+      return nextPrimarySD();
+    }
+    return nextCompoundSD(depth);
+  }
+
+  /**
+   * Generates a random compound spider diagram of the given depth.
+   *
+   * @param depth the depth of the diagram to generate. Must be positive.
+   * @return a random compound spider diagram.
+   */
+  public CompoundSpiderDiagram nextCompoundSD(int depth) {
+    if (depth < 1) {
+      throw new IllegalArgumentException(i18n("GERR_ILLEGAL_ARGUMENT", "depth"));
+    }
+    Operator operator = nextOperator();
+    int arity = operator.getArity();
+    int deepestOperand = rng.nextInt(arity);
+    ArrayList<SpiderDiagram> operands = new ArrayList<>(arity);
+    for (int i = 0; i < arity; i++) {
+      int operandDepth = i == deepestOperand ? depth - 1 : rng.nextInt(depth);
+      operands.add(nextSpiderDiagram(operandDepth));
+    }
+    return SpiderDiagrams.createCompoundSD(operator, operands, false);
+  }
+
+  /**
+   * Generates a random valid primary spider diagram.
+   *
+   * @return a random valid primary spider diagram.
+   */
+  public PrimarySpiderDiagram nextPrimarySD() {
+    TreeSet<Zone> shadedZones = new TreeSet<>();
+    TreeSet<Zone> presentZones = new TreeSet<>();
+    ArrayList<Zone> visibleZones = new ArrayList<>();
+    int zonesCount = 1 << contourCount;
+    for (int zoneMask = 0; zoneMask < zonesCount; zoneMask++) {
+      Zone zone = zoneFromMask(zoneMask);
+      if (rng.nextDouble() < shadingDensity) {
+        shadedZones.add(zone);
+        if (rng.nextBoolean()) {
+          presentZones.add(zone);
+          visibleZones.add(zone);
+        }
+      } else {
+        presentZones.add(zone);
+        visibleZones.add(zone);
+      }
+    }
+    if (visibleZones.isEmpty()) {
+      Zone zone = zoneFromMask(rng.nextInt(zonesCount));
+      presentZones.add(zone);
+      visibleZones.add(zone);
+    }
+
+    TreeMap<String, Region> habitats = new TreeMap<>();
+    for (int i = 1; i <= spiderCount; i++) {
+      habitats.put("s" + i, nextRegion(visibleZones));
+    }
+    return SpiderDiagrams.createPrimarySD(habitats.keySet(), habitats, shadedZones, presentZones);
+  }
+
+  /**
+   * Picks a random operator according to the operator mix.
+   *
+   * @return a random operator.
+   */
+  public Operator nextOperator() {
+    int pick = rng.nextInt(operatorWeightsSum);
+    for (Map.Entry<Operator, Integer> entry : operatorMix.entrySet()) {
+      pick -= entry.getValue();
+      if (pick < 0) {
+        return entry.getKey();
+      }
+    }
+    throw new IllegalStateException(i18n("GERR_ILLEGAL_STATE"));
+  }
+
+  /**
+   * Returns a random non-empty region that contains only zones from the
+   * given list.
+   *
+   * @param zones the zones from which to pick. Must not be empty.
+   * @return a random non-empty region.
+   */
+  Region nextRegion(List<Zone> zones) {
+    ArrayList<Zone> regionZones = new ArrayList<>();
+    for (Zone zone : zones) {
+      if (rng.nextInt(3) == 0) {
+        regionZones.add(zone);
+      }
+    }
+    if (regionZones.isEmpty()) {
+      regionZones.add(zones.get(rng.nextInt(zones.size())));
+    }
+    return new Region(regionZones);
+  }
+  // </editor-fold>
+
+  // <editor-fold defaultstate="collapsed" desc="Helper Methods">
+  private Zone zoneFromMask(int zoneMask) {
+    ArrayList<String> inContours = new ArrayList<>();
+    ArrayList<String> outContours = new ArrayList<>();
+    for (int i = 0; i < contours.length; i++) {
+      if ((zoneMask & (1 << i)) != 0) {
+        inContours.add(contours[i]);
+      } else {
+        outContours.add(contours[i]);
+      }
+    }
+    return new Zone(inContours, outContours);
+  }
+
+  private static String[] contourNames(int contourCount) {
+    String[] names = new String[contourCount];
+    for (int i = 0; i < contourCount; i++) {
+      char letter = (char) ('A' + i % 26);
+      names[i] = i < 26 ? String.valueOf(letter) : letter + String.valueOf(i / 26);
+    }
+    return names;
+  }
+  // </editor-fold>
+}
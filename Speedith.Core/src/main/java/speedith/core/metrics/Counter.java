@@ -0,0 +1,36 @@
+package speedith.core.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A monotonically increasing, thread-safe count of events.
+ */
+public final class Counter {
+
+    private final AtomicLong count = new AtomicLong();
+
+    /**
+     * Increments this counter by one.
+     */
+    public void increment() {
+        count.incrementAndGet();
+    }
+
+    /**
+     * Increments this counter by the given amount.
+     *
+     * @param amount the amount by which to increment the counter.
+     */
+    public void add(long amount) {
+        count.addAndGet(amount);
+    }
+
+    /**
+     * Returns the current value of this counter.
+     *
+     * @return the current value of this counter.
+     */
+    public long getCount() {
+        return count.get();
+    }
+}
@@ -0,0 +1,14 @@
+package speedith.core.metrics;
+
+/**
+ * A metric whose value is computed on demand (e.g., a ratio of two counters).
+ */
+public interface Gauge {
+
+    /**
+     * Returns the current value of this gauge.
+     *
+     * @return the current value of this gauge.
+     */
+    double getValue();
+}
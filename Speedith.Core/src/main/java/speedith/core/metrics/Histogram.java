@@ -0,0 +1,133 @@
+package speedith.core.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static speedith.core.i18n.Translations.i18n;
+
+/**
+ * A thread-safe distribution of non-negative values (e.g., latencies in
+ * nanoseconds or goal sizes).
+ * <p>Values are counted in buckets whose bounds are powers of two. This keeps
+ * updates lock-free and the memory footprint constant, at the cost of
+ * percentiles being approximate (they are reported as the upper bound of the
+ * bucket in which they fall, but never more than the {@link
+ * Histogram#getMax() maximum}).</p>
+ */
+public final class Histogram {
+
+    private static final int BucketsCount = Long.SIZE + 1;
+    private final AtomicLongArray buckets = new AtomicLongArray(BucketsCount);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong max = new AtomicLong(Long.MIN_VALUE);
+
+    /**
+     * Records the given value. Negative values are recorded as zero.
+     *
+     * @param value the value to record.
+     */
+    public void update(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        buckets.incrementAndGet(bucketOf(value));
+        count.incrementAndGet();
+        sum.addAndGet(value);
+        long currentMin = min.get();
+        while (value < currentMin && !min.compareAndSet(currentMin, value)) {
+            currentMin = min.get();
+        }
+        long currentMax = max.get();
+        while (value > currentMax && !max.compareAndSet(currentMax, value)) {
+            currentMax = max.get();
+        }
+    }
+
+    /**
+     * Returns the number of recorded values.
+     *
+     * @return the number of recorded values.
+     */
+    public long getCount() {
+        return count.get();
+    }
+
+    /**
+     * Returns the sum of all recorded values.
+     *
+     * @return the sum of all recorded values.
+     */
+    public long getSum() {
+        return sum.get();
+    }
+
+    /**
+     * Returns the smallest recorded value, or 0 if no values were recorded.
+     *
+     * @return the smallest recorded value.
+     */
+    public long getMin() {
+        return getCount() == 0 ? 0 : min.get();
+    }
+
+    /**
+     * Returns the largest recorded value, or 0 if no values were recorded.
+     *
+     * @return the largest recorded value.
+     */
+    public long getMax() {
+        return getCount() == 0 ? 0 : max.get();
+    }
+
+    /**
+     * Returns the mean of recorded values, or 0 if no values were recorded.
+     *
+     * @return the mean of recorded values.
+     */
+    public double getMean() {
+        long currentCount = getCount();
+        return currentCount == 0 ? 0 : (double) getSum() / currentCount;
+    }
+
+    /**
+     * Returns an approximation of the given percentile of recorded values.
+     *
+     * @param quantile the quantile between 0 and 1 (e.g., 0.99 for the 99th
+     * percentile).
+     * @return an approximation of the given percentile, or 0 if no values were
+     * recorded.
+     */
+    public long getPercentile(double quantile) {
+        if (quantile < 0 || quantile > 1) {
+            throw new IllegalArgumentException(i18n("GERR_ILLEGAL_ARGUMENT", "quantile"));
+        }
+        long[] snapshot = new long[BucketsCount];
+        long total = 0;
+        for (int i = 0; i < BucketsCount; i++) {
+            snapshot[i] = buckets.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(quantile * total);
+        long seen = 0;
+        for (int i = 0; i < BucketsCount; i++) {
+            seen += snapshot[i];
+            if (seen >= rank && snapshot[i] > 0) {
+                return Math.min(upperBoundOf(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    private static int bucketOf(long value) {
+        return Long.SIZE - Long.numberOfLeadingZeros(value);
+    }
+
+    private static long upperBoundOf(int bucket) {
+        return bucket >= Long.SIZE - 1 ? Long.MAX_VALUE : (1L << bucket) - 1;
+    }
+}
@@ -0,0 +1,169 @@
+package speedith.core.metrics;
+
+import javax.management.*;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Map;
+
+import static speedith.core.i18n.Translations.i18n;
+
+/**
+ * Exposes the metrics of a {@link MetricsRegistry registry} as attributes of
+ * a JMX MBean.
+ * <p>Every counter is exposed as a {@code long} attribute with the counter's
+ * name. Every gauge is exposed as a {@code double} attribute with the gauge's
+ * name. Every histogram is exposed with the attributes {@code <name>.count},
+ * {@code <name>.mean}, {@code <name>.p50}, {@code <name>.p99} and
+ * {@code <name>.max}. Metrics that are created after the MBean has been
+ * registered show up automatically.</p>
+ */
+public class JmxMetricsExporter implements DynamicMBean {
+
+    /**
+     * The name under which the exporter registers its MBean by default.
+     */
+    public static final String DefaultObjectName = "speedith.core:type=Metrics";
+    private static final String[] HistogramAttributes = {".count", ".mean", ".p50", ".p99", ".max"};
+    private final MetricsRegistry registry;
+    private final ObjectName objectName;
+    private final MBeanServer mBeanServer;
+
+    /**
+     * Creates an exporter of {@link Metrics#getRegistry() the current metrics
+     * registry} that registers itself into the platform MBean server under
+     * the {@link JmxMetricsExporter#DefaultObjectName default name}.
+     */
+    public JmxMetricsExporter() {
+        this(null, DefaultObjectName, ManagementFactory.getPlatformMBeanServer());
+    }
+
+    /**
+     * Creates an exporter of the given metrics registry.
+     *
+     * @param registry the registry to export. If {@code null}, the registry
+     * that is {@link Metrics#getRegistry() current} at the time of each query
+     * is exported.
+     * @param objectName the name of the MBean.
+     * @param mBeanServer the server into which to register the MBean.
+     */
+    public JmxMetricsExporter(MetricsRegistry registry, String objectName, MBeanServer mBeanServer) {
+        if (mBeanServer == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "mBeanServer"));
+        }
+        try {
+            this.objectName = new ObjectName(objectName);
+        } catch (MalformedObjectNameException e) {
+            throw new IllegalArgumentException(i18n("GERR_ILLEGAL_ARGUMENT", "objectName"), e);
+        }
+        this.registry = registry;
+        this.mBeanServer = mBeanServer;
+    }
+
+    /**
+     * Registers this exporter into the MBean server.
+     *
+     * @throws JMException thrown if the registration failed (e.g., an MBean
+     * with the same name is already registered).
+     */
+    public void start() throws JMException {
+        mBeanServer.registerMBean(this, objectName);
+    }
+
+    /**
+     * Unregisters this exporter from the MBean server.
+     *
+     * @throws JMException thrown if the exporter is not registered.
+     */
+    public void stop() throws JMException {
+        mBeanServer.unregisterMBean(objectName);
+    }
+
+    public ObjectName getObjectName() {
+        return objectName;
+    }
+
+    // <editor-fold defaultstate="collapsed" desc="DynamicMBean Implementation">
+    @Override
+    public Object getAttribute(String attribute) throws AttributeNotFoundException {
+        MetricsRegistry currentRegistry = getRegistry();
+        Counter counter = currentRegistry.getCounters().get(attribute);
+        if (counter != null) {
+            return counter.getCount();
+        }
+        Gauge gauge = currentRegistry.getGauges().get(attribute);
+        if (gauge != null) {
+            return gauge.getValue();
+        }
+        int suffixStart = attribute.lastIndexOf('.');
+        if (suffixStart > 0) {
+            Histogram histogram = currentRegistry.getHistograms().get(attribute.substring(0, suffixStart));
+            if (histogram != null) {
+                switch (attribute.substring(suffixStart)) {
+                    case ".count":
+                        return histogram.getCount();
+                    case ".mean":
+                        return histogram.getMean();
+                    case ".p50":
+                        return histogram.getPercentile(0.5);
+                    case ".p99":
+                        return histogram.getPercentile(0.99);
+                    case ".max":
+                        return histogram.getMax();
+                }
+            }
+        }
+        throw new AttributeNotFoundException(attribute);
+    }
+
+    @Override
+    public AttributeList getAttributes(String[] attributes) {
+        AttributeList attributeList = new AttributeList();
+        for (String attribute : attributes) {
+            try {
+                attributeList.add(new Attribute(attribute, getAttribute(attribute)));
+            } catch (AttributeNotFoundException ignored) {
+                // Unknown attributes are omitted, as specified by DynamicMBean.
+            }
+        }
+        return attributeList;
+    }
+
+    @Override
+    public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+        throw new AttributeNotFoundException(attribute.getName());
+    }
+
+    @Override
+    public AttributeList setAttributes(AttributeList attributes) {
+        return new AttributeList();
+    }
+
+    @Override
+    public Object invoke(String actionName, Object[] params, String[] signature) throws MBeanException, ReflectionException {
+        throw new ReflectionException(new NoSuchMethodException(actionName));
+    }
+
+    @Override
+    public MBeanInfo getMBeanInfo() {
+        MetricsRegistry currentRegistry = getRegistry();
+        ArrayList<MBeanAttributeInfo> attributes = new ArrayList<>();
+        for (String name : currentRegistry.getCounters().keySet()) {
+            attributes.add(new MBeanAttributeInfo(name, long.class.getName(), name, true, false, false));
+        }
+        for (String name : currentRegistry.getGauges().keySet()) {
+            attributes.add(new MBeanAttributeInfo(name, double.class.getName(), name, true, false, false));
+        }
+        for (Map.Entry<String, Histogram> histogram : currentRegistry.getHistograms().entrySet()) {
+            for (String suffix : HistogramAttributes) {
+                String type = ".mean".equals(suffix) ? double.class.getName() : long.class.getName();
+                attributes.add(new MBeanAttributeInfo(histogram.getKey() + suffix, type, histogram.getKey() + suffix, true, false, false));
+            }
+        }
+        return new MBeanInfo(getClass().getName(), "Speedith metrics.", attributes.toArray(new MBeanAttributeInfo[attributes.size()]), null, null, null);
+    }
+    // </editor-fold>
+
+    private MetricsRegistry getRegistry() {
+        return registry == null ? Metrics.getRegistry() : registry;
+    }
+}
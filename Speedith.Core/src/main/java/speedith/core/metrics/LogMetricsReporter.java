@@ -0,0 +1,128 @@
+package speedith.core.metrics;
+
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static speedith.core.i18n.Translations.i18n;
+
+/**
+ * Periodically writes the metrics of a {@link MetricsRegistry registry} to a
+ * {@link Logger logger}.
+ * <p>The reporter runs on its own daemon thread, which is created by {@link
+ * LogMetricsReporter#start(long, java.util.concurrent.TimeUnit)} and
+ * terminated by {@link LogMetricsReporter#stop()}.</p>
+ */
+public class LogMetricsReporter {
+
+    private final MetricsRegistry registry;
+    private final Logger logger;
+    private final Level level;
+    private ScheduledExecutorService executor;
+
+    /**
+     * Creates a reporter of {@link Metrics#getRegistry() the current metrics
+     * registry} that logs on the {@link Level#INFO info} level.
+     */
+    public LogMetricsReporter() {
+        this(null, Logger.getLogger(LogMetricsReporter.class.getName()), Level.INFO);
+    }
+
+    /**
+     * Creates a reporter of the given registry.
+     *
+     * @param registry the registry to report. If {@code null}, the registry
+     * that is {@link Metrics#getRegistry() current} at the time of each report
+     * is reported.
+     * @param logger the logger into which to write the reports.
+     * @param level the level on which to write the reports.
+     */
+    public LogMetricsReporter(MetricsRegistry registry, Logger logger, Level level) {
+        if (logger == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "logger"));
+        }
+        if (level == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "level"));
+        }
+        this.registry = registry;
+        this.logger = logger;
+        this.level = level;
+    }
+
+    /**
+     * Starts reporting metrics with the given period. Does nothing if the
+     * reporter has already been started.
+     *
+     * @param period the time between two consecutive reports.
+     * @param unit the unit of the period.
+     */
+    public synchronized void start(long period, TimeUnit unit) {
+        if (executor != null) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                Thread thread = new Thread(runnable, "speedith-metrics-reporter");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        executor.scheduleAtFixedRate(new Runnable() {
+            @Override
+            public void run() {
+                report();
+            }
+        }, period, period, unit);
+    }
+
+    /**
+     * Stops reporting metrics.
+     */
+    public synchronized void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    /**
+     * Writes the current values of all metrics to the logger.
+     */
+    public void report() {
+        if (logger.isLoggable(level)) {
+            logger.log(level, formatReport());
+        }
+    }
+
+    /**
+     * Returns the current values of all metrics in a human-readable form (one
+     * metric per line).
+     *
+     * @return the current values of all metrics.
+     */
+    public String formatReport() {
+        MetricsRegistry currentRegistry = registry == null ? Metrics.getRegistry() : registry;
+        StringBuilder sb = new StringBuilder("Speedith metrics:");
+        for (Map.Entry<String, Counter> counter : currentRegistry.getCounters().entrySet()) {
+            sb.append('\n').append(counter.getKey()).append(" = ").append(counter.getValue().getCount());
+        }
+        for (Map.Entry<String, Gauge> gauge : currentRegistry.getGauges().entrySet()) {
+            sb.append('\n').append(gauge.getKey()).append(" = ").append(gauge.getValue().getValue());
+        }
+        for (Map.Entry<String, Histogram> entry : currentRegistry.getHistograms().entrySet()) {
+            Histogram histogram = entry.getValue();
+            sb.append('\n').append(entry.getKey())
+              .append(": count = ").append(histogram.getCount())
+              .append(", mean = ").append(histogram.getMean())
+              .append(", p50 = ").append(histogram.getPercentile(0.5))
+              .append(", p99 = ").append(histogram.getPercentile(0.99))
+              .append(", max = ").append(histogram.getMax());
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,122 @@
+package speedith.core.metrics;
+
+import static speedith.core.i18n.Translations.i18n;
+
+/**
+ * Provides access to the {@link MetricsRegistry metrics registry} into which
+ * Speedith records its metrics, and the names of these metrics.
+ * <p>By default, metrics are recorded into a {@link SimpleMetricsRegistry}.
+ * Applications may plug in their own registry (e.g., one that forwards to a
+ * monitoring system) via {@link Metrics#setRegistry(speedith.core.metrics.MetricsRegistry)}.
+ * The registry can be exposed via {@link JmxMetricsExporter JMX} or {@link
+ * LogMetricsReporter periodically logged}.</p>
+ * <p>The following metrics are recorded:
+ * <ul>
+ * <li>{@code speedith.rule.<rule name>.latency}: a histogram of inference
+ * rule application times in nanoseconds,</li>
+ * <li>{@code speedith.rule.<rule name>.success} and
+ * {@code speedith.rule.<rule name>.failure}: counters of successful and failed
+ * rule applications,</li>
+ * <li>{@code speedith.rule.<rule name>.goal_size.before} and
+ * {@code speedith.rule.<rule name>.goal_size.after}: histograms of goal sizes
+ * (the total number of sub-diagrams in all subgoals) before and after
+ * successful rule applications,</li>
+ * <li>{@code speedith.proof.apply_rule.latency}: a histogram of proof step
+ * times in nanoseconds (including the discharging of null subgoals),</li>
+ * <li>{@code speedith.pool.hits}, {@code speedith.pool.misses} and
+ * {@code speedith.pool.hit_rate}: how often the creation of a spider diagram
+ * found an equal diagram in the interning pool,</li>
+ * <li>{@code speedith.rule_cache.hits}, {@code speedith.rule_cache.misses},
+ * {@code speedith.rule_cache.evictions} and
+ * {@code speedith.rule_cache.hit_rate}: how often a
+ * {@link speedith.core.reasoning.RuleApplicationCache rule application cache}
+ * could return a memoized result.</li>
+ * </ul>
+ * </p>
+ */
+public final class Metrics {
+
+    // <editor-fold defaultstate="collapsed" desc="Metric Names">
+    public static final String Prefix = "speedith.";
+    public static final String RulePrefix = Prefix + "rule.";
+    public static final String RuleLatencySuffix = ".latency";
+    public static final String RuleSuccessSuffix = ".success";
+    public static final String RuleFailureSuffix = ".failure";
+    public static final String RuleGoalSizeBeforeSuffix = ".goal_size.before";
+    public static final String RuleGoalSizeAfterSuffix = ".goal_size.after";
+    public static final String ProofApplyRuleLatency = Prefix + "proof.apply_rule.latency";
+    public static final String PoolHits = Prefix + "pool.hits";
+    public static final String PoolMisses = Prefix + "pool.misses";
+    public static final String PoolHitRate = Prefix + "pool.hit_rate";
+    public static final String RuleCacheHits = Prefix + "rule_cache.hits";
+    public static final String RuleCacheMisses = Prefix + "rule_cache.misses";
+    public static final String RuleCacheEvictions = Prefix + "rule_cache.evictions";
+    public static final String RuleCacheHitRate = Prefix + "rule_cache.hit_rate";
+    // </editor-fold>
+
+    private static volatile MetricsRegistry registry = withBuiltInGauges(new SimpleMetricsRegistry());
+
+    private Metrics() {
+    }
+
+    /**
+     * Returns the registry into which Speedith currently records its metrics.
+     *
+     * @return the registry into which Speedith currently records its metrics.
+     */
+    public static MetricsRegistry getRegistry() {
+        return registry;
+    }
+
+    /**
+     * Sets the registry into which Speedith should record its metrics from now
+     * on. Gauges that Speedith derives from its counters (e.g., the interning
+     * pool hit rate) are registered into the given registry.
+     *
+     * @param registry the registry into which Speedith should record its
+     * metrics.
+     */
+    public static void setRegistry(MetricsRegistry registry) {
+        if (registry == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "registry"));
+        }
+        Metrics.registry = withBuiltInGauges(registry);
+    }
+
+    /**
+     * Increments the counter with the given name in the current registry.
+     *
+     * @param name the name of the counter.
+     */
+    public static void increment(String name) {
+        registry.counter(name).increment();
+    }
+
+    /**
+     * Records the value into the histogram with the given name in the current
+     * registry.
+     *
+     * @param name the name of the histogram.
+     * @param value the value to record.
+     */
+    public static void update(String name, long value) {
+        registry.histogram(name).update(value);
+    }
+
+    private static MetricsRegistry withBuiltInGauges(MetricsRegistry registry) {
+        registerHitRate(registry, PoolHitRate, PoolHits, PoolMisses);
+        registerHitRate(registry, RuleCacheHitRate, RuleCacheHits, RuleCacheMisses);
+        return registry;
+    }
+
+    private static void registerHitRate(final MetricsRegistry registry, String hitRateName, final String hitsName, final String missesName) {
+        registry.registerGauge(hitRateName, new Gauge() {
+            @Override
+            public double getValue() {
+                long hits = registry.counter(hitsName).getCount();
+                long lookups = hits + registry.counter(missesName).getCount();
+                return lookups == 0 ? 0 : (double) hits / lookups;
+            }
+        });
+    }
+}
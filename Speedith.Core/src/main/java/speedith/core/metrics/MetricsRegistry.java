@@ -0,0 +1,60 @@
+package speedith.core.metrics;
+
+import java.util.SortedMap;
+
+/**
+ * A named collection of {@link Counter counters}, {@link Histogram histograms}
+ * and {@link Gauge gauges}.
+ * <p>Implementations must be thread-safe. Metrics are created on first use and
+ * the same instance is returned for the same name thereafter.</p>
+ * <p>The registry used by Speedith is set via {@link
+ * Metrics#setRegistry(speedith.core.metrics.MetricsRegistry)}.</p>
+ */
+public interface MetricsRegistry {
+
+    /**
+     * Returns the counter with the given name (creating it if necessary).
+     *
+     * @param name the name of the counter.
+     * @return the counter with the given name.
+     */
+    Counter counter(String name);
+
+    /**
+     * Returns the histogram with the given name (creating it if necessary).
+     *
+     * @param name the name of the histogram.
+     * @return the histogram with the given name.
+     */
+    Histogram histogram(String name);
+
+    /**
+     * Registers the gauge under the given name. Replaces any gauge previously
+     * registered under the same name.
+     *
+     * @param name the name of the gauge.
+     * @param gauge the gauge to register.
+     */
+    void registerGauge(String name, Gauge gauge);
+
+    /**
+     * Returns a snapshot of all counters, sorted by name.
+     *
+     * @return a snapshot of all counters.
+     */
+    SortedMap<String, Counter> getCounters();
+
+    /**
+     * Returns a snapshot of all histograms, sorted by name.
+     *
+     * @return a snapshot of all histograms.
+     */
+    SortedMap<String, Histogram> getHistograms();
+
+    /**
+     * Returns a snapshot of all gauges, sorted by name.
+     *
+     * @return a snapshot of all gauges.
+     */
+    SortedMap<String, Gauge> getGauges();
+}
@@ -0,0 +1,24 @@
+package speedith.core.metrics;
+
+/**
+ * A {@link ReasoningEventListener reasoning event listener} that ignores all
+ * events. Extend it to listen to only some of the events.
+ */
+public abstract class ReasoningEventAdapter implements ReasoningEventListener {
+
+    @Override
+    public void ruleApplied(String ruleName, int subgoalIndex, long durationNanos, boolean success) {
+    }
+
+    @Override
+    public void diagramInterned(boolean compound, boolean poolHit) {
+    }
+
+    @Override
+    public void transformTraversal(Class<?> traverserType, int nodesVisited, long durationNanos) {
+    }
+
+    @Override
+    public void parseCompleted(int characters, long durationNanos, boolean success) {
+    }
+}
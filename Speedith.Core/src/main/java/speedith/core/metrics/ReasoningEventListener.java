@@ -0,0 +1,57 @@
+package speedith.core.metrics;
+
+/**
+ * Receives fine-grained events about reasoning and diagram construction.
+ * <p>Listeners are registered via {@link
+ * ReasoningEvents#addListener(speedith.core.metrics.ReasoningEventListener)}.
+ * They are called synchronously on the thread that caused the event, so they
+ * should return quickly and must be thread-safe. A typical listener forwards
+ * the events to a profiler or a flight recorder.</p>
+ * <p>Extend {@link ReasoningEventAdapter} to listen to only some of the
+ * events.</p>
+ */
+public interface ReasoningEventListener {
+
+    /**
+     * Called after an inference rule has been applied.
+     *
+     * @param ruleName the name of the applied inference rule.
+     * @param subgoalIndex the index of the subgoal targeted by the rule, or
+     * {@code -1} if the rule's arguments do not target a particular subgoal.
+     * @param durationNanos how long the application took (in nanoseconds).
+     * @param success {@code true} if the rule produced a result, {@code false}
+     * if it failed.
+     */
+    void ruleApplied(String ruleName, int subgoalIndex, long durationNanos, boolean success);
+
+    /**
+     * Called after a spider diagram has been looked up in the interning pool.
+     *
+     * @param compound {@code true} for compound diagrams, {@code false} for
+     * primary diagrams.
+     * @param poolHit {@code true} if an equal diagram was already in the pool
+     * (and was returned instead of the newly created one).
+     */
+    void diagramInterned(boolean compound, boolean poolHit);
+
+    /**
+     * Called after a transformer or a visitor has traversed a compound spider
+     * diagram.
+     *
+     * @param traverserType the class of the transformer or visitor.
+     * @param nodesVisited the number of sub-diagrams that were passed to the
+     * transformer or visitor.
+     * @param durationNanos how long the traversal took (in nanoseconds).
+     */
+    void transformTraversal(Class<?> traverserType, int nodesVisited, long durationNanos);
+
+    /**
+     * Called after a spider diagram has been read from its textual form.
+     *
+     * @param characters the number of characters in the input.
+     * @param durationNanos how long parsing and translation took (in
+     * nanoseconds).
+     * @param success {@code true} if the diagram was read successfully.
+     */
+    void parseCompleted(int characters, long durationNanos, boolean success);
+}
@@ -0,0 +1,103 @@
+package speedith.core.metrics;
+
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static speedith.core.i18n.Translations.i18n;
+
+/**
+ * Dispatches {@link ReasoningEventListener reasoning events} to registered
+ * listeners.
+ * <p>When no listener is registered, {@link ReasoningEvents#isEnabled()}
+ * returns {@code false} and the instrumented code skips all the bookkeeping
+ * (timing, counting of traversed nodes etc.). Exceptions thrown by listeners
+ * are logged and otherwise ignored.</p>
+ */
+public final class ReasoningEvents {
+
+    private static final Logger logger = Logger.getLogger(ReasoningEvents.class.getName());
+    private static final CopyOnWriteArrayList<ReasoningEventListener> listeners = new CopyOnWriteArrayList<>();
+    private static volatile boolean enabled;
+
+    private ReasoningEvents() {
+    }
+
+    /**
+     * Registers the given listener.
+     *
+     * @param listener the listener to register.
+     */
+    public static synchronized void addListener(ReasoningEventListener listener) {
+        if (listener == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "listener"));
+        }
+        listeners.add(listener);
+        enabled = true;
+    }
+
+    /**
+     * Unregisters the given listener.
+     *
+     * @param listener the listener to unregister.
+     */
+    public static synchronized void removeListener(ReasoningEventListener listener) {
+        listeners.remove(listener);
+        enabled = !listeners.isEmpty();
+    }
+
+    /**
+     * Indicates whether any listener is registered.
+     *
+     * @return {@code true} if at least one listener is registered.
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    // <editor-fold defaultstate="collapsed" desc="Event Dispatch">
+    public static void ruleApplied(String ruleName, int subgoalIndex, long durationNanos, boolean success) {
+        for (ReasoningEventListener listener : listeners) {
+            try {
+                listener.ruleApplied(ruleName, subgoalIndex, durationNanos, success);
+            } catch (RuntimeException e) {
+                logListenerFailure(e);
+            }
+        }
+    }
+
+    public static void diagramInterned(boolean compound, boolean poolHit) {
+        for (ReasoningEventListener listener : listeners) {
+            try {
+                listener.diagramInterned(compound, poolHit);
+            } catch (RuntimeException e) {
+                logListenerFailure(e);
+            }
+        }
+    }
+
+    public static void transformTraversal(Class<?> traverserType, int nodesVisited, long durationNanos) {
+        for (ReasoningEventListener listener : listeners) {
+            try {
+                listener.transformTraversal(traverserType, nodesVisited, durationNanos);
+            } catch (RuntimeException e) {
+                logListenerFailure(e);
+            }
+        }
+    }
+
+    public static void parseCompleted(int characters, long durationNanos, boolean success) {
+        for (ReasoningEventListener listener : listeners) {
+            try {
+                listener.parseCompleted(characters, durationNanos, success);
+            } catch (RuntimeException e) {
+                logListenerFailure(e);
+            }
+        }
+    }
+    // </editor-fold>
+
+    private static void logListenerFailure(RuntimeException e) {
+        logger.log(Level.WARNING, i18n("ERR_REASONING_EVENT_LISTENER_FAILED"), e);
+    }
+}
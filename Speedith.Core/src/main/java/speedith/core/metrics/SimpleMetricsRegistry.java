@@ -0,0 +1,75 @@
+package speedith.core.metrics;
+
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static speedith.core.i18n.Translations.i18n;
+
+/**
+ * An in-memory {@link MetricsRegistry metrics registry}.
+ */
+public class SimpleMetricsRegistry implements MetricsRegistry {
+
+    private final ConcurrentHashMap<String, Counter> counters = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Histogram> histograms = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, Gauge> gauges = new ConcurrentHashMap<>();
+
+    @Override
+    public Counter counter(String name) {
+        Counter counter = counters.get(name);
+        if (counter == null) {
+            assertNameValid(name);
+            Counter newCounter = new Counter();
+            counter = counters.putIfAbsent(name, newCounter);
+            if (counter == null) {
+                counter = newCounter;
+            }
+        }
+        return counter;
+    }
+
+    @Override
+    public Histogram histogram(String name) {
+        Histogram histogram = histograms.get(name);
+        if (histogram == null) {
+            assertNameValid(name);
+            Histogram newHistogram = new Histogram();
+            histogram = histograms.putIfAbsent(name, newHistogram);
+            if (histogram == null) {
+                histogram = newHistogram;
+            }
+        }
+        return histogram;
+    }
+
+    @Override
+    public void registerGauge(String name, Gauge gauge) {
+        assertNameValid(name);
+        if (gauge == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "gauge"));
+        }
+        gauges.put(name, gauge);
+    }
+
+    @Override
+    public SortedMap<String, Counter> getCounters() {
+        return new TreeMap<>(counters);
+    }
+
+    @Override
+    public SortedMap<String, Histogram> getHistograms() {
+        return new TreeMap<>(histograms);
+    }
+
+    @Override
+    public SortedMap<String, Gauge> getGauges() {
+        return new TreeMap<>(gauges);
+    }
+
+    private static void assertNameValid(String name) {
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException(i18n("GERR_EMPTY_ARGUMENT", "name"));
+        }
+    }
+}
@@ -0,0 +1,10 @@
+/**
+ * Contains the metrics that Speedith records while reasoning (e.g., rule
+ * application latencies and interning pool hits).
+ * <p>The entry point is {@link speedith.core.metrics.Metrics Metrics}, which
+ * holds the pluggable {@link speedith.core.metrics.MetricsRegistry registry}.
+ * Metrics can be exposed via {@link speedith.core.metrics.JmxMetricsExporter
+ * JMX} or {@link speedith.core.metrics.LogMetricsReporter logged
+ * periodically}.</p>
+ */
+package speedith.core.metrics;
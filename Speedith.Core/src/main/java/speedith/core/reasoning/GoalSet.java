@@ -0,0 +1,163 @@
+package speedith.core.reasoning;
+
+import speedith.core.lang.NullSpiderDiagram;
+import speedith.core.lang.SEquivalenceFingerprints;
+import speedith.core.lang.SpiderDiagram;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Set;
+
+import static speedith.core.i18n.Translations.i18n;
+
+/**
+ * The goals that remain of a list of goals once duplicate goals are merged
+ * and already proved goals are dropped:
+ * <ul>
+ * <li>all goals that are {@link SpiderDiagram#isSEquivalentTo(speedith.core.lang.SpiderDiagram)
+ * s-equivalent} to an earlier goal are merged into the earlier goal,</li>
+ * <li>goals that are equal to one of the given closed goals (goals that were
+ * already proved elsewhere) are dropped, and</li>
+ * <li>{@link NullSpiderDiagram null diagrams} are dropped (they are proved
+ * trivially).</li>
+ * </ul>
+ * <p>The remaining goals keep the order of their first occurrence. Candidates
+ * for merging are found through {@link SEquivalenceFingerprints
+ * fingerprints}, so merging takes linear time in the number of goals (unless
+ * many distinct goals share a fingerprint).</p>
+ * <p>The goal set keeps the mapping between the original goals and the
+ * remaining goals (see {@link GoalSet#getGoalIndex(int)} and {@link
+ * GoalSet#getOriginalIndices(int)}).</p>
+ * <p>Instances of this class are immutable.</p>
+ */
+public final class GoalSet {
+
+    private final Goals goals;
+    private final int[] goalIndices;
+    private final List<List<Integer>> originalIndices;
+
+    private GoalSet(Goals goals, int[] goalIndices, List<List<Integer>> originalIndices) {
+        this.goals = goals;
+        this.goalIndices = goalIndices;
+        this.originalIndices = originalIndices;
+    }
+
+    /**
+     * Merges the s-equivalent goals and drops the closed goals from the given
+     * goals.
+     *
+     * @param goals the goals to merge (may be {@code null}, which is treated
+     * as no goals).
+     * @param closedGoals the goals that are already proved (may be {@code
+     * null}).
+     * @return the remaining goals together with the mapping to the original
+     * goals.
+     */
+    public static GoalSet of(Goals goals, Set<SpiderDiagram> closedGoals) {
+        int goalsCount = goals == null ? 0 : goals.getGoalsCount();
+        int[] goalIndices = new int[goalsCount];
+        ArrayList<SpiderDiagram> remainingGoals = new ArrayList<>();
+        ArrayList<List<Integer>> originalIndices = new ArrayList<>();
+        HashMap<Integer, ArrayList<Integer>> fingerprintBuckets = new HashMap<>();
+        SEquivalenceFingerprints fingerprints = new SEquivalenceFingerprints();
+        for (int i = 0; i < goalsCount; i++) {
+            SpiderDiagram goal = goals.getGoalAt(i);
+            if (goal instanceof NullSpiderDiagram || closedGoals != null && closedGoals.contains(goal)) {
+                goalIndices[i] = -1;
+                continue;
+            }
+            Integer fingerprint = fingerprints.get(goal);
+            ArrayList<Integer> bucket = fingerprintBuckets.get(fingerprint);
+            if (bucket == null) {
+                bucket = new ArrayList<>(1);
+                fingerprintBuckets.put(fingerprint, bucket);
+            }
+            goalIndices[i] = -1;
+            for (int candidate : bucket) {
+                if (remainingGoals.get(candidate).isSEquivalentTo(goal)) {
+                    goalIndices[i] = candidate;
+                    break;
+                }
+            }
+            if (goalIndices[i] < 0) {
+                goalIndices[i] = remainingGoals.size();
+                bucket.add(remainingGoals.size());
+                remainingGoals.add(goal);
+                originalIndices.add(new ArrayList<Integer>(1));
+            }
+            originalIndices.get(goalIndices[i]).add(i);
+        }
+        for (int i = 0; i < originalIndices.size(); i++) {
+            originalIndices.set(i, Collections.unmodifiableList(originalIndices.get(i)));
+        }
+        Goals mergedGoals = goals != null && remainingGoals.size() == goalsCount ? goals : Goals.createGoalsFrom(remainingGoals);
+        return new GoalSet(mergedGoals, goalIndices, Collections.unmodifiableList(originalIndices));
+    }
+
+    /**
+     * Returns the remaining goals.
+     *
+     * @return the remaining goals.
+     */
+    public Goals getGoals() {
+        return goals;
+    }
+
+    /**
+     * Returns the number of the original goals.
+     *
+     * @return the number of the original goals.
+     */
+    public int getOriginalGoalsCount() {
+        return goalIndices.length;
+    }
+
+    /**
+     * Returns the index of the remaining goal into which the original goal at
+     * the given index was merged.
+     *
+     * @param originalIndex the index of an original goal.
+     * @return the index of the remaining goal or {@code -1} if the original
+     * goal was dropped (because it was a closed goal or a null diagram).
+     */
+    public int getGoalIndex(int originalIndex) {
+        if (originalIndex < 0 || originalIndex >= goalIndices.length) {
+            throw new IndexOutOfBoundsException(i18n("GERR_INDEX_OUT_OF_RANGE", originalIndex, 0, goalIndices.length - 1));
+        }
+        return goalIndices[originalIndex];
+    }
+
+    /**
+     * Returns the indices of all the original goals that were merged into the
+     * remaining goal at the given index (in ascending order).
+     *
+     * @param goalIndex the index of a remaining goal.
+     * @return the indices of the original goals.
+     */
+    public List<Integer> getOriginalIndices(int goalIndex) {
+        return originalIndices.get(goalIndex);
+    }
+
+    /**
+     * Indicates whether any of the original goals was merged or dropped.
+     *
+     * @return {@code true} if the remaining goals differ from the original
+     * ones.
+     */
+    public boolean isReduced() {
+        return originalIndices.size() != goalIndices.length;
+    }
+
+    /**
+     * Returns a fingerprint of the given diagram that is the same for all
+     * s-equivalent diagrams (see {@link SEquivalenceFingerprints}).
+     *
+     * @param diagram the diagram to fingerprint.
+     * @return the fingerprint of the diagram.
+     */
+    public static int getFingerprint(SpiderDiagram diagram) {
+        return SEquivalenceFingerprints.getFingerprint(diagram);
+    }
+}
@@ -0,0 +1,33 @@
+package speedith.core.reasoning;
+
+/**
+ * The result of a rule application in a proof that is in the {@link
+ * ProofTrace#setGoalSetMode(boolean) goal-set mode}.
+ * <p>{@link RuleApplicationResult#getGoals()} returns the goals as the rule
+ * produced them, while {@link GoalSetResult#getGoalSet()} gives the goals that
+ * the proof continues with and their mapping to the produced goals.</p>
+ */
+public class GoalSetResult extends RuleApplicationResult {
+
+    private final GoalSet goalSet;
+
+    /**
+     * Initialises an instance of the GoalSetResult class.
+     *
+     * @param goals the goals that the inference rule produced.
+     * @param goalSet the produced goals once they were merged.
+     */
+    public GoalSetResult(Goals goals, GoalSet goalSet) {
+        super(goals);
+        this.goalSet = goalSet;
+    }
+
+    /**
+     * Returns the produced goals once they were merged (see {@link GoalSet}).
+     *
+     * @return the produced goals once they were merged.
+     */
+    public GoalSet getGoalSet() {
+        return goalSet;
+    }
+}
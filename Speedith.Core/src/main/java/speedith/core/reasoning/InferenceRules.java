@@ -29,9 +29,12 @@ package speedith.core.reasoning;
 import speedith.core.reasoning.args.RuleArg;
 import speedith.core.reasoning.rules.*;
 
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.Set;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URL;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static speedith.core.i18n.Translations.i18n;
 
@@ -40,47 +43,52 @@ import static speedith.core.i18n.Translations.i18n;
  * detailed information about them (through their respective {@link
  * InferenceRuleProvider inference rule provider}) and acts as a means to
  * construct/fetch/instantiate inference rules for actual use in proofs.
+ * <p>The inference rules are listed in the {@link
+ * InferenceRules#InferenceRuleProvidersIndex provider index}. Providers are
+ * instantiated only when they are first requested, so that listing or using a
+ * few inference rules does not load the classes of all of them.</p>
+ * <p>This class is thread-safe. The registered providers and the inference
+ * rules they return are immutable and can be shared between threads.</p>
  *
  * @author Matej Urbas [matej.urbas@gmail.com]
  */
 public class InferenceRules {
 
     /**
-     * The map containing all currently registered inference rule providers.
+     * The path to the resource files (within the JAR files) that list the
+     * {@link InferenceRuleProvider inference rule providers} which should be
+     * registered.
+     * <p>Each line contains the fully qualified name of the provider's class
+     * optionally followed by a space and the {@link
+     * InferenceRuleProvider#getInferenceRuleName() name of the inference rule}.
+     * Providers with a name are instantiated when they are first requested,
+     * the others are instantiated immediately. Empty lines and lines starting
+     * with {@code #} are ignored.</p>
      */
-    private static final HashMap<String, InferenceRuleProvider<? extends RuleArg>> providers = new HashMap<>();
+    public static final String InferenceRuleProvidersIndex = "META-INF/speedith/InferenceRuleProviders";
+
+    /**
+     * The map containing all currently registered and instantiated inference
+     * rule providers.
+     * <p>Instantiated providers are looked up without locking. All changes
+     * (and lookups of providers that are not instantiated yet) are done while
+     * holding the lock on this map.</p>
+     */
+    private static final ConcurrentHashMap<String, InferenceRuleProvider<? extends RuleArg>> providers = new ConcurrentHashMap<>();
+    /**
+     * The class names of the indexed inference rule providers that have not
+     * been instantiated yet (keyed by the names of their inference rules).
+     * <p>Guarded by the lock on {@link InferenceRules#providers}.</p>
+     */
+    private static final HashMap<String, String> indexedProviders = new HashMap<>();
 
     static {
-        // Register built-in inference rules.
-        registerProvider(AddFeet.class);
-        registerProvider(EraseSpider.class);
-        registerProvider(IntroContour.class);
-        registerProvider(RemoveContour.class);
-        registerProvider(RemoveShading.class);
-        registerProvider(IntroShadedZone.class);
-        registerProvider(DischargeNullGoal.class);
-
-        registerProvider(Combining.class);
-        registerProvider(CopySpider.class);
-        registerProvider(CopyContours.class);
-        registerProvider(CopyShading.class);
-        registerProvider(SplitSpiders.class);
-        registerProvider(ExcludedMiddle.class);
-        registerProvider(NegationElimination.class);
-
-        registerProvider(ModusPonens.class);
-        registerProvider(ModusTolens.class);
-        registerProvider(Idempotency.class);
-        registerProvider(GeneralTautology.class);
-        registerProvider(ImplicationTautology.class);
-        registerProvider(ConjunctionElimination.class);
-        registerProvider(ConjunctionIntroduction.class);
-        registerProvider(DisjunctionElimination.class);
-        registerProvider(DisjunctionIntroduction.class);
-        registerProvider(EquivalenceElimination.class);
-        registerProvider(EquivalenceIntroduction.class);
-        registerProvider(DoubleNegationElimination.class);
-        registerProvider(DoubleNegationIntroduction.class);
+        if (!registerIndexedProviders()) {
+            // Register built-in inference rules (if the index is missing).
+            for (Class<?> builtInProvider : getBuiltInProviders()) {
+                registerProvider(builtInProvider);
+            }
+        }
     }
 
     /**
@@ -93,7 +101,7 @@ public class InferenceRules {
      * The main method for fetching a Spider-diagrammatic {@link InferenceRule
      * inference rule}.
      * <p>You can get the inference rules by name.</p>
-     * <p>This method throws an exception if the inference rule does not
+     * <p>This method returns {@code null} if the inference rule does not
      * exist.</p>
      * <p><span style="font-weight:bold">Note</span>: use {@link
      * InferenceRules#getProvider(java.lang.String)} to get more information
@@ -107,8 +115,8 @@ public class InferenceRules {
         if (inferenceRule == null) {
             throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "inferenceRule"));
         }
-        InferenceRuleProvider<? extends RuleArg> provider = providers.get(inferenceRule);
-        return provider.getInferenceRule();
+        InferenceRuleProvider<? extends RuleArg> provider = getProvider(inferenceRule);
+        return provider == null ? null : provider.getInferenceRule();
     }
 
     /**
@@ -126,7 +134,29 @@ public class InferenceRules {
      *         <p>Returns {@code null} if no such provider exists.</p>
      */
     public static InferenceRuleProvider<? extends RuleArg> getProvider(String inferenceRule) {
-        return providers.get(inferenceRule);
+        if (inferenceRule == null) {
+            return null;
+        }
+        InferenceRuleProvider<? extends RuleArg> provider = providers.get(inferenceRule);
+        if (provider != null) {
+            return provider;
+        }
+        synchronized (providers) {
+            provider = providers.get(inferenceRule);
+            String className = provider == null ? indexedProviders.get(inferenceRule) : null;
+            if (className != null) {
+                // The entry stays in the index until the provider is
+                // registered, so that a failure is repeated on every lookup.
+                try {
+                    provider = instantiate(Class.forName(className));
+                } catch (ClassNotFoundException ex) {
+                    throw new IllegalArgumentException(i18n("ERR_EXPORT_PROVIDER_CLASS"), ex);
+                }
+                providers.put(inferenceRule, provider);
+                indexedProviders.remove(inferenceRule);
+            }
+            return provider;
+        }
     }
 
     /**
@@ -138,7 +168,11 @@ public class InferenceRules {
      * @return a set of names of all currently supported inference rules.
      */
     public static Set<String> getKnownInferenceRules() {
-        return Collections.unmodifiableSet(providers.keySet());
+        synchronized (providers) {
+            HashSet<String> knownInferenceRules = new HashSet<>(providers.keySet());
+            knownInferenceRules.addAll(indexedProviders.keySet());
+            return Collections.unmodifiableSet(knownInferenceRules);
+        }
     }
 
     /**
@@ -154,12 +188,117 @@ public class InferenceRules {
         if (providerClass == null) {
             throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "providerClass"));
         }
+        InferenceRuleProvider<? extends RuleArg> theProvider = instantiate(providerClass);
+        synchronized (providers) {
+            indexedProviders.remove(theProvider.getInferenceRuleName());
+            providers.put(theProvider.getInferenceRuleName(), theProvider);
+        }
+    }
+
+    /**
+     * Registers the inference rule provider with the given class name under
+     * the given name of its inference rule. The provider is instantiated when
+     * it is first {@link InferenceRules#getProvider(java.lang.String)
+     * requested}.
+     * <p>This method replaces any old inference rule providers that happen to
+     * have the same name.</p>
+     *
+     * @param inferenceRule the name of the inference rule.
+     * @param className     the fully qualified name of the provider's class.
+     */
+    public static void registerProvider(String inferenceRule, String className) {
+        if (inferenceRule == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "inferenceRule"));
+        }
+        if (className == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "className"));
+        }
+        synchronized (providers) {
+            providers.remove(inferenceRule);
+            indexedProviders.put(inferenceRule, className);
+        }
+    }
+
+    /**
+     * Returns the classes of the built-in inference rule providers (which
+     * must all be listed in the {@link
+     * InferenceRules#InferenceRuleProvidersIndex provider index} of this
+     * library).
+     *
+     * @return the classes of the built-in inference rule providers.
+     */
+    static List<Class<?>> getBuiltInProviders() {
+        return Arrays.<Class<?>>asList(
+                AddFeet.class,
+                EraseSpider.class,
+                IntroContour.class,
+                RemoveContour.class,
+                RemoveShading.class,
+                IntroShadedZone.class,
+                DischargeNullGoal.class,
+
+                Combining.class,
+                CopySpider.class,
+                CopyContours.class,
+                CopyShading.class,
+                SplitSpiders.class,
+                ExcludedMiddle.class,
+                NegationElimination.class,
+
+                ModusPonens.class,
+                ModusTolens.class,
+                Idempotency.class,
+                GeneralTautology.class,
+                ImplicationTautology.class,
+                ConjunctionElimination.class,
+                ConjunctionIntroduction.class,
+                DisjunctionElimination.class,
+                DisjunctionIntroduction.class,
+                EquivalenceElimination.class,
+                EquivalenceIntroduction.class,
+                DoubleNegationElimination.class,
+                DoubleNegationIntroduction.class,
+                NormalizeGoal.class);
+    }
+
+    /**
+     * Registers the providers from all {@link
+     * InferenceRules#InferenceRuleProvidersIndex provider indices} on the
+     * class path.
+     *
+     * @return {@code true} if at least one index was found.
+     */
+    private static boolean registerIndexedProviders() {
+        boolean foundIndex = false;
         try {
-            @SuppressWarnings("unchecked")
-            InferenceRuleProvider<? extends RuleArg> theProvider = providerClass.asSubclass(InferenceRuleProvider.class).getConstructor().newInstance();
-            synchronized (providers) {
-                providers.put(theProvider.getInferenceRuleName(), theProvider);
+            Enumeration<URL> indices = InferenceRules.class.getClassLoader().getResources(InferenceRuleProvidersIndex);
+            while (indices.hasMoreElements()) {
+                foundIndex = true;
+                try (BufferedReader index = new BufferedReader(new InputStreamReader(indices.nextElement().openStream(), "UTF-8"))) {
+                    String line;
+                    while ((line = index.readLine()) != null) {
+                        line = line.trim();
+                        if (!line.isEmpty() && !line.startsWith("#")) {
+                            int classNameEnd = line.indexOf(' ');
+                            if (classNameEnd < 0) {
+                                registerProvider(Class.forName(line));
+                            } else {
+                                registerProvider(line.substring(classNameEnd + 1).trim(), line.substring(0, classNameEnd));
+                            }
+                        }
+                    }
+                }
             }
+        } catch (IOException | ClassNotFoundException ex) {
+            throw new RuntimeException(i18n("ERR_RULE_PROVIDER_SCAN_FAILED"), ex);
+        }
+        return foundIndex;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static InferenceRuleProvider<? extends RuleArg> instantiate(Class<?> providerClass) {
+        try {
+            return providerClass.asSubclass(InferenceRuleProvider.class).getConstructor().newInstance();
         } catch (Exception ex) {
             throw new IllegalArgumentException(i18n("ERR_EXPORT_PROVIDER_CLASS"), ex);
         }
@@ -28,6 +28,7 @@ package speedith.core.reasoning;
 
 import java.util.List;
 import speedith.core.reasoning.args.RuleArg;
+import speedith.core.reasoning.args.SubgoalIndexArg;
 
 /**
  * This interface outlines how a proof in Speedith looks like.
@@ -63,6 +64,31 @@ public interface Proof {
      */
     <TRuleArg extends RuleArg> RuleApplicationResult applyRule(InferenceRule<? super TRuleArg> rule, TRuleArg args) throws RuleApplicationException;
 
+    /**
+     * Applies the rule to each of the given subgoals of the {@link Proof#getLastGoals()  current goals}
+     * in a single step.
+     * <p>The rule is applied to every subgoal independently (and possibly in
+     * parallel) with a copy of the given arguments that targets that subgoal
+     * (see {@link SubgoalIndexArg#withNewSubgoalIndex(int)}). Every subgoal is
+     * then replaced by the subgoals that the application on it produced. The
+     * resulting goals do not depend on the order in which the applications
+     * finish. The step is recorded as an application of a {@link
+     * speedith.core.reasoning.rules.MultiTargetRule multi-target rule}.</p>
+     *
+     * @param <TRuleArg> the type of arguments that will be passed to the
+     * inference rule.
+     * @param rule the rule to apply on the subgoals. <span
+     * style="font-weight:bold">Note</span>: must not be {@code null}.
+     * @param args the arguments that should be passed on to the rule (the
+     * subgoal index in these arguments is ignored).
+     * @param subgoalIndices the indices of the subgoals on which to apply the
+     * rule.
+     * @return the result of the rule application.
+     * @throws RuleApplicationException thrown if the rule could not be applied
+     * to one of the subgoals (in which case no step is added to the proof).
+     */
+    <TRuleArg extends SubgoalIndexArg> RuleApplicationResult applyRuleToSubgoals(InferenceRule<? super TRuleArg> rule, TRuleArg args, int... subgoalIndices) throws RuleApplicationException;
+
     /**
      * Returns the subgoals at the given index. At index 0 are the initial
      * goals. At indices <span style="font-style:italic;">i</span>, where <span
@@ -26,13 +26,21 @@
  */
 package speedith.core.reasoning;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import static speedith.core.i18n.Translations.i18n;
 import speedith.core.lang.NullSpiderDiagram;
 import speedith.core.lang.SpiderDiagram;
+import speedith.core.metrics.Metrics;
+import speedith.core.reasoning.args.MultipleRuleArgs;
 import speedith.core.reasoning.args.RuleArg;
+import speedith.core.reasoning.args.SubgoalIndexArg;
+import speedith.core.reasoning.rules.MultiTargetRule;
 
 /**
  * An implementation of the {@link Proof} interface. <p>This class serves as the
@@ -45,9 +53,65 @@ public class ProofTrace implements Proof {
     // <editor-fold defaultstate="collapsed" desc="Fields">
     /**
      * Contains all goals of this proof trace (including the initial goal).
+     * <p>An element is {@code null} if the goals at that step are not kept in
+     * memory. These are rebuilt on demand by replaying the rule applications
+     * from the closest preceding goals that are kept in memory (the initial
+     * goals are always kept).</p>
      */
     private ArrayList<Goals> goals = new ArrayList<Goals>();
     private ArrayList<RuleApplication> ruleApplications = new ArrayList<RuleApplication>();
+    /**
+     * The optional memo of rule applications (see {@link
+     * ProofTrace#setRuleApplicationCache(speedith.core.reasoning.RuleApplicationCache)}).
+     */
+    private RuleApplicationCache ruleApplicationCache;
+    /**
+     * The number of steps between two goals that are kept in memory (see
+     * {@link ProofTrace#setCheckpointInterval(int)}).
+     */
+    private int checkpointInterval;
+    /**
+     * The most recently replayed goals (and their index). Replaying continues
+     * from these, so that iterating over the goals does not replay from the
+     * checkpoint again for every step.
+     */
+    private int replayedIndex = -1;
+    private Goals replayedGoals;
+    /**
+     * Indicates whether new steps merge their goals (see {@link
+     * ProofTrace#setGoalSetMode(boolean)}).
+     */
+    private boolean goalSetMode;
+    /**
+     * The indices of the rule applications that were applied in the goal-set
+     * mode.
+     */
+    private final BitSet goalSetSteps = new BitSet();
+    /**
+     * The goal that each rule application closed (or {@code null} if it did
+     * not close a goal or its closed goal is not known).
+     * <p>Closed goals are needed only by goal-set steps, so they are recorded
+     * only while this proof trace is in the goal-set mode or contains
+     * goal-set steps. Otherwise they would keep one spider diagram per step in
+     * memory, even when the goals between checkpoints are released.</p>
+     */
+    private ArrayList<SpiderDiagram> closedGoals = new ArrayList<SpiderDiagram>();
+    /**
+     * The number of leading rule applications whose closed goals are known.
+     * The closed goals of a loaded proof (and of steps that were applied
+     * while closed goals were not recorded) are found only when a goal-set
+     * step needs them.
+     */
+    private int knownClosedGoals;
+    /**
+     * The goals that the rule applications before {@code closedGoalsCursor}
+     * closed (with the number of these steps that closed each goal). The
+     * cursor is moved step by step to the goal-set step whose goals are being
+     * merged, so replaying consecutive goal-set steps does not collect the
+     * closed goals of all earlier steps anew.
+     */
+    private final HashMap<SpiderDiagram, Integer> closedGoalCounts = new HashMap<SpiderDiagram, Integer>();
+    private int closedGoalsCursor;
     // </editor-fold>
 
     // <editor-fold defaultstate="collapsed" desc="Constructors">
@@ -96,6 +160,75 @@ public class ProofTrace implements Proof {
     public ProofTrace(List<SpiderDiagram> initialGoals) {
         this(Goals.createGoalsFrom(initialGoals));
     }
+
+    /**
+     * Creates a proof trace that consists of the given initial goals and rule
+     * applications without applying the rules.
+     * <p>Only the initial goals and the given checkpoints are kept in memory.
+     * All other goals are rebuilt by replaying the rule applications from the
+     * closest preceding checkpoint whenever they are requested (e.g.: through
+     * {@link ProofTrace#getGoalsAt(int)}).</p>
+     *
+     * @param initialGoals the initial goals (the theorem we want to prove).
+     * <p><span style="font-weight:bold">Note</span>: this parameter may be
+     * {@code null} only if there are no rule applications.</p>
+     * @param ruleApplications the rule applications that were applied on the
+     * initial goals (in the order of application).
+     * @param checkpoints the known goals after the given number of rule
+     * applications (may be {@code null}).
+     */
+    public ProofTrace(Goals initialGoals, List<RuleApplication> ruleApplications, Map<Integer, Goals> checkpoints) {
+        this(initialGoals, ruleApplications, checkpoints, null);
+    }
+
+    /**
+     * Creates a proof trace that consists of the given initial goals and rule
+     * applications without applying the rules (see {@link
+     * ProofTrace#ProofTrace(speedith.core.reasoning.Goals, java.util.List,
+     * java.util.Map)}).
+     *
+     * @param initialGoals the initial goals (the theorem we want to prove).
+     * <p><span style="font-weight:bold">Note</span>: this parameter may be
+     * {@code null} only if there are no rule applications.</p>
+     * @param ruleApplications the rule applications that were applied on the
+     * initial goals (in the order of application).
+     * @param checkpoints the known goals after the given number of rule
+     * applications (may be {@code null}).
+     * @param goalSetSteps the indices of the rule applications that were
+     * applied in the {@link ProofTrace#setGoalSetMode(boolean) goal-set mode}
+     * (may be {@code null}).
+     */
+    public ProofTrace(Goals initialGoals, List<RuleApplication> ruleApplications, Map<Integer, Goals> checkpoints, BitSet goalSetSteps) {
+        this(initialGoals);
+        if (ruleApplications == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "ruleApplications"));
+        }
+        if (initialGoals == null && !ruleApplications.isEmpty()) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "initialGoals"));
+        }
+        for (RuleApplication ruleApplication : ruleApplications) {
+            if (ruleApplication == null) {
+                throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "ruleApplications"));
+            }
+            this.ruleApplications.add(ruleApplication);
+            closedGoals.add(null);
+            goals.add(null);
+        }
+        if (checkpoints != null) {
+            for (Map.Entry<Integer, Goals> checkpoint : checkpoints.entrySet()) {
+                if (checkpoint.getKey() < 1 || checkpoint.getKey() >= goals.size() || checkpoint.getValue() == null) {
+                    throw new IllegalArgumentException(i18n("GERR_ILLEGAL_ARGUMENT", "checkpoints"));
+                }
+                goals.set(checkpoint.getKey(), checkpoint.getValue());
+            }
+        }
+        if (goalSetSteps != null) {
+            if (goalSetSteps.length() > ruleApplications.size()) {
+                throw new IllegalArgumentException(i18n("GERR_ILLEGAL_ARGUMENT", "goalSetSteps"));
+            }
+            this.goalSetSteps.or(goalSetSteps);
+        }
+    }
     // </editor-fold>
 
     //<editor-fold defaultstate="collapsed" desc="Proof Interface Implementation">
@@ -109,31 +242,47 @@ public class ProofTrace implements Proof {
         if (isFinished()) {
             throw new RuleApplicationException(i18n("PROOF_TRACE_FINISHED"));
         }
-        RuleApplicationResult appResult = rule.apply(args, getLastGoals());
-        if (appResult == null) {
-            throw new IllegalStateException(i18n("SRK_RULE_MUST_RETURN_NONNULL_RESULT", rule.getProvider().getInferenceRuleName()));
-        }
-        // Discharge any null-spider diagrams automatically.
-        Goals newGoals = appResult.getGoals();
-        if (!newGoals.isEmpty()) {
-            ArrayList<SpiderDiagram> remainingGoals = new ArrayList<SpiderDiagram>();
-            NullSpiderDiagram nsd = NullSpiderDiagram.getInstance();
-            for (SpiderDiagram goal : newGoals.getGoals()) {
-                if (!nsd.isSEquivalentTo(goal)) {
-                    remainingGoals.add(goal);
-                }
-            }
-            newGoals = Goals.createGoalsFrom(remainingGoals);
+        long start = System.nanoTime();
+        try {
+            return applyRuleMeasured(rule, args);
+        } finally {
+            Metrics.update(Metrics.ProofApplyRuleLatency, System.nanoTime() - start);
         }
+    }
+
+    @Override
+    public <TRuleArg extends SubgoalIndexArg> RuleApplicationResult applyRuleToSubgoals(InferenceRule<? super TRuleArg> rule, TRuleArg args, int... subgoalIndices) throws RuleApplicationException {
+        return applyRule(new MultiTargetRule(rule), MultiTargetRule.createTargetArgs(args, subgoalIndices));
+    }
+
+    private <TRuleArg extends RuleArg> RuleApplicationResult applyRuleMeasured(InferenceRule<? super TRuleArg> rule, TRuleArg args) throws RuleApplicationException {
+        Goals lastGoals = getLastGoals();
+        RuleApplicationResult appResult = apply(rule, args, lastGoals);
+        int step = ruleApplications.size();
         ruleApplications.add(new RuleApplication(rule, args));
 //        goals.add(appResult.getGoals());
-        goals.add(newGoals);
+        Goals nextGoals = dischargeNullGoals(appResult.getGoals());
+        closedGoals.add(null);
+        if (goalSetMode) {
+            // The goals closed by the earlier steps are found first, so that
+            // the closed goal of this step can be recorded as known.
+            goalSetSteps.set(step);
+            GoalSet goalSet = getGoalSet(step, appResult.getGoals());
+            setClosedGoal(step, getClosedGoal(args, lastGoals, nextGoals));
+            nextGoals = goalSet.getGoals();
+            appResult = new GoalSetResult(appResult.getGoals(), goalSet);
+        } else if (isRecordingClosedGoals()) {
+            setClosedGoal(step, getClosedGoal(args, lastGoals, nextGoals));
+        }
+        goals.add(nextGoals);
+        releaseGoalsAt(goals.size() - 2);
         return appResult;
     }
 
     @Override
     public Goals getGoalsAt(int index) {
-        return goals.get(index);
+        Goals goalsAtIndex = goals.get(index);
+        return goalsAtIndex == null ? replayGoalsAt(index) : goalsAtIndex;
     }
 
     @Override
@@ -148,12 +297,22 @@ public class ProofTrace implements Proof {
 
     @Override
     public Goals getLastGoals() {
-        return goals.isEmpty() ? null : goals.get(goals.size() - 1);
+        return goals.isEmpty() ? null : getGoalsAt(goals.size() - 1);
     }
 
     @Override
     public List<Goals> getGoals() {
-        return Collections.unmodifiableList(goals);
+        return new AbstractList<Goals>() {
+            @Override
+            public Goals get(int index) {
+                return getGoalsAt(index);
+            }
+
+            @Override
+            public int size() {
+                return goals.size();
+            }
+        };
     }
 
     @Override
@@ -182,10 +341,473 @@ public class ProofTrace implements Proof {
         if (getRuleApplicationCount() > 0) {
             goals.remove(goals.size() - 1);
             ruleApplications.remove(ruleApplications.size() - 1);
+            if (closedGoalsCursor == closedGoals.size()) {
+                removeClosedGoal(closedGoals.get(--closedGoalsCursor));
+            }
+            closedGoals.remove(closedGoals.size() - 1);
+            goalSetSteps.clear(ruleApplications.size());
+            knownClosedGoals = Math.min(knownClosedGoals, ruleApplications.size());
+            if (replayedIndex >= goals.size()) {
+                replayedIndex = -1;
+                replayedGoals = null;
+            }
             return true;
         } else {
             return false;
         }
     }
     //</editor-fold>
+
+    // <editor-fold defaultstate="collapsed" desc="Step Replacement">
+    /**
+     * Replaces the rule application at the given index and re-checks all the
+     * following rule applications.
+     * <p>Following steps are not re-applied if they cannot be affected by the
+     * replacement:
+     * <ul>
+     * <li>once the goals before a step are the same (i.e.: contain the very
+     * same spider diagrams) as before the replacement, all the remaining goals
+     * are reused as they are, and</li>
+     * <li>a step that targets a single subgoal which is the same as before the
+     * replacement is not re-applied either: the subgoals it produced are
+     * reused and only the other subgoals are taken from the new goals.</li>
+     * </ul>
+     * All other steps are re-applied to the new goals.</p>
+     * <p>If one of the following steps no longer applies, this proof trace is
+     * cut just before that step (i.e.: the step and all the steps after it are
+     * removed) and the index of the step is returned.</p>
+     *
+     * @param <TRuleArg> the type of arguments that will be passed to the
+     * inference rule.
+     * @param index the index of the rule application to replace.
+     * @param rule the rule of the new rule application.
+     * @param args the arguments of the new rule application.
+     * @return the index of the first rule application that no longer applies
+     * or {@code -1} if all the following rule applications still apply.
+     * @throws RuleApplicationException thrown if the new rule application
+     * could not be applied (in which case this proof trace is left
+     * unchanged).
+     */
+    public <TRuleArg extends RuleArg> int replaceStep(int index, InferenceRule<? super TRuleArg> rule, TRuleArg args) throws RuleApplicationException {
+        if (index < 0 || index >= ruleApplications.size()) {
+            throw new IndexOutOfBoundsException(i18n("GERR_INDEX_OUT_OF_RANGE", index, 0, ruleApplications.size() - 1));
+        }
+        if (rule == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "rule"));
+        }
+        Goals goalsBefore = getGoalsAt(index);
+        Goals producedGoals = apply(rule, args, goalsBefore).getGoals();
+        Goals oldGoals = getGoalsAt(index + 1);
+        SpiderDiagram oldClosedGoal = closedGoals.get(index);
+        ruleApplications.set(index, new RuleApplication(rule, args));
+        Goals newGoals = getNextGoals(index, goalsBefore, producedGoals);
+        if (replayedIndex > index) {
+            replayedIndex = -1;
+            replayedGoals = null;
+        }
+        // Goals may be reused only while later goal-set steps drop the same
+        // closed goals as before.
+        boolean canReuseGoals = oldClosedGoal == closedGoals.get(index) || goalSetSteps.nextSetBit(index + 1) < 0;
+        for (int step = index + 1; step < ruleApplications.size(); step++) {
+            if (canReuseGoals && haveSameGoals(oldGoals, newGoals)) {
+                // The remaining goals are unaffected.
+                setGoalsAt(step, oldGoals);
+                return -1;
+            }
+            setGoalsAt(step, newGoals);
+            RuleApplication ruleApplication = ruleApplications.get(step);
+            SpiderDiagram oldStepClosedGoal = closedGoals.get(step);
+            Goals oldNextGoals = goals.get(step + 1);
+            if (oldNextGoals == null && oldGoals != null && canReuseGoals) {
+                oldNextGoals = applyStepOrNull(step, oldGoals);
+            }
+            Goals newNextGoals = !canReuseGoals || goalSetSteps.get(step) || oldGoals == null || oldNextGoals == null ? null : reuseUnaffectedGoals(ruleApplication, oldGoals, oldNextGoals, newGoals);
+            if (newNextGoals == null) {
+                newNextGoals = applyStepOrNull(step, newGoals);
+                if (newNextGoals == null) {
+                    while (ruleApplications.size() > step) {
+                        undoStep();
+                    }
+                    return step;
+                }
+                canReuseGoals &= oldStepClosedGoal == closedGoals.get(step) || goalSetSteps.nextSetBit(step + 1) < 0;
+            }
+            oldGoals = oldNextGoals;
+            newGoals = newNextGoals;
+        }
+        setGoalsAt(goals.size() - 1, newGoals);
+        return -1;
+    }
+
+    private void setGoalsAt(int index, Goals goalsAtIndex) {
+        goals.set(index, goalsAtIndex);
+        releaseGoalsAt(index);
+    }
+
+    private Goals applyStepOrNull(int step, Goals goals) {
+        try {
+            return applyStep(step, goals);
+        } catch (RuleApplicationException | RuntimeException ex) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the goals that the step produces from the new goals if the step
+     * targets a single subgoal that is the same in the old and the new goals
+     * (or {@code null} otherwise).
+     */
+    private static Goals reuseUnaffectedGoals(RuleApplication ruleApplication, Goals oldGoals, Goals oldNextGoals, Goals newGoals) {
+        int target = getTargetSubgoal(ruleApplication.getRuleArguments());
+        int count = oldGoals.getGoalsCount();
+        if (target < 0 || target >= count || count != newGoals.getGoalsCount() || oldGoals.getGoalAt(target) != newGoals.getGoalAt(target)) {
+            return null;
+        }
+        // The old step must have replaced only the target subgoal.
+        int producedCount = oldNextGoals.getGoalsCount() - count + 1;
+        if (producedCount < 0) {
+            return null;
+        }
+        for (int i = 0; i < target; i++) {
+            if (oldNextGoals.getGoalAt(i) != oldGoals.getGoalAt(i)) {
+                return null;
+            }
+        }
+        for (int i = target + 1; i < count; i++) {
+            if (oldNextGoals.getGoalAt(i + producedCount - 1) != oldGoals.getGoalAt(i)) {
+                return null;
+            }
+        }
+        ArrayList<SpiderDiagram> nextGoals = new ArrayList<SpiderDiagram>(count + producedCount - 1);
+        for (int i = 0; i < count; i++) {
+            if (i == target) {
+                for (int j = 0; j < producedCount; j++) {
+                    nextGoals.add(oldNextGoals.getGoalAt(target + j));
+                }
+            } else {
+                nextGoals.add(newGoals.getGoalAt(i));
+            }
+        }
+        return Goals.createGoalsFrom(nextGoals);
+    }
+
+    private static int getTargetSubgoal(RuleArg args) {
+        if (args instanceof SubgoalIndexArg) {
+            return ((SubgoalIndexArg) args).getSubgoalIndex();
+        } else if (args instanceof MultipleRuleArgs && !((MultipleRuleArgs) args).isEmpty()) {
+            int target = getTargetSubgoal(((MultipleRuleArgs) args).get(0));
+            for (RuleArg arg : (MultipleRuleArgs) args) {
+                if (getTargetSubgoal(arg) != target) {
+                    return -1;
+                }
+            }
+            return target;
+        }
+        return -1;
+    }
+
+    private static boolean haveSameGoals(Goals goals, Goals otherGoals) {
+        if (goals == null || goals.getGoalsCount() != otherGoals.getGoalsCount()) {
+            return false;
+        }
+        for (int i = 0; i < goals.getGoalsCount(); i++) {
+            if (goals.getGoalAt(i) != otherGoals.getGoalAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    // </editor-fold>
+
+    // <editor-fold defaultstate="collapsed" desc="Replay">
+    /**
+     * Rebuilds the goals at the given index by replaying the rule applications
+     * from the closest preceding goals that are kept in memory (or were
+     * replayed most recently). The last goals are kept in memory once they are
+     * rebuilt.
+     */
+    private Goals replayGoalsAt(int index) {
+        int step = index - 1;
+        while (goals.get(step) == null && step != replayedIndex) {
+            --step;
+        }
+        Goals replayedGoals = step == replayedIndex ? this.replayedGoals : goals.get(step);
+        for (; step < index; step++) {
+            try {
+                replayedGoals = applyStep(step, replayedGoals);
+            } catch (RuleApplicationException ex) {
+                throw new IllegalStateException(i18n("PROOF_TRACE_REPLAY_FAILED", step), ex);
+            }
+        }
+        if (index == goals.size() - 1) {
+            goals.set(index, replayedGoals);
+        }
+        this.replayedIndex = index;
+        this.replayedGoals = replayedGoals;
+        return replayedGoals;
+    }
+
+    /**
+     * Applies the rule through the {@link ProofTrace#getRuleApplicationCache()
+     * cache} (if any).
+     */
+    private RuleApplicationResult apply(InferenceRule<?> rule, RuleArg args, Goals goals) throws RuleApplicationException {
+        RuleApplicationResult appResult = ruleApplicationCache == null
+                ? RuleMetrics.apply(rule, args, goals)
+                : ruleApplicationCache.apply(rule, args, goals);
+        if (appResult == null) {
+            throw new IllegalStateException(i18n("SRK_RULE_MUST_RETURN_NONNULL_RESULT", rule.getProvider().getInferenceRuleName()));
+        }
+        return appResult;
+    }
+
+    /**
+     * Applies the recorded step to the goals and returns the resulting goals
+     * (without null spider diagrams).
+     */
+    private Goals applyStep(int step, Goals goals) throws RuleApplicationException {
+        RuleApplication ruleApplication = ruleApplications.get(step);
+        return getNextGoals(step, goals, apply(ruleApplication.getInferenceRule(), ruleApplication.getRuleArguments(), goals).getGoals());
+    }
+
+    /**
+     * Returns the goals after the given step from the goals before it and the
+     * goals that its rule produced, and records the goal that the step
+     * closed.
+     */
+    private Goals getNextGoals(int step, Goals goalsBefore, Goals producedGoals) {
+        Goals nextGoals = dischargeNullGoals(producedGoals);
+        if (isRecordingClosedGoals()) {
+            setClosedGoal(step, getClosedGoal(ruleApplications.get(step).getRuleArguments(), goalsBefore, nextGoals));
+        }
+        return goalSetSteps.get(step) ? getGoalSet(step, producedGoals).getGoals() : nextGoals;
+    }
+
+    /**
+     * Drops the goals at the given index from memory unless they are the
+     * initial goals, the last goals or a checkpoint.
+     */
+    private void releaseGoalsAt(int index) {
+        if (checkpointInterval > 0 && index > 0 && index < goals.size() - 1 && index % checkpointInterval != 0) {
+            goals.set(index, null);
+        }
+    }
+
+    /**
+     * Removes goals that are null spider diagrams (these are discharged
+     * automatically).
+     */
+    static Goals dischargeNullGoals(Goals newGoals) {
+        if (newGoals.isEmpty()) {
+            return newGoals;
+        }
+        ArrayList<SpiderDiagram> remainingGoals = new ArrayList<SpiderDiagram>();
+        NullSpiderDiagram nsd = NullSpiderDiagram.getInstance();
+        for (SpiderDiagram goal : newGoals.getGoals()) {
+            if (!nsd.isSEquivalentTo(goal)) {
+                remainingGoals.add(goal);
+            }
+        }
+        return Goals.createGoalsFrom(remainingGoals);
+    }
+    // </editor-fold>
+
+    // <editor-fold defaultstate="collapsed" desc="Goal-Set Mode">
+    /**
+     * Indicates whether the steps that are applied to this proof trace merge
+     * their goals (see {@link ProofTrace#setGoalSetMode(boolean)}).
+     *
+     * @return {@code true} if this proof trace is in the goal-set mode.
+     */
+    public boolean isGoalSetMode() {
+        return goalSetMode;
+    }
+
+    /**
+     * Turns the goal-set mode on or off. The mode affects only the steps that
+     * are applied afterwards.
+     * <p>In the goal-set mode, the goals that a rule application produces are
+     * turned into a {@link GoalSet}: s-equivalent goals are merged and goals
+     * that are equal to a goal which an earlier step of this proof trace
+     * closed are dropped. A step closes a goal if it removes its target
+     * subgoal and leaves all other goals intact (e.g.: by turning it into a
+     * null spider diagram). Rule applications then return a {@link
+     * GoalSetResult} with the mapping from the produced goals to the goals of
+     * this proof trace.</p>
+     *
+     * @param goalSetMode {@code true} to merge the goals of the following
+     * steps.
+     */
+    public void setGoalSetMode(boolean goalSetMode) {
+        this.goalSetMode = goalSetMode;
+    }
+
+    /**
+     * Indicates whether the rule application at the given index was applied
+     * in the {@link ProofTrace#setGoalSetMode(boolean) goal-set mode}.
+     *
+     * @param index the index of the rule application.
+     * @return {@code true} if the goals after the rule application were
+     * merged.
+     */
+    public boolean isGoalSetStep(int index) {
+        if (index < 0 || index >= ruleApplications.size()) {
+            throw new IndexOutOfBoundsException(i18n("GERR_INDEX_OUT_OF_RANGE", index, 0, ruleApplications.size() - 1));
+        }
+        return goalSetSteps.get(index);
+    }
+
+    private GoalSet getGoalSet(int step, Goals producedGoals) {
+        findClosedGoalsBefore(step);
+        while (closedGoalsCursor > step) {
+            removeClosedGoal(closedGoals.get(--closedGoalsCursor));
+        }
+        while (closedGoalsCursor < step) {
+            addClosedGoal(closedGoals.get(closedGoalsCursor++));
+        }
+        return GoalSet.of(producedGoals, closedGoalCounts.keySet());
+    }
+
+    /**
+     * Indicates whether the goals that steps close are needed (i.e.: whether
+     * goal-set steps can follow).
+     */
+    private boolean isRecordingClosedGoals() {
+        return goalSetMode || !goalSetSteps.isEmpty();
+    }
+
+    /**
+     * Records the goal that the step closed.
+     */
+    private void setClosedGoal(int step, SpiderDiagram closedGoal) {
+        if (step < closedGoalsCursor) {
+            removeClosedGoal(closedGoals.get(step));
+            addClosedGoal(closedGoal);
+        }
+        closedGoals.set(step, closedGoal);
+        if (knownClosedGoals == step) {
+            ++knownClosedGoals;
+        }
+    }
+
+    private void addClosedGoal(SpiderDiagram closedGoal) {
+        if (closedGoal != null) {
+            Integer count = closedGoalCounts.get(closedGoal);
+            closedGoalCounts.put(closedGoal, count == null ? 1 : count + 1);
+        }
+    }
+
+    private void removeClosedGoal(SpiderDiagram closedGoal) {
+        if (closedGoal != null) {
+            int count = closedGoalCounts.get(closedGoal);
+            if (count == 1) {
+                closedGoalCounts.remove(closedGoal);
+            } else {
+                closedGoalCounts.put(closedGoal, count - 1);
+            }
+        }
+    }
+
+    /**
+     * Replays the rule applications whose closed goals are not known yet (of a
+     * loaded proof) up to the given step.
+     */
+    private void findClosedGoalsBefore(int step) {
+        if (knownClosedGoals >= step) {
+            return;
+        }
+        Goals goalsBefore = getGoalsAt(knownClosedGoals);
+        while (knownClosedGoals < step) {
+            try {
+                goalsBefore = applyStep(knownClosedGoals, goalsBefore);
+            } catch (RuleApplicationException ex) {
+                throw new IllegalStateException(i18n("PROOF_TRACE_REPLAY_FAILED", knownClosedGoals), ex);
+            }
+        }
+    }
+
+    /**
+     * Returns the target subgoal if the step removed it and left all other
+     * goals intact (or {@code null} otherwise).
+     */
+    private static SpiderDiagram getClosedGoal(RuleArg args, Goals goalsBefore, Goals goalsAfter) {
+        int target = getTargetSubgoal(args);
+        int count = goalsBefore.getGoalsCount();
+        if (target < 0 || target >= count || goalsAfter.getGoalsCount() != count - 1) {
+            return null;
+        }
+        for (int i = 0; i < count - 1; i++) {
+            if (goalsAfter.getGoalAt(i) != goalsBefore.getGoalAt(i < target ? i : i + 1)) {
+                return null;
+            }
+        }
+        return goalsBefore.getGoalAt(target);
+    }
+    // </editor-fold>
+
+    // <editor-fold defaultstate="collapsed" desc="Rule Application Cache">
+    /**
+     * Returns the memo through which this proof trace applies inference rules
+     * (or {@code null} if this proof trace applies them directly).
+     *
+     * @return the memo through which this proof trace applies inference rules.
+     */
+    public RuleApplicationCache getRuleApplicationCache() {
+        return ruleApplicationCache;
+    }
+
+    /**
+     * Sets the memo through which this proof trace applies inference rules.
+     * <p>With a cache, re-applying a rule after {@link ProofTrace#undoStep()
+     * undoing} it (or applying it to goals that another proof trace sharing
+     * the cache already reached) reuses the memoized result instead of
+     * transforming the goals again.</p>
+     *
+     * @param ruleApplicationCache the memo to use or {@code null} to apply
+     * inference rules directly (the default).
+     */
+    public void setRuleApplicationCache(RuleApplicationCache ruleApplicationCache) {
+        this.ruleApplicationCache = ruleApplicationCache;
+    }
+    // </editor-fold>
+
+    // <editor-fold defaultstate="collapsed" desc="Checkpoints">
+    /**
+     * Returns the number of steps between two goals that this proof trace
+     * keeps in memory (or {@code 0} if it keeps all goals).
+     *
+     * @return the number of steps between two goals that this proof trace
+     * keeps in memory.
+     */
+    public int getCheckpointInterval() {
+        return checkpointInterval;
+    }
+
+    /**
+     * Makes this proof trace keep only every {@code checkpointInterval}-th
+     * goals (the checkpoints) in memory, together with the initial and the
+     * last goals and the log of rule applications.
+     * <p>All other goals are rebuilt by replaying the rule applications from
+     * the closest preceding checkpoint when they are requested (e.g.: through
+     * {@link ProofTrace#getGoalsAt(int)} or after {@link ProofTrace#undoStep()
+     * undoing} a step). This keeps the memory of very long proofs (e.g.: from
+     * automated search or normalization) bounded by the number of checkpoints
+     * rather than the number of steps, at the cost of replaying at most
+     * {@code checkpointInterval - 1} steps per request.</p>
+     * <p>Goals that are already in memory and are not checkpoints are dropped
+     * immediately.</p>
+     *
+     * @param checkpointInterval the number of steps between two checkpoints or
+     * {@code 0} to keep all goals in memory (the default).
+     */
+    public void setCheckpointInterval(int checkpointInterval) {
+        if (checkpointInterval < 0) {
+            throw new IllegalArgumentException(i18n("GERR_ILLEGAL_ARGUMENT", "checkpointInterval"));
+        }
+        this.checkpointInterval = checkpointInterval;
+        for (int index = 1; index < goals.size() - 1; index++) {
+            releaseGoalsAt(index);
+        }
+    }
+    // </editor-fold>
 }
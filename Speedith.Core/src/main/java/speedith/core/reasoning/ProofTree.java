@@ -0,0 +1,388 @@
+package speedith.core.reasoning;
+
+import speedith.core.metrics.Metrics;
+import speedith.core.reasoning.args.RuleArg;
+import speedith.core.reasoning.args.SubgoalIndexArg;
+import speedith.core.reasoning.rules.MultiTargetRule;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import static speedith.core.i18n.Translations.i18n;
+
+/**
+ * A proof with alternative branches.
+ * <p>Every {@link Node node} of the tree is the state of the goals after a
+ * rule application. A node refers only to its parent, so all branches that
+ * grow out of a node share the node and everything above it. A {@link Branch
+ * branch} points to the last node of a sequence of rule applications;
+ * {@link ProofTree#fork() forking} a branch and {@link
+ * ProofTree#switchTo(speedith.core.reasoning.ProofTree.Branch) switching} to
+ * another branch take constant time (every node knows the tree it belongs to
+ * and branches are compared by identity). Nodes that no branch leads to (e.g.: the
+ * nodes of an {@link ProofTree#abandon(speedith.core.reasoning.ProofTree.Branch)
+ * abandoned} branch or the nodes of an undone step) are not referenced by the
+ * tree and may be garbage-collected.</p>
+ * <p>The {@link Proof} methods operate on the {@link
+ * ProofTree#getCurrentBranch() current branch}, so a proof tree can be used
+ * wherever a linear proof is expected.</p>
+ */
+public class ProofTree implements Proof {
+
+    // <editor-fold defaultstate="collapsed" desc="Fields">
+    private final Node root;
+    /**
+     * The branches in the order of their creation ({@link Branch} does not
+     * override {@code equals}, so they are looked up by identity).
+     */
+    private final LinkedHashSet<Branch> branches = new LinkedHashSet<>();
+    private Branch currentBranch;
+    private RuleApplicationCache ruleApplicationCache;
+    // </editor-fold>
+
+    // <editor-fold defaultstate="collapsed" desc="Constructors">
+    /**
+     * Creates a new proof tree with the given initial goals and a single
+     * branch.
+     *
+     * @param initialGoals the initial goals (the theorem we want to prove).
+     * <p><span style="font-weight:bold">Note</span>: this parameter may be
+     * {@code null} in which case no goals will be there to prove and no proof
+     * steps will be applicable.</p>
+     */
+    public ProofTree(Goals initialGoals) {
+        root = initialGoals == null ? null : new Node(this, null, null, initialGoals);
+        currentBranch = new Branch(root);
+        branches.add(currentBranch);
+    }
+    // </editor-fold>
+
+    // <editor-fold defaultstate="collapsed" desc="Branches">
+    /**
+     * Returns the branch on which the {@link Proof} methods operate.
+     *
+     * @return the current branch.
+     */
+    public Branch getCurrentBranch() {
+        return currentBranch;
+    }
+
+    /**
+     * Returns all branches of this proof tree (in the order of their
+     * creation).
+     *
+     * @return all branches of this proof tree.
+     */
+    public List<Branch> getBranches() {
+        return Collections.unmodifiableList(new ArrayList<>(branches));
+    }
+
+    /**
+     * Creates a new branch that shares all steps with the current branch and
+     * makes it the current branch.
+     *
+     * @return the new branch.
+     */
+    public Branch fork() {
+        return fork(currentBranch.getTip());
+    }
+
+    /**
+     * Creates a new branch that ends with the given node (i.e.: shares all
+     * steps up to the given node) and makes it the current branch.
+     *
+     * @param node a node of this proof tree.
+     * @return the new branch.
+     */
+    public Branch fork(Node node) {
+        if (node != null && node.tree != this || node == null && root != null) {
+            throw new IllegalArgumentException(i18n("GERR_ILLEGAL_ARGUMENT", "node"));
+        }
+        currentBranch = new Branch(node);
+        branches.add(currentBranch);
+        return currentBranch;
+    }
+
+    /**
+     * Makes the given branch the current one.
+     *
+     * @param branch a branch of this proof tree.
+     */
+    public void switchTo(Branch branch) {
+        if (!branches.contains(branch)) {
+            throw new IllegalArgumentException(i18n("GERR_ILLEGAL_ARGUMENT", "branch"));
+        }
+        currentBranch = branch;
+    }
+
+    /**
+     * Removes the given branch from this proof tree. The steps that only this
+     * branch led to are dropped. If the branch was the current one, the first
+     * remaining branch becomes the current branch.
+     * <p>The last branch of a proof tree cannot be abandoned.</p>
+     *
+     * @param branch a branch of this proof tree.
+     */
+    public void abandon(Branch branch) {
+        if (branches.size() < 2 || !branches.remove(branch)) {
+            throw new IllegalArgumentException(i18n("GERR_ILLEGAL_ARGUMENT", "branch"));
+        }
+        if (currentBranch == branch) {
+            currentBranch = branches.iterator().next();
+        }
+    }
+
+    /**
+     * Returns the distinct alternative steps that some branch of this proof
+     * tree takes after the given node (in the order of the branches).
+     *
+     * @param node a node of this proof tree.
+     * @return the children of the node on all branches.
+     */
+    public List<Node> getAlternatives(Node node) {
+        if (node == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "node"));
+        }
+        ArrayList<Node> alternatives = new ArrayList<>();
+        for (Branch branch : branches) {
+            Node tip = branch.getTip();
+            if (tip != null && tip.getDepth() > node.getDepth()) {
+                Node child = tip.getNodeAt(node.getDepth() + 1);
+                if (child.getParent() == node && !alternatives.contains(child)) {
+                    alternatives.add(child);
+                }
+            }
+        }
+        return alternatives;
+    }
+    // </editor-fold>
+
+    // <editor-fold defaultstate="collapsed" desc="Proof Interface Implementation">
+    @Override
+    public <TRuleArg extends RuleArg> RuleApplicationResult applyRule(InferenceRule<TRuleArg> rule) throws RuleApplicationException {
+        return applyRule(rule, null);
+    }
+
+    @Override
+    public <TRuleArg extends RuleArg> RuleApplicationResult applyRule(InferenceRule<? super TRuleArg> rule, TRuleArg args) throws RuleApplicationException {
+        if (isFinished()) {
+            throw new RuleApplicationException(i18n("PROOF_TRACE_FINISHED"));
+        }
+        long start = System.nanoTime();
+        try {
+            Node tip = currentBranch.getTip();
+            RuleApplicationResult appResult = ruleApplicationCache == null
+                    ? RuleMetrics.apply(rule, args, tip.getGoals())
+                    : ruleApplicationCache.apply(rule, args, tip.getGoals());
+            if (appResult == null) {
+                throw new IllegalStateException(i18n("SRK_RULE_MUST_RETURN_NONNULL_RESULT", rule.getProvider().getInferenceRuleName()));
+            }
+            currentBranch.tip = new Node(this, tip, new RuleApplication(rule, args), ProofTrace.dischargeNullGoals(appResult.getGoals()));
+            return appResult;
+        } finally {
+            Metrics.update(Metrics.ProofApplyRuleLatency, System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public <TRuleArg extends SubgoalIndexArg> RuleApplicationResult applyRuleToSubgoals(InferenceRule<? super TRuleArg> rule, TRuleArg args, int... subgoalIndices) throws RuleApplicationException {
+        return applyRule(new MultiTargetRule(rule), MultiTargetRule.createTargetArgs(args, subgoalIndices));
+    }
+
+    @Override
+    public Goals getGoalsAt(int index) {
+        return getNodeAt(index).getGoals();
+    }
+
+    @Override
+    public int getGoalsCount() {
+        Node tip = currentBranch.getTip();
+        return tip == null ? 0 : tip.getDepth() + 1;
+    }
+
+    @Override
+    public Goals getInitialGoals() {
+        return root == null ? null : root.getGoals();
+    }
+
+    @Override
+    public Goals getLastGoals() {
+        Node tip = currentBranch.getTip();
+        return tip == null ? null : tip.getGoals();
+    }
+
+    @Override
+    public List<Goals> getGoals() {
+        Goals[] goals = new Goals[getGoalsCount()];
+        for (Node node = currentBranch.getTip(); node != null; node = node.getParent()) {
+            goals[node.getDepth()] = node.getGoals();
+        }
+        return Collections.unmodifiableList(Arrays.asList(goals));
+    }
+
+    @Override
+    public List<RuleApplication> getRuleApplications() {
+        RuleApplication[] ruleApplications = new RuleApplication[getRuleApplicationCount()];
+        for (Node node = currentBranch.getTip(); node != null && node.getParent() != null; node = node.getParent()) {
+            ruleApplications[node.getDepth() - 1] = node.getRuleApplication();
+        }
+        return Collections.unmodifiableList(Arrays.asList(ruleApplications));
+    }
+
+    @Override
+    public RuleApplication getRuleApplicationAt(int index) {
+        return getNodeAt(index + 1).getRuleApplication();
+    }
+
+    @Override
+    public int getRuleApplicationCount() {
+        return Math.max(0, getGoalsCount() - 1);
+    }
+
+    @Override
+    public boolean isFinished() {
+        final Goals lastGoals = getLastGoals();
+        return lastGoals == null || lastGoals.isEmpty();
+    }
+
+    /**
+     * Moves the current branch one step back. The undone step is kept only if
+     * another branch leads to it.
+     *
+     * @return {@code true} if a step was undone.
+     */
+    @Override
+    public boolean undoStep() {
+        Node tip = currentBranch.getTip();
+        if (tip != null && tip.getParent() != null) {
+            currentBranch.tip = tip.getParent();
+            return true;
+        }
+        return false;
+    }
+    // </editor-fold>
+
+    // <editor-fold defaultstate="collapsed" desc="Rule Application Cache">
+    /**
+     * Returns the memo through which this proof tree applies inference rules
+     * (or {@code null} if this proof tree applies them directly).
+     *
+     * @return the memo through which this proof tree applies inference rules.
+     */
+    public RuleApplicationCache getRuleApplicationCache() {
+        return ruleApplicationCache;
+    }
+
+    /**
+     * Sets the memo through which this proof tree applies inference rules
+     * (see {@link ProofTrace#setRuleApplicationCache(speedith.core.reasoning.RuleApplicationCache)}).
+     *
+     * @param ruleApplicationCache the memo to use or {@code null} to apply
+     * inference rules directly (the default).
+     */
+    public void setRuleApplicationCache(RuleApplicationCache ruleApplicationCache) {
+        this.ruleApplicationCache = ruleApplicationCache;
+    }
+    // </editor-fold>
+
+    private Node getNodeAt(int index) {
+        Node tip = currentBranch.getTip();
+        if (tip == null || index < 0 || index > tip.getDepth()) {
+            throw new IndexOutOfBoundsException(i18n("GERR_INDEX_OUT_OF_BOUNDS"));
+        }
+        return tip.getNodeAt(index);
+    }
+
+    /**
+     * The goals after a rule application in a {@link ProofTree}. Nodes are
+     * immutable.
+     */
+    public static final class Node {
+
+        private final ProofTree tree;
+        private final Node parent;
+        private final RuleApplication ruleApplication;
+        private final Goals goals;
+        private final int depth;
+
+        private Node(ProofTree tree, Node parent, RuleApplication ruleApplication, Goals goals) {
+            this.tree = tree;
+            this.parent = parent;
+            this.ruleApplication = ruleApplication;
+            this.goals = goals;
+            this.depth = parent == null ? 0 : parent.depth + 1;
+        }
+
+        /**
+         * Returns the node to which the {@link Node#getRuleApplication() rule
+         * application} was applied (or {@code null} for the initial goals).
+         *
+         * @return the parent node.
+         */
+        public Node getParent() {
+            return parent;
+        }
+
+        /**
+         * Returns the rule application that led from the parent to this node
+         * (or {@code null} for the initial goals).
+         *
+         * @return the rule application that led to this node.
+         */
+        public RuleApplication getRuleApplication() {
+            return ruleApplication;
+        }
+
+        /**
+         * Returns the goals after the rule application.
+         *
+         * @return the goals after the rule application.
+         */
+        public Goals getGoals() {
+            return goals;
+        }
+
+        /**
+         * Returns the number of rule applications from the initial goals to
+         * this node.
+         *
+         * @return the number of rule applications that led to this node.
+         */
+        public int getDepth() {
+            return depth;
+        }
+
+        private Node getNodeAt(int depth) {
+            Node node = this;
+            while (node.depth > depth) {
+                node = node.parent;
+            }
+            return node;
+        }
+    }
+
+    /**
+     * A sequence of rule applications in a {@link ProofTree} (identified by
+     * its last node).
+     */
+    public static final class Branch {
+
+        private Node tip;
+
+        private Branch(Node tip) {
+            this.tip = tip;
+        }
+
+        /**
+         * Returns the last node of this branch.
+         *
+         * @return the last node of this branch.
+         */
+        public Node getTip() {
+            return tip;
+        }
+    }
+}
@@ -98,7 +98,7 @@ public class RuleApplication {
      * for any reason.
      */
     public RuleApplicationResult applyTo(Goals goals) throws RuleApplicationException {
-        return inferenceRule.apply(ruleArguments, goals);
+        return RuleMetrics.apply(inferenceRule, ruleArguments, goals);
     }
     // </editor-fold>
 }
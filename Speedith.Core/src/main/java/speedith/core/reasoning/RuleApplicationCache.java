@@ -0,0 +1,195 @@
+package speedith.core.reasoning;
+
+import speedith.core.lang.SpiderDiagram;
+import speedith.core.metrics.Metrics;
+import speedith.core.reasoning.args.RuleArg;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static speedith.core.i18n.Translations.i18n;
+
+/**
+ * A bounded memo of {@link InferenceRule#apply(speedith.core.reasoning.args.RuleArg, speedith.core.reasoning.Goals)
+ * rule applications}.
+ * <p>Results are keyed by the name of the inference rule, the (value-equal)
+ * rule argument and the goals to which the rule was applied. Goals match only
+ * if they contain the very same diagram instances in the same order (diagrams
+ * created through {@link speedith.core.lang.SpiderDiagrams} are interned, so
+ * equal goals usually consist of identical instances). This makes lookups
+ * cheap even for huge goals.</p>
+ * <p>The cache holds at most {@link RuleApplicationCache#getMaxSize() a
+ * fixed number} of results and evicts the least recently used one when it is
+ * full. Failed applications are not memoized. Hits, misses and evictions are
+ * reported through {@link Metrics#RuleCacheHits}, {@link
+ * Metrics#RuleCacheMisses} and {@link Metrics#RuleCacheEvictions}.</p>
+ * <p>Instances of this class are thread-safe. The rule itself is applied
+ * outside of the cache's lock, so concurrent misses on the same key may
+ * apply the rule more than once.</p>
+ * <p>The cache is opt-in: only inference rules whose results depend solely on
+ * the argument and the goals should be applied through it (this holds for all
+ * built-in rules).</p>
+ */
+public class RuleApplicationCache {
+
+    /**
+     * The maximum number of results a cache created with the default
+     * constructor holds.
+     */
+    public static final int DefaultMaxSize = 1024;
+
+    private final int maxSize;
+    private final LinkedHashMap<Key, RuleApplicationResult> results;
+
+    /**
+     * Creates a cache that holds at most {@link RuleApplicationCache#DefaultMaxSize}
+     * results.
+     */
+    public RuleApplicationCache() {
+        this(DefaultMaxSize);
+    }
+
+    /**
+     * Creates a cache that holds at most the given number of results.
+     *
+     * @param maxSize the maximum number of results the cache holds (must be
+     *                positive).
+     */
+    public RuleApplicationCache(final int maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException(i18n("GERR_ILLEGAL_ARGUMENT", "maxSize"));
+        }
+        this.maxSize = maxSize;
+        this.results = new LinkedHashMap<Key, RuleApplicationResult>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, RuleApplicationResult> eldest) {
+                if (size() > maxSize) {
+                    Metrics.increment(Metrics.RuleCacheEvictions);
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Returns the memoized result of applying the inference rule with the
+     * given arguments to the goals or applies the rule (through {@link
+     * RuleMetrics#apply(speedith.core.reasoning.InferenceRule, speedith.core.reasoning.args.RuleArg, speedith.core.reasoning.Goals)})
+     * and memoizes its result.
+     *
+     * @param rule  the rule to apply.
+     * @param args  the arguments to the rule.
+     * @param goals the goals to which to apply the rule.
+     * @return the result of the rule application.
+     * @throws RuleApplicationException thrown if the rule could not be applied.
+     */
+    public RuleApplicationResult apply(InferenceRule<?> rule, RuleArg args, Goals goals) throws RuleApplicationException {
+        if (rule == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "rule"));
+        }
+        Key key = new Key(rule.getProvider().getInferenceRuleName(), args, goals);
+        RuleApplicationResult result;
+        synchronized (results) {
+            result = results.get(key);
+        }
+        if (result != null) {
+            Metrics.increment(Metrics.RuleCacheHits);
+            return result;
+        }
+        Metrics.increment(Metrics.RuleCacheMisses);
+        result = RuleMetrics.apply(rule, args, goals);
+        if (result != null) {
+            synchronized (results) {
+                results.put(key, result);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Returns the maximum number of results this cache holds.
+     *
+     * @return the maximum number of results this cache holds.
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Returns the number of results currently in this cache.
+     *
+     * @return the number of results currently in this cache.
+     */
+    public int size() {
+        synchronized (results) {
+            return results.size();
+        }
+    }
+
+    /**
+     * Removes all results from this cache.
+     */
+    public void clear() {
+        synchronized (results) {
+            results.clear();
+        }
+    }
+
+    private static final class Key {
+
+        private final String ruleName;
+        private final RuleArg args;
+        private final List<SpiderDiagram> goals;
+        private final int hash;
+
+        Key(String ruleName, RuleArg args, Goals goals) {
+            this.ruleName = ruleName;
+            this.args = args;
+            this.goals = goals == null ? null : goals.getGoals();
+            int h = ruleName.hashCode() * 31 + (args == null ? 0 : args.hashCode());
+            if (this.goals != null) {
+                for (SpiderDiagram goal : this.goals) {
+                    h = h * 31 + System.identityHashCode(goal);
+                }
+            }
+            this.hash = h;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return hash == other.hash
+                    && ruleName.equals(other.ruleName)
+                    && (args == null ? other.args == null : args.equals(other.args))
+                    && haveIdenticalGoals(goals, other.goals);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        private static boolean haveIdenticalGoals(List<SpiderDiagram> goals, List<SpiderDiagram> otherGoals) {
+            if (goals == null || otherGoals == null) {
+                return goals == otherGoals;
+            }
+            if (goals.size() != otherGoals.size()) {
+                return false;
+            }
+            for (int i = 0; i < goals.size(); i++) {
+                if (goals.get(i) != otherGoals.get(i)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
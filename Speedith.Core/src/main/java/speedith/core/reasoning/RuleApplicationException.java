@@ -26,17 +26,21 @@
  */
 package speedith.core.reasoning;
 
+import speedith.core.i18n.DeferredMessage;
+
 /**
  *
  * @author Matej Urbas [matej.urbas@gmail.com]
  */
 public class RuleApplicationException extends Exception {
     private static final long serialVersionUID = 0x2d9444064275ba88L;
+    private final DeferredMessage deferredMessage;
 
     /**
      * Creates a new instance of <code>RuleApplicationException</code> without detail message.
      */
     public RuleApplicationException() {
+        this.deferredMessage = null;
     }
 
     /**
@@ -45,6 +49,16 @@ public class RuleApplicationException extends Exception {
      */
     public RuleApplicationException(String msg) {
         super(msg);
+        this.deferredMessage = null;
+    }
+
+    /**
+     * Constructs an instance of <code>RuleApplicationException</code> with a
+     * detail message that is formatted only when it is requested.
+     * @param msg the deferred detail message.
+     */
+    public RuleApplicationException(DeferredMessage msg) {
+        this.deferredMessage = msg;
     }
 
     /**
@@ -54,6 +68,7 @@ public class RuleApplicationException extends Exception {
      */
     public RuleApplicationException(String msg, Throwable cause) {
         super(msg, cause);
+        this.deferredMessage = null;
     }
 
     /**
@@ -62,5 +77,11 @@ public class RuleApplicationException extends Exception {
      */
     public RuleApplicationException(Throwable cause) {
         super(cause);
+        this.deferredMessage = null;
+    }
+
+    @Override
+    public String getMessage() {
+        return deferredMessage == null ? super.getMessage() : deferredMessage.getMessage();
     }
 }
@@ -0,0 +1,88 @@
+package speedith.core.reasoning;
+
+import speedith.core.lang.SpiderDiagram;
+import speedith.core.metrics.Metrics;
+import speedith.core.metrics.MetricsRegistry;
+import speedith.core.metrics.ReasoningEvents;
+import speedith.core.reasoning.args.MultipleRuleArgs;
+import speedith.core.reasoning.args.RuleArg;
+import speedith.core.reasoning.args.SubgoalIndexArg;
+
+import static speedith.core.i18n.Translations.i18n;
+
+/**
+ * Applies inference rules and records per-rule {@link Metrics metrics} about
+ * the applications (latency, success and failure counts, and the goal sizes
+ * before and after the application). Every application is also reported as a
+ * {@link ReasoningEvents reasoning event}.
+ * <p>All places that apply inference rules should do so through {@link
+ * RuleMetrics#apply(speedith.core.reasoning.InferenceRule, speedith.core.reasoning.args.RuleArg, speedith.core.reasoning.Goals)}
+ * rather than calling {@link InferenceRule#apply(speedith.core.reasoning.args.RuleArg, speedith.core.reasoning.Goals)}
+ * directly.</p>
+ */
+public final class RuleMetrics {
+
+    private RuleMetrics() {
+    }
+
+    /**
+     * Applies the inference rule with the given arguments to the goals and
+     * records the metrics of the application.
+     *
+     * @param rule the rule to apply.
+     * @param args the arguments to the rule.
+     * @param goals the goals to which to apply the rule.
+     * @return the result of the rule application.
+     * @throws RuleApplicationException thrown if the rule could not be applied.
+     */
+    public static RuleApplicationResult apply(InferenceRule<?> rule, RuleArg args, Goals goals) throws RuleApplicationException {
+        if (rule == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "rule"));
+        }
+        String metricPrefix = Metrics.RulePrefix + rule.getProvider().getInferenceRuleName();
+        MetricsRegistry registry = Metrics.getRegistry();
+        boolean success = false;
+        long start = System.nanoTime();
+        try {
+            RuleApplicationResult result = rule.apply(args, goals);
+            success = result != null;
+            if (success) {
+                registry.histogram(metricPrefix + Metrics.RuleGoalSizeBeforeSuffix).update(getGoalSize(goals));
+                registry.histogram(metricPrefix + Metrics.RuleGoalSizeAfterSuffix).update(getGoalSize(result.getGoals()));
+            }
+            return result;
+        } finally {
+            long duration = System.nanoTime() - start;
+            registry.histogram(metricPrefix + Metrics.RuleLatencySuffix).update(duration);
+            registry.counter(metricPrefix + (success ? Metrics.RuleSuccessSuffix : Metrics.RuleFailureSuffix)).increment();
+            if (ReasoningEvents.isEnabled()) {
+                ReasoningEvents.ruleApplied(rule.getProvider().getInferenceRuleName(), getSubgoalIndex(args), duration, success);
+            }
+        }
+    }
+
+    private static int getSubgoalIndex(RuleArg args) {
+        if (args instanceof SubgoalIndexArg) {
+            return ((SubgoalIndexArg) args).getSubgoalIndex();
+        } else if (args instanceof MultipleRuleArgs && !((MultipleRuleArgs) args).isEmpty()) {
+            return getSubgoalIndex(((MultipleRuleArgs) args).get(0));
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the total number of sub-diagrams in all the given goals.
+     *
+     * @param goals the goals to measure.
+     * @return the total number of sub-diagrams in all the given goals.
+     */
+    public static int getGoalSize(Goals goals) {
+        int size = 0;
+        if (goals != null && !goals.isEmpty()) {
+            for (SpiderDiagram goal : goals.getGoals()) {
+                size += goal.getSubDiagramCount();
+            }
+        }
+        return size;
+    }
+}
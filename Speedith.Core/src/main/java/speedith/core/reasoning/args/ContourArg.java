@@ -95,4 +95,16 @@ public class ContourArg extends SubDiagramIndexArg {
         }
         return contourArgs;
     }
+
+    // <editor-fold defaultstate="collapsed" desc="Equality">
+    @Override
+    public boolean equals(Object obj) {
+        return super.equals(obj) && contour.equals(((ContourArg) obj).contour);
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode() * 31 + contour.hashCode();
+    }
+    // </editor-fold>
 }
@@ -75,4 +75,23 @@ public class MultipleRuleArgs implements RuleArg, Iterable<RuleArg> {
             throw new RuleApplicationException("No inference rule arguments were specified.");
         }
     }
+
+    // <editor-fold defaultstate="collapsed" desc="Equality">
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || obj.getClass() != getClass()) {
+            return false;
+        }
+        MultipleRuleArgs other = (MultipleRuleArgs) obj;
+        return ruleArgs.equals(other.ruleArgs);
+    }
+
+    @Override
+    public int hashCode() {
+        return ruleArgs.hashCode();
+    }
+    // </editor-fold>
 }
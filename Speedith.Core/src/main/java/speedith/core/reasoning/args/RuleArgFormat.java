@@ -0,0 +1,295 @@
+package speedith.core.reasoning.args;
+
+import speedith.core.lang.Region;
+import speedith.core.lang.Zone;
+import speedith.core.lang.reader.ReadingException;
+import speedith.core.lang.reader.SpiderDiagramsReader;
+
+import java.util.ArrayList;
+
+import static speedith.core.i18n.Translations.i18n;
+
+/**
+ * Converts the built-in {@link RuleArg rule arguments} to single-line strings
+ * and back.
+ * <p>An argument is written as the simple name of its class followed by its
+ * fields (separated by spaces). Indices are written as decimal numbers, spider
+ * and contour names as quoted strings, and zones and regions in the same
+ * notation as in spider diagrams. A {@link MultipleRuleArgs} is followed by
+ * the number of its arguments and the arguments themselves. A {@code null}
+ * argument is written as {@code -}. Examples:
+ * <pre>SubDiagramIndexArg 0 3
+ * SpiderZoneArg 0 1 "s" (["A"], ["B"])
+ * MultipleRuleArgs 2 ContourArg 0 1 "A" ContourArg 0 1 "B"</pre>
+ * </p>
+ */
+public final class RuleArgFormat {
+
+    private static final String NullArg = "-";
+
+    private RuleArgFormat() {
+    }
+
+    // <editor-fold defaultstate="collapsed" desc="Writing">
+    /**
+     * Returns the single-line textual representation of the given rule
+     * argument.
+     *
+     * @param ruleArg the rule argument to convert (may be {@code null}).
+     * @return the textual representation of the rule argument.
+     */
+    public static String toString(RuleArg ruleArg) {
+        StringBuilder sb = new StringBuilder();
+        toString(sb, ruleArg);
+        return sb.toString();
+    }
+
+    /**
+     * Appends the single-line textual representation of the given rule
+     * argument to the string builder.
+     *
+     * @param sb      the string builder to which to append the rule argument.
+     * @param ruleArg the rule argument to convert (may be {@code null}).
+     */
+    public static void toString(StringBuilder sb, RuleArg ruleArg) {
+        if (ruleArg == null) {
+            sb.append(NullArg);
+            return;
+        }
+        Class<?> argClass = ruleArg.getClass();
+        sb.append(argClass.getSimpleName());
+        if (argClass == MultipleRuleArgs.class) {
+            MultipleRuleArgs multipleRuleArgs = (MultipleRuleArgs) ruleArg;
+            sb.append(' ').append(multipleRuleArgs.size());
+            for (RuleArg arg : multipleRuleArgs) {
+                toString(sb.append(' '), arg);
+            }
+        } else if (argClass == SubgoalIndexArg.class) {
+            sb.append(' ').append(((SubgoalIndexArg) ruleArg).getSubgoalIndex());
+        } else if (argClass == SubDiagramIndexArg.class) {
+            appendIndices(sb, (SubDiagramIndexArg) ruleArg);
+        } else if (argClass == SpiderArg.class) {
+            appendString(appendIndices(sb, (SpiderArg) ruleArg), ((SpiderArg) ruleArg).getSpider());
+        } else if (argClass == ContourArg.class) {
+            appendString(appendIndices(sb, (ContourArg) ruleArg), ((ContourArg) ruleArg).getContour());
+        } else if (argClass == ZoneArg.class) {
+            appendIndices(sb, (ZoneArg) ruleArg).append(' ').append(((ZoneArg) ruleArg).getZone());
+        } else if (argClass == SpiderZoneArg.class) {
+            SpiderZoneArg spiderZoneArg = (SpiderZoneArg) ruleArg;
+            appendString(appendIndices(sb, spiderZoneArg), spiderZoneArg.getSpider()).append(' ').append(spiderZoneArg.getZone());
+        } else if (argClass == SpiderRegionArg.class) {
+            SpiderRegionArg spiderRegionArg = (SpiderRegionArg) ruleArg;
+            appendString(appendIndices(sb, spiderRegionArg), spiderRegionArg.getSpider()).append(' ').append(spiderRegionArg.getRegion());
+        } else {
+            throw new IllegalArgumentException(i18n("ERR_WRITING_UNKNOWN_RULE_ARG_TYPE", argClass.getName()));
+        }
+    }
+
+    private static StringBuilder appendIndices(StringBuilder sb, SubDiagramIndexArg arg) {
+        return sb.append(' ').append(arg.getSubgoalIndex()).append(' ').append(arg.getSubDiagramIndex());
+    }
+
+    private static StringBuilder appendString(StringBuilder sb, String str) {
+        sb.append(" \"");
+        for (int i = 0; i < str.length(); i++) {
+            char c = str.charAt(i);
+            if (c == '"' || c == '\\') {
+                sb.append('\\');
+            }
+            sb.append(c);
+        }
+        return sb.append('"');
+    }
+    // </editor-fold>
+
+    // <editor-fold defaultstate="collapsed" desc="Reading">
+    /**
+     * Reads a rule argument from its {@link RuleArgFormat#toString(speedith.core.reasoning.args.RuleArg)
+     * textual representation}.
+     *
+     * @param input the textual representation of the rule argument.
+     * @return the rule argument (may be {@code null}).
+     * @throws ReadingException thrown if the input is not a valid rule
+     *                          argument.
+     */
+    public static RuleArg fromString(String input) throws ReadingException {
+        if (input == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "input"));
+        }
+        Scanner scanner = new Scanner(input, 0);
+        RuleArg ruleArg = scanner.readRuleArg();
+        scanner.expectEnd();
+        return ruleArg;
+    }
+
+    /**
+     * Reads a rule argument that starts at the given position of the input and
+     * spans to its end.
+     *
+     * @param input the input that contains the rule argument.
+     * @param start the position at which the rule argument starts.
+     * @return the rule argument (may be {@code null}).
+     * @throws ReadingException thrown if the input is not a valid rule
+     *                          argument.
+     */
+    public static RuleArg fromString(String input, int start) throws ReadingException {
+        if (input == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "input"));
+        }
+        Scanner scanner = new Scanner(input, start);
+        RuleArg ruleArg = scanner.readRuleArg();
+        scanner.expectEnd();
+        return ruleArg;
+    }
+
+    private static final class Scanner {
+
+        private final String input;
+        private int position;
+
+        Scanner(String input, int position) {
+            this.input = input;
+            this.position = position;
+        }
+
+        RuleArg readRuleArg() throws ReadingException {
+            String type = readWord();
+            switch (type) {
+                case NullArg:
+                    return null;
+                case "MultipleRuleArgs":
+                    int count = readInt();
+                    ArrayList<RuleArg> ruleArgs = new ArrayList<>(count);
+                    for (int i = 0; i < count; i++) {
+                        ruleArgs.add(readRuleArg());
+                    }
+                    return new MultipleRuleArgs(ruleArgs);
+                case "SubgoalIndexArg":
+                    return new SubgoalIndexArg(readInt());
+                case "SubDiagramIndexArg":
+                    return new SubDiagramIndexArg(readInt(), readInt());
+                case "SpiderArg":
+                    return new SpiderArg(readInt(), readInt(), readString());
+                case "ContourArg":
+                    return new ContourArg(readInt(), readInt(), readString());
+                case "ZoneArg":
+                    return new ZoneArg(readInt(), readInt(), readZone());
+                case "SpiderZoneArg":
+                    return new SpiderZoneArg(readInt(), readInt(), readString(), readZone());
+                case "SpiderRegionArg":
+                    return new SpiderRegionArg(readInt(), readInt(), readString(), readRegion());
+                default:
+                    throw new ReadingException(i18n("ERR_READING_UNKNOWN_RULE_ARG_TYPE", type));
+            }
+        }
+
+        void expectEnd() throws ReadingException {
+            skipSpaces();
+            if (position < input.length()) {
+                throw invalidInput();
+            }
+        }
+
+        private String readWord() throws ReadingException {
+            skipSpaces();
+            int start = position;
+            while (position < input.length() && !Character.isWhitespace(input.charAt(position))) {
+                ++position;
+            }
+            if (start == position) {
+                throw invalidInput();
+            }
+            return input.substring(start, position);
+        }
+
+        private int readInt() throws ReadingException {
+            int start = position;
+            String word = readWord();
+            try {
+                return Integer.parseInt(word);
+            } catch (NumberFormatException ex) {
+                position = start;
+                throw invalidInput();
+            }
+        }
+
+        private String readString() throws ReadingException {
+            skipSpaces();
+            expect('"');
+            StringBuilder sb = new StringBuilder();
+            while (position < input.length() && input.charAt(position) != '"') {
+                if (input.charAt(position) == '\\') {
+                    ++position;
+                    if (position == input.length()) {
+                        throw invalidInput();
+                    }
+                }
+                sb.append(input.charAt(position++));
+            }
+            expect('"');
+            return sb.toString();
+        }
+
+        private Zone readZone() throws ReadingException {
+            Region region = SpiderDiagramsReader.readRegion("[" + readBracketed('(', ')') + "]");
+            if (region.getZonesCount() != 1) {
+                throw invalidInput();
+            }
+            return region.sortedZones().first();
+        }
+
+        private Region readRegion() throws ReadingException {
+            return SpiderDiagramsReader.readRegion(readBracketed('[', ']'));
+        }
+
+        /**
+         * Reads everything from the opening bracket up to (and including) the
+         * matching closing bracket (brackets within strings are ignored).
+         */
+        private String readBracketed(char open, char close) throws ReadingException {
+            skipSpaces();
+            int start = position;
+            expect(open);
+            int depth = 1;
+            boolean inString = false;
+            while (depth > 0 && position < input.length()) {
+                char c = input.charAt(position++);
+                if (inString) {
+                    if (c == '\\') {
+                        ++position;
+                    } else if (c == '"') {
+                        inString = false;
+                    }
+                } else if (c == '"') {
+                    inString = true;
+                } else if (c == open) {
+                    ++depth;
+                } else if (c == close) {
+                    --depth;
+                }
+            }
+            if (depth > 0) {
+                throw invalidInput();
+            }
+            return input.substring(start, position);
+        }
+
+        private void expect(char c) throws ReadingException {
+            if (position >= input.length() || input.charAt(position) != c) {
+                throw invalidInput();
+            }
+            ++position;
+        }
+
+        private void skipSpaces() {
+            while (position < input.length() && Character.isWhitespace(input.charAt(position))) {
+                ++position;
+            }
+        }
+
+        private ReadingException invalidInput() {
+            return new ReadingException(i18n("ERR_READING_INVALID_RULE_ARG", position));
+        }
+    }
+    // </editor-fold>
+}
@@ -65,4 +65,16 @@ public class SpiderArg extends SubDiagramIndexArg {
         return spider;
     }
     // </editor-fold>
+
+    // <editor-fold defaultstate="collapsed" desc="Equality">
+    @Override
+    public boolean equals(Object obj) {
+        return super.equals(obj) && spider.equals(((SpiderArg) obj).spider);
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode() * 31 + spider.hashCode();
+    }
+    // </editor-fold>
 }
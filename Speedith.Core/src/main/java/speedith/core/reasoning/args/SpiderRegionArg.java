@@ -73,4 +73,16 @@ public class SpiderRegionArg extends SpiderArg {
     public Region getRegion() {
         return region;
     }
+
+    // <editor-fold defaultstate="collapsed" desc="Equality">
+    @Override
+    public boolean equals(Object obj) {
+        return super.equals(obj) && region.equals(((SpiderRegionArg) obj).region);
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode() * 31 + region.hashCode();
+    }
+    // </editor-fold>
 }
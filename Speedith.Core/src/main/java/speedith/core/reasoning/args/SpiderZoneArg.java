@@ -74,4 +74,16 @@ public class SpiderZoneArg extends SpiderArg {
     public Zone getZone() {
         return zone;
     }
+
+    // <editor-fold defaultstate="collapsed" desc="Equality">
+    @Override
+    public boolean equals(Object obj) {
+        return super.equals(obj) && zone.equals(((SpiderZoneArg) obj).zone);
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode() * 31 + zone.hashCode();
+    }
+    // </editor-fold>
 }
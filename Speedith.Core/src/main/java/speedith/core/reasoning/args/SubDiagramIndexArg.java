@@ -68,4 +68,17 @@ public class SubDiagramIndexArg extends SubgoalIndexArg implements RuleArg {
         return subDiagramIndex;
     }
     // </editor-fold>
+
+    // <editor-fold defaultstate="collapsed" desc="Equality">
+    @Override
+    public boolean equals(Object obj) {
+        // The super class checks that both arguments are of the same class.
+        return super.equals(obj) && subDiagramIndex == ((SubDiagramIndexArg) obj).subDiagramIndex;
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode() * 31 + subDiagramIndex;
+    }
+    // </editor-fold>
 }
@@ -100,4 +100,23 @@ public class SubgoalIndexArg implements Cloneable, RuleArg {
         return goalIndex;
     }
     //</editor-fold>
+
+    // <editor-fold defaultstate="collapsed" desc="Equality">
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (obj == null || obj.getClass() != getClass()) {
+            return false;
+        }
+        SubgoalIndexArg other = (SubgoalIndexArg) obj;
+        return subgoalIndex == other.subgoalIndex;
+    }
+
+    @Override
+    public int hashCode() {
+        return subgoalIndex;
+    }
+    // </editor-fold>
 }
@@ -65,4 +65,16 @@ public class ZoneArg extends SubDiagramIndexArg {
         return zone;
     }
     // </editor-fold>
+
+    // <editor-fold defaultstate="collapsed" desc="Equality">
+    @Override
+    public boolean equals(Object obj) {
+        return super.equals(obj) && zone.equals(((ZoneArg) obj).zone);
+    }
+
+    @Override
+    public int hashCode() {
+        return super.hashCode() * 31 + zone.hashCode();
+    }
+    // </editor-fold>
 }
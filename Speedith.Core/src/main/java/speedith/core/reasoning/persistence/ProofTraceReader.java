@@ -0,0 +1,185 @@
+package speedith.core.reasoning.persistence;
+
+import speedith.core.lang.SpiderDiagram;
+import speedith.core.lang.reader.ReadingException;
+import speedith.core.lang.reader.SpiderDiagramsReader;
+import speedith.core.reasoning.*;
+import speedith.core.reasoning.args.RuleArg;
+import speedith.core.reasoning.args.RuleArgFormat;
+import speedith.core.reasoning.rules.MultiTargetRule;
+
+import java.io.*;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.TreeMap;
+
+import static speedith.core.i18n.Translations.i18n;
+
+/**
+ * Loads proofs that were written by the {@link ProofTraceWriter}.
+ * <p>The input is read line by line. The rule applications are not applied
+ * while loading: the returned {@link ProofTrace} keeps only the initial goals,
+ * the stored checkpoints and the last goals in memory, and rebuilds all other
+ * goals by replaying the rule applications when they are requested.</p>
+ */
+public final class ProofTraceReader {
+
+    private final HashMap<Integer, SpiderDiagram> diagrams = new HashMap<>();
+    private final ArrayList<RuleApplication> ruleApplications = new ArrayList<>();
+    private final TreeMap<Integer, Goals> checkpoints = new TreeMap<>();
+    private final BitSet goalSetSteps = new BitSet();
+    private Goals initialGoals;
+
+    private ProofTraceReader() {
+    }
+
+    /**
+     * Reads a proof from the given file (in the UTF-8 encoding).
+     *
+     * @param file the file from which to read the proof.
+     * @return the loaded proof.
+     * @throws ReadingException thrown if the file does not contain a valid
+     *                          proof.
+     * @throws IOException      thrown if the file could not be read.
+     */
+    public static ProofTrace read(File file) throws ReadingException, IOException {
+        try (Reader in = new InputStreamReader(new FileInputStream(file), "UTF-8")) {
+            return read(in);
+        }
+    }
+
+    /**
+     * Reads a proof from the given input.
+     *
+     * @param in the input from which to read the proof.
+     * @return the loaded proof.
+     * @throws ReadingException thrown if the input does not contain a valid
+     *                          proof.
+     * @throws IOException      thrown if the input could not be read.
+     */
+    public static ProofTrace read(Reader in) throws ReadingException, IOException {
+        if (in == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "in"));
+        }
+        BufferedReader lines = in instanceof BufferedReader ? (BufferedReader) in : new BufferedReader(in);
+        String line = lines.readLine();
+        if (line == null || !ProofTraceWriter.Header.equals(line.trim())) {
+            throw new ReadingException(i18n("ERR_READING_PROOF_HEADER", ProofTraceWriter.Header));
+        }
+        ProofTraceReader reader = new ProofTraceReader();
+        int lineNumber = 1;
+        while ((line = lines.readLine()) != null) {
+            ++lineNumber;
+            if (!line.trim().isEmpty()) {
+                try {
+                    reader.readRecord(line);
+                } catch (ReadingException | IllegalArgumentException ex) {
+                    throw new ReadingException(i18n("ERR_READING_PROOF_LINE", lineNumber, ex.getMessage()), ex);
+                }
+            }
+        }
+        return new ProofTrace(reader.initialGoals, reader.ruleApplications, reader.checkpoints, reader.goalSetSteps);
+    }
+
+    private void readRecord(String line) throws ReadingException {
+        int recordEnd = indexOfSpace(line, 0);
+        String record = line.substring(0, recordEnd);
+        switch (record) {
+            case ProofTraceWriter.DiagramRecord:
+                String[] idAndDiagram = line.substring(recordEnd).trim().split(" ", 2);
+                if (idAndDiagram.length < 2) {
+                    throw new ReadingException(i18n("ERR_READING_PROOF_UNKNOWN_DIAGRAM", idAndDiagram[0]));
+                }
+                diagrams.put(parseInt(idAndDiagram[0]), SpiderDiagramsReader.readSpiderDiagram(idAndDiagram[1]));
+                break;
+            case ProofTraceWriter.GoalsRecord:
+                if (initialGoals != null) {
+                    throw new ReadingException(i18n("ERR_READING_PROOF_MISPLACED_RECORD", record));
+                }
+                initialGoals = readGoals(line.substring(recordEnd).trim().split("\\s+"), 0);
+                break;
+            case ProofTraceWriter.StepRecord:
+            case ProofTraceWriter.GoalSetStepRecord:
+                if (initialGoals == null) {
+                    throw new ReadingException(i18n("ERR_READING_PROOF_MISPLACED_RECORD", record));
+                }
+                if (ProofTraceWriter.GoalSetStepRecord.equals(record)) {
+                    goalSetSteps.set(ruleApplications.size());
+                }
+                readStep(line, recordEnd);
+                break;
+            case ProofTraceWriter.CheckpointRecord:
+                String[] fields = line.substring(recordEnd).trim().split("\\s+");
+                int stepCount = parseInt(fields[0]);
+                if (stepCount < 1 || stepCount > ruleApplications.size()) {
+                    throw new ReadingException(i18n("ERR_READING_PROOF_MISPLACED_RECORD", record));
+                }
+                checkpoints.put(stepCount, readGoals(fields, 1));
+                break;
+            default:
+                throw new ReadingException(i18n("ERR_READING_PROOF_UNKNOWN_RECORD", record));
+        }
+    }
+
+    private void readStep(String line, int recordEnd) throws ReadingException {
+        int nameStart = line.indexOf('"', recordEnd);
+        int nameEnd = nameStart < 0 ? -1 : line.indexOf('"', nameStart + 1);
+        if (nameEnd < 0) {
+            throw new ReadingException(i18n("ERR_READING_PROOF_UNKNOWN_RULE", line.substring(recordEnd).trim()));
+        }
+        String ruleName = line.substring(nameStart + 1, nameEnd);
+        ruleApplications.add(new RuleApplication(getInferenceRule(ruleName), RuleArgFormat.fromString(line, nameEnd + 1)));
+    }
+
+    /**
+     * Returns the inference rule with the given name (as it is written in the
+     * steps of a persisted proof, i.e.: also {@link MultiTargetRule
+     * multi-target} rules).
+     *
+     * @param ruleName the name of the inference rule.
+     * @return the inference rule with the given name.
+     * @throws ReadingException thrown if there is no inference rule with the
+     *                          given name.
+     */
+    public static InferenceRule<? extends RuleArg> getInferenceRule(String ruleName) throws ReadingException {
+        if (ruleName == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "ruleName"));
+        }
+        if (ruleName.startsWith(MultiTargetRule.InferenceRuleNamePrefix)) {
+            return new MultiTargetRule(getInferenceRule(ruleName.substring(MultiTargetRule.InferenceRuleNamePrefix.length())));
+        }
+        InferenceRuleProvider<? extends RuleArg> provider = InferenceRules.getProvider(ruleName);
+        if (provider == null) {
+            throw new ReadingException(i18n("ERR_READING_PROOF_UNKNOWN_RULE", ruleName));
+        }
+        return provider.getInferenceRule();
+    }
+
+    private Goals readGoals(String[] ids, int start) throws ReadingException {
+        ArrayList<SpiderDiagram> goals = new ArrayList<>();
+        for (int i = start; i < ids.length; i++) {
+            if (!ids[i].isEmpty()) {
+                SpiderDiagram goal = diagrams.get(parseInt(ids[i]));
+                if (goal == null) {
+                    throw new ReadingException(i18n("ERR_READING_PROOF_UNKNOWN_DIAGRAM", ids[i]));
+                }
+                goals.add(goal);
+            }
+        }
+        return Goals.createGoalsFrom(goals);
+    }
+
+    private static int indexOfSpace(String line, int from) {
+        int index = line.indexOf(' ', from);
+        return index < 0 ? line.length() : index;
+    }
+
+    private static int parseInt(String id) throws ReadingException {
+        try {
+            return Integer.parseInt(id);
+        } catch (NumberFormatException ex) {
+            throw new ReadingException(i18n("ERR_READING_PROOF_UNKNOWN_DIAGRAM", id), ex);
+        }
+    }
+}
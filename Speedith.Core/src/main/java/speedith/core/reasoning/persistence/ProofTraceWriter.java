@@ -0,0 +1,204 @@
+package speedith.core.reasoning.persistence;
+
+import speedith.core.lang.SpiderDiagram;
+import speedith.core.reasoning.Goals;
+import speedith.core.reasoning.Proof;
+import speedith.core.reasoning.ProofTrace;
+import speedith.core.reasoning.RuleApplication;
+import speedith.core.reasoning.args.RuleArgFormat;
+
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.IdentityHashMap;
+
+import static speedith.core.i18n.Translations.i18n;
+
+/**
+ * Writes proofs in the persisted line-based format.
+ * <p>The first line is the header {@link ProofTraceWriter#Header}. Every
+ * following line is one record:
+ * <ul>
+ * <li>{@code diagram <id> <spider diagram>}: defines a spider diagram (in the
+ * textual notation) that the following records refer to by its number,</li>
+ * <li>{@code goals <id>*}: the initial goals of the proof,</li>
+ * <li>{@code step "<inference rule name>" <rule argument>}: the next rule
+ * application (the argument is written in the {@link RuleArgFormat rule
+ * argument notation}),</li>
+ * <li>{@code goalsetstep "<inference rule name>" <rule argument>}: the next
+ * rule application, which was applied in the {@link
+ * ProofTrace#setGoalSetMode(boolean) goal-set mode},</li>
+ * <li>{@code checkpoint <step count> <id>*}: the goals after the given number
+ * of rule applications.</li>
+ * </ul>
+ * Every diagram is written only once (diagrams are interned, so equal goals at
+ * different checkpoints are written as the same id). Checkpoints are optional;
+ * the reader rebuilds the goals between them by replaying the rule
+ * applications.</p>
+ * <p>The records are written as they are added, so the writer never holds
+ * more than the ids of the diagrams written so far.</p>
+ */
+public class ProofTraceWriter implements Closeable, Flushable {
+
+    /**
+     * The first line of every persisted proof.
+     */
+    public static final String Header = "SpeedithProof 1";
+    static final String DiagramRecord = "diagram";
+    static final String GoalsRecord = "goals";
+    static final String StepRecord = "step";
+    static final String GoalSetStepRecord = "goalsetstep";
+    static final String CheckpointRecord = "checkpoint";
+
+    private final Writer out;
+    private final IdentityHashMap<SpiderDiagram, Integer> diagramIds = new IdentityHashMap<>();
+    private int stepCount = -1;
+
+    /**
+     * Creates a writer that writes the proof (including the {@link
+     * ProofTraceWriter#Header header}) into the given output.
+     *
+     * @param out the output into which to write the proof.
+     * @throws IOException thrown if the header could not be written.
+     */
+    public ProofTraceWriter(Writer out) throws IOException {
+        if (out == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "out"));
+        }
+        this.out = out;
+        out.write(Header);
+        out.write('\n');
+    }
+
+    /**
+     * Writes the whole proof into the given output.
+     * <p>The {@link ProofTrace#isGoalSetStep(int) goal-set steps} of a {@link
+     * ProofTrace} are written as such, so that they are replayed in the
+     * goal-set mode.</p>
+     *
+     * @param proof              the proof to write.
+     * @param out                the output into which to write the proof.
+     * @param checkpointInterval the number of rule applications between two
+     *                           checkpoints ({@code 0} writes no checkpoints).
+     * @throws IOException thrown if the proof could not be written.
+     */
+    public static void write(Proof proof, Writer out, int checkpointInterval) throws IOException {
+        if (proof == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "proof"));
+        }
+        if (checkpointInterval < 0) {
+            throw new IllegalArgumentException(i18n("GERR_ILLEGAL_ARGUMENT", "checkpointInterval"));
+        }
+        ProofTraceWriter writer = new ProofTraceWriter(out);
+        if (proof.getGoalsCount() > 0) {
+            writer.writeInitialGoals(proof.getInitialGoals());
+            for (int step = 1; step <= proof.getRuleApplicationCount(); step++) {
+                writer.writeStep(proof.getRuleApplicationAt(step - 1), isGoalSetStep(proof, step - 1));
+                if (checkpointInterval > 0 && step % checkpointInterval == 0) {
+                    writer.writeCheckpoint(proof.getGoalsAt(step));
+                }
+            }
+        }
+        writer.flush();
+    }
+
+    private static boolean isGoalSetStep(Proof proof, int index) {
+        return proof instanceof ProofTrace && ((ProofTrace) proof).isGoalSetStep(index);
+    }
+
+    /**
+     * Writes the initial goals of the proof (this has to be the first record).
+     *
+     * @param initialGoals the initial goals of the proof.
+     * @throws IOException thrown if the goals could not be written.
+     */
+    public void writeInitialGoals(Goals initialGoals) throws IOException {
+        if (stepCount >= 0) {
+            throw new IllegalStateException(i18n("ERR_WRITING_PROOF_MISPLACED_RECORD", GoalsRecord));
+        }
+        writeGoals(GoalsRecord, initialGoals);
+        stepCount = 0;
+    }
+
+    /**
+     * Writes the next rule application of the proof.
+     *
+     * @param ruleApplication the next rule application.
+     * @throws IOException thrown if the rule application could not be
+     *                     written.
+     */
+    public void writeStep(RuleApplication ruleApplication) throws IOException {
+        writeStep(ruleApplication, false);
+    }
+
+    /**
+     * Writes the next rule application of the proof.
+     *
+     * @param ruleApplication the next rule application.
+     * @param goalSetStep     indicates whether the rule application was
+     *                        applied in the {@link
+     *                        ProofTrace#setGoalSetMode(boolean) goal-set
+     *                        mode}.
+     * @throws IOException thrown if the rule application could not be
+     *                     written.
+     */
+    public void writeStep(RuleApplication ruleApplication, boolean goalSetStep) throws IOException {
+        if (ruleApplication == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "ruleApplication"));
+        }
+        if (stepCount < 0) {
+            throw new IllegalStateException(i18n("ERR_WRITING_PROOF_MISPLACED_RECORD", StepRecord));
+        }
+        StringBuilder sb = new StringBuilder(goalSetStep ? GoalSetStepRecord : StepRecord).append(" \"");
+        sb.append(ruleApplication.getInferenceRule().getProvider().getInferenceRuleName()).append("\" ");
+        RuleArgFormat.toString(sb, ruleApplication.getRuleArguments());
+        out.write(sb.append('\n').toString());
+        ++stepCount;
+    }
+
+    /**
+     * Writes the goals after all the rule applications written so far.
+     *
+     * @param goals the goals after all the rule applications written so far.
+     * @throws IOException thrown if the goals could not be written.
+     */
+    public void writeCheckpoint(Goals goals) throws IOException {
+        if (stepCount < 1) {
+            throw new IllegalStateException(i18n("ERR_WRITING_PROOF_MISPLACED_RECORD", CheckpointRecord));
+        }
+        writeGoals(CheckpointRecord + " " + stepCount, goals);
+    }
+
+    private void writeGoals(String record, Goals goals) throws IOException {
+        StringBuilder sb = new StringBuilder(record);
+        if (goals != null && !goals.isEmpty()) {
+            for (SpiderDiagram goal : goals.getGoals()) {
+                sb.append(' ').append(getDiagramId(goal));
+            }
+        }
+        out.write(sb.append('\n').toString());
+    }
+
+    private int getDiagramId(SpiderDiagram diagram) throws IOException {
+        Integer id = diagramIds.get(diagram);
+        if (id == null) {
+            id = diagramIds.size();
+            diagramIds.put(diagram, id);
+            StringBuilder sb = new StringBuilder(DiagramRecord).append(' ').append(id).append(' ');
+            diagram.toString(sb);
+            out.write(sb.append('\n').toString());
+        }
+        return id;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+}
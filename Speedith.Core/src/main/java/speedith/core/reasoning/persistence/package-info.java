@@ -0,0 +1,11 @@
+/**
+ * Contains the persisted format of proofs.
+ * <p>A proof is stored as its initial goals and the applied rules (each with
+ * its name and {@link speedith.core.reasoning.args.RuleArgFormat serialized
+ * argument}), optionally interleaved with checkpoints of intermediate goals.
+ * Proofs are written with {@link
+ * speedith.core.reasoning.persistence.ProofTraceWriter ProofTraceWriter} and
+ * loaded with {@link speedith.core.reasoning.persistence.ProofTraceReader
+ * ProofTraceReader}. See the writer for a description of the format.</p>
+ */
+package speedith.core.reasoning.persistence;
@@ -155,7 +155,7 @@ public class AddFeet extends SimpleInferenceRule<SpiderRegionArg> implements Bas
                 // Now make sure that the spider actually exists in the diagram:
                 Region existingFeet = psd.getSpiderHabitat(arg.getSpider());
                 if (existingFeet == null || existingFeet.getZonesCount() < 1) {
-                    throw new TransformationException(i18n("ADD_FEET_INVALID_APPLICATION_POINT"));
+                    throw new TransformationException(deferredI18n("ADD_FEET_INVALID_APPLICATION_POINT"));
                 }
                 // Now make a union of the two regions
                 Region withAddedFeet = existingFeet.union(feetToAdd);
@@ -60,7 +60,7 @@ public class DischargeNullGoal extends SimpleInferenceRule<SubgoalIndexArg> impl
             SpiderDiagram[] newSubgoals = getGoalsWithoutSubgoal(goals, arg.getSubgoalIndex());
             return createRuleApplicationResult(newSubgoals);
         } else {
-            throw new RuleApplicationException(i18n("RULE_DISCHARGE_NULL_GOAL_NOT_APPLICABLE"));
+            throw new RuleApplicationException(deferredI18n("RULE_DISCHARGE_NULL_GOAL_NOT_APPLICABLE"));
         }
     }
 
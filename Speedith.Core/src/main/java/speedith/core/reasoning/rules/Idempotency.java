@@ -30,6 +30,7 @@ import java.util.ArrayList;
 import java.util.Locale;
 import speedith.core.i18n.Translations;
 import static speedith.core.i18n.Translations.*;
+import speedith.core.lang.AssociativeChain;
 import speedith.core.lang.CompoundSpiderDiagram;
 import speedith.core.lang.IdTransformer;
 import speedith.core.lang.NullSpiderDiagram;
@@ -50,6 +51,9 @@ import speedith.core.reasoning.rules.instructions.SelectSingleOperatorInstructio
  * operators), or to the {@link NullSpiderDiagram null diagram} (in case of the
  * {@link Operator#Implication implies} or {@link Operator#Equivalence
  * equivalence} operators).</p>
+ * <p>Conjunctions and disjunctions are treated as {@link AssociativeChain
+ * chains}: all s-equivalent duplicates in a chain of the same operator are
+ * removed in one application.</p>
  * @author Matej Urbas [matej.urbas@gmail.com]
  */
 public class Idempotency extends SimpleInferenceRule<SubDiagramIndexArg> implements BasicInferenceRule<SubDiagramIndexArg>, ForwardRule<SubDiagramIndexArg> {
@@ -132,12 +136,18 @@ public class Idempotency extends SimpleInferenceRule<SubDiagramIndexArg> impleme
                     if (csd.getOperand(0).isSEquivalentTo(csd.getOperand(1))) {
                         return csd.getOperand(1);
                     }
+                    // Look for duplicates anywhere in a (possibly very long)
+                    // chain of conjunctions or disjunctions.
+                    SpiderDiagram withoutDuplicates = AssociativeChain.of(csd).withoutDuplicateOperands();
+                    if (withoutDuplicates != csd) {
+                        return withoutDuplicates;
+                    }
                 } else if (Operator.Equivalence.equals(csd.getOperator()) || Operator.Implication.equals(csd.getOperator())) {
                     if (csd.getOperand(0).isSEquivalentTo(csd.getOperand(1))) {
                         return SpiderDiagrams.createNullSD();
                     }
                 }
-                throw new TransformationException(i18n("RULE_IDEMPOTENCY_NOT_APPLICABLE"));
+                throw new TransformationException(deferredI18n("RULE_IDEMPOTENCY_NOT_APPLICABLE"));
             }
             return null;
         }
@@ -36,6 +36,7 @@ import speedith.core.reasoning.rules.instructions.SelectSingleOperatorInstructio
 import java.util.ArrayList;
 import java.util.Locale;
 
+import static speedith.core.i18n.Translations.deferredI18n;
 import static speedith.core.i18n.Translations.i18n;
 
 /**
@@ -128,10 +129,10 @@ public class ImplicationTautology extends SimpleInferenceRule<SubDiagramIndexArg
                     if (csd.getOperand(0).isSEquivalentTo(csd.getOperand(1))) {
                         return SpiderDiagrams.createNullSD();
                     } else {
-                        throw new TransformationException(i18n("RULE_IMPLICATION_TAUTOLOGY_NOT_APPLICABLE_SEM"));
+                        throw new TransformationException(deferredI18n("RULE_IMPLICATION_TAUTOLOGY_NOT_APPLICABLE_SEM"));
                     }
                 } else {
-                    throw new TransformationException(i18n("RULE_IMPLICATION_TAUTOLOGY_NOT_APPLICABLE"));
+                    throw new TransformationException(deferredI18n("RULE_IMPLICATION_TAUTOLOGY_NOT_APPLICABLE"));
                 }
             }
             return null;
@@ -0,0 +1,242 @@
+package speedith.core.reasoning.rules;
+
+import speedith.core.lang.SpiderDiagram;
+import speedith.core.reasoning.*;
+import speedith.core.reasoning.args.MultipleRuleArgs;
+import speedith.core.reasoning.args.RuleArg;
+import speedith.core.reasoning.args.SubgoalIndexArg;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import static speedith.core.i18n.Translations.deferredI18n;
+import static speedith.core.i18n.Translations.i18n;
+
+/**
+ * Applies an inference rule to several subgoals in a single step.
+ * <p>The arguments of this rule are {@link MultipleRuleArgs multiple
+ * arguments} of the wrapped rule, each of which is a {@link SubgoalIndexArg}
+ * that targets a different subgoal. The targets must be given in the
+ * ascending order of their subgoal indices (see {@link
+ * MultiTargetRule#createTargetArgs(speedith.core.reasoning.args.SubgoalIndexArg, int...)}).</p>
+ * <p>The wrapped rule is applied to every target independently and in
+ * parallel. Each of these applications may change only its own subgoal (it
+ * may replace it with any number of new subgoals). The results are merged in
+ * the order of the targets, so the resulting goals do not depend on the order
+ * in which the applications finish. If any of the applications fails, the
+ * failure of the target with the lowest subgoal index is reported.</p>
+ */
+public class MultiTargetRule extends SimpleInferenceRule<MultipleRuleArgs> {
+
+    /**
+     * The prefix of the names of multi-target rules. The name of a
+     * multi-target rule is this prefix followed by the name of the wrapped
+     * rule.
+     */
+    public static final String InferenceRuleNamePrefix = "multi_target:";
+
+    private final InferenceRule<?> rule;
+
+    /**
+     * Creates a multi-target rule that applies the given rule.
+     *
+     * @param rule the rule to apply to every target.
+     */
+    public MultiTargetRule(InferenceRule<?> rule) {
+        if (rule == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "rule"));
+        }
+        this.rule = rule;
+    }
+
+    /**
+     * Returns the rule that is applied to every target.
+     *
+     * @return the rule that is applied to every target.
+     */
+    public InferenceRule<?> getRule() {
+        return rule;
+    }
+
+    /**
+     * Creates the arguments of a multi-target rule: a copy of the given
+     * arguments for every given subgoal index (in the ascending order of the
+     * indices; duplicate indices are targeted once).
+     *
+     * @param args the arguments of the wrapped rule.
+     * @param subgoalIndices the indices of the subgoals to target.
+     * @return the arguments of a multi-target rule.
+     */
+    public static MultipleRuleArgs createTargetArgs(SubgoalIndexArg args, int... subgoalIndices) {
+        if (args == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "args"));
+        }
+        if (subgoalIndices == null || subgoalIndices.length == 0) {
+            throw new IllegalArgumentException(i18n("GERR_EMPTY_ARGUMENT", "subgoalIndices"));
+        }
+        int[] sortedIndices = subgoalIndices.clone();
+        Arrays.sort(sortedIndices);
+        ArrayList<SubgoalIndexArg> targets = new ArrayList<>();
+        for (int i = 0; i < sortedIndices.length; i++) {
+            if (i == 0 || sortedIndices[i] != sortedIndices[i - 1]) {
+                targets.add(args.withNewSubgoalIndex(sortedIndices[i]));
+            }
+        }
+        return new MultipleRuleArgs(targets);
+    }
+
+    @Override
+    public RuleApplicationResult apply(RuleArg args, final Goals goals) throws RuleApplicationException {
+        MultipleRuleArgs targets = getTypedRuleArgs(args);
+        MultipleRuleArgs.assertArgumentsNotEmpty(targets);
+        int[] subgoalIndices = getSubgoalIndices(targets, goals);
+        if (targets.size() == 1) {
+            return mergeResults(goals, subgoalIndices, Collections.singletonList(RuleMetrics.apply(rule, targets.get(0), goals)));
+        }
+        ArrayList<Callable<RuleApplicationResult>> applications = new ArrayList<>();
+        for (final RuleArg target : targets) {
+            applications.add(new Callable<RuleApplicationResult>() {
+                @Override
+                public RuleApplicationResult call() throws RuleApplicationException {
+                    return RuleMetrics.apply(rule, target, goals);
+                }
+            });
+        }
+        ArrayList<RuleApplicationResult> results = new ArrayList<>();
+        try {
+            for (Future<RuleApplicationResult> result : PoolHolder.Pool.invokeAll(applications)) {
+                results.add(result.get());
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RuleApplicationException(i18n("RULE_MULTI_TARGET_INTERRUPTED"), ex);
+        } catch (ExecutionException ex) {
+            // The pool wraps checked exceptions of the applications.
+            for (Throwable cause = ex.getCause(); cause != null; cause = cause.getCause()) {
+                if (cause instanceof RuleApplicationException) {
+                    throw (RuleApplicationException) cause;
+                }
+            }
+            if (ex.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) ex.getCause();
+            } else if (ex.getCause() instanceof Error) {
+                throw (Error) ex.getCause();
+            }
+            throw new RuleApplicationException(ex.getMessage(), ex);
+        }
+        return mergeResults(goals, subgoalIndices, results);
+    }
+
+    @Override
+    public MultiTargetRule getInferenceRule() {
+        return this;
+    }
+
+    @Override
+    public String getInferenceRuleName() {
+        return InferenceRuleNamePrefix + rule.getProvider().getInferenceRuleName();
+    }
+
+    @Override
+    public String getDescription(Locale locale) {
+        return i18n(locale, "MULTI_TARGET_RULE_DESCRIPTION", rule.getProvider().getPrettyName(locale));
+    }
+
+    @Override
+    public String getCategory(Locale locale) {
+        return rule.getProvider().getCategory(locale);
+    }
+
+    @Override
+    public String getPrettyName(Locale locale) {
+        return i18n(locale, "MULTI_TARGET_RULE_PRETTY_NAME", rule.getProvider().getPrettyName(locale));
+    }
+
+    @Override
+    public Class<MultipleRuleArgs> getArgumentType() {
+        return MultipleRuleArgs.class;
+    }
+
+    @Override
+    public RuleApplicationInstruction<MultipleRuleArgs> getInstructions() {
+        return null;
+    }
+
+    private static int[] getSubgoalIndices(MultipleRuleArgs targets, Goals goals) throws RuleApplicationException {
+        int[] subgoalIndices = new int[targets.size()];
+        for (int i = 0; i < subgoalIndices.length; i++) {
+            if (!(targets.get(i) instanceof SubgoalIndexArg)) {
+                throw new RuleApplicationException(deferredI18n("RULE_INVALID_ARGS"));
+            }
+            SubgoalIndexArg target = (SubgoalIndexArg) targets.get(i);
+            getSubgoal(target, goals);
+            subgoalIndices[i] = target.getSubgoalIndex();
+            if (i > 0 && subgoalIndices[i] <= subgoalIndices[i - 1]) {
+                throw new RuleApplicationException(deferredI18n("RULE_MULTI_TARGET_UNORDERED_TARGETS"));
+            }
+        }
+        return subgoalIndices;
+    }
+
+    /**
+     * Replaces every target subgoal with the subgoals that the application on
+     * that target produced.
+     */
+    private RuleApplicationResult mergeResults(Goals goals, int[] subgoalIndices, List<RuleApplicationResult> results) throws RuleApplicationException {
+        ArrayList<SpiderDiagram> mergedGoals = new ArrayList<>();
+        int nextGoal = 0;
+        for (int i = 0; i < subgoalIndices.length; i++) {
+            for (; nextGoal < subgoalIndices[i]; nextGoal++) {
+                mergedGoals.add(goals.getGoalAt(nextGoal));
+            }
+            addProducedSubgoals(mergedGoals, goals, subgoalIndices[i], results.get(i));
+            ++nextGoal;
+        }
+        for (; nextGoal < goals.getGoalsCount(); nextGoal++) {
+            mergedGoals.add(goals.getGoalAt(nextGoal));
+        }
+        return createRuleApplicationResult(mergedGoals.toArray(new SpiderDiagram[mergedGoals.size()]));
+    }
+
+    /**
+     * Adds the subgoals that replaced the target subgoal in the result. All
+     * other subgoals must be left intact by the application.
+     */
+    private void addProducedSubgoals(ArrayList<SpiderDiagram> mergedGoals, Goals goals, int subgoalIndex, RuleApplicationResult result) throws RuleApplicationException {
+        Goals resultGoals = result == null ? null : result.getGoals();
+        int resultCount = resultGoals == null ? 0 : resultGoals.getGoalsCount();
+        int followingCount = goals.getGoalsCount() - subgoalIndex - 1;
+        int producedEnd = resultCount - followingCount;
+        boolean isLocal = producedEnd >= subgoalIndex;
+        for (int i = 0; isLocal && i < subgoalIndex; i++) {
+            isLocal = resultGoals.getGoalAt(i) == goals.getGoalAt(i);
+        }
+        for (int i = 0; isLocal && i < followingCount; i++) {
+            isLocal = resultGoals.getGoalAt(producedEnd + i) == goals.getGoalAt(subgoalIndex + 1 + i);
+        }
+        if (!isLocal) {
+            throw new RuleApplicationException(i18n("RULE_MULTI_TARGET_NOT_LOCAL", rule.getProvider().getInferenceRuleName(), subgoalIndex));
+        }
+        for (int i = subgoalIndex; i < producedEnd; i++) {
+            mergedGoals.add(resultGoals.getGoalAt(i));
+        }
+    }
+
+    /**
+     * The pool is created lazily and shared by all multi-target rules.
+     */
+    private static class PoolHolder {
+
+        static final ForkJoinPool Pool = new ForkJoinPool();
+
+        private PoolHolder() {
+        }
+    }
+}
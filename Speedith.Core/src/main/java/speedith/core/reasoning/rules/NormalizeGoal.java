@@ -0,0 +1,84 @@
+package speedith.core.reasoning.rules;
+
+import speedith.core.lang.SpiderDiagram;
+import speedith.core.reasoning.*;
+import speedith.core.reasoning.args.RuleArg;
+import speedith.core.reasoning.args.SubgoalIndexArg;
+import speedith.core.reasoning.util.Normalizer;
+
+import java.util.ArrayList;
+import java.util.Locale;
+
+import static speedith.core.i18n.Translations.i18n;
+
+/**
+ * Normalizes the selected subgoal with the default {@link Normalizer} in a
+ * single step.
+ * <p>The normalization runs on a separate proof of the selected subgoal. The
+ * subgoal is replaced by the goals in which that proof ends (the subgoal is
+ * removed if the normalization discharged it, and is left intact if no
+ * normalization rule was applicable). Together with the {@link MultiTargetRule}
+ * this rule normalizes several subgoals in parallel (see {@link
+ * Proof#applyRuleToSubgoals(speedith.core.reasoning.InferenceRule, speedith.core.reasoning.args.SubgoalIndexArg, int...)}).</p>
+ */
+public class NormalizeGoal extends SimpleInferenceRule<SubgoalIndexArg> {
+
+    /**
+     * The name of this inference rule.
+     * <p>This value is returned by the {@link SimpleInferenceRule#getInferenceRuleName()}
+     * method.</p>
+     */
+    public static final String InferenceRuleName = "normalize_goal";
+
+    @Override
+    public RuleApplicationResult apply(RuleArg args, Goals goals) throws RuleApplicationException {
+        SubgoalIndexArg arg = getTypedRuleArgs(args);
+        ProofTrace normalization = new ProofTrace(getSubgoal(arg, goals));
+        new Normalizer().normalize(normalization);
+        Goals normalizedGoals = normalization.getLastGoals();
+        ArrayList<SpiderDiagram> newSubgoals = new ArrayList<>();
+        for (int i = 0; i < goals.getGoalsCount(); i++) {
+            if (i != arg.getSubgoalIndex()) {
+                newSubgoals.add(goals.getGoalAt(i));
+            } else if (!normalizedGoals.isEmpty()) {
+                newSubgoals.addAll(normalizedGoals.getGoals());
+            }
+        }
+        return createRuleApplicationResult(newSubgoals.toArray(new SpiderDiagram[newSubgoals.size()]));
+    }
+
+    @Override
+    public NormalizeGoal getInferenceRule() {
+        return this;
+    }
+
+    @Override
+    public String getInferenceRuleName() {
+        return InferenceRuleName;
+    }
+
+    @Override
+    public String getDescription(Locale locale) {
+        return i18n(locale, "NORMALIZE_GOAL_DESCRIPTION");
+    }
+
+    @Override
+    public String getCategory(Locale locale) {
+        return i18n(locale, "INF_RULE_CATEGORY_PURELY_SENTENTIAL");
+    }
+
+    @Override
+    public String getPrettyName(Locale locale) {
+        return i18n(locale, "NORMALIZE_GOAL_PRETTY_NAME");
+    }
+
+    @Override
+    public Class<SubgoalIndexArg> getArgumentType() {
+        return SubgoalIndexArg.class;
+    }
+
+    @Override
+    public RuleApplicationInstruction<SubgoalIndexArg> getInstructions() {
+        return null;
+    }
+}
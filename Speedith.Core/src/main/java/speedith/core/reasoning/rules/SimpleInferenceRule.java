@@ -28,7 +28,7 @@ package speedith.core.reasoning.rules;
 
 import java.util.ArrayList;
 import java.util.Locale;
-import static speedith.core.i18n.Translations.i18n;
+import static speedith.core.i18n.Translations.deferredI18n;
 import speedith.core.lang.CompoundSpiderDiagram;
 import speedith.core.lang.SpiderDiagram;
 import speedith.core.reasoning.*;
@@ -119,11 +119,11 @@ public abstract class SimpleInferenceRule<TArgs extends RuleArg> implements Infe
         if (argType == null || argType == RuleArg.class) {
             return null;
         } else if (args == null) {
-            throw new RuleApplicationException(i18n("RULE_NO_SUBGOALS"));
+            throw new RuleApplicationException(deferredI18n("RULE_NO_SUBGOALS"));
         } else if (argType.isInstance(args)) {
             return argType.cast(args);
         } else {
-            throw new RuleApplicationException(i18n("RULE_INVALID_ARGS"));
+            throw new RuleApplicationException(deferredI18n("RULE_INVALID_ARGS"));
         }
     }
 
@@ -146,17 +146,17 @@ public abstract class SimpleInferenceRule<TArgs extends RuleArg> implements Infe
      */
     protected static SpiderDiagram getSubgoal(SubgoalIndexArg args, Goals goals) throws RuleApplicationException {
         if (goals == null) {
-            throw new RuleApplicationException(i18n("RULE_NO_SUBGOALS"));
+            throw new RuleApplicationException(deferredI18n("RULE_NO_SUBGOALS"));
         } else if (args == null) {
-            throw new RuleApplicationException(i18n("RULE_INVALID_ARGS"));
+            throw new RuleApplicationException(deferredI18n("RULE_INVALID_ARGS"));
         } else {
             // Check that the subgoal actually exists:
             if (args.getSubgoalIndex() >= goals.getGoalsCount() || args.getSubgoalIndex() < 0) {
-                throw new RuleApplicationException(i18n("RULE_SUBGOAL_INDEX_OUT_OF_RANGE", args.getSubgoalIndex()));
+                throw new RuleApplicationException(deferredI18n("RULE_SUBGOAL_INDEX_OUT_OF_RANGE", args.getSubgoalIndex()));
             }
             SpiderDiagram sd = goals.getGoalAt(args.getSubgoalIndex());
             if (sd == null) {
-                throw new RuleApplicationException(i18n("RULE_NO_SUBGOAL_AT_INDEX"));
+                throw new RuleApplicationException(deferredI18n("RULE_NO_SUBGOAL_AT_INDEX"));
             }
             return sd;
         }
@@ -35,6 +35,7 @@ import speedith.core.reasoning.args.SubDiagramIndexArg;
 import java.util.ArrayList;
 import java.util.Locale;
 
+import static speedith.core.i18n.Translations.deferredI18n;
 import static speedith.core.i18n.Translations.i18n;
 
 /**
@@ -99,7 +100,7 @@ public abstract class UnaryForwardRule
         if (SimpleInferenceRule.isAtFittingPosition(parents, childIndices, applyStyle, true)) {
           return apply(csd);
         } else {
-          throw new TransformationException(i18n("RULE_NOT_POSITIVE_POSITION"));
+          throw new TransformationException(deferredI18n("RULE_NOT_POSITIVE_POSITION"));
         }
       }
       return null;
@@ -113,7 +114,7 @@ public abstract class UnaryForwardRule
         if (SimpleInferenceRule.isAtFittingPosition(parents, childIndices, applyStyle, true)) {
           return apply(nsd);
         } else {
-          throw new TransformationException(i18n("RULE_NOT_POSITIVE_POSITION"));
+          throw new TransformationException(deferredI18n("RULE_NOT_POSITIVE_POSITION"));
         }
       }
       return null;
@@ -127,7 +128,7 @@ public abstract class UnaryForwardRule
         if (SimpleInferenceRule.isAtFittingPosition(parents, childIndices, applyStyle, true)) {
           return apply(psd);
         } else {
-          throw new TransformationException(i18n("RULE_NOT_POSITIVE_POSITION"));
+          throw new TransformationException(deferredI18n("RULE_NOT_POSITIVE_POSITION"));
         }
       }
       return null;
@@ -0,0 +1,41 @@
+package speedith.core.reasoning.util;
+
+import speedith.core.lang.CompoundSpiderDiagram;
+import speedith.core.lang.SpiderDiagram;
+import speedith.core.reasoning.InferenceRule;
+import speedith.core.reasoning.args.RuleArg;
+
+/**
+ * A simplification step that the {@link Normalizer} applies wherever it can.
+ * <p>A normalization rule decides whether its {@link
+ * NormalizationRule#getInferenceRule() inference rule} is applicable to a
+ * single sub-diagram of a goal and provides the argument for the application.
+ * The decision may depend on the whole sub-diagram and on its parent: after
+ * every rewrite the normalizer re-examines the rewritten sub-diagram and all
+ * its ancestors (but not their other operands).</p>
+ */
+public interface NormalizationRule {
+
+    /**
+     * Returns the inference rule that performs the simplification.
+     *
+     * @return the inference rule that performs the simplification.
+     */
+    InferenceRule<? extends RuleArg> getInferenceRule();
+
+    /**
+     * Returns the argument with which the inference rule simplifies the given
+     * sub-diagram, or {@code null} if the rule does not apply to it.
+     *
+     * @param subgoalIndex    the index of the goal that contains the
+     *                        sub-diagram.
+     * @param subDiagram      the sub-diagram to examine.
+     * @param subDiagramIndex the index of the sub-diagram within the goal (the
+     *                        goal itself has the index {@code 0}).
+     * @param parent          the compound diagram that contains the
+     *                        sub-diagram as an operand (or {@code null} if the
+     *                        sub-diagram is the goal itself).
+     * @return the argument for the inference rule or {@code null}.
+     */
+    RuleArg getArgument(int subgoalIndex, SpiderDiagram subDiagram, int subDiagramIndex, CompoundSpiderDiagram parent);
+}
@@ -0,0 +1,357 @@
+package speedith.core.reasoning.util;
+
+import speedith.core.lang.*;
+import speedith.core.reasoning.*;
+import speedith.core.reasoning.args.RuleArg;
+import speedith.core.reasoning.args.SubDiagramIndexArg;
+import speedith.core.reasoning.args.SubgoalIndexArg;
+import speedith.core.reasoning.rules.ConjunctionElimination;
+import speedith.core.reasoning.rules.DischargeNullGoal;
+import speedith.core.reasoning.rules.DoubleNegationElimination;
+import speedith.core.reasoning.rules.Idempotency;
+
+import java.util.*;
+
+import static speedith.core.i18n.Translations.i18n;
+
+/**
+ * Applies a set of simplifying {@link NormalizationRule normalization rules} to
+ * all goals of a proof until none of them applies anymore.
+ * <p>Every goal is scanned once to find the sub-diagrams to which some rule
+ * applies. These positions are put into a worklist and processed from the
+ * highest sub-diagram index to the lowest (i.e.: operands before the compound
+ * diagrams that contain them), so rewriting a sub-diagram never shifts the
+ * positions that are still waiting in the worklist. After a rewrite the
+ * rewritten position and all its ancestors are examined again (a rule may
+ * compare whole operands, so a rewrite deep inside a goal can make a rule
+ * applicable anywhere above it).</p>
+ * <p>Each rewrite is an ordinary rule application on the {@link Proof}, so
+ * the applied steps are recorded in the proof (e.g.: in a {@link
+ * ProofTrace}).</p>
+ */
+public class Normalizer {
+
+    /**
+     * Eliminates double negations.
+     */
+    public static final NormalizationRule DoubleNegationEliminationRule = new SubDiagramRule(DoubleNegationElimination.InferenceRuleName) {
+        @Override
+        boolean isApplicable(SpiderDiagram subDiagram, CompoundSpiderDiagram parent) {
+            return isNegation(subDiagram) && isNegation(((CompoundSpiderDiagram) subDiagram).getOperand(0));
+        }
+    };
+
+    /**
+     * Removes duplicate operands of conjunctions and disjunctions and replaces
+     * implications and equivalences of equal operands with the null diagram.
+     */
+    public static final NormalizationRule IdempotencyRule = new SubDiagramRule(Idempotency.InferenceRuleName) {
+        @Override
+        boolean isApplicable(SpiderDiagram subDiagram, CompoundSpiderDiagram parent) {
+            if (!(subDiagram instanceof CompoundSpiderDiagram) || ((CompoundSpiderDiagram) subDiagram).getOperandCount() != 2) {
+                return false;
+            }
+            CompoundSpiderDiagram csd = (CompoundSpiderDiagram) subDiagram;
+            if (csd.getOperand(0).isSEquivalentTo(csd.getOperand(1))) {
+                return true;
+            }
+            // Duplicates further apart are looked for only at the root of a
+            // chain (the rule removes them from the whole chain at once).
+            return csd.getOperator().isAssociative()
+                    && (parent == null || parent.getOperator() != csd.getOperator())
+                    && AssociativeChain.of(csd).withoutDuplicateOperands() != csd;
+        }
+    };
+
+    /**
+     * Keeps only the first operand of conjunctions. <span
+     * style="font-weight:bold">Note</span>: this rule weakens the goal, so it
+     * is not part of the {@link Normalizer#Normalizer() default rule set}.
+     */
+    public static final NormalizationRule ConjunctionEliminationRule = new SubDiagramRule(ConjunctionElimination.InferenceRuleName) {
+        @Override
+        boolean isApplicable(SpiderDiagram subDiagram, CompoundSpiderDiagram parent) {
+            return subDiagram instanceof CompoundSpiderDiagram && ((CompoundSpiderDiagram) subDiagram).getOperator() == Operator.Conjunction;
+        }
+    };
+
+    /**
+     * Discharges goals that are null spider diagrams.
+     */
+    public static final NormalizationRule DischargeNullGoalRule = new NormalizationRule() {
+        @Override
+        public InferenceRule<? extends RuleArg> getInferenceRule() {
+            return InferenceRules.getInferenceRule(DischargeNullGoal.InferenceRuleName);
+        }
+
+        @Override
+        public RuleArg getArgument(int subgoalIndex, SpiderDiagram subDiagram, int subDiagramIndex, CompoundSpiderDiagram parent) {
+            return subDiagramIndex == 0 && subDiagram instanceof NullSpiderDiagram ? new SubgoalIndexArg(subgoalIndex) : null;
+        }
+    };
+
+    private final List<NormalizationRule> rules;
+
+    /**
+     * Creates a normalizer that eliminates double negations, applies
+     * idempotency and discharges null goals.
+     */
+    public Normalizer() {
+        this(DoubleNegationEliminationRule, IdempotencyRule, DischargeNullGoalRule);
+    }
+
+    /**
+     * Creates a normalizer with the given rules. If more than one rule applies
+     * to the same sub-diagram, the first one is used.
+     *
+     * @param rules the rules to apply.
+     */
+    public Normalizer(NormalizationRule... rules) {
+        this(rules == null ? null : Arrays.asList(rules));
+    }
+
+    public Normalizer(List<NormalizationRule> rules) {
+        if (rules == null || rules.isEmpty()) {
+            throw new IllegalArgumentException(i18n("GERR_EMPTY_ARGUMENT", "rules"));
+        }
+        this.rules = Collections.unmodifiableList(new ArrayList<>(rules));
+    }
+
+    public List<NormalizationRule> getRules() {
+        return rules;
+    }
+
+    /**
+     * Applies the rules to the last goals of the given proof until none of
+     * them is applicable anymore.
+     *
+     * @param proof the proof that receives the applied steps.
+     * @return the number of applied steps.
+     * @throws RuleApplicationException thrown if a rule could not be applied
+     *                                  where its normalization rule said it could.
+     */
+    public int normalize(Proof proof) throws RuleApplicationException {
+        if (proof == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "proof"));
+        }
+        int steps = 0;
+        // Goals are normalized from the last to the first, so that goals that
+        // are still waiting keep their indices.
+        int goalIndex = proof.isFinished() ? -1 : proof.getLastGoals().getGoalsCount() - 1;
+        while (goalIndex >= 0) {
+            GoalNormalization goalNormalization = new GoalNormalization(proof, goalIndex);
+            steps += goalNormalization.run();
+            goalIndex = goalNormalization.goalsBefore - 1;
+        }
+        return steps;
+    }
+
+    private static boolean isNegation(SpiderDiagram sd) {
+        return sd instanceof CompoundSpiderDiagram && ((CompoundSpiderDiagram) sd).getOperator() == Operator.Negation;
+    }
+
+    private static List<SpiderDiagram> goalsOf(Proof proof) {
+        Goals goals = proof.getLastGoals();
+        return goals == null || goals.isEmpty() ? Collections.<SpiderDiagram>emptyList() : goals.getGoals();
+    }
+
+    /**
+     * Returns the number of goals in {@code after} that are not past the end
+     * of {@code before}, when aligning them from the given positions onwards.
+     * Rule applications only remove or replace goals, so the goals of one list
+     * are a subsequence of the other's.
+     */
+    private static int align(List<SpiderDiagram> before, int beforeStart, int beforeEnd, List<SpiderDiagram> after, int afterStart) {
+        int afterIndex = afterStart;
+        for (int i = beforeStart; i < beforeEnd; i++) {
+            if (afterIndex < after.size() && after.get(afterIndex) == before.get(i)) {
+                ++afterIndex;
+            }
+        }
+        return afterIndex;
+    }
+
+    /**
+     * Normalizes a single goal.
+     */
+    private class GoalNormalization {
+
+        private final Proof proof;
+        private int goalIndex;
+        /**
+         * The number of goals in front of the normalized goal.
+         */
+        int goalsBefore;
+        private SpiderDiagram goal;
+        private final TreeSet<Integer> worklist = new TreeSet<>();
+
+        GoalNormalization(Proof proof, int goalIndex) {
+            this.proof = proof;
+            this.goalIndex = goalIndex;
+            this.goalsBefore = goalIndex;
+            this.goal = proof.getLastGoals().getGoalAt(goalIndex);
+        }
+
+        int run() throws RuleApplicationException {
+            goal.visit(new ApplicablePositionsCollector(), true);
+            int steps = 0;
+            while (!worklist.isEmpty()) {
+                int subDiagramIndex = worklist.pollLast();
+                SubDiagramPath path = SubDiagramPath.of(goal, subDiagramIndex);
+                if (path == null) {
+                    continue;
+                }
+                for (NormalizationRule rule : rules) {
+                    RuleArg arg = rule.getArgument(goalIndex, path.subDiagram, subDiagramIndex, path.getParent());
+                    if (arg != null) {
+                        ++steps;
+                        if (!apply(rule, arg)) {
+                            return steps;
+                        }
+                        worklist.add(subDiagramIndex);
+                        path.addAffectedAncestors(worklist);
+                        break;
+                    }
+                }
+            }
+            return steps;
+        }
+
+        /**
+         * Applies the rule and returns {@code false} if the goal was
+         * discharged.
+         */
+        @SuppressWarnings("unchecked")
+        private boolean apply(NormalizationRule rule, RuleArg arg) throws RuleApplicationException {
+            List<SpiderDiagram> goalsBeforeStep = goalsOf(proof);
+            proof.applyRule((InferenceRule<RuleArg>) rule.getInferenceRule(), arg);
+            List<SpiderDiagram> goalsAfterStep = goalsOf(proof);
+            goalsBefore = align(goalsBeforeStep, 0, goalIndex, goalsAfterStep, 0);
+            boolean goalRemains = goalsBefore < goalsAfterStep.size()
+                    && align(goalsBeforeStep, goalIndex + 1, goalsBeforeStep.size(), goalsAfterStep, goalsBefore + 1) == goalsAfterStep.size();
+            if (goalRemains) {
+                goalIndex = goalsBefore;
+                goal = goalsAfterStep.get(goalIndex);
+            }
+            return goalRemains;
+        }
+
+        private class ApplicablePositionsCollector implements DiagramVisitor<Void> {
+
+            @Override
+            public void init(SpiderDiagram root) {
+            }
+
+            @Override
+            public void end() {
+            }
+
+            @Override
+            public void visit(SpiderDiagram subDiagram, int subDiagramIndex, ArrayList<CompoundSpiderDiagram> parents, ArrayList<Integer> childIndices, ArrayList<Integer> parentIndices) {
+                CompoundSpiderDiagram parent = parents == null || parents.isEmpty() ? null : parents.get(parents.size() - 1);
+                for (NormalizationRule rule : rules) {
+                    if (rule.getArgument(goalIndex, subDiagram, subDiagramIndex, parent) != null) {
+                        worklist.add(subDiagramIndex);
+                        return;
+                    }
+                }
+            }
+
+            @Override
+            public boolean isDone() {
+                return false;
+            }
+
+            @Override
+            public Void getResult() {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * A sub-diagram together with its ancestors (and their sub-diagram
+     * indices).
+     */
+    private static class SubDiagramPath {
+
+        final SpiderDiagram subDiagram;
+        final ArrayList<CompoundSpiderDiagram> ancestors;
+        final ArrayList<Integer> ancestorIndices;
+
+        private SubDiagramPath(SpiderDiagram subDiagram, ArrayList<CompoundSpiderDiagram> ancestors, ArrayList<Integer> ancestorIndices) {
+            this.subDiagram = subDiagram;
+            this.ancestors = ancestors;
+            this.ancestorIndices = ancestorIndices;
+        }
+
+        /**
+         * Returns the path to the sub-diagram at the given index or {@code
+         * null} if there is no such sub-diagram.
+         */
+        static SubDiagramPath of(SpiderDiagram root, int subDiagramIndex) {
+            if (subDiagramIndex < 0 || subDiagramIndex >= root.getSubDiagramCount()) {
+                return null;
+            }
+            ArrayList<CompoundSpiderDiagram> ancestors = new ArrayList<>();
+            ArrayList<Integer> ancestorIndices = new ArrayList<>();
+            SpiderDiagram current = root;
+            int currentIndex = 0;
+            while (currentIndex != subDiagramIndex) {
+                CompoundSpiderDiagram csd = (CompoundSpiderDiagram) current;
+                ancestors.add(csd);
+                ancestorIndices.add(currentIndex);
+                int childIndex = currentIndex + 1;
+                for (SpiderDiagram operand : csd.getOperands()) {
+                    if (subDiagramIndex < childIndex + operand.getSubDiagramCount()) {
+                        current = operand;
+                        break;
+                    }
+                    childIndex += operand.getSubDiagramCount();
+                }
+                currentIndex = childIndex;
+            }
+            return new SubDiagramPath(current, ancestors, ancestorIndices);
+        }
+
+        CompoundSpiderDiagram getParent() {
+            return ancestors.isEmpty() ? null : ancestors.get(ancestors.size() - 1);
+        }
+
+        /**
+         * Adds all ancestors (up to the root of the goal) to the worklist.
+         * A rewrite does not change the indices of the ancestors, as they
+         * precede the rewritten sub-diagram.
+         */
+        void addAffectedAncestors(TreeSet<Integer> worklist) {
+            worklist.addAll(ancestorIndices);
+        }
+    }
+
+    /**
+     * A normalization rule that applies an inference rule with a {@link
+     * SubDiagramIndexArg} to the sub-diagrams for which {@link
+     * SubDiagramRule#isApplicable(speedith.core.lang.SpiderDiagram,
+     * speedith.core.lang.CompoundSpiderDiagram)} returns {@code true}.
+     */
+    private abstract static class SubDiagramRule implements NormalizationRule {
+
+        private final String inferenceRuleName;
+
+        SubDiagramRule(String inferenceRuleName) {
+            this.inferenceRuleName = inferenceRuleName;
+        }
+
+        @Override
+        public InferenceRule<? extends RuleArg> getInferenceRule() {
+            return InferenceRules.getInferenceRule(inferenceRuleName);
+        }
+
+        @Override
+        public RuleArg getArgument(int subgoalIndex, SpiderDiagram subDiagram, int subDiagramIndex, CompoundSpiderDiagram parent) {
+            return isApplicable(subDiagram, parent) ? new SubDiagramIndexArg(subgoalIndex, subDiagramIndex) : null;
+        }
+
+        abstract boolean isApplicable(SpiderDiagram subDiagram, CompoundSpiderDiagram parent);
+    }
+}
@@ -0,0 +1,104 @@
+package speedith.core.reasoning.util;
+
+/**
+ * The outcome of re-verifying a single proof with the {@link ProofVerifier}.
+ */
+public class ProofVerification {
+
+    /**
+     * The possible verdicts of a re-verification.
+     */
+    public static enum Verdict {
+
+        /**
+         * All steps applied and no goals remain.
+         */
+        Proved,
+        /**
+         * All steps applied, but some goals remain unproved.
+         */
+        Unfinished,
+        /**
+         * One of the steps could not be applied.
+         */
+        Failed
+    }
+
+    private final int proofIndex;
+    private final Verdict verdict;
+    private final int failingStep;
+    private final Exception failure;
+    private final long durationNanos;
+
+    ProofVerification(int proofIndex, Verdict verdict, int failingStep, Exception failure, long durationNanos) {
+        this.proofIndex = proofIndex;
+        this.verdict = verdict;
+        this.failingStep = failingStep;
+        this.failure = failure;
+        this.durationNanos = durationNanos;
+    }
+
+    /**
+     * Returns the index of the verified proof in the list given to {@link
+     * ProofVerifier#verifyAll(java.util.List)}.
+     *
+     * @return the index of the verified proof.
+     */
+    public int getProofIndex() {
+        return proofIndex;
+    }
+
+    /**
+     * Returns the verdict of the re-verification.
+     *
+     * @return the verdict of the re-verification.
+     */
+    public Verdict getVerdict() {
+        return verdict;
+    }
+
+    /**
+     * Indicates whether the proof was re-verified and proves its theorem.
+     *
+     * @return {@code true} if the verdict is {@link Verdict#Proved}.
+     */
+    public boolean isProved() {
+        return verdict == Verdict.Proved;
+    }
+
+    /**
+     * Returns the index of the rule application that could not be applied,
+     * or {@code -1} if all of them applied.
+     *
+     * @return the index of the failing step or {@code -1}.
+     */
+    public int getFailingStep() {
+        return failingStep;
+    }
+
+    /**
+     * Returns the reason why the {@link ProofVerification#getFailingStep()
+     * failing step} could not be applied (or {@code null} if all steps
+     * applied).
+     *
+     * @return the reason why the failing step could not be applied.
+     */
+    public Exception getFailure() {
+        return failure;
+    }
+
+    /**
+     * Returns how long the re-verification of the proof took (in
+     * nanoseconds).
+     *
+     * @return how long the re-verification of the proof took.
+     */
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    @Override
+    public String toString() {
+        return "ProofVerification{proofIndex=" + proofIndex + ", verdict=" + verdict + ", failingStep=" + failingStep + ", durationNanos=" + durationNanos + '}';
+    }
+}
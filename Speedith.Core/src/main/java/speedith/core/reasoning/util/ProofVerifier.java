@@ -0,0 +1,163 @@
+package speedith.core.reasoning.util;
+
+import speedith.core.reasoning.*;
+import speedith.core.reasoning.args.RuleArg;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static speedith.core.i18n.Translations.i18n;
+
+/**
+ * Re-verifies recorded proofs by replaying their rule applications on their
+ * initial goals (e.g.: after inference rules have changed). Steps that were
+ * applied in the {@link ProofTrace#setGoalSetMode(boolean) goal-set mode} are
+ * replayed in that mode.
+ * <p>Every proof is replayed independently in a fresh {@link ProofTrace}, so
+ * many proofs can be verified concurrently on a worker pool. All replays of a
+ * verifier share one {@link RuleApplicationCache}: spider diagrams are
+ * interned, so proofs that start with the same goals and steps reach
+ * identical intermediate goals and the shared prefix is computed only
+ * once.</p>
+ * <p>Instances of this class are thread-safe.</p>
+ */
+public class ProofVerifier {
+
+    private final RuleApplicationCache ruleApplicationCache;
+
+    /**
+     * Creates a verifier that shares the results of identical proof steps
+     * through a {@link RuleApplicationCache#DefaultMaxSize default-sized}
+     * cache.
+     */
+    public ProofVerifier() {
+        this(new RuleApplicationCache());
+    }
+
+    /**
+     * Creates a verifier that shares the results of identical proof steps
+     * through the given cache.
+     *
+     * @param ruleApplicationCache the cache through which to apply the proof
+     *                             steps or {@code null} to apply each step
+     *                             anew.
+     */
+    public ProofVerifier(RuleApplicationCache ruleApplicationCache) {
+        this.ruleApplicationCache = ruleApplicationCache;
+    }
+
+    /**
+     * Returns the cache through which this verifier applies the proof steps
+     * (may be {@code null}).
+     *
+     * @return the cache through which this verifier applies the proof steps.
+     */
+    public RuleApplicationCache getRuleApplicationCache() {
+        return ruleApplicationCache;
+    }
+
+    /**
+     * Replays the rule applications of the given proof on its initial goals.
+     *
+     * @param proof the proof to verify.
+     * @return the outcome of the verification (its {@link
+     *         ProofVerification#getProofIndex() proof index} is {@code 0}).
+     */
+    public ProofVerification verify(Proof proof) {
+        return verify(proof, 0);
+    }
+
+    /**
+     * Verifies all the given proofs on a worker pool with as many threads as
+     * there are available processors.
+     *
+     * @param proofs the proofs to verify.
+     * @return the outcomes of the verifications (in the order of the given
+     *         proofs).
+     * @throws InterruptedException thrown if the current thread was
+     *                              interrupted while waiting for the
+     *                              verifications.
+     */
+    public List<ProofVerification> verifyAll(List<? extends Proof> proofs) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        try {
+            return verifyAll(proofs, executor);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Verifies all the given proofs on the given executor.
+     *
+     * @param proofs   the proofs to verify.
+     * @param executor the executor on which to run the verifications.
+     * @return the outcomes of the verifications (in the order of the given
+     *         proofs).
+     * @throws InterruptedException thrown if the current thread was
+     *                              interrupted while waiting for the
+     *                              verifications.
+     */
+    public List<ProofVerification> verifyAll(List<? extends Proof> proofs, ExecutorService executor) throws InterruptedException {
+        if (proofs == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "proofs"));
+        }
+        if (executor == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "executor"));
+        }
+        ArrayList<Callable<ProofVerification>> tasks = new ArrayList<>(proofs.size());
+        for (int i = 0; i < proofs.size(); i++) {
+            final Proof proof = proofs.get(i);
+            final int proofIndex = i;
+            tasks.add(new Callable<ProofVerification>() {
+                @Override
+                public ProofVerification call() {
+                    return verify(proof, proofIndex);
+                }
+            });
+        }
+        ArrayList<ProofVerification> verifications = new ArrayList<>(proofs.size());
+        for (Future<ProofVerification> future : executor.invokeAll(tasks)) {
+            try {
+                verifications.add(future.get());
+            } catch (ExecutionException e) {
+                // Verifications catch all exceptions of the replayed rules,
+                // so only errors get here.
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+        return verifications;
+    }
+
+    @SuppressWarnings("unchecked")
+    private ProofVerification verify(Proof proof, int proofIndex) {
+        if (proof == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "proof"));
+        }
+        long start = System.nanoTime();
+        ProofTrace replay = new ProofTrace(proof.getInitialGoals());
+        replay.setRuleApplicationCache(ruleApplicationCache);
+        List<RuleApplication> steps = proof.getRuleApplications();
+        for (int step = 0; step < steps.size(); step++) {
+            RuleApplication ruleApplication = steps.get(step);
+            replay.setGoalSetMode(isGoalSetStep(proof, step));
+            try {
+                replay.applyRule((InferenceRule<RuleArg>) ruleApplication.getInferenceRule(), ruleApplication.getRuleArguments());
+            } catch (RuleApplicationException | RuntimeException e) {
+                return new ProofVerification(proofIndex, ProofVerification.Verdict.Failed, step, e, System.nanoTime() - start);
+            }
+        }
+        ProofVerification.Verdict verdict = replay.isFinished() ? ProofVerification.Verdict.Proved : ProofVerification.Verdict.Unfinished;
+        return new ProofVerification(proofIndex, verdict, -1, null, System.nanoTime() - start);
+    }
+
+    /**
+     * The subgoal indices of the steps that follow a {@link
+     * ProofTrace#isGoalSetStep(int) goal-set step} refer to the merged goals,
+     * so every step is replayed in the mode in which it was recorded.
+     */
+    private static boolean isGoalSetStep(Proof proof, int index) {
+        return proof instanceof ProofTrace && ((ProofTrace) proof).isGoalSetStep(index);
+    }
+}
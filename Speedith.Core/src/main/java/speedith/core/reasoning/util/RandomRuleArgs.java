@@ -0,0 +1,368 @@
+package speedith.core.reasoning.util;
+
+import speedith.core.lang.PrimarySpiderDiagram;
+import speedith.core.lang.Region;
+import speedith.core.lang.SpiderDiagram;
+import speedith.core.lang.Zone;
+import speedith.core.reasoning.Goals;
+import speedith.core.reasoning.InferenceRuleProvider;
+import speedith.core.reasoning.InferenceRules;
+import speedith.core.reasoning.args.*;
+import speedith.core.reasoning.rules.AddFeet;
+import speedith.core.reasoning.rules.CopyShading;
+import speedith.core.reasoning.rules.SplitSpiders;
+
+import java.util.*;
+
+import static speedith.core.i18n.Translations.i18n;
+
+/**
+ * Generates random rule arguments for inference rules.
+ * <p>The generated arguments are structurally valid for the given goals: they
+ * point to existing subgoals, sub-diagrams, spiders, zones and contours, and
+ * their type matches the {@link InferenceRuleProvider#getArgumentType()
+ * argument type} of the rule. Some rules have additional preconditions (e.g.,
+ * the targeted sub-diagram must be a conjunction), which a randomly chosen
+ * argument need not satisfy. Applying a rule with a generated argument may
+ * therefore still fail with a rule application exception.</p>
+ * <p><span style="font-weight:bold">Note</span>: instances of this class are
+ * not thread-safe. Create one generator per thread.</p>
+ */
+public class RandomRuleArgs {
+
+    private final Random rng;
+
+    /**
+     * Creates a generator of random rule arguments.
+     *
+     * @param seed the seed of the random number generator. Two generators with
+     * the same seed produce exactly the same sequence of arguments for the
+     * same sequence of requests.
+     */
+    public RandomRuleArgs(long seed) {
+        this.rng = new Random(seed);
+    }
+
+    /**
+     * Generates a random argument for the inference rule with the given name.
+     *
+     * @param inferenceRuleName the name of a {@link InferenceRules#getKnownInferenceRules()
+     * known} inference rule.
+     * @param goals the goals to which the rule should be applied.
+     * @return a random argument for the rule, or {@code null} if the goals
+     * contain no suitable target for the rule (e.g., the rule takes a spider but
+     * the goals contain no spiders).
+     */
+    public RuleArg nextRuleArg(String inferenceRuleName, Goals goals) {
+        InferenceRuleProvider<? extends RuleArg> provider = InferenceRules.getProvider(inferenceRuleName);
+        if (provider == null) {
+            throw new IllegalArgumentException(i18n("GERR_ILLEGAL_ARGUMENT", "inferenceRuleName"));
+        }
+        return nextRuleArg(provider, goals);
+    }
+
+    /**
+     * Generates a random argument for the inference rule of the given provider.
+     *
+     * @param provider the provider of the inference rule.
+     * @param goals the goals to which the rule should be applied.
+     * @return a random argument for the rule, or {@code null} if the goals
+     * contain no suitable target for the rule.
+     */
+    public RuleArg nextRuleArg(InferenceRuleProvider<? extends RuleArg> provider, Goals goals) {
+        if (provider == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "provider"));
+        }
+        if (goals == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "goals"));
+        }
+        Class<? extends RuleArg> argumentType = provider.getArgumentType();
+        if (SubgoalIndexArg.class.equals(argumentType)) {
+            return nextSubgoalIndexArg(goals);
+        } else if (SubDiagramIndexArg.class.equals(argumentType)) {
+            return nextSubDiagramIndexArg(goals);
+        } else if (SpiderArg.class.equals(argumentType)) {
+            return nextSpiderArg(goals);
+        } else if (SpiderRegionArg.class.equals(argumentType)) {
+            if (provider instanceof AddFeet) {
+                return nextAddFeetArg(goals);
+            } else if (provider instanceof SplitSpiders) {
+                return nextSplitSpiderArg(goals);
+            }
+            return nextSpiderRegionArg(goals);
+        } else if (SpiderZoneArg.class.equals(argumentType)) {
+            return nextSpiderZoneArg(goals);
+        } else if (ContourArg.class.equals(argumentType)) {
+            return nextContourArg(goals);
+        } else if (ZoneArg.class.equals(argumentType)) {
+            return nextZoneArg(goals);
+        } else if (MultipleRuleArgs.class.equals(argumentType)) {
+            return provider instanceof CopyShading ? nextZoneArgs(goals) : nextContourArgs(goals);
+        }
+        throw new IllegalArgumentException(i18n("GERR_ILLEGAL_ARGUMENT", "provider"));
+    }
+
+    // <editor-fold defaultstate="collapsed" desc="Argument Generators">
+    /**
+     * Returns an argument that points to a random subgoal.
+     *
+     * @param goals the goals from which to pick.
+     * @return an argument that points to a random subgoal, or {@code null} if
+     * there are no goals.
+     */
+    public SubgoalIndexArg nextSubgoalIndexArg(Goals goals) {
+        if (goals.isEmpty()) {
+            return null;
+        }
+        return new SubgoalIndexArg(rng.nextInt(goals.getGoalsCount()));
+    }
+
+    /**
+     * Returns an argument that points to a random sub-diagram of a random
+     * subgoal.
+     *
+     * @param goals the goals from which to pick.
+     * @return an argument that points to a random sub-diagram, or {@code null}
+     * if there are no goals.
+     */
+    public SubDiagramIndexArg nextSubDiagramIndexArg(Goals goals) {
+        if (goals.isEmpty()) {
+            return null;
+        }
+        int subgoalIndex = rng.nextInt(goals.getGoalsCount());
+        SpiderDiagram subgoal = goals.getGoalAt(subgoalIndex);
+        return new SubDiagramIndexArg(subgoalIndex, rng.nextInt(subgoal.getSubDiagramCount()));
+    }
+
+    /**
+     * Returns an argument that points to a random spider in a random primary
+     * diagram.
+     *
+     * @param goals the goals from which to pick.
+     * @return an argument that points to a random spider, or {@code null} if
+     * the goals contain no spiders.
+     */
+    public SpiderArg nextSpiderArg(Goals goals) {
+        Target target = nextTarget(goals, true);
+        if (target == null) {
+            return null;
+        }
+        return new SpiderArg(target.subgoalIndex, target.subDiagramIndex, nextSpider(target.diagram));
+    }
+
+    /**
+     * Returns an argument that points to a random spider and a random
+     * non-empty sub-region of its habitat.
+     *
+     * @param goals the goals from which to pick.
+     * @return an argument that points to a random spider and region, or
+     * {@code null} if the goals contain no spiders.
+     */
+    public SpiderRegionArg nextSpiderRegionArg(Goals goals) {
+        Target target = nextTarget(goals, true);
+        if (target == null) {
+            return null;
+        }
+        String spider = nextSpider(target.diagram);
+        ArrayList<Zone> habitat = new ArrayList<>(target.diagram.getSpiderHabitat(spider).sortedZones());
+        return new SpiderRegionArg(target.subgoalIndex, target.subDiagramIndex, spider, nextRegion(habitat, habitat.size()));
+    }
+
+    /**
+     * Returns an argument that points to a random spider and a random
+     * non-empty zone of its habitat.
+     *
+     * @param goals the goals from which to pick.
+     * @return an argument that points to a random spider and zone, or
+     * {@code null} if the goals contain no spiders.
+     */
+    public SpiderZoneArg nextSpiderZoneArg(Goals goals) {
+        Target target = nextTarget(goals, true);
+        if (target == null) {
+            return null;
+        }
+        String spider = nextSpider(target.diagram);
+        ArrayList<Zone> habitat = new ArrayList<>(target.diagram.getSpiderHabitat(spider).sortedZones());
+        return new SpiderZoneArg(target.subgoalIndex, target.subDiagramIndex, spider, habitat.get(rng.nextInt(habitat.size())));
+    }
+
+    /**
+     * Returns an argument that points to a random contour in a random primary
+     * diagram.
+     *
+     * @param goals the goals from which to pick.
+     * @return an argument that points to a random contour, or {@code null} if
+     * the goals contain no contours.
+     */
+    public ContourArg nextContourArg(Goals goals) {
+        MultipleRuleArgs contourArgs = nextContourArgs(goals, 1);
+        return contourArgs == null ? null : (ContourArg) contourArgs.get(0);
+    }
+
+    /**
+     * Returns an argument that points to a random zone in a random primary
+     * diagram.
+     *
+     * @param goals the goals from which to pick.
+     * @return an argument that points to a random zone, or {@code null} if the
+     * goals contain no zones.
+     */
+    public ZoneArg nextZoneArg(Goals goals) {
+        MultipleRuleArgs zoneArgs = nextZoneArgs(goals, 1);
+        return zoneArgs == null ? null : (ZoneArg) zoneArgs.get(0);
+    }
+
+    /**
+     * Returns a non-empty list of distinct {@link ContourArg contour arguments}
+     * that all point into the same random primary diagram.
+     *
+     * @param goals the goals from which to pick.
+     * @return a random list of contour arguments, or {@code null} if the goals
+     * contain no contours.
+     */
+    public MultipleRuleArgs nextContourArgs(Goals goals) {
+        return nextContourArgs(goals, -1);
+    }
+
+    /**
+     * Returns a non-empty list of distinct {@link ZoneArg zone arguments} that
+     * all point into the same random primary diagram.
+     *
+     * @param goals the goals from which to pick.
+     * @return a random list of zone arguments, or {@code null} if the goals
+     * contain no zones.
+     */
+    public MultipleRuleArgs nextZoneArgs(Goals goals) {
+        return nextZoneArgs(goals, -1);
+    }
+    // </editor-fold>
+
+    // <editor-fold defaultstate="collapsed" desc="Helper Methods">
+    private SpiderRegionArg nextAddFeetArg(Goals goals) {
+        ArrayList<Target> targets = getTargets(goals, true);
+        Collections.shuffle(targets, rng);
+        for (Target target : targets) {
+            ArrayList<String> spiders = new ArrayList<>(target.diagram.getSpiders());
+            Collections.shuffle(spiders, rng);
+            for (String spider : spiders) {
+                ArrayList<Zone> newFeet = new ArrayList<>(target.diagram.getPresentZones());
+                newFeet.removeAll(target.diagram.getSpiderHabitat(spider).sortedZones());
+                if (!newFeet.isEmpty()) {
+                    return new SpiderRegionArg(target.subgoalIndex, target.subDiagramIndex, spider, nextRegion(newFeet, newFeet.size()));
+                }
+            }
+        }
+        return null;
+    }
+
+    private SpiderRegionArg nextSplitSpiderArg(Goals goals) {
+        ArrayList<Target> targets = getTargets(goals, true);
+        Collections.shuffle(targets, rng);
+        for (Target target : targets) {
+            ArrayList<String> spiders = new ArrayList<>(target.diagram.getSpiders());
+            Collections.shuffle(spiders, rng);
+            for (String spider : spiders) {
+                ArrayList<Zone> habitat = new ArrayList<>(target.diagram.getSpiderHabitat(spider).sortedZones());
+                if (habitat.size() > 1) {
+                    return new SpiderRegionArg(target.subgoalIndex, target.subDiagramIndex, spider, nextRegion(habitat, habitat.size() - 1));
+                }
+            }
+        }
+        return null;
+    }
+
+    private MultipleRuleArgs nextContourArgs(Goals goals, int count) {
+        ArrayList<Target> targets = getTargets(goals, false);
+        for (Iterator<Target> it = targets.iterator(); it.hasNext(); ) {
+            if (it.next().diagram.getAllContours().isEmpty()) {
+                it.remove();
+            }
+        }
+        if (targets.isEmpty()) {
+            return null;
+        }
+        Target target = targets.get(rng.nextInt(targets.size()));
+        ArrayList<String> contours = new ArrayList<>(target.diagram.getAllContours());
+        Collections.shuffle(contours, rng);
+        int argsCount = count < 0 ? 1 + rng.nextInt(contours.size()) : count;
+        ArrayList<ContourArg> contourArgs = new ArrayList<>(argsCount);
+        for (String contour : contours.subList(0, argsCount)) {
+            contourArgs.add(new ContourArg(target.subgoalIndex, target.subDiagramIndex, contour));
+        }
+        return new MultipleRuleArgs(contourArgs);
+    }
+
+    private MultipleRuleArgs nextZoneArgs(Goals goals, int count) {
+        ArrayList<Target> targets = getTargets(goals, false);
+        for (Iterator<Target> it = targets.iterator(); it.hasNext(); ) {
+            if (getVisibleZones(it.next().diagram).isEmpty()) {
+                it.remove();
+            }
+        }
+        if (targets.isEmpty()) {
+            return null;
+        }
+        Target target = targets.get(rng.nextInt(targets.size()));
+        ArrayList<Zone> zones = new ArrayList<>(getVisibleZones(target.diagram));
+        Collections.shuffle(zones, rng);
+        int argsCount = count < 0 ? 1 + rng.nextInt(zones.size()) : count;
+        ArrayList<ZoneArg> zoneArgs = new ArrayList<>(argsCount);
+        for (Zone zone : zones.subList(0, argsCount)) {
+            zoneArgs.add(new ZoneArg(target.subgoalIndex, target.subDiagramIndex, zone));
+        }
+        return new MultipleRuleArgs(zoneArgs);
+    }
+
+    private static TreeSet<Zone> getVisibleZones(PrimarySpiderDiagram diagram) {
+        TreeSet<Zone> zones = new TreeSet<>(diagram.getPresentZones());
+        zones.addAll(diagram.getShadedZones());
+        return zones;
+    }
+
+    private String nextSpider(PrimarySpiderDiagram diagram) {
+        ArrayList<String> spiders = new ArrayList<>(diagram.getSpiders());
+        return spiders.get(rng.nextInt(spiders.size()));
+    }
+
+    private Region nextRegion(List<Zone> zones, int maxSize) {
+        ArrayList<Zone> shuffledZones = new ArrayList<>(zones);
+        Collections.shuffle(shuffledZones, rng);
+        return new Region(shuffledZones.subList(0, 1 + rng.nextInt(maxSize)));
+    }
+
+    private Target nextTarget(Goals goals, boolean withSpiders) {
+        ArrayList<Target> targets = getTargets(goals, withSpiders);
+        return targets.isEmpty() ? null : targets.get(rng.nextInt(targets.size()));
+    }
+
+    private static ArrayList<Target> getTargets(Goals goals, boolean withSpiders) {
+        ArrayList<Target> targets = new ArrayList<>();
+        for (int subgoalIndex = 0; subgoalIndex < goals.getGoalsCount(); subgoalIndex++) {
+            SpiderDiagram subgoal = goals.getGoalAt(subgoalIndex);
+            int subDiagramCount = subgoal.getSubDiagramCount();
+            for (int subDiagramIndex = 0; subDiagramIndex < subDiagramCount; subDiagramIndex++) {
+                SpiderDiagram subDiagram = subgoal.getSubDiagramAt(subDiagramIndex);
+                if (subDiagram instanceof PrimarySpiderDiagram) {
+                    PrimarySpiderDiagram primarySD = (PrimarySpiderDiagram) subDiagram;
+                    if (primarySD.isValid() && (!withSpiders || primarySD.getSpidersCount() > 0)) {
+                        targets.add(new Target(subgoalIndex, subDiagramIndex, primarySD));
+                    }
+                }
+            }
+        }
+        return targets;
+    }
+
+    private static class Target {
+        private final int subgoalIndex;
+        private final int subDiagramIndex;
+        private final PrimarySpiderDiagram diagram;
+
+        private Target(int subgoalIndex, int subDiagramIndex, PrimarySpiderDiagram diagram) {
+            this.subgoalIndex = subgoalIndex;
+            this.subDiagramIndex = subDiagramIndex;
+            this.diagram = diagram;
+        }
+    }
+    // </editor-fold>
+}
@@ -0,0 +1,276 @@
+package speedith.core.reasoning.util;
+
+import speedith.core.lang.SpiderDiagram;
+import speedith.core.lang.reader.ReadingException;
+import speedith.core.reasoning.*;
+import speedith.core.reasoning.args.RuleArg;
+import speedith.core.reasoning.args.RuleArgFormat;
+import speedith.core.reasoning.persistence.ProofTraceReader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static speedith.core.i18n.Translations.i18n;
+
+/**
+ * A fixed sequence of rule applications (a tactic) that can be applied to
+ * many spider diagrams.
+ * <p>A script is read line by line: every line contains the name of an
+ * inference rule (in double quotes if it contains spaces) optionally followed
+ * by its argument in the {@link RuleArgFormat format of rule arguments}.
+ * Empty lines and lines starting with {@code #} are ignored. Example:
+ * <pre># Eliminate the double negation and the repeated conjunct.
+ * double_negation_elimination SubDiagramIndexArg 0 0
+ * idempotency SubDiagramIndexArg 0 0
+ * "Conjunction Introduction" SubDiagramIndexArg 0 0</pre>
+ * </p>
+ * <p>The script is applied to every input diagram independently (in a fresh
+ * {@link ProofTrace}), so many inputs can be processed concurrently on a
+ * worker pool. Instances of this class are immutable and thread-safe.</p>
+ */
+public final class RuleScript {
+
+    private final List<RuleApplication> ruleApplications;
+
+    /**
+     * Creates a script of the given rule applications.
+     *
+     * @param ruleApplications the rule applications to apply in this order.
+     */
+    public RuleScript(List<RuleApplication> ruleApplications) {
+        if (ruleApplications == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "ruleApplications"));
+        }
+        this.ruleApplications = Collections.unmodifiableList(new ArrayList<>(ruleApplications));
+    }
+
+    /**
+     * Reads a script from the given input.
+     *
+     * @param in the input from which to read the script.
+     * @return the read script.
+     * @throws ReadingException thrown if the input contains an unknown rule or
+     *                          an invalid rule argument.
+     * @throws IOException      thrown if the input could not be read.
+     */
+    public static RuleScript read(Reader in) throws ReadingException, IOException {
+        if (in == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "in"));
+        }
+        BufferedReader lines = in instanceof BufferedReader ? (BufferedReader) in : new BufferedReader(in);
+        ArrayList<RuleApplication> ruleApplications = new ArrayList<>();
+        int lineNumber = 0;
+        String line;
+        while ((line = lines.readLine()) != null) {
+            ++lineNumber;
+            String step = line.trim();
+            if (!step.isEmpty() && !step.startsWith("#")) {
+                try {
+                    ruleApplications.add(readStep(step));
+                } catch (ReadingException | IllegalArgumentException ex) {
+                    throw new ReadingException(i18n("ERR_READING_SCRIPT_LINE", lineNumber, ex.getMessage()), ex);
+                }
+            }
+        }
+        return new RuleScript(ruleApplications);
+    }
+
+    private static RuleApplication readStep(String step) throws ReadingException {
+        int nameStart = step.startsWith("\"") ? 1 : 0;
+        int nameEnd = step.indexOf(nameStart > 0 ? '"' : ' ', nameStart);
+        if (nameEnd < 0) {
+            if (nameStart > 0) {
+                throw new ReadingException(i18n("ERR_READING_PROOF_UNKNOWN_RULE", step));
+            }
+            nameEnd = step.length();
+        }
+        InferenceRule<? extends RuleArg> rule = ProofTraceReader.getInferenceRule(step.substring(nameStart, nameEnd));
+        int argStart = nameEnd + nameStart;
+        RuleArg ruleArg = argStart >= step.length() || step.substring(argStart).trim().isEmpty() ? null : RuleArgFormat.fromString(step, argStart);
+        return new RuleApplication(rule, ruleArg);
+    }
+
+    /**
+     * Returns the rule applications of this script (in the order in which
+     * they are applied).
+     *
+     * @return the rule applications of this script.
+     */
+    public List<RuleApplication> getRuleApplications() {
+        return ruleApplications;
+    }
+
+    /**
+     * Applies this script to the given spider diagram.
+     *
+     * @param input the spider diagram to which to apply the script.
+     * @return the goals that remain after the last rule application.
+     * @throws RuleApplicationException thrown if one of the rules could not be
+     *                                  applied.
+     */
+    public Goals apply(SpiderDiagram input) throws RuleApplicationException {
+        Outcome outcome = run(input);
+        if (outcome.failure instanceof RuleApplicationException) {
+            throw (RuleApplicationException) outcome.failure;
+        } else if (outcome.failure != null) {
+            throw (RuntimeException) outcome.failure;
+        }
+        return outcome.goals;
+    }
+
+    /**
+     * Applies this script to all the given spider diagrams on a worker pool
+     * with as many threads as there are available processors.
+     *
+     * @param inputs   the spider diagrams to which to apply the script.
+     * @param listener receives the outcomes (in the order of the inputs).
+     * @throws IOException          thrown if the listener could not write an
+     *                              outcome.
+     * @throws InterruptedException thrown if the current thread was
+     *                              interrupted while waiting for the outcomes.
+     */
+    public void applyAll(Iterator<? extends SpiderDiagram> inputs, ResultListener listener) throws IOException, InterruptedException {
+        int threads = Runtime.getRuntime().availableProcessors();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            applyAll(inputs, executor, 4 * threads, listener);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Applies this script to all the given spider diagrams on the given
+     * executor.
+     * <p>The inputs are taken from the iterator lazily and the outcomes are
+     * passed to the listener (on the current thread) in the order of the
+     * inputs as soon as they are available, so at most {@code maxPending}
+     * inputs and their outcomes are held in memory at any time.</p>
+     *
+     * @param inputs     the spider diagrams to which to apply the script.
+     * @param executor   the executor on which to apply the script.
+     * @param maxPending the maximum number of inputs that are being processed
+     *                   or whose outcomes wait for the listener.
+     * @param listener   receives the outcomes (in the order of the inputs).
+     * @throws IOException          thrown if the listener could not write an
+     *                              outcome.
+     * @throws InterruptedException thrown if the current thread was
+     *                              interrupted while waiting for the outcomes.
+     */
+    public void applyAll(Iterator<? extends SpiderDiagram> inputs, ExecutorService executor, int maxPending, ResultListener listener) throws IOException, InterruptedException {
+        if (inputs == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "inputs"));
+        }
+        if (executor == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "executor"));
+        }
+        if (listener == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "listener"));
+        }
+        if (maxPending < 1) {
+            throw new IllegalArgumentException(i18n("GERR_ILLEGAL_ARGUMENT", "maxPending"));
+        }
+        ArrayDeque<Future<Outcome>> pending = new ArrayDeque<>();
+        int inputIndex = 0;
+        try {
+            while (inputs.hasNext() || !pending.isEmpty()) {
+                while (pending.size() < maxPending && inputs.hasNext()) {
+                    final SpiderDiagram input = inputs.next();
+                    pending.add(executor.submit(new Callable<Outcome>() {
+                        @Override
+                        public Outcome call() {
+                            return run(input);
+                        }
+                    }));
+                }
+                Outcome outcome;
+                try {
+                    outcome = pending.remove().get();
+                } catch (ExecutionException e) {
+                    // Outcomes catch all exceptions of the applied rules and
+                    // report invalid inputs, so only errors get here.
+                    throw new IllegalStateException(e.getCause());
+                }
+                if (outcome.failure == null) {
+                    listener.goalsReached(inputIndex, outcome.input, outcome.goals);
+                } else {
+                    listener.applicationFailed(inputIndex, outcome.input, outcome.failingStep, outcome.failure);
+                }
+                ++inputIndex;
+            }
+        } finally {
+            for (Future<Outcome> future : pending) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Outcome run(SpiderDiagram input) {
+        if (input == null) {
+            return new Outcome(null, null, -1, new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "input")));
+        }
+        ProofTrace trace = new ProofTrace(Goals.createGoalsFrom(input));
+        for (int step = 0; step < ruleApplications.size(); step++) {
+            RuleApplication ruleApplication = ruleApplications.get(step);
+            try {
+                trace.applyRule((InferenceRule<RuleArg>) ruleApplication.getInferenceRule(), ruleApplication.getRuleArguments());
+            } catch (RuleApplicationException | RuntimeException e) {
+                return new Outcome(input, null, step, e);
+            }
+        }
+        return new Outcome(input, trace.getLastGoals(), -1, null);
+    }
+
+    /**
+     * Receives the outcomes of {@link RuleScript#applyAll(java.util.Iterator,
+     * speedith.core.reasoning.util.RuleScript.ResultListener) applying a
+     * script to many inputs}.
+     */
+    public interface ResultListener {
+
+        /**
+         * Called when the script was applied to an input successfully.
+         *
+         * @param inputIndex the index of the input (in the order of the
+         *                   inputs).
+         * @param input      the input diagram.
+         * @param goals      the goals that remain after the last rule
+         *                   application.
+         * @throws IOException thrown if the outcome could not be written.
+         */
+        void goalsReached(int inputIndex, SpiderDiagram input, Goals goals) throws IOException;
+
+        /**
+         * Called when one of the rules of the script could not be applied to
+         * an input (or when the input is {@code null}).
+         *
+         * @param inputIndex  the index of the input (in the order of the
+         *                    inputs).
+         * @param input       the input diagram.
+         * @param failingStep the index of the rule application that failed
+         *                    ({@code -1} if the input is {@code null}).
+         * @param failure     the reason of the failure.
+         * @throws IOException thrown if the outcome could not be written.
+         */
+        void applicationFailed(int inputIndex, SpiderDiagram input, int failingStep, Exception failure) throws IOException;
+    }
+
+    private static final class Outcome {
+
+        private final SpiderDiagram input;
+        private final Goals goals;
+        private final int failingStep;
+        private final Exception failure;
+
+        private Outcome(SpiderDiagram input, Goals goals, int failingStep, Exception failure) {
+            this.input = input;
+            this.goals = goals;
+            this.failingStep = failingStep;
+            this.failure = failure;
+        }
+    }
+}
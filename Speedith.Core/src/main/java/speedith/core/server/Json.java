@@ -0,0 +1,299 @@
+package speedith.core.server;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static speedith.core.i18n.Translations.i18n;
+
+/**
+ * A minimal JSON reader and writer for the {@link SpeedithServer server
+ * protocol}.
+ * <p>JSON values are represented with plain Java objects: objects are
+ * {@link Map maps} (which keep the order of their members), arrays are
+ * {@link List lists}, strings are {@link String strings}, numbers are {@link
+ * Long longs} (if they are integers) or {@link Double doubles}, {@code true}
+ * and {@code false} are {@link Boolean booleans} and {@code null} is {@code
+ * null}.</p>
+ */
+final class Json {
+
+    /**
+     * The maximum number of objects and arrays that may be nested in each
+     * other. The reader is recursive, so deeper requests are rejected instead
+     * of overflowing the stack of the server.
+     */
+    static final int MaxNestingDepth = 256;
+
+    private final String text;
+    private int position;
+    private int depth;
+
+    private Json(String text) {
+        this.text = text;
+    }
+
+    /**
+     * Reads a single JSON value from the given text.
+     *
+     * @param text the JSON text.
+     * @return the read value.
+     * @throws IllegalArgumentException thrown if the text is not a valid JSON
+     * value.
+     */
+    static Object parse(String text) {
+        if (text == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "text"));
+        }
+        Json json = new Json(text);
+        Object value = json.readValue();
+        json.skipWhitespace();
+        if (json.position < text.length()) {
+            throw json.invalid();
+        }
+        return value;
+    }
+
+    /**
+     * Writes the given value as JSON.
+     *
+     * @param out the output.
+     * @param value a map, a list, a string, a number, a boolean or {@code
+     * null}.
+     * @return the output.
+     */
+    static StringBuilder write(StringBuilder out, Object value) {
+        if (value == null) {
+            out.append("null");
+        } else if (value instanceof String) {
+            writeString(out, (String) value);
+        } else if (value instanceof Number || value instanceof Boolean) {
+            out.append(value);
+        } else if (value instanceof Map) {
+            out.append('{');
+            boolean first = true;
+            for (Map.Entry<?, ?> member : ((Map<?, ?>) value).entrySet()) {
+                if (!first) {
+                    out.append(',');
+                }
+                first = false;
+                writeString(out, String.valueOf(member.getKey()));
+                write(out.append(':'), member.getValue());
+            }
+            out.append('}');
+        } else if (value instanceof List) {
+            out.append('[');
+            boolean first = true;
+            for (Object element : (List<?>) value) {
+                if (!first) {
+                    out.append(',');
+                }
+                first = false;
+                write(out, element);
+            }
+            out.append(']');
+        } else {
+            writeString(out, value.toString());
+        }
+        return out;
+    }
+
+    private static void writeString(StringBuilder out, String value) {
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    out.append("\\\"");
+                    break;
+                case '\\':
+                    out.append("\\\\");
+                    break;
+                case '\n':
+                    out.append("\\n");
+                    break;
+                case '\r':
+                    out.append("\\r");
+                    break;
+                case '\t':
+                    out.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+            }
+        }
+        out.append('"');
+    }
+
+    private Object readValue() {
+        skipWhitespace();
+        if (position >= text.length()) {
+            throw invalid();
+        }
+        char c = text.charAt(position);
+        switch (c) {
+            case '{':
+                return readObject();
+            case '[':
+                return readArray();
+            case '"':
+                return readString();
+            case 't':
+                return readLiteral("true", Boolean.TRUE);
+            case 'f':
+                return readLiteral("false", Boolean.FALSE);
+            case 'n':
+                return readLiteral("null", null);
+            default:
+                return readNumber();
+        }
+    }
+
+    private Map<String, Object> readObject() {
+        enterNested();
+        LinkedHashMap<String, Object> members = new LinkedHashMap<>();
+        ++position;
+        skipWhitespace();
+        if (consume('}')) {
+            --depth;
+            return members;
+        }
+        do {
+            skipWhitespace();
+            if (position >= text.length() || text.charAt(position) != '"') {
+                throw invalid();
+            }
+            String name = readString();
+            skipWhitespace();
+            if (!consume(':')) {
+                throw invalid();
+            }
+            members.put(name, readValue());
+            skipWhitespace();
+        } while (consume(','));
+        if (!consume('}')) {
+            throw invalid();
+        }
+        --depth;
+        return members;
+    }
+
+    private List<Object> readArray() {
+        enterNested();
+        ArrayList<Object> elements = new ArrayList<>();
+        ++position;
+        skipWhitespace();
+        if (consume(']')) {
+            --depth;
+            return elements;
+        }
+        do {
+            elements.add(readValue());
+            skipWhitespace();
+        } while (consume(','));
+        if (!consume(']')) {
+            throw invalid();
+        }
+        --depth;
+        return elements;
+    }
+
+    private String readString() {
+        StringBuilder sb = new StringBuilder();
+        ++position;
+        while (position < text.length()) {
+            char c = text.charAt(position++);
+            if (c == '"') {
+                return sb.toString();
+            } else if (c != '\\') {
+                sb.append(c);
+            } else if (position < text.length()) {
+                char escaped = text.charAt(position++);
+                switch (escaped) {
+                    case 'n':
+                        sb.append('\n');
+                        break;
+                    case 'r':
+                        sb.append('\r');
+                        break;
+                    case 't':
+                        sb.append('\t');
+                        break;
+                    case 'b':
+                        sb.append('\b');
+                        break;
+                    case 'f':
+                        sb.append('\f');
+                        break;
+                    case 'u':
+                        if (position + 4 > text.length()) {
+                            throw invalid();
+                        }
+                        try {
+                            sb.append((char) Integer.parseInt(text.substring(position, position + 4), 16));
+                        } catch (NumberFormatException ex) {
+                            throw invalid();
+                        }
+                        position += 4;
+                        break;
+                    default:
+                        sb.append(escaped);
+                }
+            }
+        }
+        throw invalid();
+    }
+
+    private Object readLiteral(String literal, Object value) {
+        if (!text.startsWith(literal, position)) {
+            throw invalid();
+        }
+        position += literal.length();
+        return value;
+    }
+
+    private Number readNumber() {
+        int start = position;
+        boolean isInteger = true;
+        while (position < text.length() && "+-0123456789.eE".indexOf(text.charAt(position)) >= 0) {
+            isInteger &= Character.isDigit(text.charAt(position)) || text.charAt(position) == '-';
+            ++position;
+        }
+        try {
+            String number = text.substring(start, position);
+            return isInteger ? (Number) Long.parseLong(number) : (Number) Double.parseDouble(number);
+        } catch (NumberFormatException ex) {
+            position = start;
+            throw invalid();
+        }
+    }
+
+    private boolean consume(char c) {
+        if (position < text.length() && text.charAt(position) == c) {
+            ++position;
+            return true;
+        }
+        return false;
+    }
+
+    private void skipWhitespace() {
+        while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+            ++position;
+        }
+    }
+
+    private void enterNested() {
+        if (++depth > MaxNestingDepth) {
+            throw new IllegalArgumentException(i18n("ERR_SERVER_JSON_TOO_DEEP", position, MaxNestingDepth));
+        }
+    }
+
+    private IllegalArgumentException invalid() {
+        return new IllegalArgumentException(i18n("ERR_SERVER_INVALID_JSON", position));
+    }
+}
@@ -0,0 +1,242 @@
+package speedith.core.server;
+
+import speedith.core.lang.SpiderDiagram;
+import speedith.core.lang.export.SDExporter;
+import speedith.core.lang.export.SDExporting;
+import speedith.core.lang.reader.ReadingException;
+import speedith.core.lang.reader.SpiderDiagramsReader;
+import speedith.core.reasoning.*;
+import speedith.core.reasoning.args.RuleArg;
+import speedith.core.reasoning.args.RuleArgFormat;
+import speedith.core.reasoning.persistence.ProofTraceReader;
+import speedith.core.reasoning.util.ProofVerification;
+import speedith.core.reasoning.util.ProofVerifier;
+
+import java.io.StringReader;
+import java.util.*;
+
+import static speedith.core.i18n.Translations.i18n;
+
+/**
+ * Answers the requests of the {@link SpeedithServer server protocol}.
+ * <p>Every request is a JSON object with the name of the operation in the
+ * {@code op} member and an optional {@code id} (which is copied into the
+ * response). The response is a JSON object with the {@code id}, the {@code
+ * ok} flag and either the results of the operation or an {@code error}
+ * message. The operations are:</p>
+ * <ul>
+ * <li>{@code parse} reads the spider diagram in {@code diagram} and returns
+ * it in the textual format of Speedith ({@code diagram}) together with its
+ * {@code valid} flag,</li>
+ * <li>{@code apply} applies the inference rule named {@code rule} with the
+ * argument {@code arg} (in the {@link RuleArgFormat format of rule
+ * arguments}, may be omitted) to the {@code goals} (a list of spider
+ * diagrams) or to a single {@code diagram} and returns the resulting {@code
+ * goals},</li>
+ * <li>{@code export} exports the {@code diagram} into the given {@code
+ * format} (with the optional {@code parameters} object) and returns the
+ * exported {@code text}, and</li>
+ * <li>{@code verify} replays the {@link ProofTraceReader persisted proof} in
+ * {@code proof} and returns the {@code verdict} (and the {@code failingStep}
+ * and {@code failure} of an unsuccessful proof).</li>
+ * </ul>
+ * <p>Parsed diagrams and rule applications are memoized across requests.
+ * This class is thread-safe.</p>
+ */
+public class RequestHandler {
+
+    public static final String ParseOperation = "parse";
+    public static final String ApplyOperation = "apply";
+    public static final String ExportOperation = "export";
+    public static final String VerifyOperation = "verify";
+    /**
+     * The number of the most recently parsed diagrams that are kept.
+     */
+    public static final int DefaultDiagramCacheSize = 1024;
+    /**
+     * The maximum number of compound diagrams that may be nested in each
+     * other in the diagrams of a request. The diagram readers and the
+     * inference rules are recursive, so deeper diagrams are rejected instead
+     * of overflowing the stack of the server.
+     */
+    public static final int MaxDiagramDepth = 256;
+
+    private final ProofVerifier proofVerifier;
+    private final Map<String, SpiderDiagram> diagramCache;
+
+    /**
+     * Creates a request handler with a new cache of rule applications.
+     */
+    public RequestHandler() {
+        this(new RuleApplicationCache());
+    }
+
+    /**
+     * Creates a request handler that applies inference rules through the
+     * given cache.
+     *
+     * @param ruleApplicationCache the memo of rule applications.
+     */
+    public RequestHandler(RuleApplicationCache ruleApplicationCache) {
+        if (ruleApplicationCache == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "ruleApplicationCache"));
+        }
+        this.proofVerifier = new ProofVerifier(ruleApplicationCache);
+        this.diagramCache = Collections.synchronizedMap(new LinkedHashMap<String, SpiderDiagram>(16, 0.75f, true) {
+            private static final long serialVersionUID = 0x5be3ddc3c4e2a1d7L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, SpiderDiagram> eldest) {
+                return size() > DefaultDiagramCacheSize;
+            }
+        });
+    }
+
+    /**
+     * Answers the given request.
+     *
+     * @param request a request (a JSON object in a single line).
+     * @return the response (a JSON object in a single line).
+     */
+    public String handle(String request) {
+        LinkedHashMap<String, Object> response = new LinkedHashMap<>();
+        response.put("id", null);
+        response.put("ok", Boolean.TRUE);
+        try {
+            Object parsedRequest = Json.parse(request);
+            if (!(parsedRequest instanceof Map)) {
+                throw new IllegalArgumentException(i18n("ERR_SERVER_INVALID_REQUEST"));
+            }
+            Map<?, ?> members = (Map<?, ?>) parsedRequest;
+            response.put("id", members.get("id"));
+            String operation = getString(members, "op");
+            switch (operation) {
+                case ParseOperation:
+                    parse(members, response);
+                    break;
+                case ApplyOperation:
+                    apply(members, response);
+                    break;
+                case ExportOperation:
+                    export(members, response);
+                    break;
+                case VerifyOperation:
+                    verify(members, response);
+                    break;
+                default:
+                    throw new IllegalArgumentException(i18n("ERR_SERVER_UNKNOWN_OPERATION", operation));
+            }
+        } catch (Exception ex) {
+            Object id = response.get("id");
+            response.clear();
+            response.put("id", id);
+            response.put("ok", Boolean.FALSE);
+            response.put("error", ex.getLocalizedMessage() == null ? ex.toString() : ex.getLocalizedMessage());
+        }
+        return Json.write(new StringBuilder(), response).toString();
+    }
+
+    private void parse(Map<?, ?> request, Map<String, Object> response) throws ReadingException {
+        SpiderDiagram diagram = readDiagram(getString(request, "diagram"));
+        response.put("diagram", diagram.toString());
+        response.put("valid", diagram.isValid());
+    }
+
+    private void apply(Map<?, ?> request, Map<String, Object> response) throws ReadingException, RuleApplicationException {
+        String ruleName = getString(request, "rule");
+        InferenceRule<? extends RuleArg> rule = InferenceRules.getInferenceRule(ruleName);
+        if (rule == null) {
+            throw new IllegalArgumentException(i18n("ERR_SERVER_UNKNOWN_RULE", ruleName));
+        }
+        ArrayList<SpiderDiagram> goals = new ArrayList<>();
+        if (request.get("goals") instanceof List) {
+            for (Object goal : (List<?>) request.get("goals")) {
+                goals.add(readDiagram(String.valueOf(goal)));
+            }
+        } else {
+            goals.add(readDiagram(getString(request, "diagram")));
+        }
+        RuleArg args = request.get("arg") == null ? null : RuleArgFormat.fromString(String.valueOf(request.get("arg")));
+        Goals result = proofVerifier.getRuleApplicationCache().apply(rule, args, Goals.createGoalsFrom(goals)).getGoals();
+        ArrayList<String> resultGoals = new ArrayList<>();
+        for (int i = 0; result != null && i < result.getGoalsCount(); i++) {
+            resultGoals.add(result.getGoalAt(i).toString());
+        }
+        response.put("goals", resultGoals);
+    }
+
+    private void export(Map<?, ?> request, Map<String, Object> response) throws Exception {
+        SpiderDiagram diagram = readDiagram(getString(request, "diagram"));
+        String format = getString(request, "format");
+        HashMap<String, String> parameters = null;
+        if (request.get("parameters") instanceof Map) {
+            parameters = new HashMap<>();
+            for (Map.Entry<?, ?> parameter : ((Map<?, ?>) request.get("parameters")).entrySet()) {
+                parameters.put(String.valueOf(parameter.getKey()), parameter.getValue() == null ? null : String.valueOf(parameter.getValue()));
+            }
+        }
+        SDExporter exporter = SDExporting.getExporter(format, parameters);
+        if (exporter == null) {
+            throw new IllegalArgumentException(i18n("ERR_SERVER_UNKNOWN_FORMAT", format));
+        }
+        response.put("text", exporter.export(diagram));
+    }
+
+    private void verify(Map<?, ?> request, Map<String, Object> response) throws Exception {
+        String proofText = getString(request, "proof");
+        checkDiagramDepth(proofText);
+        ProofTrace proof = ProofTraceReader.read(new StringReader(proofText));
+        ProofVerification verification = proofVerifier.verify(proof);
+        response.put("verdict", verification.getVerdict().name());
+        if (!verification.isProved()) {
+            response.put("failingStep", verification.getFailingStep());
+            if (verification.getFailure() != null) {
+                response.put("failure", verification.getFailure().getLocalizedMessage());
+            }
+        }
+    }
+
+    private SpiderDiagram readDiagram(String text) throws ReadingException {
+        SpiderDiagram diagram = diagramCache.get(text);
+        if (diagram == null) {
+            checkDiagramDepth(text);
+            diagram = SpiderDiagramsReader.readSpiderDiagram(text);
+            diagramCache.put(text, diagram);
+        }
+        return diagram;
+    }
+
+    /**
+     * Throws an exception if the braces of the diagrams in the given text
+     * (outside of string literals) are nested more than {@link
+     * RequestHandler#MaxDiagramDepth} levels deep.
+     */
+    private static void checkDiagramDepth(String text) {
+        int depth = 0;
+        boolean inString = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (inString) {
+                if (c == '\\') {
+                    ++i;
+                } else if (c == '"') {
+                    inString = false;
+                }
+            } else if (c == '"') {
+                inString = true;
+            } else if (c == '{' && ++depth > MaxDiagramDepth) {
+                throw new IllegalArgumentException(i18n("ERR_SERVER_DIAGRAM_TOO_DEEP", i, MaxDiagramDepth));
+            } else if (c == '}') {
+                --depth;
+            }
+        }
+    }
+
+    private static String getString(Map<?, ?> request, String member) {
+        Object value = request.get(member);
+        if (!(value instanceof String)) {
+            throw new IllegalArgumentException(i18n("ERR_SERVER_MISSING_MEMBER", member));
+        }
+        return (String) value;
+    }
+}
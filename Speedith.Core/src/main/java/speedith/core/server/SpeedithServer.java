@@ -0,0 +1,130 @@
+package speedith.core.server;
+
+import java.io.*;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import static speedith.core.i18n.Translations.i18n;
+
+/**
+ * A long-running Speedith process that answers requests in the JSON-lines
+ * format: every line of the input is a request (a JSON object) and every
+ * request is answered with exactly one line of output, in the order of the
+ * requests. See {@link RequestHandler} for the supported operations.
+ * <p>Requests are read from an input stream (e.g.: the standard input) or
+ * from the connections to a server socket. All the inputs share one {@link
+ * RequestHandler}, so the parsed diagrams, the rule applications and the
+ * registries of inference rules and exporters stay loaded between
+ * requests.</p>
+ */
+public class SpeedithServer {
+
+    private final RequestHandler requestHandler;
+
+    /**
+     * Creates a server with a new request handler.
+     */
+    public SpeedithServer() {
+        this(new RequestHandler());
+    }
+
+    /**
+     * Creates a server that answers requests with the given handler.
+     *
+     * @param requestHandler the handler of the requests.
+     */
+    public SpeedithServer(RequestHandler requestHandler) {
+        if (requestHandler == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "requestHandler"));
+        }
+        this.requestHandler = requestHandler;
+    }
+
+    /**
+     * Returns the handler that answers the requests.
+     *
+     * @return the handler that answers the requests.
+     */
+    public RequestHandler getRequestHandler() {
+        return requestHandler;
+    }
+
+    /**
+     * Answers the requests from the given input until the input ends. Every
+     * response is flushed as soon as it is written. Empty lines are ignored.
+     *
+     * @param in the input with the requests.
+     * @param out the output for the responses.
+     * @throws IOException thrown if the input could not be read or the
+     * output could not be written.
+     */
+    public void serve(Reader in, Writer out) throws IOException {
+        if (in == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "in"));
+        }
+        if (out == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "out"));
+        }
+        BufferedReader requests = in instanceof BufferedReader ? (BufferedReader) in : new BufferedReader(in);
+        String request;
+        while ((request = requests.readLine()) != null) {
+            if (!request.trim().isEmpty()) {
+                out.write(requestHandler.handle(request));
+                out.write('\n');
+                out.flush();
+            }
+        }
+    }
+
+    /**
+     * Answers the requests of all the connections to the given socket until
+     * the socket is closed. Every connection is served on its own thread.
+     *
+     * @param serverSocket the socket that accepts the connections.
+     * @throws IOException thrown if a connection could not be accepted.
+     */
+    public void serve(ServerSocket serverSocket) throws IOException {
+        if (serverSocket == null) {
+            throw new IllegalArgumentException(i18n("GERR_NULL_ARGUMENT", "serverSocket"));
+        }
+        ExecutorService connections = Executors.newCachedThreadPool(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable r) {
+                Thread thread = new Thread(r, "speedith-server-connection");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        try {
+            while (!serverSocket.isClosed()) {
+                final Socket connection;
+                try {
+                    connection = serverSocket.accept();
+                } catch (SocketException ex) {
+                    if (serverSocket.isClosed()) {
+                        return;
+                    }
+                    throw ex;
+                }
+                connections.execute(new Runnable() {
+                    @Override
+                    public void run() {
+                        try (Socket socket = connection;
+                             Reader in = new InputStreamReader(socket.getInputStream(), "UTF-8");
+                             Writer out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), "UTF-8"))) {
+                            serve(in, out);
+                        } catch (IOException ex) {
+                            // The client closed the connection.
+                        }
+                    }
+                });
+            }
+        } finally {
+            connections.shutdown();
+        }
+    }
+}
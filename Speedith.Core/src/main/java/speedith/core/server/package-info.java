@@ -0,0 +1,10 @@
+/**
+ * Contains the long-running server mode of Speedith.
+ * <p>The {@link speedith.core.server.SpeedithServer server} answers requests
+ * in the JSON-lines format (one JSON object per line) from the standard
+ * input or from a local socket, so that pipelines which apply many rules do
+ * not have to start a new Speedith process for every step. The operations
+ * are described in {@link speedith.core.server.RequestHandler
+ * RequestHandler}.</p>
+ */
+package speedith.core.server;
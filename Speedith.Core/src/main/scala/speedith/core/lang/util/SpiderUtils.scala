@@ -4,30 +4,37 @@ import scala.collection.JavaConversions
 
 object SpiderUtils {
 
-  val NUMBERED_SPIDER_PATTERN = "(\\w*0*)(\\d+)(\\w*)".r
+  val NUMBERED_SPIDER_PATTERN = "(.*?)(\\d+)(\\D*)".r
 
   def freshSpiderName(allSpiders: java.util.Set[String]): String = {
     freshSpiderName(JavaConversions.asScalaSet(allSpiders))
   }
 
+  def freshSpiderName(allSpiders: java.util.Set[String], allocator: FreshNameAllocator): String = {
+    freshSpiderName(JavaConversions.asScalaSet(allSpiders), allocator)
+  }
+
+  /**
+   * Returns a spider name that is not in the given set. The name follows the pattern of the first spider in the set
+   * (e.g.: `s3` for spiders `s1` and `s2`, or `s3a` for spiders `s1a` and `s2a`).
+   */
   def freshSpiderName(allSpiders: collection.Set[String]): String = {
+    freshSpiderName(allSpiders, new FreshNameAllocator(JavaConversions.asJavaCollection(allSpiders)))
+  }
+
+  /**
+   * Returns a spider name that follows the pattern of the first spider in the set (like the single-argument
+   * `freshSpiderName`), but allocates it with the given allocator. The allocator must know all the given spiders; it
+   * may be shared by many rule applications, so that they never introduce the same spider.
+   */
+  def freshSpiderName(allSpiders: collection.Set[String], allocator: FreshNameAllocator): String = {
     allSpiders.headOption match {
       case None =>
-        "s"
+        allocator.freshName(FreshNameAllocator.SpiderPrefix)
+      case Some(NUMBERED_SPIDER_PATTERN(prefix, _, suffix)) =>
+        allocator.freshName(prefix, suffix)
       case Some(spiderName) =>
-        spiderName match {
-          case NUMBERED_SPIDER_PATTERN(prefix, number, suffix) =>
-            freshSpiderName(allSpiders, number.toInt, prefix, suffix)
-          case _ =>
-            freshSpiderName(allSpiders, 1, spiderName, "")
-        }
+        allocator.freshName(spiderName, "")
     }
   }
-
-  private def freshSpiderName(allSpiders: collection.Set[String], searchStartNumber: Int, prefix: String, suffix: String): String = {
-    searchStartNumber.to(2000000000).view
-      .map(number => prefix + number + suffix)
-      .find(newSpiderName => !allSpiders.contains(newSpiderName))
-      .getOrElse(throw new UnsupportedOperationException("Could not find a fresh name amongst " + allSpiders.mkString(", ")))
-  }
 }
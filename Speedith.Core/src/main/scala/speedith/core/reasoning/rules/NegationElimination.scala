@@ -5,7 +5,7 @@ import java.util.Locale
 import speedith.core.i18n.Translations
 import speedith.core.lang._
 import speedith.core.lang.util.RegionBuilder.emptyRegion
-import speedith.core.lang.util.{HabitatBuilder, HabitatUtils, SpiderUtils}
+import speedith.core.lang.util.{FreshNameAllocator, HabitatBuilder, HabitatUtils, SpiderUtils}
 import speedith.core.reasoning._
 import speedith.core.reasoning.args.SubDiagramIndexArg
 import speedith.core.reasoning.rules.UnaryForwardRule.UnaryForwardTransformer
@@ -34,6 +34,19 @@ class NegationElimination extends UnaryForwardRule {
   }
 
   class NegationEliminationTransformer(arg: SubDiagramIndexArg, style: ApplyStyle) extends UnaryForwardTransformer(arg, style) {
+    /**
+     * The goal that contains the eliminated negation. The fresh spider must not clash with any spider of the goal
+     * (e.g.: one introduced by an earlier negation elimination elsewhere in the goal).
+     */
+    private var goal: SpiderDiagram = _
+
+    override def transform(csd: CompoundSpiderDiagram, diagramIndex: Int, parents: java.util.ArrayList[CompoundSpiderDiagram], childIndices: java.util.ArrayList[Integer]): SpiderDiagram = {
+      if (diagramIndex == getArg.getSubDiagramIndex) {
+        goal = if (parents == null || parents.isEmpty) csd else parents.get(0)
+      }
+      super.transform(csd, diagramIndex, parents, childIndices)
+    }
+
     override protected def apply(csd: CompoundSpiderDiagram): SpiderDiagram = {
       if (!csd.getOperand(0).isInstanceOf[PrimarySpiderDiagram] || csd.getOperator != Operator.Negation) {
         unsupported()
@@ -42,7 +55,7 @@ class NegationElimination extends UnaryForwardRule {
       if (HabitatUtils.zonesToSpiders(psd).values.count(_.size > 0) != 1) {
         throw new TransformationException("Elimination negation requires that there must be exactly one zone with some spiders.")
       }
-      NegationElimination.apply(psd)
+      NegationElimination.apply(psd, FreshNameAllocator.forDiagram(if (goal == null) csd else goal))
     }
 
     override protected def unsupported(): SpiderDiagram = {
@@ -53,7 +66,13 @@ class NegationElimination extends UnaryForwardRule {
 }
 
 object NegationElimination {
-  def apply(diagram: PrimarySpiderDiagram): SpiderDiagram = {
+  def apply(diagram: PrimarySpiderDiagram): SpiderDiagram = apply(diagram, new FreshNameAllocator(diagram.getSpiders))
+
+  /**
+   * Eliminates the negation of the given diagram. The fresh spider of the extra disjunct (if needed) is allocated with
+   * the given allocator, which may be shared by all rule applications in a proof.
+   */
+  def apply(diagram: PrimarySpiderDiagram, nameAllocator: FreshNameAllocator): SpiderDiagram = {
     val spiderHabitat = diagram.getHabitats.values().head
     val spiders = diagram.getSpiders
     val spiderSublists = 0.until(spiders.size).map(spiders.take)
@@ -62,7 +81,7 @@ object NegationElimination {
       SpiderDiagrams.createPrimarySD(spiderHabitats, spiderHabitat.sortedZones, diagram.getPresentZones)
     })
     val extraDisjunct = if (diagram.getShadedZones.contains(spiderHabitat.zones.head)) {
-      val newSpider = SpiderUtils.freshSpiderName(spiders)
+      val newSpider = SpiderUtils.freshSpiderName(spiders, nameAllocator)
       val newHabitat = new HabitatBuilder(diagram.getHabitats).addHabitat(newSpider, spiderHabitat)
       Some(SpiderDiagrams.createPrimarySD(newHabitat.get(), emptyRegion().asZones(), diagram.getPresentZones))
     } else {
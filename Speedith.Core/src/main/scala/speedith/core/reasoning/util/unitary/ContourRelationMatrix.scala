@@ -0,0 +1,179 @@
+package speedith.core.reasoning.util.unitary
+
+import speedith.core.lang.{Zone, PrimarySpiderDiagram}
+import scala.collection.JavaConversions._
+
+/**
+ * The disjointness, containment and overlap relations between every pair of contours in a primary spider diagram.
+ *
+ * The matrix is computed in a single pass over the shaded zones and the zones of spider habitats. Every contour gets a
+ * bit row that tells which of the shaded (or habitat) zones lie inside it. The relation of two contours is then
+ * obtained by combining their rows word by word, so there is no limit on the number of contours.
+ *
+ * Use [[speedith.core.reasoning.util.unitary.ContourRelationMatrix.forDiagram]] to get a matrix that is shared by all
+ * users of the same diagram.
+ */
+class ContourRelationMatrix(diagram: PrimarySpiderDiagram) {
+
+  /**
+   * The contours of the diagram in their natural (sorted) order. The index of a contour in this sequence is its index
+   * in the matrix.
+   */
+  val contours: IndexedSeq[String] = diagram.getAllContours.toIndexedSeq
+  private val contourIndices: Map[String, Int] = contours.zipWithIndex.toMap
+
+  private val (disjoint, contains) = computeRelations(diagram)
+
+  /**
+   * Returns the number of contours in the matrix.
+   */
+  def getContoursCount: Int = contours.size
+
+  /**
+   * Returns the index of the given contour in the matrix or `-1` if the diagram does not contain the contour.
+   */
+  def indexOf(contour: String): Int = contourIndices.getOrElse(contour, -1)
+
+  /**
+   * Returns `true` iff the two contours are disjoint (all zones that are inside both contours are shaded and contain
+   * no spiders).
+   */
+  def areContoursDisjoint(contourA: String, contourB: String): Boolean = areContoursDisjoint(checkedIndexOf(contourA), checkedIndexOf(contourB))
+
+  def areContoursDisjoint(contourA: Int, contourB: Int): Boolean = isSet(disjoint, contourA, contourB)
+
+  /**
+   * Returns `true` iff `containerContour` contains `otherContour` (all zones inside `otherContour` but outside the
+   * container are shaded and contain no spiders).
+   */
+  def contourContainsAnother(containerContour: String, otherContour: String): Boolean = contourContainsAnother(checkedIndexOf(containerContour), checkedIndexOf(otherContour))
+
+  def contourContainsAnother(containerContour: Int, otherContour: Int): Boolean = isSet(contains, containerContour, otherContour)
+
+  /**
+   * Returns `true` iff the two contours are neither disjoint nor does one of them contain the other.
+   */
+  def doContoursOverlap(contourA: String, contourB: String): Boolean = doContoursOverlap(checkedIndexOf(contourA), checkedIndexOf(contourB))
+
+  def doContoursOverlap(contourA: Int, contourB: Int): Boolean = {
+    !areContoursDisjoint(contourA, contourB) && !contourContainsAnother(contourA, contourB) && !contourContainsAnother(contourB, contourA)
+  }
+
+  /**
+   * Returns the other contours that are disjoint from the given contour.
+   */
+  def getDisjointContours(contour: String): java.util.SortedSet[String] = contoursInRow(disjoint, checkedIndexOf(contour))
+
+  /**
+   * Returns the other contours that the given contour contains.
+   */
+  def getContainedContours(containerContour: String): java.util.SortedSet[String] = contoursInRow(contains, checkedIndexOf(containerContour))
+
+  private def computeRelations(diagram: PrimarySpiderDiagram): (Array[Array[Long]], Array[Array[Long]]) = {
+    val contoursCount = contours.size
+    val shadedZones = diagram.getShadedZones.toIndexedSeq
+    val habitatZones = diagram.getHabitats.values().flatMap(_.zones).toIndexedSeq
+    val shadedZonesInContour = zonesInContours(shadedZones)
+    val habitatZonesInContour = zonesInContours(habitatZones)
+
+    // The number of zones that are inside one contour and inside (or outside) another one.
+    val zonesInTwoContours = zonesCount(contoursCount - 2)
+    val disjoint = Array.fill(contoursCount)(new Array[Long](wordsCount(contoursCount)))
+    val contains = Array.fill(contoursCount)(new Array[Long](wordsCount(contoursCount)))
+    for (contourA <- 0 until contoursCount; contourB <- 0 until contoursCount) {
+      if (countBoth(shadedZonesInContour(contourA), shadedZonesInContour(contourB)) == zonesInTwoContours &&
+        countBoth(habitatZonesInContour(contourA), habitatZonesInContour(contourB)) == 0) {
+        set(disjoint, contourA, contourB)
+      }
+      if (countFirstOnly(shadedZonesInContour(contourB), shadedZonesInContour(contourA)) == zonesInTwoContours &&
+        countFirstOnly(habitatZonesInContour(contourB), habitatZonesInContour(contourA)) == 0) {
+        set(contains, contourA, contourB)
+      }
+    }
+    (disjoint, contains)
+  }
+
+  /**
+   * For every contour returns a bit row that tells which of the given zones lie inside the contour.
+   */
+  private def zonesInContours(zones: IndexedSeq[Zone]): Array[Array[Long]] = {
+    val rows = Array.fill(contours.size)(new Array[Long](wordsCount(zones.size)))
+    for (zoneIndex <- 0 until zones.size; contour <- zones(zoneIndex).getInContours; contourIndex <- contourIndices.get(contour)) {
+      set(rows, contourIndex, zoneIndex)
+    }
+    rows
+  }
+
+  private def contoursInRow(rows: Array[Array[Long]], row: Int): java.util.SortedSet[String] = {
+    val contoursInRow = new java.util.TreeSet[String]()
+    for (column <- 0 until contours.size if column != row && isSet(rows, row, column)) {
+      contoursInRow.add(contours(column))
+    }
+    contoursInRow
+  }
+
+  private def checkedIndexOf(contour: String): Int = {
+    val index = indexOf(contour)
+    if (index < 0) {
+      throw new IllegalArgumentException("The contour '" + contour + "' must be present in the diagram.")
+    }
+    index
+  }
+
+  private def countBoth(rowA: Array[Long], rowB: Array[Long]): Long = {
+    var count = 0L
+    for (word <- 0 until rowA.length) {
+      count += java.lang.Long.bitCount(rowA(word) & rowB(word))
+    }
+    count
+  }
+
+  private def countFirstOnly(rowA: Array[Long], rowB: Array[Long]): Long = {
+    var count = 0L
+    for (word <- 0 until rowA.length) {
+      count += java.lang.Long.bitCount(rowA(word) & ~rowB(word))
+    }
+    count
+  }
+
+  /**
+   * Returns the number of zones over the given number of contours or `-1` if there can be no such number of zones in
+   * a diagram.
+   */
+  private def zonesCount(contoursCount: Int): Long = {
+    if (contoursCount < 0 || contoursCount >= 62) -1 else 1L << contoursCount
+  }
+
+  private def wordsCount(bits: Int): Int = (bits + 63) >> 6
+
+  private def set(rows: Array[Array[Long]], row: Int, column: Int) {
+    rows(row)(column >> 6) |= 1L << (column & 63)
+  }
+
+  private def isSet(rows: Array[Array[Long]], row: Int, column: Int): Boolean = {
+    (rows(row)(column >> 6) & (1L << (column & 63))) != 0
+  }
+}
+
+object ContourRelationMatrix {
+
+  private val cache = new java.util.WeakHashMap[PrimarySpiderDiagram, ContourRelationMatrix]()
+
+  /**
+   * Returns the contour relation matrix of the given diagram. Matrices are cached per diagram (for as long as the
+   * diagram is reachable), so repeated calls with the same diagram compute the relations only once.
+   */
+  def forDiagram(diagram: PrimarySpiderDiagram): ContourRelationMatrix = {
+    if (diagram == null) {
+      throw new IllegalArgumentException("The diagram must not be null.")
+    }
+    cache.synchronized {
+      var matrix = cache.get(diagram)
+      if (matrix == null) {
+        matrix = new ContourRelationMatrix(diagram)
+        cache.put(diagram, matrix)
+      }
+      matrix
+    }
+  }
+}
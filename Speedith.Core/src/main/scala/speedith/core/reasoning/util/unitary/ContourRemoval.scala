@@ -0,0 +1,84 @@
+package speedith.core.reasoning.util.unitary
+
+import speedith.core.lang._
+import scala.collection.JavaConversions._
+import scala.collection.mutable
+
+/**
+ * Removes a set of contours from a primary spider diagram in a single pass over its habitats, shaded zones and present
+ * zones.
+ *
+ * Every zone is projected (its in- and out-contours without the removed ones) only once, no matter how many times it
+ * appears in the diagram. A projected zone stays shaded iff every combination of the removed contours was shaded in
+ * the original diagram. This is checked by collecting, for each projected zone, the bit masks of the removed contours
+ * that its shaded preimages lie in. There must be `2^k` distinct masks for `k` removed contours.
+ */
+class ContourRemoval(contoursToRemove: Set[String]) {
+
+  private val removedContours: IndexedSeq[String] = contoursToRemove.toIndexedSeq.sorted
+  private val removedContourIndices: Map[String, Int] = removedContours.zipWithIndex.toMap
+  private val projectedZones = mutable.HashMap[Zone, Zone]()
+
+  def this(contoursToRemove: java.util.Collection[String]) = this(contoursToRemove.toSet)
+
+  /**
+   * Returns a copy of the diagram without the removed contours.
+   */
+  def removeFrom(psd: PrimarySpiderDiagram): PrimarySpiderDiagram = {
+    SpiderDiagrams.createPrimarySD(
+      psd.getSpiders,
+      psd.getHabitats.map {
+        case (spider, habitat) => (spider, new Region(regionWithoutContours(habitat.zones)))
+      },
+      shadedRegionWithoutContours(psd.getShadedZones),
+      regionWithoutContours(psd.getPresentZones)
+    )
+  }
+
+  /**
+   * Returns the given zone without the removed contours.
+   */
+  def zoneWithoutContours(zone: Zone): Zone = {
+    projectedZones.getOrElseUpdate(zone, new Zone(zone.getInContours -- contoursToRemove, zone.getOutContours -- contoursToRemove))
+  }
+
+  def regionWithoutContours(region: Iterable[Zone]): Set[Zone] = {
+    region.map(zoneWithoutContours).toSet
+  }
+
+  /**
+   * Returns the zones (without the removed contours) that are shaded in all the zones of the given region that they
+   * split into through the removed contours.
+   */
+  def shadedRegionWithoutContours(region: Iterable[Zone]): Set[Zone] = {
+    if (removedContours.size >= ContourRemoval.MaxRemovedContours) {
+      // No shaded region can be large enough to contain all zones of so many contours.
+      return Set.empty
+    }
+    val allRemovedContoursMasksCount = 1L << removedContours.size
+    val removedContoursMasks = mutable.HashMap[Zone, mutable.HashSet[Long]]()
+    for (zone <- region if containsAllRemovedContours(zone)) {
+      removedContoursMasks.getOrElseUpdate(zoneWithoutContours(zone), mutable.HashSet[Long]()) += removedContoursMask(zone)
+    }
+    removedContoursMasks.filter(_._2.size == allRemovedContoursMasksCount).keySet.toSet
+  }
+
+  private def containsAllRemovedContours(zone: Zone): Boolean = {
+    removedContours.forall(contour => zone.getInContours.contains(contour) || zone.getOutContours.contains(contour))
+  }
+
+  private def removedContoursMask(zone: Zone): Long = {
+    var mask = 0L
+    for (contour <- zone.getInContours; index <- removedContourIndices.get(contour)) {
+      mask |= 1L << index
+    }
+    mask
+  }
+}
+
+object ContourRemoval {
+  /**
+   * The number of removed contours at which no shading can survive the removal.
+   */
+  val MaxRemovedContours = 62
+}
@@ -5,9 +5,27 @@ import scala.collection.JavaConversions._
 import speedith.core.lang.Zones.allZonesForContours
 import scala.collection.mutable
 
+/**
+ * Computes regions in the destination diagram that correspond to regions in the source diagram.
+ *
+ * Zones are handled as bit masks over the contours of the destination diagram. If the destination contours are a
+ * subset of the source contours, the corresponding zones are the projections of the source zones' masks. Otherwise,
+ * each source zone expands into all zones that agree with it on the source contours. Zones that are shaded and have no
+ * spiders in the destination diagram are collected into a set of empty zone masks up front.
+ */
 case class CorrespondingRegions(sourceDiagram: PrimarySpiderDiagram, destinationDiagram: PrimarySpiderDiagram) {
 
-  val allPossibleZonesInDestination = allZonesForContours(destinationDiagram.getAllContours.toIterable.toSeq: _*)
+  lazy val allPossibleZonesInDestination = allZonesForContours(destinationDiagram.getAllContours.toIterable.toSeq: _*)
+
+  private lazy val destinationZoneMasks = new ZoneMasks(destinationDiagram.getAllContours)
+
+  private lazy val emptyZoneMasks: Set[Long] = {
+    val habitatZones = destinationDiagram.getHabitats.values().flatMap(_.zones).toSet
+    destinationDiagram.getShadedZones
+      .filter(shadedZone => !habitatZones.contains(shadedZone) && shadedZone.getAllContours == destinationDiagram.getAllContours)
+      .map(destinationZoneMasks.zoneMask(_))
+      .toSet
+  }
 
   def areRegionsCorresponding(regionInSourceDiagram: Region, regionInDestinationDiagram: Region): Boolean = {
     assertContoursOfRegionMatchContoursInDiagram(regionInSourceDiagram, sourceDiagram)
@@ -25,41 +43,32 @@ case class CorrespondingRegions(sourceDiagram: PrimarySpiderDiagram, destination
     } else {
       throw new UnsupportedOperationException("Cannot calculate corresponding regions for diagrams that have distinct contours.")
     }
-    new Region(withoutEmptyZones(rawCorrespondingRegion))
+    new Region(withoutEmptyZones(rawCorrespondingRegion).map(destinationZoneMasks.zone(_)).toSet)
   }
 
-
-  private def getRegionWhenSourceContoursAreSubset(regionInSourceDiagram: Region): mutable.Buffer[Zone] = {
-    allPossibleZonesInDestination.filter {
-      destinationZone =>
-        regionInSourceDiagram.zones.exists {
-          sourceZone =>
-            sourceZone.getInContours.subsetOf(destinationZone.getInContours) &&
-              sourceZone.getOutContours.subsetOf(destinationZone.getOutContours)
-        }
+  private def getRegionWhenSourceContoursAreSubset(regionInSourceDiagram: Region): mutable.Set[Long] = {
+    val zoneMasks = mutable.HashSet[Long]()
+    if (!destinationDiagram.getAllContours.isEmpty) {
+      val contoursOnlyInDestination = destinationZoneMasks.allContoursMask & ~destinationZoneMasks.contourMask(sourceDiagram.getAllContours)
+      for (sourceZone <- regionInSourceDiagram.zones) {
+        destinationZoneMasks.foreachExpansion(destinationZoneMasks.zoneMask(sourceZone), contoursOnlyInDestination)(zoneMasks += _)
+      }
     }
+    zoneMasks
   }
 
-
-  private def withoutEmptyZones(rawCorrespondingRegion: mutable.Buffer[Zone]): mutable.Buffer[Zone] = {
-    rawCorrespondingRegion.filterNot {
-      destinationZone =>
-        destinationDiagram.getShadedZones.contains(destinationZone) &&
-          !destinationDiagram.getHabitats.exists {
-            case (spider, habitat) => habitat.zones.contains(destinationZone)
-          }
+  private def getRegionWhenDestinationContoursAreSubset(regionInSourceDiagram: Region): mutable.Set[Long] = {
+    val zoneMasks = mutable.HashSet[Long]()
+    if (!destinationDiagram.getAllContours.isEmpty) {
+      for (sourceZone <- regionInSourceDiagram.zones) {
+        zoneMasks += destinationZoneMasks.zoneMask(sourceZone)
+      }
     }
+    zoneMasks
   }
 
-  private def getRegionWhenDestinationContoursAreSubset(regionInSourceDiagram: Region): mutable.Buffer[Zone] = {
-    allPossibleZonesInDestination.filter {
-      destinationZone =>
-        regionInSourceDiagram.zones.exists {
-          sourceZone =>
-            destinationZone.getInContours.subsetOf(sourceZone.getInContours) &&
-              destinationZone.getOutContours.subsetOf(sourceZone.getOutContours)
-        }
-    }
+  private def withoutEmptyZones(rawCorrespondingRegion: mutable.Set[Long]): mutable.Set[Long] = {
+    rawCorrespondingRegion.filterNot(emptyZoneMasks.contains)
   }
 
   private def assertContoursOfRegionMatchContoursInDiagram(regionInSourceDiagram: Region, diagram: PrimarySpiderDiagram) {
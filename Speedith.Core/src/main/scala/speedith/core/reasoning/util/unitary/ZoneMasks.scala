@@ -0,0 +1,82 @@
+package speedith.core.reasoning.util.unitary
+
+import speedith.core.lang.Zone
+import scala.collection.JavaConversions._
+
+/**
+ * Represents zones over a fixed set of contours as bit masks. The bit `i` of a zone's mask is set iff the `i`-th
+ * contour (in the sorted order) is one of the zone's in-contours. All other contours are out-contours of the zone.
+ *
+ * Contours of a zone that are not among the contours of this object are ignored when computing its mask.
+ */
+private[unitary] class ZoneMasks(contourSet: java.util.Collection[String]) {
+
+  val contours: IndexedSeq[String] = contourSet.toIndexedSeq.sorted
+  private val contourIndices: Map[String, Int] = contours.zipWithIndex.toMap
+
+  if (contours.size > ZoneMasks.MaxContours) {
+    throw new IllegalArgumentException("Zones over more than " + ZoneMasks.MaxContours + " contours cannot be represented with masks.")
+  }
+
+  /**
+   * The mask that has a bit set for each of the contours.
+   */
+  val allContoursMask: Long = (1L << contours.size) - 1
+
+  def contourMask(contours: Iterable[String]): Long = {
+    var mask = 0L
+    for (contour <- contours; index <- contourIndices.get(contour)) {
+      mask |= 1L << index
+    }
+    mask
+  }
+
+  def zoneMask(zone: Zone): Long = contourMask(zone.getInContours)
+
+  def zone(zoneMask: Long): Zone = zone(zoneMask, null, false)
+
+  /**
+   * Creates the zone with the given mask. If `additionalContour` is not `null`, it is added to the in-contours of the
+   * zone (if `additionalContourIn` is `true`) or to its out-contours.
+   */
+  def zone(zoneMask: Long, additionalContour: String, additionalContourIn: Boolean): Zone = {
+    val inContours = new java.util.ArrayList[String]()
+    val outContours = new java.util.ArrayList[String]()
+    for (index <- 0 until contours.size) {
+      if ((zoneMask & (1L << index)) != 0) {
+        inContours.add(contours(index))
+      } else {
+        outContours.add(contours(index))
+      }
+    }
+    if (additionalContour != null) {
+      (if (additionalContourIn) inContours else outContours).add(additionalContour)
+    }
+    new Zone(inContours, outContours)
+  }
+
+  /**
+   * Calls the given function with the masks of all zones that agree with `baseMask` on all contours outside
+   * `freeContoursMask` (i.e.: every combination of the free contours is added to the base mask).
+   */
+  def foreachExpansion(baseMask: Long, freeContoursMask: Long)(f: Long => Unit) {
+    val fixedMask = baseMask & ~freeContoursMask
+    var subMask = freeContoursMask
+    var done = false
+    while (!done) {
+      f(fixedMask | subMask)
+      if (subMask == 0) {
+        done = true
+      } else {
+        subMask = (subMask - 1) & freeContoursMask
+      }
+    }
+  }
+}
+
+private[unitary] object ZoneMasks {
+  /**
+   * The largest number of contours whose zones can be represented with a `Long` mask.
+   */
+  val MaxContours = 62
+}
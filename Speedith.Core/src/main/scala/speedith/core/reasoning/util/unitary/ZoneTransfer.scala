@@ -3,58 +3,127 @@ package speedith.core.reasoning.util.unitary
 import speedith.core.lang.{Zones, Region, Zone, PrimarySpiderDiagram}
 import scala.collection.JavaConversions._
 import speedith.core.lang.SpiderDiagrams.createPrimarySD
-
+import scala.collection.mutable
+
+/**
+ * Transfers contours from the source diagram into the destination diagram.
+ *
+ * The relations between a transferred contour and the contours that are common to both diagrams are computed only once
+ * per contour. They are stored as bit masks over the (sorted) contours of the destination diagram:
+ *
+ *  - a destination zone lies outside the transferred contour if it is inside a contour that is disjoint from the
+ *    transferred one, or outside a contour that contains the transferred one,
+ *  - a destination zone lies inside the transferred contour if it is inside a contour that the transferred contour
+ *    contains,
+ *  - all other zones are split by the transferred contour.
+ *
+ * Classifying a zone is therefore a couple of bit operations. Only the zones whose shading the transfer must add
+ * explicitly are enumerated, and only if there are any: the contours that decide the classification (e.g.: the
+ * contours that are disjoint from the transferred one) are enumerated first, and the remaining contours are expanded
+ * only for the combinations that qualify. The work is thus proportional to the number of the returned zones (which
+ * may still be exponential in the number of contours).
+ */
 class ZoneTransfer(sourceDiagram: PrimarySpiderDiagram, destinationDiagram: PrimarySpiderDiagram) {
 
   val contoursOnlyInSource: java.util.Set[String] = sourceDiagram.getAllContours.diff(destinationDiagram.getAllContours)
   private val sourceContourRelations = new ContourRelations(sourceDiagram)
-  private val contoursInSourceDiagram: Set[String] = sourceDiagram.getAllContours.toSet
+  private val destinationZoneMasks = new ZoneMasks(destinationDiagram.getAllContours)
   private val allVisibleZonesInDestinationDiagram: Set[Zone] = (destinationDiagram.getPresentZones ++ destinationDiagram.getHabitats.values().flatMap(_.zones)).toSet
-  private val allPossibleZonesInDestinationDiagram: Set[Zone] = Zones.allZonesForContours(destinationDiagram.getAllContours.toSeq:_*).toSet
+  private val contourMasksCache = mutable.HashMap[String, ContourMasks]()
 
   def transferContour(contourFromSource: String): PrimarySpiderDiagram = {
-    assertContourOnlyInSource(contourFromSource)
+    val masks = contourMasks(contourFromSource)
 
-    val zonesIn = zonesInDestinationInsideContour(contourFromSource)
-    val zonesOut = zonesInDestinationOutsideContour(contourFromSource)
-    val splitZones = allVisibleZonesInDestinationDiagram -- (zonesOut ++ zonesIn)
+    val zonesOutOrSplit = (zone: Zone) => !masks.isZoneInside(zone) || masks.isZoneOutside(zone)
+    val zonesInOrSplit = (zone: Zone) => !masks.isZoneOutside(zone) || masks.isZoneInside(zone)
 
     val spiderHabitats = destinationDiagram.getHabitats.map {
       case (spider, habitat) => (spider, new Region(
-        (zonesOut ++ splitZones).intersect(habitat.zones).map(addOutContourToZone(_, contourFromSource)) ++
-        (zonesIn ++ splitZones).intersect(habitat.zones).map(addInContourToZone(_, contourFromSource))
+        habitat.zones.filter(zonesOutOrSplit).map(addOutContourToZone(_, contourFromSource)) ++
+          habitat.zones.filter(zonesInOrSplit).map(addInContourToZone(_, contourFromSource))
       ))
     }
 
     val shadedZones = Zones.sameRegionWithNewContours(destinationDiagram.getShadedZones, contourFromSource) ++
-      zonesOut.map(addInContourToZone(_, contourFromSource)) ++
-      zonesIn.map(addOutContourToZone(_, contourFromSource))
+      zonesOutside(masks, contourFromSource, true) ++
+      zonesInside(masks, contourFromSource, false)
 
-    val presentZones = (zonesOut.intersect(allVisibleZonesInDestinationDiagram) ++ splitZones).map(zone => addOutContourToZone(zone, contourFromSource)) ++
-      (zonesIn.intersect(allVisibleZonesInDestinationDiagram) ++ splitZones).map(zone => addInContourToZone(zone, contourFromSource))
+    val presentZones = allVisibleZonesInDestinationDiagram.filter(zonesOutOrSplit).map(addOutContourToZone(_, contourFromSource)) ++
+      allVisibleZonesInDestinationDiagram.filter(zonesInOrSplit).map(addInContourToZone(_, contourFromSource))
 
     createPrimarySD(spiderHabitats.keySet, spiderHabitats, shadedZones, presentZones)
   }
 
-
   def zonesInDestinationOutsideContour(sourceContour: String): java.util.Set[Zone] = {
-    assertContourOnlyInSource(sourceContour)
-
-    allPossibleZonesInDestinationDiagram.filter(destinationZone =>
-      contoursInSourceDiagram.exists(commonContour =>
-        (destinationZone.getInContours.contains(commonContour) && sourceContourRelations.areContoursDisjoint(sourceContour, commonContour)) ||
-          (destinationZone.getOutContours.contains(commonContour) && sourceContourRelations.contourContainsAnother(commonContour, sourceContour))
-      ))
+    zonesOutside(contourMasks(sourceContour), null, false).toSet[Zone]
   }
 
   def zonesInDestinationInsideContour(sourceContour: String): java.util.Set[Zone] = {
+    zonesInside(contourMasks(sourceContour), null, false).toSet[Zone]
+  }
+
+  /**
+   * Returns `true` iff the given zone of the destination diagram lies outside of the given source contour.
+   */
+  def isZoneInDestinationOutsideContour(destinationZone: Zone, sourceContour: String): Boolean = {
+    contourMasks(sourceContour).isZoneOutside(destinationZone)
+  }
+
+  /**
+   * Returns `true` iff the given zone of the destination diagram lies inside of the given source contour.
+   */
+  def isZoneInDestinationInsideContour(destinationZone: Zone, sourceContour: String): Boolean = {
+    contourMasks(sourceContour).isZoneInside(destinationZone)
+  }
+
+  private def contourMasks(sourceContour: String): ContourMasks = {
     assertContourOnlyInSource(sourceContour)
+    contourMasksCache.getOrElseUpdate(sourceContour, computeContourMasks(sourceContour))
+  }
 
-    allPossibleZonesInDestinationDiagram.filter(destinationZone =>
-      contoursInSourceDiagram.exists(contour =>
-        destinationZone.getInContours.contains(contour) && sourceContourRelations.contourContainsAnother(sourceContour, contour)
-      )
-    )
+  private def computeContourMasks(sourceContour: String): ContourMasks = {
+    var disjoint = 0L
+    var containers = 0L
+    var contained = 0L
+    for (commonContour <- sourceDiagram.getAllContours) {
+      val contourMask = destinationZoneMasks.contourMask(List(commonContour))
+      if (sourceContourRelations.areContoursDisjoint(sourceContour, commonContour)) {
+        disjoint |= contourMask
+      }
+      if (sourceContourRelations.contourContainsAnother(commonContour, sourceContour)) {
+        containers |= contourMask
+      }
+      if (sourceContourRelations.contourContainsAnother(sourceContour, commonContour)) {
+        contained |= contourMask
+      }
+    }
+    new ContourMasks(disjoint, containers, contained)
+  }
+
+  private def zonesOutside(masks: ContourMasks, transferredContour: String, transferredContourIn: Boolean): Seq[Zone] = {
+    if (masks.hasZonesOutside) destinationZones(masks.outside, masks.outsideDeciding, transferredContour, transferredContourIn) else Nil
+  }
+
+  private def zonesInside(masks: ContourMasks, transferredContour: String, transferredContourIn: Boolean): Seq[Zone] = {
+    if (masks.hasZonesInside) destinationZones(masks.inside, masks.insideDeciding, transferredContour, transferredContourIn) else Nil
+  }
+
+  /**
+   * Enumerates the zones of the destination diagram (over all its contours) that satisfy the given predicate, which
+   * may depend only on the `deciding` contours. If `transferredContour` is not `null`, the zones are extended with the
+   * transferred contour (as an in-contour if `transferredContourIn` is `true`, otherwise as an out-contour).
+   */
+  private def destinationZones(predicate: Long => Boolean, deciding: Long, transferredContour: String, transferredContourIn: Boolean): mutable.Buffer[Zone] = {
+    val zones = mutable.ArrayBuffer[Zone]()
+    val otherContours = destinationZoneMasks.allContoursMask & ~deciding
+    destinationZoneMasks.foreachExpansion(0L, deciding) {
+      decidingMask => if (predicate(decidingMask)) {
+        destinationZoneMasks.foreachExpansion(decidingMask, otherContours) {
+          zoneMask => zones += destinationZoneMasks.zone(zoneMask, transferredContour, transferredContourIn)
+        }
+      }
+    }
+    zones
   }
 
   private def addInContourToZone(zone: Zone, contourFromSource: String): Zone = {
@@ -70,4 +139,31 @@ class ZoneTransfer(sourceDiagram: PrimarySpiderDiagram, destinationDiagram: Prim
       throw new IllegalArgumentException("The contour '" + sourceContour + "' must be present only in the source diagram.")
     }
   }
-}
\ No newline at end of file
+
+  /**
+   * The relations of a single source contour to the contours of the destination diagram (as bit masks over the
+   * destination contours).
+   *
+   * @param disjoint the destination contours that are disjoint from the source contour.
+   * @param containers the destination contours that contain the source contour.
+   * @param contained the destination contours that the source contour contains.
+   */
+  private class ContourMasks(disjoint: Long, containers: Long, contained: Long) {
+
+    val outside: Long => Boolean = zoneMask => (zoneMask & disjoint) != 0 || (~zoneMask & containers) != 0
+    val inside: Long => Boolean = zoneMask => (zoneMask & contained) != 0
+
+    val hasZonesOutside: Boolean = disjoint != 0 || containers != 0
+    val hasZonesInside: Boolean = contained != 0
+
+    /**
+     * The contours on which `outside` and `inside` depend.
+     */
+    val outsideDeciding: Long = disjoint | containers
+    val insideDeciding: Long = contained
+
+    def isZoneOutside(zone: Zone): Boolean = hasZonesOutside && outside(destinationZoneMasks.zoneMask(zone))
+
+    def isZoneInside(zone: Zone): Boolean = hasZonesInside && inside(destinationZoneMasks.zoneMask(zone))
+  }
+}
@@ -0,0 +1,61 @@
+package speedith.core.i18n;
+
+import org.junit.Test;
+import speedith.core.reasoning.RuleApplicationException;
+
+import java.util.Locale;
+import java.util.ResourceBundle;
+
+import static org.junit.Assert.*;
+import static speedith.core.i18n.Translations.deferredI18n;
+import static speedith.core.i18n.Translations.i18n;
+
+public class TranslationsTest {
+
+  @Test
+  public void i18n_MUST_format_every_string_like_String_format() {
+    for (Locale locale : new Locale[]{Locale.ROOT, new Locale("sl", "SI")}) {
+      ResourceBundle bundle = ResourceBundle.getBundle(Translations.StringsBundle, locale);
+      for (String key : bundle.keySet()) {
+        String pattern = bundle.getString(key);
+        assertEquals(key, pattern, i18n(locale, key));
+        Object[] args = pattern.contains("%d") ? new Object[]{7, 8, 9} : new Object[]{"a", null, 42};
+        try {
+          assertEquals(key, String.format(pattern, args), i18n(locale, key, args));
+        } catch (IllegalArgumentException ex) {
+          // The pattern mixes %s and %d. Both paths must fail alike.
+          try {
+            i18n(locale, key, args);
+            fail(key);
+          } catch (IllegalArgumentException expected) {
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void format_MUST_fall_back_to_String_format_WHEN_the_pattern_is_not_precompiled() {
+    assertEquals(String.format("%5s|%x|%%|%n", "a", 255), new MessageTemplate("%5s|%x|%%|%n").format("a", 255));
+    assertEquals(String.format("%d%s", 3L, "b"), new MessageTemplate("%d%s").format(3L, "b"));
+  }
+
+  @Test(expected = java.util.IllegalFormatConversionException.class)
+  public void format_MUST_fail_like_String_format_WHEN_an_integer_argument_is_not_integral() {
+    new MessageTemplate("%d").format(3.5);
+  }
+
+  @Test
+  public void deferredI18n_MUST_format_the_message_only_when_requested() {
+    DeferredMessage message = deferredI18n("NO_SUCH_KEY");
+    RuleApplicationException exception = new RuleApplicationException(message);
+
+    assertEquals("NO_SUCH_KEY", message.getKey());
+    try {
+      exception.getMessage();
+      fail();
+    } catch (java.util.MissingResourceException expected) {
+    }
+    assertEquals(i18n("GERR_NULL_ARGUMENT", "x"), new RuleApplicationException(deferredI18n("GERR_NULL_ARGUMENT", "x")).getLocalizedMessage());
+  }
+}
@@ -0,0 +1,87 @@
+package speedith.core.lang;
+
+import org.junit.Test;
+import speedith.core.lang.reader.SpiderDiagramsReader;
+
+import java.util.ArrayList;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.*;
+import static speedith.core.lang.test.TestSpiderDiagrams.spiderIn;
+import static speedith.core.lang.test.TestSpiderDiagrams.spidersIn;
+
+public class AssociativeChainTest {
+
+  private final SpiderDiagram a = spiderIn("A");
+  private final SpiderDiagram b = spiderIn("B");
+  private final SpiderDiagram c = spiderIn("C");
+  private final SpiderDiagram d = SpiderDiagrams.createCompoundSD(Operator.Disjunction, a, b);
+
+  @Test
+  public void of_MUST_flatten_nested_chains_WHEN_operands_are_grouped_arbitrarily() {
+    CompoundSpiderDiagram diagram = SpiderDiagrams.createCompoundSD(Operator.Conjunction,
+        SpiderDiagrams.createCompoundSD(Operator.Conjunction, a, SpiderDiagrams.createCompoundSD(Operator.Conjunction, b, c)),
+        d);
+
+    AssociativeChain chain = AssociativeChain.of(diagram);
+
+    assertEquals(Operator.Conjunction, chain.getOperator());
+    assertEquals(asList(a, b, c, d), chain.getOperands());
+    for (int i = 0; i < chain.getOperandCount(); i++) {
+      assertSame(chain.getOperand(i), diagram.getSubDiagramAt(chain.getOperandSubDiagramOffset(i)));
+      assertEquals(i, chain.indexOfOperandAt(chain.getOperandSubDiagramOffset(i)));
+    }
+    assertEquals(-1, chain.indexOfOperandAt(0));
+    assertEquals(-1, chain.indexOfOperandAt(1));
+    // The operands of the disjunction belong to the last operand of the chain.
+    assertEquals(3, chain.indexOfOperandAt(diagram.getSubDiagramCount() - 1));
+    assertEquals(-1, chain.indexOfOperandAt(diagram.getSubDiagramCount()));
+  }
+
+  @Test
+  public void of_MUST_flatten_very_long_chains() {
+    ArrayList<SpiderDiagram> operands = new ArrayList<>();
+    for (int i = 0; i < 20000; i++) {
+      operands.add(i % 2 == 0 ? a : b);
+    }
+    CompoundSpiderDiagram diagram = (CompoundSpiderDiagram) AssociativeChain.toBinaryDiagram(Operator.Disjunction, operands);
+
+    AssociativeChain chain = AssociativeChain.of(diagram);
+
+    assertEquals(operands, chain.getOperands());
+    assertSame(diagram, chain.getDiagram());
+    assertSame(b, diagram.getSubDiagramAt(chain.getOperandSubDiagramOffset(operands.size() - 1)));
+    assertEquals(AssociativeChain.toBinaryDiagram(Operator.Disjunction, asList(a, b)), chain.withoutDuplicateOperands());
+  }
+
+  @Test
+  public void withoutDuplicateOperands_MUST_drop_s_equivalent_operands_WHEN_there_are_many_distinct_operands() {
+    ArrayList<SpiderDiagram> operands = spidersIn("A", 5000);
+    ArrayList<SpiderDiagram> renamedOperands = new ArrayList<>();
+    for (int i = 0; i < operands.size(); i++) {
+      renamedOperands.add(spiderIn("t", "A" + i));
+    }
+    ArrayList<SpiderDiagram> allOperands = new ArrayList<>(operands);
+    allOperands.addAll(renamedOperands);
+    CompoundSpiderDiagram diagram = (CompoundSpiderDiagram) AssociativeChain.toBinaryDiagram(Operator.Conjunction, allOperands);
+
+    assertEquals(AssociativeChain.toBinaryDiagram(Operator.Conjunction, operands), AssociativeChain.of(diagram).withoutDuplicateOperands());
+  }
+
+  @Test
+  public void withoutDuplicateOperands_MUST_return_the_same_diagram_WHEN_there_are_no_duplicates() {
+    CompoundSpiderDiagram diagram = (CompoundSpiderDiagram) AssociativeChain.toBinaryDiagram(Operator.Conjunction, asList(a, b, c));
+    assertSame(diagram, AssociativeChain.of(diagram).withoutDuplicateOperands());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void of_MUST_throw_an_exception_WHEN_the_operator_is_not_associative() {
+    AssociativeChain.of(SpiderDiagrams.createCompoundSD(Operator.Implication, a, b));
+  }
+
+  @Test
+  public void readSpiderDiagram_MUST_create_a_binary_chain_WHEN_an_associative_operator_has_more_than_two_arguments() throws Exception {
+    SpiderDiagram diagram = SpiderDiagramsReader.readSpiderDiagram("CompoundSD {operator = \"op &\", arg1 = NullSD {}, arg2 = " + a + ", arg3 = " + b + "}");
+    assertEquals(AssociativeChain.toBinaryDiagram(Operator.Conjunction, asList(SpiderDiagrams.createNullSD(), a, b)), diagram);
+  }
+}
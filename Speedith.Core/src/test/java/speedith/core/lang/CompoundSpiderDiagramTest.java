@@ -514,6 +514,67 @@ public class CompoundSpiderDiagramTest {
         checkSDIterator(SpiderDiagramsReader.readSpiderDiagram(SpiderDiagramsReaderTest.SD_EXAMPLE_17));
     }
 
+    /**
+     * Traversal, equality, hashing and printing must not overflow the call
+     * stack on deeply nested diagrams.
+     */
+    @Test
+    public void testDeeplyNestedDiagram() {
+        final int depth = 50000;
+        SpiderDiagram leaf = SpiderDiagrams.createPrimarySD();
+        CompoundSpiderDiagram pooled = null;
+        CompoundSpiderDiagram unpooled = null;
+        for (int i = 0; i < depth; i++) {
+            pooled = SpiderDiagrams.createCompoundSD(Operator.Conjunction, leaf, pooled == null ? leaf : pooled);
+            unpooled = new CompoundSpiderDiagram(Operator.Conjunction, new ArrayList<>(Arrays.asList(leaf, unpooled == null ? leaf : unpooled)));
+        }
+        assertEquals(2 * depth + 1, unpooled.getSubDiagramCount());
+        assertEquals(pooled.hashCode(), unpooled.hashCode());
+        assertEquals(pooled, unpooled);
+        assertSame(leaf, unpooled.getSubDiagramAt(2 * depth));
+        assertNull(unpooled.getSubDiagramAt(2 * depth + 1));
+        assertEquals(pooled.toString(), unpooled.toString());
+        assertTrue(unpooled.isValid());
+
+        final int lastIndex = 2 * depth;
+        SpiderDiagram transformed = unpooled.transform(new IdTransformer() {
+            @Override
+            public SpiderDiagram transform(PrimarySpiderDiagram psd, int diagramIndex, ArrayList<CompoundSpiderDiagram> parents, ArrayList<Integer> childIndices) {
+                return diagramIndex == lastIndex ? SpiderDiagrams.createNullSD() : null;
+            }
+        });
+        assertEquals(SpiderDiagrams.createNullSD(), transformed.getSubDiagramAt(lastIndex));
+        assertFalse(transformed.equals(unpooled));
+
+        Integer visited = unpooled.visit(new DiagramVisitor<Integer>() {
+            private int count;
+
+            @Override
+            public void init(SpiderDiagram root) {
+            }
+
+            @Override
+            public void end() {
+            }
+
+            @Override
+            public void visit(SpiderDiagram subDiagram, int subDiagramIndex, ArrayList<CompoundSpiderDiagram> parents, ArrayList<Integer> childIndices, ArrayList<Integer> parentIndices) {
+                assertEquals(count++, subDiagramIndex);
+            }
+
+            @Override
+            public boolean isDone() {
+                return false;
+            }
+
+            @Override
+            public Integer getResult() {
+                return count;
+            }
+        });
+        assertEquals(Integer.valueOf(2 * depth + 1), visited);
+    }
+
     //<editor-fold defaultstate="collapsed" desc="Private Helper Methods">
     private void checkVisitSD(CompoundSpiderDiagram sd) {
         for (int i = 0; i < sd.getSubDiagramCount(); i++) {
@@ -0,0 +1,132 @@
+package speedith.core.lang;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.*;
+import static speedith.core.lang.test.TestSpiderDiagrams.spiderIn;
+
+public class ParallelTraversalTest {
+
+  private final ForkJoinPool pool = new ForkJoinPool(4);
+
+  @After
+  public void tearDown() {
+    pool.shutdown();
+  }
+
+  @Test
+  public void transform_MUST_return_the_same_diagram_as_the_sequential_transform() {
+    SpiderDiagram diagram = wideDiagram(3000);
+    NegatingTransformer sequentialTransformer = new NegatingTransformer();
+    NegatingTransformer parallelTransformer = new NegatingTransformer();
+
+    SpiderDiagram expected = diagram.transform(sequentialTransformer, true);
+    SpiderDiagram actual = ParallelTraversal.transform(diagram, parallelTransformer, true, pool, 16);
+
+    assertSame(expected, actual);
+    assertEquals(sequentialTransformer.paths, parallelTransformer.paths);
+    assertEquals(diagram.getSubDiagramCount(), parallelTransformer.paths.size());
+  }
+
+  @Test
+  public void transform_MUST_not_change_the_diagram_WHEN_nothing_is_transformed() {
+    SpiderDiagram diagram = wideDiagram(500);
+    assertSame(diagram, ParallelTraversal.transform(diagram, new IdentityTransformer(), false, pool, 8));
+  }
+
+  @Test
+  public void visit_MUST_visit_every_sub_diagram_once() {
+    SpiderDiagram diagram = wideDiagram(3000);
+    IndexSummingVisitor visitor = new IndexSummingVisitor();
+
+    long sum = ParallelTraversal.visit(diagram, visitor, true, pool, 16);
+
+    long count = diagram.getSubDiagramCount();
+    assertEquals(count * (count - 1) / 2, sum);
+    assertEquals(count, visitor.visitedCount.get());
+  }
+
+  private static SpiderDiagram wideDiagram(int operandsCount) {
+    ArrayList<SpiderDiagram> operands = new ArrayList<>();
+    for (int i = 0; i < operandsCount; i++) {
+      SpiderDiagram operand = spiderIn("A" + i);
+      operands.add(i % 7 == 0 ? SpiderDiagrams.createCompoundSD(Operator.Disjunction, operand, SpiderDiagrams.createNullSD()) : operand);
+    }
+    return AssociativeChain.toBinaryDiagram(Operator.Conjunction, operands);
+  }
+
+  private static class NegatingTransformer extends IdTransformer implements OrderIndependent {
+
+    /**
+     * The number of parents and the hash codes of the parents and the child
+     * indices of every transformed sub-diagram.
+     */
+    private final Map<Integer, List<Integer>> paths = new ConcurrentHashMap<>();
+
+    @Override
+    public SpiderDiagram transform(PrimarySpiderDiagram psd, int diagramIndex, ArrayList<CompoundSpiderDiagram> parents, ArrayList<Integer> childIndices) {
+      addPath(diagramIndex, parents, childIndices);
+      assertEquals(parents.size(), childIndices.size());
+      return SpiderDiagrams.createCompoundSD(Operator.Negation, psd);
+    }
+
+    @Override
+    public SpiderDiagram transform(NullSpiderDiagram nsd, int diagramIndex, ArrayList<CompoundSpiderDiagram> parents, ArrayList<Integer> childIndices) {
+      addPath(diagramIndex, parents, childIndices);
+      return null;
+    }
+
+    @Override
+    public SpiderDiagram transform(CompoundSpiderDiagram csd, int diagramIndex, ArrayList<CompoundSpiderDiagram> parents, ArrayList<Integer> childIndices) {
+      addPath(diagramIndex, parents, childIndices);
+      return null;
+    }
+
+    private void addPath(int diagramIndex, ArrayList<CompoundSpiderDiagram> parents, ArrayList<Integer> childIndices) {
+      paths.put(diagramIndex, asList(parents.size(), parents.hashCode(), childIndices.hashCode()));
+    }
+  }
+
+  private static class IdentityTransformer extends IdTransformer implements OrderIndependent {
+  }
+
+  private static class IndexSummingVisitor implements DiagramVisitor<Long>, OrderIndependent {
+
+    private final AtomicLong indexSum = new AtomicLong();
+    private final AtomicLong visitedCount = new AtomicLong();
+
+    @Override
+    public void init(SpiderDiagram root) {
+    }
+
+    @Override
+    public void end() {
+    }
+
+    @Override
+    public void visit(SpiderDiagram subDiagram, int subDiagramIndex, ArrayList<CompoundSpiderDiagram> parents, ArrayList<Integer> childIndices, ArrayList<Integer> parentIndices) {
+      assertEquals(parents.size(), parentIndices.size());
+      indexSum.addAndGet(subDiagramIndex);
+      visitedCount.incrementAndGet();
+    }
+
+    @Override
+    public boolean isDone() {
+      return false;
+    }
+
+    @Override
+    public Long getResult() {
+      return indexSum.get();
+    }
+  }
+}
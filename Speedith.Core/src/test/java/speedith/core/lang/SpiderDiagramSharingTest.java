@@ -0,0 +1,71 @@
+package speedith.core.lang;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static speedith.core.lang.test.TestSpiderDiagrams.negated;
+import static speedith.core.lang.test.TestSpiderDiagrams.spiderIn;
+
+public class SpiderDiagramSharingTest {
+
+  private static final int Depth = 50;
+
+  @Test
+  public void lazily_computed_values_MUST_be_the_same_on_all_threads_WHEN_a_diagram_is_shared() throws Exception {
+    SpiderDiagram reference = spiderIn("s", "A");
+    for (int i = 0; i < Depth; i++) {
+      reference = negated(reference);
+    }
+    List<Object> expected = lazilyComputedValues(reference);
+    for (int round = 0; round < 20; round++) {
+      final SpiderDiagram shared = uninternedCopy(reference);
+      ExecutorService executor = Executors.newFixedThreadPool(4);
+      try {
+        final CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<Object>>> results = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+          results.add(executor.submit(new Callable<List<Object>>() {
+            @Override
+            public List<Object> call() throws Exception {
+              start.await();
+              return lazilyComputedValues(shared);
+            }
+          }));
+        }
+        start.countDown();
+        for (Future<List<Object>> result : results) {
+          assertEquals(expected, result.get());
+        }
+      } finally {
+        executor.shutdownNow();
+      }
+    }
+  }
+
+  private static List<Object> lazilyComputedValues(SpiderDiagram sd) {
+    return asList(
+        sd.hashCode(),
+        sd.getSubDiagramCount(),
+        sd.isValid(),
+        ((PrimarySpiderDiagram) sd.getSubDiagramAt(Depth)).getAllContours());
+  }
+
+  /**
+   * Copies the chain of negations without the spider diagram pool (which
+   * computes the hash code of every diagram it interns), so that none of the
+   * lazily computed values of the copy have been computed yet.
+   */
+  private static SpiderDiagram uninternedCopy(SpiderDiagram sd) {
+    if (sd instanceof CompoundSpiderDiagram) {
+      CompoundSpiderDiagram csd = (CompoundSpiderDiagram) sd;
+      return new CompoundSpiderDiagram(csd.getOperator(), new ArrayList<>(asList(uninternedCopy(csd.getOperand(0)))));
+    }
+    PrimarySpiderDiagram psd = (PrimarySpiderDiagram) sd;
+    return new PrimarySpiderDiagram(psd.getSpiders(), psd.getHabitats(), psd.getShadedZones(), psd.getPresentZones());
+  }
+}
@@ -0,0 +1,61 @@
+package speedith.core.lang.test;
+
+import speedith.core.lang.*;
+
+import java.util.ArrayList;
+
+import static java.util.Collections.singletonMap;
+import static speedith.core.lang.SpiderDiagrams.createPrimarySD;
+
+/**
+ * Small spider diagrams for tests.
+ */
+public class TestSpiderDiagrams {
+
+  /**
+   * Returns a diagram with the spider {@code s} inside the given contour.
+   */
+  public static PrimarySpiderDiagram spiderIn(String contour) {
+    return spiderIn("s", contour);
+  }
+
+  public static PrimarySpiderDiagram spiderIn(String spider, String contour) {
+    return createPrimarySD(singletonMap(spider, new Region(Zone.fromInContours(contour))), null, null);
+  }
+
+  /**
+   * Returns the diagrams {@code spiderIn(contourPrefix + i)} for every
+   * {@code i} from {@code 0} to {@code count - 1}.
+   */
+  public static ArrayList<SpiderDiagram> spidersIn(String contourPrefix, int count) {
+    ArrayList<SpiderDiagram> diagrams = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      diagrams.add(spiderIn(contourPrefix + i));
+    }
+    return diagrams;
+  }
+
+  public static CompoundSpiderDiagram negated(SpiderDiagram sd) {
+    return SpiderDiagrams.createCompoundSD(Operator.Negation, sd);
+  }
+
+  public static CompoundSpiderDiagram doublyNegated(SpiderDiagram sd) {
+    return negated(negated(sd));
+  }
+
+  /**
+   * Returns {@code A ∧ A} where {@code A} is {@code spiderIn(contour)}.
+   */
+  public static CompoundSpiderDiagram idempotentConjunction(String contour) {
+    return SpiderDiagrams.createCompoundSD(Operator.Conjunction, spiderIn(contour), spiderIn(contour));
+  }
+
+  /**
+   * Returns {@code (A ∧ A) ⇒ (A ∧ A)} where {@code A} is {@code
+   * spiderIn(contour)}.
+   */
+  public static CompoundSpiderDiagram selfImplication(String contour) {
+    CompoundSpiderDiagram conjunction = idempotentConjunction(contour);
+    return SpiderDiagrams.createCompoundSD(Operator.Implication, conjunction, conjunction);
+  }
+}
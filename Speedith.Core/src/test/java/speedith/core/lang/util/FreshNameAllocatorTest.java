@@ -0,0 +1,69 @@
+package speedith.core.lang.util;
+
+import org.junit.Test;
+import speedith.core.lang.SpiderDiagrams;
+import speedith.core.lang.Zones;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.*;
+
+public class FreshNameAllocatorTest {
+
+  @Test
+  public void freshSpiderName_MUST_return_a_number_higher_than_all_used_numbers() {
+    FreshNameAllocator allocator = new FreshNameAllocator(asList("s1", "s7", "s3", "t9"));
+    assertEquals("s8", allocator.freshSpiderName());
+    assertEquals("s9", allocator.freshSpiderName());
+  }
+
+  @Test
+  public void freshName_MUST_return_the_prefix_WHEN_it_is_not_taken() {
+    FreshNameAllocator allocator = new FreshNameAllocator(asList("A1"));
+    assertEquals("A", allocator.freshName("A"));
+    assertEquals("A2", allocator.freshName("A"));
+  }
+
+  @Test
+  public void freshName_MUST_keep_the_suffix() {
+    FreshNameAllocator allocator = new FreshNameAllocator(asList("s1a", "s2a", "s5"));
+    assertEquals("s3a", allocator.freshName("s", "a"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void freshName_MUST_throw_WHEN_the_prefix_ends_with_a_digit() {
+    new FreshNameAllocator().freshName("s1");
+  }
+
+  @Test
+  public void forDiagram_MUST_avoid_names_of_spiders_and_contours() {
+    FreshNameAllocator allocator = FreshNameAllocator.forDiagram(SpiderDiagrams.createPrimarySD(null, null, null, Zones.allZonesForContours("A", "B", "C")));
+    assertFalse(asList("A", "B", "C").contains(allocator.freshName("A")));
+  }
+
+  @Test
+  public void freshSpiderName_MUST_never_return_the_same_name_WHEN_called_concurrently() throws Exception {
+    final FreshNameAllocator allocator = new FreshNameAllocator();
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<String>> names = new ArrayList<>();
+      for (int i = 0; i < 1000; i++) {
+        names.add(executor.submit(new Callable<String>() {
+          @Override
+          public String call() {
+            return allocator.freshSpiderName();
+          }
+        }));
+      }
+      Set<String> distinctNames = new HashSet<>();
+      for (Future<String> name : names) {
+        distinctNames.add(name.get());
+      }
+      assertEquals(1000, distinctNames.size());
+    } finally {
+      executor.shutdown();
+    }
+  }
+}
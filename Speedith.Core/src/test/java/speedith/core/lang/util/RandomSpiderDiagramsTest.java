@@ -0,0 +1,80 @@
+package speedith.core.lang.util;
+
+import org.junit.Test;
+import speedith.core.lang.*;
+
+import java.util.EnumMap;
+
+import static org.junit.Assert.*;
+
+public class RandomSpiderDiagramsTest {
+
+  @Test
+  public void nextSpiderDiagram_MUST_return_equal_diagrams_WHEN_given_the_same_seed() {
+    RandomSpiderDiagrams generator1 = new RandomSpiderDiagrams(42, 3, 4, 0.3, 3);
+    RandomSpiderDiagrams generator2 = new RandomSpiderDiagrams(42, 3, 4, 0.3, 3);
+    for (int i = 0; i < 20; i++) {
+      assertEquals(generator1.nextSpiderDiagram(), generator2.nextSpiderDiagram());
+    }
+  }
+
+  @Test
+  public void nextPrimarySD_MUST_return_valid_diagrams_with_the_requested_contours_and_spiders() {
+    RandomSpiderDiagrams generator = new RandomSpiderDiagrams(7, 4, 5, 0.5, 0);
+    for (int i = 0; i < 50; i++) {
+      PrimarySpiderDiagram primarySD = generator.nextPrimarySD();
+      assertTrue(primarySD.isValid());
+      assertEquals(4, primarySD.getAllContours().size());
+      assertEquals(5, primarySD.getSpidersCount());
+      for (String spider : primarySD.getSpiders()) {
+        assertTrue(primarySD.getPresentZones().containsAll(primarySD.getSpiderHabitat(spider).sortedZones()));
+      }
+    }
+  }
+
+  @Test
+  public void nextPrimarySD_MUST_shade_no_zones_WHEN_shading_density_is_zero() {
+    RandomSpiderDiagrams generator = new RandomSpiderDiagrams(7, 3, 2, 0, 0);
+    PrimarySpiderDiagram primarySD = generator.nextPrimarySD();
+    assertEquals(0, primarySD.getShadedZonesCount());
+    assertEquals(8, primarySD.getPresentZonesCount());
+  }
+
+  @Test
+  public void nextSpiderDiagram_MUST_return_diagrams_of_the_requested_depth() {
+    RandomSpiderDiagrams generator = new RandomSpiderDiagrams(3, 2, 1, 0.2, 4);
+    for (int i = 0; i < 20; i++) {
+      assertEquals(4, depthOf(generator.nextSpiderDiagram()));
+    }
+  }
+
+  @Test
+  public void nextSpiderDiagram_MUST_use_only_operators_from_the_operator_mix() {
+    EnumMap<Operator, Integer> operatorMix = new EnumMap<>(Operator.class);
+    operatorMix.put(Operator.Conjunction, 1);
+    RandomSpiderDiagrams generator = new RandomSpiderDiagrams(5, 2, 1, 0.2, operatorMix, 3);
+    SpiderDiagram sd = generator.nextSpiderDiagram();
+    for (int i = 0; i < sd.getSubDiagramCount(); i++) {
+      SpiderDiagram subDiagram = sd.getSubDiagramAt(i);
+      if (subDiagram instanceof CompoundSpiderDiagram) {
+        assertEquals(Operator.Conjunction, ((CompoundSpiderDiagram) subDiagram).getOperator());
+      }
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void constructor_MUST_throw_WHEN_given_too_many_contours() {
+    new RandomSpiderDiagrams(1, RandomSpiderDiagrams.MaxContourCount + 1, 0, 0, 0);
+  }
+
+  private static int depthOf(SpiderDiagram sd) {
+    if (sd instanceof CompoundSpiderDiagram) {
+      int maxDepth = 0;
+      for (SpiderDiagram operand : ((CompoundSpiderDiagram) sd).getOperands()) {
+        maxDepth = Math.max(maxDepth, depthOf(operand));
+      }
+      return maxDepth + 1;
+    }
+    return 0;
+  }
+}
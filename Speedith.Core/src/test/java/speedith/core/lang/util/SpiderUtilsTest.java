@@ -35,4 +35,12 @@ public class SpiderUtilsTest {
     assertEquals("s3a", SpiderUtils.freshSpiderName(new TreeSet<>(asList("s1a", "s2a"))));
   }
 
+  @Test
+  public void freshSpiderName_MUST_follow_the_pattern_of_the_spiders_WHEN_given_a_shared_allocator() {
+    TreeSet<String> spiders = new TreeSet<>(asList("t1", "t2"));
+    FreshNameAllocator allocator = new FreshNameAllocator(spiders);
+
+    assertEquals("t3", SpiderUtils.freshSpiderName(spiders, allocator));
+    assertEquals("t4", SpiderUtils.freshSpiderName(spiders, allocator));
+  }
 }
@@ -0,0 +1,117 @@
+package speedith.core.metrics;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import speedith.core.lang.SpiderDiagram;
+import speedith.core.lang.SpiderDiagrams;
+import speedith.core.reasoning.ProofTrace;
+import speedith.core.reasoning.RuleApplicationException;
+import speedith.core.reasoning.args.SubDiagramIndexArg;
+import speedith.core.reasoning.args.SubgoalIndexArg;
+import speedith.core.reasoning.rules.DischargeNullGoal;
+import speedith.core.reasoning.rules.Idempotency;
+
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import javax.management.ObjectName;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import static org.junit.Assert.*;
+import static speedith.core.lang.Operator.Conjunction;
+import static speedith.core.reasoning.util.unitary.TestSpiderDiagrams.VENN_2_AB_DIAGRAM;
+
+public class MetricsTest {
+
+  private MetricsRegistry originalRegistry;
+  private SimpleMetricsRegistry registry;
+
+  @Before
+  public void setUp() {
+    originalRegistry = Metrics.getRegistry();
+    registry = new SimpleMetricsRegistry();
+    Metrics.setRegistry(registry);
+  }
+
+  @After
+  public void tearDown() {
+    Metrics.setRegistry(originalRegistry);
+  }
+
+  @Test
+  public void histogram_MUST_report_count_min_max_and_percentiles() {
+    Histogram histogram = new Histogram();
+    for (int i = 1; i <= 100; i++) {
+      histogram.update(i);
+    }
+    assertEquals(100, histogram.getCount());
+    assertEquals(1, histogram.getMin());
+    assertEquals(100, histogram.getMax());
+    assertEquals(50.5, histogram.getMean(), 1e-9);
+    assertEquals(63, histogram.getPercentile(0.5));
+    assertEquals(100, histogram.getPercentile(0.99));
+  }
+
+  @Test
+  public void registry_MUST_return_the_same_metric_WHEN_asked_for_the_same_name() {
+    assertSame(registry.counter("foo"), registry.counter("foo"));
+    assertSame(registry.histogram("foo"), registry.histogram("foo"));
+  }
+
+  @Test
+  public void applyRule_MUST_record_latency_success_and_goal_sizes_per_rule() throws RuleApplicationException {
+    SpiderDiagram conjunction = SpiderDiagrams.createCompoundSD(Conjunction, VENN_2_AB_DIAGRAM, VENN_2_AB_DIAGRAM);
+    ProofTrace proof = new ProofTrace(conjunction);
+    proof.applyRule(new Idempotency(), new SubDiagramIndexArg(0, 0));
+
+    String prefix = Metrics.RulePrefix + Idempotency.InferenceRuleName;
+    assertEquals(1, registry.counter(prefix + Metrics.RuleSuccessSuffix).getCount());
+    assertEquals(1, registry.histogram(prefix + Metrics.RuleLatencySuffix).getCount());
+    assertEquals(3, registry.histogram(prefix + Metrics.RuleGoalSizeBeforeSuffix).getMax());
+    assertEquals(1, registry.histogram(prefix + Metrics.RuleGoalSizeAfterSuffix).getMax());
+    assertEquals(1, registry.histogram(Metrics.ProofApplyRuleLatency).getCount());
+  }
+
+  @Test
+  public void applyRule_MUST_count_failures() {
+    ProofTrace proof = new ProofTrace(VENN_2_AB_DIAGRAM);
+    try {
+      proof.applyRule(new DischargeNullGoal(), new SubgoalIndexArg(0));
+      fail();
+    } catch (RuleApplicationException e) {
+      // Expected: the goal is not a null spider diagram.
+    }
+    assertEquals(1, registry.counter(Metrics.RulePrefix + DischargeNullGoal.InferenceRuleName + Metrics.RuleFailureSuffix).getCount());
+  }
+
+  @Test
+  public void pool_hit_rate_MUST_reflect_interning_pool_hits() {
+    SpiderDiagrams.createCompoundSD(Conjunction, VENN_2_AB_DIAGRAM, VENN_2_AB_DIAGRAM);
+    SpiderDiagrams.createCompoundSD(Conjunction, VENN_2_AB_DIAGRAM, VENN_2_AB_DIAGRAM);
+    assertTrue(registry.counter(Metrics.PoolHits).getCount() >= 1);
+    assertTrue(registry.getGauges().get(Metrics.PoolHitRate).getValue() > 0);
+  }
+
+  @Test
+  public void jmx_exporter_MUST_expose_counters_and_histograms() throws Exception {
+    MBeanServer mBeanServer = MBeanServerFactory.newMBeanServer();
+    JmxMetricsExporter exporter = new JmxMetricsExporter(registry, JmxMetricsExporter.DefaultObjectName, mBeanServer);
+    exporter.start();
+    registry.counter("foo").add(3);
+    registry.histogram("bar").update(5);
+    ObjectName objectName = new ObjectName(JmxMetricsExporter.DefaultObjectName);
+    assertEquals(3L, mBeanServer.getAttribute(objectName, "foo"));
+    assertEquals(1L, mBeanServer.getAttribute(objectName, "bar.count"));
+    exporter.stop();
+  }
+
+  @Test
+  public void log_reporter_MUST_report_all_metrics() {
+    registry.counter("foo").increment();
+    registry.histogram("bar").update(5);
+    String report = new LogMetricsReporter(registry, Logger.getAnonymousLogger(), Level.FINE).formatReport();
+    assertTrue(report.contains("foo = 1"));
+    assertTrue(report.contains("bar: count = 1"));
+  }
+}
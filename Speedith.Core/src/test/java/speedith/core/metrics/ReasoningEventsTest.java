@@ -0,0 +1,94 @@
+package speedith.core.metrics;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import speedith.core.lang.IdTransformer;
+import speedith.core.lang.SpiderDiagram;
+import speedith.core.lang.SpiderDiagrams;
+import speedith.core.lang.reader.ReadingException;
+import speedith.core.lang.reader.SpiderDiagramsReader;
+import speedith.core.reasoning.ProofTrace;
+import speedith.core.reasoning.RuleApplicationException;
+import speedith.core.reasoning.args.SubDiagramIndexArg;
+import speedith.core.reasoning.rules.Idempotency;
+
+import java.util.ArrayList;
+
+import static org.junit.Assert.*;
+import static speedith.core.lang.Operator.Conjunction;
+import static speedith.core.reasoning.util.unitary.TestSpiderDiagrams.VENN_2_AB_DIAGRAM;
+
+public class ReasoningEventsTest {
+
+  private final RecordingListener listener = new RecordingListener();
+
+  @Before
+  public void setUp() {
+    ReasoningEvents.addListener(listener);
+  }
+
+  @After
+  public void tearDown() {
+    ReasoningEvents.removeListener(listener);
+  }
+
+  @Test
+  public void isEnabled_MUST_return_false_WHEN_no_listeners_are_registered() {
+    ReasoningEvents.removeListener(listener);
+    assertFalse(ReasoningEvents.isEnabled());
+  }
+
+  @Test
+  public void applyRule_MUST_emit_a_rule_applied_event() throws RuleApplicationException {
+    SpiderDiagram conjunction = SpiderDiagrams.createCompoundSD(Conjunction, VENN_2_AB_DIAGRAM, VENN_2_AB_DIAGRAM);
+    new ProofTrace(conjunction).applyRule(new Idempotency(), new SubDiagramIndexArg(0, 0));
+    assertTrue(listener.events.contains("ruleApplied:" + Idempotency.InferenceRuleName + ":0:true"));
+  }
+
+  @Test
+  public void createCompoundSD_MUST_emit_diagram_interned_events() {
+    SpiderDiagrams.createCompoundSD(Conjunction, VENN_2_AB_DIAGRAM, VENN_2_AB_DIAGRAM);
+    SpiderDiagrams.createCompoundSD(Conjunction, VENN_2_AB_DIAGRAM, VENN_2_AB_DIAGRAM);
+    assertTrue(listener.events.contains("diagramInterned:true:true"));
+  }
+
+  @Test
+  public void transform_MUST_emit_the_number_of_visited_nodes() {
+    SpiderDiagram conjunction = SpiderDiagrams.createCompoundSD(Conjunction, VENN_2_AB_DIAGRAM, VENN_2_AB_DIAGRAM);
+    conjunction.transform(new IdTransformer());
+    assertTrue(listener.events.contains("transformTraversal:" + IdTransformer.class.getName() + ":3"));
+  }
+
+  @Test
+  public void readSpiderDiagram_MUST_emit_a_parse_completed_event() throws ReadingException {
+    String input = VENN_2_AB_DIAGRAM.toString();
+    SpiderDiagramsReader.readSpiderDiagram(input);
+    assertTrue(listener.events.contains("parseCompleted:" + input.length() + ":true"));
+  }
+
+  private static class RecordingListener implements ReasoningEventListener {
+
+    private final ArrayList<String> events = new ArrayList<>();
+
+    @Override
+    public synchronized void ruleApplied(String ruleName, int subgoalIndex, long durationNanos, boolean success) {
+      events.add("ruleApplied:" + ruleName + ":" + subgoalIndex + ":" + success);
+    }
+
+    @Override
+    public synchronized void diagramInterned(boolean compound, boolean poolHit) {
+      events.add("diagramInterned:" + compound + ":" + poolHit);
+    }
+
+    @Override
+    public synchronized void transformTraversal(Class<?> traverserType, int nodesVisited, long durationNanos) {
+      events.add("transformTraversal:" + traverserType.getName() + ":" + nodesVisited);
+    }
+
+    @Override
+    public synchronized void parseCompleted(int characters, long durationNanos, boolean success) {
+      events.add("parseCompleted:" + characters + ":" + success);
+    }
+  }
+}
@@ -0,0 +1,127 @@
+package speedith.core.reasoning;
+
+import org.junit.Test;
+import speedith.core.lang.*;
+import speedith.core.reasoning.args.SubDiagramIndexArg;
+import speedith.core.reasoning.persistence.ProofTraceReader;
+import speedith.core.reasoning.persistence.ProofTraceWriter;
+import speedith.core.reasoning.rules.DoubleNegationElimination;
+import speedith.core.reasoning.rules.Idempotency;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.*;
+import static speedith.core.reasoning.test.TestProofs.goalSetProof;
+import static speedith.core.lang.test.TestSpiderDiagrams.doublyNegated;
+import static speedith.core.lang.test.TestSpiderDiagrams.selfImplication;
+import static speedith.core.lang.test.TestSpiderDiagrams.spiderIn;
+
+public class GoalSetTest {
+
+  @Test
+  public void of_MUST_merge_s_equivalent_goals_and_report_the_original_indices() {
+    Goals goals = Goals.createGoalsFrom(spiderIn("s", "A"), spiderIn("B", "B"), spiderIn("t", "A"), NullSpiderDiagram.getInstance());
+
+    GoalSet goalSet = GoalSet.of(goals, null);
+
+    assertEquals(Goals.createGoalsFrom(spiderIn("s", "A"), spiderIn("B", "B")), goalSet.getGoals());
+    assertTrue(goalSet.isReduced());
+    assertEquals(0, goalSet.getGoalIndex(2));
+    assertEquals(-1, goalSet.getGoalIndex(3));
+    assertEquals(asList(0, 2), goalSet.getOriginalIndices(0));
+    assertEquals(GoalSet.getFingerprint(spiderIn("s", "A")), GoalSet.getFingerprint(spiderIn("t", "A")));
+  }
+
+  @Test
+  public void of_MUST_drop_the_closed_goals() {
+    Goals goals = Goals.createGoalsFrom(spiderIn("s", "A"), spiderIn("s", "B"));
+
+    GoalSet goalSet = GoalSet.of(goals, Collections.<SpiderDiagram>singleton(spiderIn("s", "A")));
+
+    assertEquals(Goals.createGoalsFrom(spiderIn("s", "B")), goalSet.getGoals());
+    assertEquals(-1, goalSet.getGoalIndex(0));
+    assertEquals(0, goalSet.getGoalIndex(1));
+  }
+
+  @Test
+  public void applyRule_MUST_drop_goals_that_an_earlier_step_closed_WHEN_in_goal_set_mode() throws Exception {
+    SpiderDiagram selfImplication = selfImplication("A");
+    ProofTrace proof = new ProofTrace(selfImplication, doublyNegated(selfImplication), doublyNegated(spiderIn("t", "B")), spiderIn("s", "B"));
+    proof.setGoalSetMode(true);
+
+    proof.applyRule(new Idempotency(), new SubDiagramIndexArg(0, 0));
+    RuleApplicationResult result = proof.applyRule(new DoubleNegationElimination(), new SubDiagramIndexArg(1, 0));
+    GoalSet goalSet = ((GoalSetResult) result).getGoalSet();
+    assertEquals(Goals.createGoalsFrom(doublyNegated(selfImplication), spiderIn("t", "B")), proof.getLastGoals());
+    assertEquals(asList(1, 2), goalSet.getOriginalIndices(1));
+
+    result = proof.applyRule(new DoubleNegationElimination(), new SubDiagramIndexArg(0, 0));
+    assertEquals(-1, ((GoalSetResult) result).getGoalSet().getGoalIndex(0));
+    assertEquals(Goals.createGoalsFrom(spiderIn("t", "B")), proof.getLastGoals());
+
+    StringWriter out = new StringWriter();
+    ProofTraceWriter.write(proof, out, 0);
+    assertEquals(proof.getGoals(), ProofTraceReader.read(new StringReader(out.toString())).getGoals());
+  }
+
+  @Test
+  public void applyRule_MUST_drop_goals_closed_before_the_goal_set_mode_was_turned_on() throws Exception {
+    SpiderDiagram selfImplication = selfImplication("A");
+    ProofTrace proof = new ProofTrace(selfImplication, doublyNegated(selfImplication), doublyNegated(spiderIn("s", "B")));
+    proof.setCheckpointInterval(2);
+
+    proof.applyRule(new Idempotency(), new SubDiagramIndexArg(0, 0));
+    proof.applyRule(new DoubleNegationElimination(), new SubDiagramIndexArg(1, 0));
+    proof.setGoalSetMode(true);
+    proof.applyRule(new DoubleNegationElimination(), new SubDiagramIndexArg(0, 0));
+
+    assertEquals(Goals.createGoalsFrom(spiderIn("s", "B")), proof.getLastGoals());
+  }
+
+  @Test
+  public void getGoalsAt_MUST_replay_goal_set_steps() throws RuleApplicationException {
+    ProofTrace fullTrace = goalSetProof(0);
+    ProofTrace checkpointedTrace = goalSetProof(10);
+
+    assertEquals(fullTrace.getGoals(), checkpointedTrace.getGoals());
+    assertTrue(checkpointedTrace.undoStep());
+    assertEquals(fullTrace.getGoalsAt(2), checkpointedTrace.getLastGoals());
+  }
+
+  @Test
+  public void getGoalsAt_MUST_replay_goal_set_steps_in_any_order_WHEN_many_goals_were_closed() throws RuleApplicationException {
+    ProofTrace fullTrace = manyClosedGoalsProof(0);
+    ProofTrace checkpointedTrace = manyClosedGoalsProof(7);
+
+    for (int index = fullTrace.getGoalsCount() - 1; index >= 0; index -= 3) {
+      assertEquals(fullTrace.getGoalsAt(index), checkpointedTrace.getGoalsAt(index));
+    }
+    assertEquals(fullTrace.getGoals(), checkpointedTrace.getGoals());
+  }
+
+  /**
+   * Closes the goals {@code A0 ∧ A0}, {@code A1 ∧ A1}, ... one by one while
+   * every one of them is also pending as a doubly negated copy, which is
+   * dropped as soon as its negations are eliminated.
+   */
+  private static ProofTrace manyClosedGoalsProof(int checkpointInterval) throws RuleApplicationException {
+    ArrayList<SpiderDiagram> goals = new ArrayList<>();
+    for (int i = 0; i < 50; i++) {
+      goals.add(selfImplication("A" + i));
+      goals.add(doublyNegated(selfImplication("A" + i)));
+    }
+    ProofTrace proof = new ProofTrace(goals);
+    proof.setGoalSetMode(true);
+    proof.setCheckpointInterval(checkpointInterval);
+    for (int i = 0; i < 50; i++) {
+      proof.applyRule(new Idempotency(), new SubDiagramIndexArg(0, 0));
+      proof.applyRule(new DoubleNegationElimination(), new SubDiagramIndexArg(0, 0));
+    }
+    assertTrue(proof.isFinished());
+    return proof;
+  }
+}
@@ -0,0 +1,78 @@
+package speedith.core.reasoning;
+
+import org.junit.Test;
+import speedith.core.reasoning.rules.DoubleNegationElimination;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class InferenceRulesTest {
+
+  @Test
+  public void providersIndex_MUST_list_every_built_in_provider_with_its_rule_name() throws Exception {
+    HashMap<String, String> index = new HashMap<>();
+    try (BufferedReader lines = new BufferedReader(new InputStreamReader(InferenceRules.class.getClassLoader().getResourceAsStream(InferenceRules.InferenceRuleProvidersIndex), "UTF-8"))) {
+      String line;
+      while ((line = lines.readLine()) != null) {
+        if (!line.trim().isEmpty() && !line.startsWith("#")) {
+          index.put(line.substring(0, line.indexOf(' ')), line.substring(line.indexOf(' ') + 1));
+        }
+      }
+    }
+
+    assertEquals(InferenceRules.getBuiltInProviders().size(), index.size());
+    for (Class<?> providerClass : InferenceRules.getBuiltInProviders()) {
+      InferenceRuleProvider<?> provider = (InferenceRuleProvider<?>) providerClass.getConstructor().newInstance();
+      assertEquals(provider.getInferenceRuleName(), index.get(providerClass.getName()));
+    }
+  }
+
+  @Test
+  public void getKnownInferenceRules_MUST_contain_all_indexed_rules() {
+    for (String ruleName : builtInRuleNames()) {
+      assertTrue(ruleName, InferenceRules.getKnownInferenceRules().contains(ruleName));
+    }
+  }
+
+  @Test
+  public void getInferenceRule_MUST_instantiate_the_indexed_provider_WHEN_first_requested() {
+    assertTrue(InferenceRules.getInferenceRule(DoubleNegationElimination.InferenceRuleName) instanceof DoubleNegationElimination);
+    assertSame(InferenceRules.getProvider(DoubleNegationElimination.InferenceRuleName), InferenceRules.getProvider(DoubleNegationElimination.InferenceRuleName));
+    assertNull(InferenceRules.getInferenceRule("no_such_rule"));
+  }
+
+  @Test
+  public void getProvider_MUST_repeat_the_failure_WHEN_the_indexed_provider_cannot_be_loaded() {
+    InferenceRules.registerProvider(DoubleNegationElimination.InferenceRuleName, "speedith.core.reasoning.rules.NoSuchProvider");
+    try {
+      for (int i = 0; i < 2; i++) {
+        try {
+          InferenceRules.getProvider(DoubleNegationElimination.InferenceRuleName);
+          fail();
+        } catch (IllegalArgumentException ex) {
+          assertTrue(ex.getCause() instanceof ClassNotFoundException);
+        }
+      }
+      assertTrue(InferenceRules.getKnownInferenceRules().contains(DoubleNegationElimination.InferenceRuleName));
+    } finally {
+      InferenceRules.registerProvider(DoubleNegationElimination.class);
+    }
+  }
+
+  private static List<String> builtInRuleNames() {
+    ArrayList<String> names = new ArrayList<>();
+    for (Class<?> providerClass : InferenceRules.getBuiltInProviders()) {
+      try {
+        names.add(((InferenceRuleProvider<?>) providerClass.getConstructor().newInstance()).getInferenceRuleName());
+      } catch (ReflectiveOperationException ex) {
+        throw new AssertionError(ex);
+      }
+    }
+    return names;
+  }
+}
@@ -0,0 +1,86 @@
+package speedith.core.reasoning;
+
+import org.junit.Test;
+import speedith.core.lang.*;
+import speedith.core.reasoning.args.SubDiagramIndexArg;
+import speedith.core.reasoning.rules.DoubleNegationElimination;
+import speedith.core.reasoning.util.Normalizer;
+
+import java.util.ArrayList;
+
+import static org.junit.Assert.*;
+import static speedith.core.lang.test.TestSpiderDiagrams.doublyNegated;
+import static speedith.core.lang.test.TestSpiderDiagrams.spiderIn;
+import static speedith.core.lang.test.TestSpiderDiagrams.spidersIn;
+
+public class ProofTraceTest {
+
+  @Test
+  public void getGoalsAt_MUST_rebuild_the_goals_between_checkpoints() throws RuleApplicationException {
+    ProofTrace fullTrace = new ProofTrace(wideGoal(100));
+    ProofTrace checkpointedTrace = new ProofTrace(wideGoal(100));
+    checkpointedTrace.setCheckpointInterval(16);
+
+    new Normalizer().normalize(fullTrace);
+    new Normalizer().normalize(checkpointedTrace);
+
+    assertTrue(checkpointedTrace.getGoalsCount() > 100);
+    assertEquals(fullTrace.getGoals(), checkpointedTrace.getGoals());
+    assertEquals(fullTrace.getGoalsAt(37), checkpointedTrace.getGoalsAt(37));
+  }
+
+  @Test
+  public void undoStep_MUST_restore_the_previous_goals_WHEN_they_are_not_checkpoints() throws RuleApplicationException {
+    ProofTrace fullTrace = new ProofTrace(wideGoal(50));
+    new Normalizer().normalize(fullTrace);
+    ProofTrace checkpointedTrace = new ProofTrace(wideGoal(50));
+    new Normalizer().normalize(checkpointedTrace);
+    checkpointedTrace.setCheckpointInterval(10);
+
+    while (checkpointedTrace.undoStep()) {
+      assertEquals(fullTrace.getGoalsAt(checkpointedTrace.getGoalsCount() - 1), checkpointedTrace.getLastGoals());
+    }
+    assertEquals(fullTrace.getInitialGoals(), checkpointedTrace.getLastGoals());
+  }
+
+  @Test
+  public void replaceStep_MUST_reuse_the_subgoals_that_the_replacement_does_not_affect() throws RuleApplicationException {
+    ProofTrace proof = new ProofTrace(doublyNegatedPair("P", "Q"), doublyNegatedPair("R", "S"));
+    proof.applyRule(new DoubleNegationElimination(), new SubDiagramIndexArg(1, 1));
+    proof.applyRule(new DoubleNegationElimination(), new SubDiagramIndexArg(0, 1));
+    proof.applyRule(new DoubleNegationElimination(), new SubDiagramIndexArg(1, 2));
+    SpiderDiagram unaffectedSubgoal = proof.getLastGoals().getGoalAt(1);
+
+    assertEquals(-1, proof.replaceStep(1, new DoubleNegationElimination(), new SubDiagramIndexArg(0, 4)));
+
+    assertEquals(3, proof.getRuleApplicationCount());
+    assertSame(unaffectedSubgoal, proof.getLastGoals().getGoalAt(1));
+    assertEquals(SpiderDiagrams.createCompoundSD(Operator.Conjunction, doublyNegated(spiderIn("P")), spiderIn("Q")), proof.getLastGoals().getGoalAt(0));
+    assertEquals(new SubDiagramIndexArg(0, 4), proof.getRuleApplicationAt(1).getRuleArguments());
+  }
+
+  @Test
+  public void replaceStep_MUST_report_the_first_step_that_no_longer_applies() throws RuleApplicationException {
+    ProofTrace proof = new ProofTrace(doublyNegatedPair("P", "Q"));
+    proof.setCheckpointInterval(2);
+    proof.applyRule(new DoubleNegationElimination(), new SubDiagramIndexArg(0, 1));
+    proof.applyRule(new DoubleNegationElimination(), new SubDiagramIndexArg(0, 2));
+
+    assertEquals(1, proof.replaceStep(0, new DoubleNegationElimination(), new SubDiagramIndexArg(0, 4)));
+
+    assertEquals(1, proof.getRuleApplicationCount());
+    assertEquals(SpiderDiagrams.createCompoundSD(Operator.Conjunction, doublyNegated(spiderIn("P")), spiderIn("Q")), proof.getLastGoals().getGoalAt(0));
+  }
+
+  private static SpiderDiagram doublyNegatedPair(String contour1, String contour2) {
+    return SpiderDiagrams.createCompoundSD(Operator.Conjunction, doublyNegated(spiderIn(contour1)), doublyNegated(spiderIn(contour2)));
+  }
+
+  private static SpiderDiagram wideGoal(int operandsCount) {
+    ArrayList<SpiderDiagram> operands = new ArrayList<>();
+    for (SpiderDiagram operand : spidersIn("A", operandsCount)) {
+      operands.add(doublyNegated(operand));
+    }
+    return AssociativeChain.toBinaryDiagram(Operator.Disjunction, operands);
+  }
+}
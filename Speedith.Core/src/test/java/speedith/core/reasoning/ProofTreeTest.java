@@ -0,0 +1,93 @@
+package speedith.core.reasoning;
+
+import org.junit.Test;
+import speedith.core.reasoning.args.SubDiagramIndexArg;
+import speedith.core.reasoning.rules.Idempotency;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.*;
+import static speedith.core.lang.test.TestSpiderDiagrams.selfImplication;
+import static speedith.core.lang.test.TestSpiderDiagrams.spiderIn;
+
+public class ProofTreeTest {
+
+  @Test
+  public void fork_MUST_share_the_steps_before_the_fork() throws RuleApplicationException {
+    ProofTree proof = new ProofTree(Goals.createGoalsFrom(selfImplication("A")));
+    proof.applyRule(new Idempotency(), new SubDiagramIndexArg(0, 1));
+    ProofTree.Branch first = proof.getCurrentBranch();
+    ProofTree.Node sharedNode = first.getTip();
+
+    ProofTree.Branch second = proof.fork();
+    proof.applyRule(new Idempotency(), new SubDiagramIndexArg(0, 2));
+    proof.switchTo(first);
+    proof.applyRule(new Idempotency(), new SubDiagramIndexArg(0, 2));
+    proof.applyRule(new Idempotency(), new SubDiagramIndexArg(0, 0));
+
+    assertTrue(proof.isFinished());
+    assertEquals(3, proof.getRuleApplicationCount());
+    assertSame(sharedNode, second.getTip().getParent());
+    assertSame(sharedNode, first.getTip().getParent().getParent());
+    assertEquals(asList(first.getTip().getParent(), second.getTip()), proof.getAlternatives(sharedNode));
+
+    proof.switchTo(second);
+    assertFalse(proof.isFinished());
+    assertEquals(3, proof.getGoals().size());
+    assertEquals(spiderIn("A"), proof.getGoalsAt(1).getGoalAt(0).getSubDiagramAt(1));
+  }
+
+  @Test
+  public void abandon_MUST_drop_the_steps_of_the_branch() throws RuleApplicationException {
+    ProofTree proof = new ProofTree(Goals.createGoalsFrom(selfImplication("A")));
+    ProofTree.Branch first = proof.getCurrentBranch();
+    ProofTree.Node root = first.getTip();
+    ProofTree.Branch second = proof.fork();
+    proof.applyRule(new Idempotency(), new SubDiagramIndexArg(0, 1));
+
+    proof.abandon(second);
+
+    assertSame(first, proof.getCurrentBranch());
+    assertEquals(asList(first), proof.getBranches());
+    assertTrue(proof.getAlternatives(root).isEmpty());
+    assertEquals(0, proof.getRuleApplicationCount());
+  }
+
+  @Test
+  public void undoStep_MUST_not_affect_the_other_branches() throws RuleApplicationException {
+    ProofTree proof = new ProofTree(Goals.createGoalsFrom(selfImplication("A")));
+    proof.applyRule(new Idempotency(), new SubDiagramIndexArg(0, 1));
+    ProofTree.Branch first = proof.getCurrentBranch();
+    proof.fork();
+
+    assertTrue(proof.undoStep());
+    assertFalse(proof.undoStep());
+
+    assertEquals(1, first.getTip().getDepth());
+    assertEquals(0, proof.getRuleApplicationCount());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void fork_MUST_reject_a_node_of_another_tree() {
+    ProofTree proof = new ProofTree(Goals.createGoalsFrom(selfImplication("A")));
+    ProofTree other = new ProofTree(Goals.createGoalsFrom(selfImplication("A")));
+
+    proof.fork(other.getCurrentBranch().getTip());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void switchTo_MUST_reject_a_branch_of_another_tree() {
+    ProofTree proof = new ProofTree(Goals.createGoalsFrom(selfImplication("A")));
+    ProofTree other = new ProofTree(Goals.createGoalsFrom(selfImplication("A")));
+
+    proof.switchTo(other.getCurrentBranch());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void switchTo_MUST_reject_an_abandoned_branch() {
+    ProofTree proof = new ProofTree(Goals.createGoalsFrom(selfImplication("A")));
+    ProofTree.Branch abandoned = proof.fork();
+    proof.abandon(abandoned);
+
+    proof.switchTo(abandoned);
+  }
+}
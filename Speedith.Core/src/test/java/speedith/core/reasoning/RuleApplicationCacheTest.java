@@ -0,0 +1,87 @@
+package speedith.core.reasoning;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import speedith.core.lang.*;
+import speedith.core.metrics.Metrics;
+import speedith.core.metrics.MetricsRegistry;
+import speedith.core.metrics.SimpleMetricsRegistry;
+import speedith.core.reasoning.args.SubDiagramIndexArg;
+import speedith.core.reasoning.args.SubgoalIndexArg;
+import speedith.core.reasoning.rules.DischargeNullGoal;
+import speedith.core.reasoning.rules.Idempotency;
+
+import static org.junit.Assert.*;
+import static speedith.core.lang.test.TestSpiderDiagrams.idempotentConjunction;
+import static speedith.core.lang.test.TestSpiderDiagrams.spiderIn;
+
+public class RuleApplicationCacheTest {
+
+  private MetricsRegistry originalRegistry;
+  private SimpleMetricsRegistry registry;
+
+  @Before
+  public void setUp() {
+    originalRegistry = Metrics.getRegistry();
+    registry = new SimpleMetricsRegistry();
+    Metrics.setRegistry(registry);
+  }
+
+  @After
+  public void tearDown() {
+    Metrics.setRegistry(originalRegistry);
+  }
+
+  @Test
+  public void applyRule_MUST_reuse_the_memoized_result_WHEN_reapplied_after_undo() throws RuleApplicationException {
+    ProofTrace proof = new ProofTrace(idempotentConjunction("A"));
+    proof.setRuleApplicationCache(new RuleApplicationCache(4));
+
+    RuleApplicationResult first = proof.applyRule(new Idempotency(), new SubDiagramIndexArg(0, 0));
+    proof.undoStep();
+    RuleApplicationResult second = proof.applyRule(new Idempotency(), new SubDiagramIndexArg(0, 0));
+
+    assertSame(first, second);
+    assertEquals(spiderIn("A"), proof.getLastGoals().getGoalAt(0));
+    assertEquals(1, registry.counter(Metrics.RuleCacheHits).getCount());
+    assertEquals(1, registry.counter(Metrics.RuleCacheMisses).getCount());
+    assertEquals(0.5, registry.getGauges().get(Metrics.RuleCacheHitRate).getValue(), 1e-9);
+    assertEquals(1, registry.counter(Metrics.RulePrefix + Idempotency.InferenceRuleName + Metrics.RuleSuccessSuffix).getCount());
+  }
+
+  @Test
+  public void apply_MUST_evict_the_least_recently_used_result_WHEN_full() throws RuleApplicationException {
+    RuleApplicationCache cache = new RuleApplicationCache(2);
+    Idempotency rule = new Idempotency();
+    Goals goalsA = Goals.createGoalsFrom(idempotentConjunction("A"));
+    Goals goalsB = Goals.createGoalsFrom(idempotentConjunction("B"));
+    Goals goalsC = Goals.createGoalsFrom(idempotentConjunction("C"));
+
+    RuleApplicationResult resultA = cache.apply(rule, new SubDiagramIndexArg(0, 0), goalsA);
+    RuleApplicationResult resultB = cache.apply(rule, new SubDiagramIndexArg(0, 0), goalsB);
+    assertSame(resultA, cache.apply(rule, new SubDiagramIndexArg(0, 0), goalsA));
+    cache.apply(rule, new SubDiagramIndexArg(0, 0), goalsC);
+
+    assertEquals(2, cache.size());
+    assertEquals(1, registry.counter(Metrics.RuleCacheEvictions).getCount());
+    assertSame(resultA, cache.apply(rule, new SubDiagramIndexArg(0, 0), goalsA));
+    assertNotSame(resultB, cache.apply(rule, new SubDiagramIndexArg(0, 0), goalsB));
+  }
+
+  @Test
+  public void apply_MUST_not_memoize_failed_applications() {
+    RuleApplicationCache cache = new RuleApplicationCache();
+    Goals goals = Goals.createGoalsFrom(spiderIn("A"));
+    for (int i = 0; i < 2; i++) {
+      try {
+        cache.apply(new DischargeNullGoal(), new SubgoalIndexArg(0), goals);
+        fail();
+      } catch (RuleApplicationException e) {
+        // Expected: the goal is not a null spider diagram.
+      }
+    }
+    assertEquals(0, cache.size());
+    assertEquals(2, registry.counter(Metrics.RuleCacheMisses).getCount());
+  }
+}
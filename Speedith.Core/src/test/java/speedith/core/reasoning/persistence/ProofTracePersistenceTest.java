@@ -0,0 +1,105 @@
+package speedith.core.reasoning.persistence;
+
+import org.junit.Test;
+import speedith.core.lang.*;
+import speedith.core.lang.reader.ReadingException;
+import speedith.core.reasoning.ProofTrace;
+import speedith.core.reasoning.args.*;
+import speedith.core.reasoning.util.ProofVerification;
+import speedith.core.reasoning.util.ProofVerifier;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import static org.junit.Assert.*;
+import static speedith.core.reasoning.test.TestProofs.goalSetProof;
+import static speedith.core.reasoning.test.TestProofs.provedImplication;
+
+public class ProofTracePersistenceTest {
+
+  @Test
+  public void read_MUST_return_an_equivalent_proof() throws Exception {
+    ProofTrace proof = provedImplication("A");
+
+    ProofTrace loaded = ProofTraceReader.read(new StringReader(write(proof, 0)));
+
+    assertEquals(proof.getRuleApplicationCount(), loaded.getRuleApplicationCount());
+    assertEquals(proof.getGoals(), loaded.getGoals());
+    assertEquals(proof.getRuleApplications().get(1).getRuleArguments(), loaded.getRuleApplications().get(1).getRuleArguments());
+    assertTrue(loaded.isFinished());
+  }
+
+  @Test
+  public void write_MUST_write_each_diagram_once() throws Exception {
+    ProofTrace proof = provedImplication("A");
+
+    String text = write(proof, 1);
+
+    assertEquals(proof.getGoals(), ProofTraceReader.read(new StringReader(text)).getGoals());
+    assertEquals(3, text.split("\ncheckpoint ").length - 1);
+    // The initial goal and the goals after the first two steps (the last
+    // step closes the proof).
+    assertEquals(3, text.split("\ndiagram ").length - 1);
+  }
+
+  @Test
+  public void read_MUST_restore_the_goal_set_steps() throws Exception {
+    ProofTrace proof = goalSetProof(0);
+
+    ProofTrace loaded = ProofTraceReader.read(new StringReader(write(proof, 0)));
+
+    for (int step = 0; step < proof.getRuleApplicationCount(); step++) {
+      assertTrue(loaded.isGoalSetStep(step));
+    }
+    assertEquals(proof.getGoals(), loaded.getGoals());
+    ProofVerification verification = new ProofVerifier().verify(loaded);
+    assertEquals(ProofVerification.Verdict.Unfinished, verification.getVerdict());
+    assertEquals(-1, verification.getFailingStep());
+  }
+
+  @Test
+  public void undoStep_MUST_rebuild_the_last_goals_WHEN_the_proof_was_loaded() throws Exception {
+    ProofTrace proof = provedImplication("A");
+    ProofTrace loaded = ProofTraceReader.read(new StringReader(write(proof, 0)));
+
+    assertTrue(loaded.undoStep());
+
+    assertEquals(proof.getGoalsAt(2), loaded.getLastGoals());
+    assertFalse(loaded.isFinished());
+  }
+
+  @Test
+  public void fromString_MUST_read_what_toString_wrote() throws ReadingException {
+    RuleArg[] ruleArgs = {
+        null,
+        new SubgoalIndexArg(1),
+        new SubDiagramIndexArg(1, 2),
+        new SpiderArg(0, 3, "s\"1"),
+        new ContourArg(0, 3, "A"),
+        new ZoneArg(0, 1, Zone.fromInContours("A", "B").withOutContours("C")),
+        new SpiderZoneArg(0, 1, "s", Zone.fromOutContours("A")),
+        new SpiderRegionArg(0, 1, "s", new Region(Zone.fromInContours("A"), Zone.fromInContours("B"))),
+        new MultipleRuleArgs(new ContourArg(0, 1, "A"), new ContourArg(0, 1, "B"))
+    };
+    for (RuleArg ruleArg : ruleArgs) {
+      assertEquals(ruleArg, RuleArgFormat.fromString(RuleArgFormat.toString(ruleArg)));
+    }
+  }
+
+  @Test(expected = ReadingException.class)
+  public void read_MUST_throw_an_exception_WHEN_the_rule_is_unknown() throws Exception {
+    ProofTraceReader.read(new StringReader(ProofTraceWriter.Header + "\ndiagram 0 NullSD {}\ngoals 0\nstep \"no such rule\" -\n"));
+  }
+
+  @Test(expected = ReadingException.class)
+  public void read_MUST_throw_an_exception_WHEN_the_header_is_missing() throws Exception {
+    ProofTraceReader.read(new StringReader("goals\n"));
+  }
+
+  private static String write(ProofTrace proof, int checkpointInterval) throws IOException {
+    StringWriter out = new StringWriter();
+    ProofTraceWriter.write(proof, out, checkpointInterval);
+    return out.toString();
+  }
+}
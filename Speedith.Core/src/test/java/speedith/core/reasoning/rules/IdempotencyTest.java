@@ -32,7 +32,10 @@ import org.junit.AfterClass;
 import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
+import java.util.ArrayList;
+import speedith.core.lang.AssociativeChain;
 import speedith.core.lang.CompoundSpiderDiagram;
+import speedith.core.lang.Operator;
 import speedith.core.lang.SpiderDiagram;
 import speedith.core.lang.SpiderDiagrams;
 import speedith.core.lang.reader.SpiderDiagramsReader;
@@ -41,6 +44,7 @@ import speedith.core.reasoning.*;
 import speedith.core.reasoning.args.RuleArg;
 import speedith.core.reasoning.args.SubDiagramIndexArg;
 import static org.junit.Assert.*;
+import static speedith.core.lang.test.TestSpiderDiagrams.spiderIn;
 
 /**
  *
@@ -132,6 +136,19 @@ public class IdempotencyTest {
         assertTrue(!newCsd.equals(transformedSD));
     }
 
+    @Test
+    public void testApplyOnLongChain() throws Exception {
+        InferenceRule<? extends RuleArg> rule = InferenceRules.getInferenceRule(Idempotency.InferenceRuleName);
+        ArrayList<SpiderDiagram> operands = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            operands.add(i % 3 == 0 ? SpiderDiagrams.createNullSD() : spiderIn("A" + i));
+        }
+        SpiderDiagram sd = AssociativeChain.toBinaryDiagram(Operator.Conjunction, operands);
+        SpiderDiagram transformedSD = applyRule(rule, 0, sd);
+        assertEquals(operands.size() - (operands.size() - 1) / 3, AssociativeChain.of((CompoundSpiderDiagram) transformedSD).getOperandCount());
+        assertEquals(operands.get(0), transformedSD.getSubDiagramAt(1));
+    }
+
     private SpiderDiagram applyRule(InferenceRule<? extends RuleArg> rule, final int subDiagramIndex, SpiderDiagram sd) throws RuleApplicationException {
         return rule.apply(new SubDiagramIndexArg(0, subDiagramIndex), Goals.createGoalsFrom(sd)).getGoals().getGoalAt(0);
     }
@@ -0,0 +1,71 @@
+package speedith.core.reasoning.rules;
+
+import org.junit.Test;
+import speedith.core.lang.*;
+import speedith.core.reasoning.Goals;
+import speedith.core.reasoning.ProofTrace;
+import speedith.core.reasoning.RuleApplicationException;
+import speedith.core.reasoning.args.SubDiagramIndexArg;
+import speedith.core.reasoning.args.SubgoalIndexArg;
+import speedith.core.reasoning.persistence.ProofTraceReader;
+import speedith.core.reasoning.persistence.ProofTraceWriter;
+
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import static org.junit.Assert.*;
+import static speedith.core.lang.test.TestSpiderDiagrams.doublyNegated;
+import static speedith.core.lang.test.TestSpiderDiagrams.selfImplication;
+import static speedith.core.lang.test.TestSpiderDiagrams.spiderIn;
+
+public class MultiTargetRuleTest {
+
+  @Test
+  public void applyRuleToSubgoals_MUST_merge_the_results_in_the_order_of_the_subgoals() throws RuleApplicationException {
+    SpiderDiagram untouched = spiderIn("X");
+    ProofTrace proof = new ProofTrace(doublyNegated(spiderIn("P")), untouched, doublyNegated(spiderIn("Q")));
+
+    proof.applyRuleToSubgoals(new DoubleNegationElimination(), new SubDiagramIndexArg(0, 0), 2, 0);
+
+    assertEquals(1, proof.getRuleApplicationCount());
+    assertEquals(Goals.createGoalsFrom(spiderIn("P"), untouched, spiderIn("Q")), proof.getLastGoals());
+    assertSame(untouched, proof.getLastGoals().getGoalAt(1));
+  }
+
+  @Test
+  public void applyRuleToSubgoals_MUST_replace_discharged_subgoals_WHEN_normalizing() throws RuleApplicationException {
+    ProofTrace proof = new ProofTrace(selfImplication("A"), doublyNegated(spiderIn("B")), selfImplication("C"));
+
+    proof.applyRuleToSubgoals(new NormalizeGoal(), new SubgoalIndexArg(0), 0, 1, 2);
+
+    assertEquals(Goals.createGoalsFrom(spiderIn("B")), proof.getLastGoals());
+  }
+
+  @Test
+  public void applyRuleToSubgoals_MUST_not_change_the_proof_WHEN_the_rule_fails_on_a_subgoal() throws RuleApplicationException {
+    ProofTrace proof = new ProofTrace(NullSpiderDiagram.getInstance(), spiderIn("A"));
+
+    try {
+      proof.applyRuleToSubgoals(new DischargeNullGoal(), new SubgoalIndexArg(0), 0, 1);
+      fail();
+    } catch (RuleApplicationException ex) {
+      assertEquals(0, proof.getRuleApplicationCount());
+    }
+  }
+
+  @Test
+  public void read_MUST_replay_multi_target_steps() throws Exception {
+    ProofTrace proof = new ProofTrace(doublyNegated(spiderIn("P")), doublyNegated(spiderIn("Q")));
+    proof.applyRuleToSubgoals(new DoubleNegationElimination(), new SubDiagramIndexArg(0, 0), 0, 1);
+    StringWriter out = new StringWriter();
+    ProofTraceWriter.write(proof, out, 0);
+
+    ProofTrace loaded = ProofTraceReader.read(new StringReader(out.toString()));
+
+    assertEquals(proof.getRuleApplicationAt(0).getInferenceRule().getProvider().getInferenceRuleName(),
+                 loaded.getRuleApplicationAt(0).getInferenceRule().getProvider().getInferenceRuleName());
+    assertEquals(proof.getLastGoals(), loaded.getLastGoals());
+    assertTrue(loaded.undoStep());
+    assertEquals(proof.getInitialGoals(), loaded.getLastGoals());
+  }
+}
@@ -8,7 +8,9 @@ import speedith.core.reasoning.args.SubDiagramIndexArg;
 import speedith.core.lang.util.HabitatBuilder;
 
 import java.util.Map;
+import java.util.TreeSet;
 
+import static java.util.Arrays.asList;
 import static org.junit.Assert.assertEquals;
 import static speedith.core.lang.Operator.Negation;
 import static speedith.core.lang.SpiderDiagrams.*;
@@ -80,6 +82,33 @@ public class NegationEliminationTest {
     assertEquals(expectedDiagram, apply(inputDiagram));
   }
 
+  @Test
+  public void apply_MUST_introduce_a_spider_that_is_fresh_in_the_whole_goal() throws RuleApplicationException {
+    HabitatBuilder habitatS1S2 = emptyHabitat().addHabitat("s1", REGION_AB_C).addHabitat("s2", REGION_AB_C);
+    SpiderDiagram negation = createCompoundSD(Negation, createPrimarySD(habitatS1S2.get(), REGION_AB_C.asZones(), FULL_ABC_REGION.asZones()));
+    SpiderDiagram goal = createCompoundSD(Operator.Conjunction, negation, negation);
+
+    SpiderDiagram firstEliminated = apply(goal, 1);
+    SpiderDiagram secondEliminated = apply(firstEliminated, 1 + ((CompoundSpiderDiagram) firstEliminated).getOperand(0).getSubDiagramCount());
+
+    assertEquals(new TreeSet<>(asList("s1", "s2", "s3")), spidersOf(((CompoundSpiderDiagram) secondEliminated).getOperand(0)));
+    assertEquals(new TreeSet<>(asList("s1", "s2", "s4")), spidersOf(((CompoundSpiderDiagram) secondEliminated).getOperand(1)));
+  }
+
+  private static TreeSet<String> spidersOf(SpiderDiagram diagram) {
+    TreeSet<String> spiders = new TreeSet<>();
+    for (int i = 0; i < diagram.getSubDiagramCount(); i++) {
+      if (diagram.getSubDiagramAt(i) instanceof PrimarySpiderDiagram) {
+        spiders.addAll(((PrimarySpiderDiagram) diagram.getSubDiagramAt(i)).getSpiders());
+      }
+    }
+    return spiders;
+  }
+
+  private static SpiderDiagram apply(SpiderDiagram goal, int subDiagramIndex) throws RuleApplicationException {
+    return new NegationElimination().applyForwards(new SubDiagramIndexArg(0, subDiagramIndex), createGoalsFrom(goal)).getGoals().getGoalAt(0);
+  }
+
   private static SpiderDiagram apply(PrimarySpiderDiagram diagramToNegate) throws RuleApplicationException {
     return apply(createCompoundSD(Negation, diagramToNegate)).getGoals().getGoalAt(0);
   }
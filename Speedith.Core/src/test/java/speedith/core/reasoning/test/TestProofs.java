@@ -0,0 +1,44 @@
+package speedith.core.reasoning.test;
+
+import speedith.core.reasoning.ProofTrace;
+import speedith.core.reasoning.RuleApplicationException;
+import speedith.core.lang.SpiderDiagram;
+import speedith.core.reasoning.args.SubDiagramIndexArg;
+import speedith.core.reasoning.rules.DoubleNegationElimination;
+import speedith.core.reasoning.rules.Idempotency;
+
+import static speedith.core.lang.test.TestSpiderDiagrams.doublyNegated;
+import static speedith.core.lang.test.TestSpiderDiagrams.selfImplication;
+import static speedith.core.lang.test.TestSpiderDiagrams.spiderIn;
+
+public class TestProofs {
+
+  /**
+   * Proves {@code (A ∧ A) ⇒ (A ∧ A)} in three steps.
+   */
+  public static ProofTrace provedImplication(String contour) throws RuleApplicationException {
+    ProofTrace proof = new ProofTrace(selfImplication(contour));
+    proof.applyRule(new Idempotency(), new SubDiagramIndexArg(0, 1));
+    proof.applyRule(new Idempotency(), new SubDiagramIndexArg(0, 2));
+    proof.applyRule(new Idempotency(), new SubDiagramIndexArg(0, 0));
+    return proof;
+  }
+
+  /**
+   * Applies three steps in the {@link ProofTrace#setGoalSetMode(boolean)
+   * goal-set mode}. The subgoal indices of the last two steps are valid only
+   * if the goals of the earlier steps were merged: the second step merges
+   * {@code t ∈ B} with {@code s ∈ B} and the third step reaches the goal that
+   * the first step closed. The proof ends with the goals {@code [t ∈ B]}.
+   */
+  public static ProofTrace goalSetProof(int checkpointInterval) throws RuleApplicationException {
+    SpiderDiagram selfImplication = selfImplication("A");
+    ProofTrace proof = new ProofTrace(selfImplication, doublyNegated(spiderIn("t", "B")), spiderIn("s", "B"), doublyNegated(selfImplication));
+    proof.setGoalSetMode(true);
+    proof.setCheckpointInterval(checkpointInterval);
+    proof.applyRule(new Idempotency(), new SubDiagramIndexArg(0, 0));
+    proof.applyRule(new DoubleNegationElimination(), new SubDiagramIndexArg(0, 0));
+    proof.applyRule(new DoubleNegationElimination(), new SubDiagramIndexArg(1, 0));
+    return proof;
+  }
+}
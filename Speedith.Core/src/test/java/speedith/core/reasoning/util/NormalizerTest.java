@@ -0,0 +1,74 @@
+package speedith.core.reasoning.util;
+
+import org.junit.Test;
+import speedith.core.lang.*;
+import speedith.core.reasoning.ProofTrace;
+import speedith.core.reasoning.RuleApplicationException;
+import speedith.core.reasoning.rules.DischargeNullGoal;
+
+import java.util.ArrayList;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.*;
+import static speedith.core.lang.test.TestSpiderDiagrams.doublyNegated;
+import static speedith.core.lang.test.TestSpiderDiagrams.spiderIn;
+
+public class NormalizerTest {
+
+  @Test
+  public void normalize_MUST_apply_the_rules_until_none_applies() throws RuleApplicationException {
+    SpiderDiagram p1 = spiderIn("A");
+    ProofTrace proof = new ProofTrace(
+        SpiderDiagrams.createCompoundSD(Operator.Conjunction, doublyNegated(p1), p1),
+        SpiderDiagrams.createNullSD());
+
+    int steps = new Normalizer().normalize(proof);
+
+    assertEquals(3, steps);
+    assertEquals(steps, proof.getRuleApplicationCount());
+    assertEquals(DischargeNullGoal.InferenceRuleName, proof.getRuleApplicationAt(0).getInferenceRule().getProvider().getInferenceRuleName());
+    assertEquals(asList(p1), proof.getLastGoals().getGoals());
+  }
+
+  @Test
+  public void normalize_MUST_simplify_wide_goals() throws RuleApplicationException {
+    ArrayList<SpiderDiagram> operands = new ArrayList<>();
+    ArrayList<SpiderDiagram> expectedOperands = new ArrayList<>();
+    for (int i = 0; i < 300; i++) {
+      operands.add(doublyNegated(spiderIn("A" + i % 100)));
+      if (i < 100) {
+        expectedOperands.add(spiderIn("A" + i));
+      }
+    }
+    ProofTrace proof = new ProofTrace(AssociativeChain.toBinaryDiagram(Operator.Disjunction, operands));
+
+    int steps = new Normalizer().normalize(proof);
+
+    assertEquals(AssociativeChain.toBinaryDiagram(Operator.Disjunction, expectedOperands), proof.getLastGoals().getGoalAt(0));
+    assertEquals(steps, proof.getRuleApplicationCount());
+    assertTrue(steps > operands.size());
+    assertEquals(0, new Normalizer().normalize(proof));
+  }
+
+  @Test
+  public void normalize_MUST_reexamine_all_ancestors_WHEN_a_deep_operand_is_rewritten() throws RuleApplicationException {
+    SpiderDiagram a = spiderIn("A");
+    SpiderDiagram b = spiderIn("B");
+    ProofTrace proof = new ProofTrace(SpiderDiagrams.createCompoundSD(Operator.Implication,
+        SpiderDiagrams.createCompoundSD(Operator.Conjunction, doublyNegated(a), b),
+        SpiderDiagrams.createCompoundSD(Operator.Conjunction, a, b)));
+
+    assertEquals(2, new Normalizer().normalize(proof));
+    assertTrue(proof.isFinished());
+  }
+
+  @Test
+  public void normalize_MUST_apply_only_the_configured_rules() throws RuleApplicationException {
+    SpiderDiagram p1 = spiderIn("A");
+    SpiderDiagram nested = SpiderDiagrams.createCompoundSD(Operator.Conjunction, spiderIn("B"), doublyNegated(spiderIn("C")));
+    ProofTrace proof = new ProofTrace(SpiderDiagrams.createCompoundSD(Operator.Conjunction, p1, nested));
+
+    assertEquals(2, new Normalizer(Normalizer.ConjunctionEliminationRule).normalize(proof));
+    assertEquals(p1, proof.getLastGoals().getGoalAt(0));
+  }
+}
@@ -0,0 +1,83 @@
+package speedith.core.reasoning.util;
+
+import org.junit.Test;
+import speedith.core.lang.*;
+import speedith.core.reasoning.Goals;
+import speedith.core.reasoning.ProofTrace;
+import speedith.core.reasoning.RuleApplicationCache;
+import speedith.core.reasoning.RuleApplicationException;
+import speedith.core.reasoning.args.SubgoalIndexArg;
+import speedith.core.reasoning.rules.DischargeNullGoal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.*;
+import static speedith.core.reasoning.test.TestProofs.goalSetProof;
+import static speedith.core.reasoning.test.TestProofs.provedImplication;
+import static speedith.core.lang.test.TestSpiderDiagrams.spiderIn;
+
+public class ProofVerifierTest {
+
+  @Test
+  public void verifyAll_MUST_report_a_verdict_per_proof_in_order() throws Exception {
+    ProofTrace proved = provedImplication("A");
+    ProofTrace unfinished = new ProofTrace(spiderIn("B"));
+    final Goals otherTheorem = Goals.createGoalsFrom(spiderIn("C"));
+    ProofTrace broken = new ProofTrace(SpiderDiagrams.createNullSD()) {
+      @Override
+      public Goals getInitialGoals() {
+        return otherTheorem;
+      }
+    };
+    broken.applyRule(new DischargeNullGoal(), new SubgoalIndexArg(0));
+
+    List<ProofVerification> verifications = new ProofVerifier().verifyAll(asList(proved, unfinished, broken));
+
+    assertEquals(ProofVerification.Verdict.Proved, verifications.get(0).getVerdict());
+    assertEquals(-1, verifications.get(0).getFailingStep());
+    assertEquals(ProofVerification.Verdict.Unfinished, verifications.get(1).getVerdict());
+    assertEquals(ProofVerification.Verdict.Failed, verifications.get(2).getVerdict());
+    assertEquals(0, verifications.get(2).getFailingStep());
+    assertNotNull(verifications.get(2).getFailure());
+    for (int i = 0; i < verifications.size(); i++) {
+      assertEquals(i, verifications.get(i).getProofIndex());
+      assertTrue(verifications.get(i).getDurationNanos() >= 0);
+    }
+  }
+
+  @Test
+  public void verifyAll_MUST_compute_shared_proof_steps_once() throws Exception {
+    ArrayList<ProofTrace> proofs = new ArrayList<>();
+    for (int i = 0; i < 32; i++) {
+      proofs.add(provedImplication("A"));
+    }
+    RuleApplicationCache cache = new RuleApplicationCache();
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      for (ProofVerification verification : new ProofVerifier(cache).verifyAll(proofs, executor)) {
+        assertTrue(verification.isProved());
+      }
+    } finally {
+      executor.shutdown();
+    }
+    assertEquals(proofs.get(0).getRuleApplicationCount(), cache.size());
+  }
+
+  @Test
+  public void verify_MUST_replay_goal_set_steps_in_the_goal_set_mode() throws RuleApplicationException {
+    ProofVerification verification = new ProofVerifier().verify(goalSetProof(0));
+
+    assertEquals(ProofVerification.Verdict.Unfinished, verification.getVerdict());
+    assertEquals(-1, verification.getFailingStep());
+    assertNull(verification.getFailure());
+  }
+
+  @Test
+  public void verify_MUST_replay_without_a_cache() throws RuleApplicationException {
+    assertTrue(new ProofVerifier(null).verify(provedImplication("A")).isProved());
+  }
+}
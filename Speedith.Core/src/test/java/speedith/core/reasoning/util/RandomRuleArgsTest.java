@@ -0,0 +1,60 @@
+package speedith.core.reasoning.util;
+
+import org.junit.Test;
+import speedith.core.lang.CompoundSpiderDiagram;
+import speedith.core.lang.Operator;
+import speedith.core.lang.SpiderDiagram;
+import speedith.core.lang.util.RandomSpiderDiagrams;
+import speedith.core.reasoning.*;
+import speedith.core.reasoning.args.*;
+import speedith.core.reasoning.rules.RemoveContour;
+import speedith.core.reasoning.rules.SplitSpiders;
+
+import static org.junit.Assert.*;
+
+public class RandomRuleArgsTest {
+
+  @Test
+  public void nextRuleArg_MUST_return_arguments_of_the_rules_argument_type_WHEN_given_any_known_rule() {
+    RandomSpiderDiagrams diagrams = new RandomSpiderDiagrams(11, 3, 3, 0.3, 2);
+    RandomRuleArgs ruleArgs = new RandomRuleArgs(11);
+    Goals goals = Goals.createGoalsFrom(diagrams.nextSpiderDiagram(), diagrams.nextSpiderDiagram());
+    for (String ruleName : InferenceRules.getKnownInferenceRules()) {
+      RuleArg ruleArg = ruleArgs.nextRuleArg(ruleName, goals);
+      assertNotNull(ruleName, ruleArg);
+      assertTrue(ruleName, InferenceRules.getProvider(ruleName).getArgumentType().isInstance(ruleArg));
+    }
+  }
+
+  @Test
+  public void nextRuleArg_MUST_produce_applicable_split_spiders_arguments() throws RuleApplicationException {
+    RandomSpiderDiagrams diagrams = new RandomSpiderDiagrams(13, 3, 2, 0, 0);
+    RandomRuleArgs ruleArgs = new RandomRuleArgs(13);
+    for (int i = 0; i < 20; i++) {
+      Goals goals = Goals.createGoalsFrom(diagrams.nextPrimarySD());
+      RuleArg ruleArg = ruleArgs.nextRuleArg(SplitSpiders.InferenceRuleName, goals);
+      if (ruleArg != null) {
+        SpiderDiagram result = InferenceRules.getInferenceRule(SplitSpiders.InferenceRuleName).apply(ruleArg, goals).getGoals().getGoalAt(0);
+        assertEquals(Operator.Disjunction, ((CompoundSpiderDiagram) result).getOperator());
+      }
+    }
+  }
+
+  @Test
+  public void nextRuleArg_MUST_produce_applicable_remove_contour_arguments() throws RuleApplicationException {
+    RandomSpiderDiagrams diagrams = new RandomSpiderDiagrams(17, 4, 2, 0.4, 0);
+    RandomRuleArgs ruleArgs = new RandomRuleArgs(17);
+    for (int i = 0; i < 20; i++) {
+      Goals goals = Goals.createGoalsFrom(diagrams.nextPrimarySD());
+      MultipleRuleArgs ruleArg = (MultipleRuleArgs) ruleArgs.nextRuleArg(RemoveContour.InferenceRuleName, goals);
+      Goals result = InferenceRules.getInferenceRule(RemoveContour.InferenceRuleName).apply(ruleArg, goals).getGoals();
+      assertTrue(result.getGoalAt(0).isValid());
+    }
+  }
+
+  @Test
+  public void nextSpiderArg_MUST_return_null_WHEN_goals_contain_no_spiders() {
+    RandomSpiderDiagrams diagrams = new RandomSpiderDiagrams(19, 2, 0, 0.5, 2);
+    assertNull(new RandomRuleArgs(19).nextSpiderArg(Goals.createGoalsFrom(diagrams.nextSpiderDiagram())));
+  }
+}
@@ -0,0 +1,99 @@
+package speedith.core.reasoning.util;
+
+import org.junit.Test;
+import speedith.core.lang.*;
+import speedith.core.lang.reader.ReadingException;
+import speedith.core.reasoning.Goals;
+import speedith.core.reasoning.rules.DoubleNegationElimination;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.*;
+import static speedith.core.lang.test.TestSpiderDiagrams.doublyNegated;
+import static speedith.core.lang.test.TestSpiderDiagrams.spiderIn;
+
+public class RuleScriptTest {
+
+  private static final String Script = "# Two double negations.\n"
+      + "double_negation_elimination SubDiagramIndexArg 0 0\n"
+      + "\n"
+      + "\"double_negation_elimination\" SubDiagramIndexArg 0 0\n";
+
+  @Test
+  public void read_MUST_skip_comments_and_accept_quoted_rule_names() throws Exception {
+    RuleScript script = RuleScript.read(new StringReader(Script));
+
+    assertEquals(2, script.getRuleApplications().size());
+    assertTrue(script.getRuleApplications().get(1).getInferenceRule() instanceof DoubleNegationElimination);
+    assertEquals(Goals.createGoalsFrom(spiderIn("s", "A")), script.apply(doublyNegated(doublyNegated(spiderIn("s", "A")))));
+  }
+
+  @Test(expected = ReadingException.class)
+  public void read_MUST_fail_WHEN_the_rule_is_unknown() throws Exception {
+    RuleScript.read(new StringReader("no_such_rule SubDiagramIndexArg 0 0"));
+  }
+
+  @Test
+  public void applyAll_MUST_report_the_outcomes_in_the_order_of_the_inputs() throws Exception {
+    RuleScript script = RuleScript.read(new StringReader(Script));
+    ArrayList<SpiderDiagram> inputs = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      SpiderDiagram goal = spiderIn("s" + i, "A");
+      inputs.add(i == 3 ? goal : doublyNegated(doublyNegated(goal)));
+    }
+    final ArrayList<Object> outcomes = new ArrayList<>();
+    ExecutorService executor = Executors.newFixedThreadPool(3);
+    try {
+      script.applyAll(inputs.iterator(), executor, 2, new RuleScript.ResultListener() {
+        @Override
+        public void goalsReached(int inputIndex, SpiderDiagram input, Goals goals) {
+          outcomes.add(asList(inputIndex, goals.getGoalAt(0)));
+        }
+
+        @Override
+        public void applicationFailed(int inputIndex, SpiderDiagram input, int failingStep, Exception failure) {
+          outcomes.add(asList(inputIndex, failingStep));
+        }
+      });
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertEquals(10, outcomes.size());
+    for (int i = 0; i < 10; i++) {
+      assertEquals(i == 3 ? asList(3, 0) : asList(i, spiderIn("s" + i, "A")), outcomes.get(i));
+    }
+  }
+
+  @Test
+  public void applyAll_MUST_report_a_null_input_as_a_failure_and_continue() throws Exception {
+    RuleScript script = RuleScript.read(new StringReader(Script));
+    SpiderDiagram input = doublyNegated(doublyNegated(spiderIn("s", "A")));
+    final ArrayList<Object> outcomes = new ArrayList<>();
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      script.applyAll(asList(input, null, input).iterator(), executor, 1, new RuleScript.ResultListener() {
+        @Override
+        public void goalsReached(int inputIndex, SpiderDiagram input, Goals goals) {
+          outcomes.add(asList(inputIndex, goals.getGoalAt(0)));
+        }
+
+        @Override
+        public void applicationFailed(int inputIndex, SpiderDiagram input, int failingStep, Exception failure) {
+          outcomes.add(asList(inputIndex, failingStep, failure.getClass()));
+        }
+      });
+    } finally {
+      executor.shutdownNow();
+    }
+
+    assertEquals(asList(
+        asList(0, spiderIn("s", "A")),
+        asList(1, -1, IllegalArgumentException.class),
+        asList(2, spiderIn("s", "A"))), outcomes);
+  }
+}
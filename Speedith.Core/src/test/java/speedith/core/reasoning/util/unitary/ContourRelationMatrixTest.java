@@ -0,0 +1,71 @@
+package speedith.core.reasoning.util.unitary;
+
+import org.junit.Test;
+import speedith.core.lang.PrimarySpiderDiagram;
+import speedith.core.lang.SpiderDiagrams;
+import speedith.core.lang.Zone;
+
+import java.util.ArrayList;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.*;
+import static speedith.core.lang.Zones.getZonesInsideAllContours;
+import static speedith.core.reasoning.util.unitary.TestSpiderDiagrams.POWER_REGION_ABCD;
+
+public class ContourRelationMatrixTest {
+
+    @Test
+    public void forDiagram_should_return_the_same_matrix_for_the_same_diagram() {
+        PrimarySpiderDiagram diagram = SpiderDiagrams.createPrimarySD(null, null, null, POWER_REGION_ABCD);
+        assertThat(ContourRelationMatrix.forDiagram(diagram), sameInstance(ContourRelationMatrix.forDiagram(diagram)));
+    }
+
+    @Test
+    public void the_matrix_should_agree_with_contour_relations() {
+        ContourRelationMatrix matrix = new ContourRelationMatrix(ContourRelationsTest.getVennABCDiagramWithPartlyShadedB());
+        assertTrue(matrix.contourContainsAnother("A", "B"));
+        assertFalse(matrix.contourContainsAnother("B", "A"));
+        assertFalse(matrix.areContoursDisjoint("A", "B"));
+        assertFalse(matrix.doContoursOverlap("A", "B"));
+        assertTrue(matrix.doContoursOverlap("A", "C"));
+        assertThat(matrix.getContainedContours("A"), contains("B"));
+    }
+
+    @Test
+    public void getDisjointContours_should_return_the_contours_whose_shared_zones_are_shaded() {
+        PrimarySpiderDiagram diagram = SpiderDiagrams.createPrimarySD(null, null, getZonesInsideAllContours(POWER_REGION_ABCD, "A", "D"), null);
+        assertThat(new ContourRelationMatrix(diagram).getDisjointContours("A"), contains("D"));
+    }
+
+    @Test
+    public void areContoursDisjoint_should_not_overflow_when_the_diagram_has_many_contours() {
+        ArrayList<String> contours = new ArrayList<>();
+        for (int i = 0; i < 34; i++) {
+            contours.add("C" + i);
+        }
+        Zone shadedZone = new Zone(contours, null);
+        PrimarySpiderDiagram diagram = SpiderDiagrams.createPrimarySD(null, null, asList(shadedZone), asList(shadedZone));
+        ContourRelationMatrix matrix = new ContourRelationMatrix(diagram);
+        assertFalse(matrix.areContoursDisjoint("C0", "C1"));
+        assertTrue(matrix.doContoursOverlap("C0", "C1"));
+    }
+
+    @Test
+    public void the_matrix_should_support_more_than_64_contours() {
+        ArrayList<String> contours = new ArrayList<>();
+        for (int i = 0; i < 70; i++) {
+            contours.add("C" + i);
+        }
+        ContourRelationMatrix matrix = new ContourRelationMatrix(SpiderDiagrams.createPrimarySD(null, null, null, asList(new Zone(contours, null))));
+        assertEquals(70, matrix.getContoursCount());
+        assertTrue(matrix.doContoursOverlap("C3", "C68"));
+        assertEquals(68, matrix.indexOf("C8"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void areContoursDisjoint_should_throw_an_exception_if_the_contour_is_not_in_the_diagram() {
+        new ContourRelationMatrix(SpiderDiagrams.createPrimarySD(null, null, null, POWER_REGION_ABCD)).areContoursDisjoint("A", "E");
+    }
+}
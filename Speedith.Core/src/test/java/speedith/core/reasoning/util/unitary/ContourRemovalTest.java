@@ -0,0 +1,55 @@
+package speedith.core.reasoning.util.unitary;
+
+import org.junit.Test;
+import speedith.core.lang.PrimarySpiderDiagram;
+import speedith.core.lang.Region;
+import speedith.core.lang.Zone;
+import speedith.core.lang.Zones;
+
+import java.util.ArrayList;
+import java.util.TreeMap;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.assertThat;
+import static speedith.core.lang.SpiderDiagrams.createPrimarySD;
+import static speedith.core.reasoning.util.unitary.TestSpiderDiagrams.POWER_REGION_ABCD;
+
+public class ContourRemovalTest {
+
+    @Test
+    public void removeFrom_should_keep_the_shading_of_zones_whose_all_parts_are_shaded() {
+        PrimarySpiderDiagram diagram = createPrimarySD(null, null, Zones.getZonesInsideAllContours(POWER_REGION_ABCD, "A"), POWER_REGION_ABCD);
+        PrimarySpiderDiagram diagramWithoutContours = new ContourRemoval(asList("B", "C")).removeFrom(diagram);
+        assertThat(
+                diagramWithoutContours.getShadedZones(),
+                containsInAnyOrder(Zone.fromInContours("A").withOutContours("D"), Zone.fromInContours("A", "D"))
+        );
+        assertThat(
+                diagramWithoutContours.getPresentZones(),
+                hasSize(4)
+        );
+    }
+
+    @Test
+    public void removeFrom_should_drop_the_shading_of_zones_that_are_only_partly_shaded() {
+        ArrayList<Zone> shadedZones = Zones.getZonesInsideAllContours(POWER_REGION_ABCD, "A");
+        shadedZones.remove(Zone.fromInContours("A", "B", "C", "D"));
+        PrimarySpiderDiagram diagram = createPrimarySD(null, null, shadedZones, POWER_REGION_ABCD);
+        assertThat(
+                new ContourRemoval(asList("B", "C")).removeFrom(diagram).getShadedZones(),
+                contains(Zone.fromInContours("A").withOutContours("D"))
+        );
+    }
+
+    @Test
+    public void removeFrom_should_project_spider_habitats() {
+        TreeMap<String, Region> habitats = new TreeMap<>();
+        habitats.put("s", new Region(Zone.fromInContours("A", "B").withOutContours("C", "D"), Zone.fromInContours("A", "C").withOutContours("B", "D")));
+        PrimarySpiderDiagram diagram = createPrimarySD(asList("s"), habitats, null, POWER_REGION_ABCD);
+        assertThat(
+                new ContourRemoval(asList("B", "C")).removeFrom(diagram).getSpiderHabitat("s"),
+                equalTo(new Region(Zone.fromInContours("A").withOutContours("D")))
+        );
+    }
+}
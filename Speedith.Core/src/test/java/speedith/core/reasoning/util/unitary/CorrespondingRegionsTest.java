@@ -69,4 +69,22 @@ public class CorrespondingRegionsTest {
       equalTo(expectedRegion)
     );
   }
+
+  @Test
+  public void correspondingRegion_should_expand_source_zones_and_drop_empty_zones_when_the_destination_has_more_contours() {
+    Zone shadedZone = Zone.fromInContours("A", "C").withOutContours("B");
+    PrimarySpiderDiagram destinationDiagram = createPrimarySD(null, null, asList(shadedZone), POWER_REGION_ABC);
+    Region correspondingRegion = new CorrespondingRegions(VENN_2_AB_DIAGRAM, destinationDiagram).correspondingRegion(new Region(
+      Zone.fromInContours("A").withOutContours("B")
+    ));
+
+    Region expectedRegion = new Region(
+      Zone.fromInContours("A").withOutContours("B", "C")
+    );
+
+    assertThat(
+      correspondingRegion,
+      equalTo(expectedRegion)
+    );
+  }
 }
@@ -212,6 +212,36 @@ public class ZoneTransferTest {
 
     }
 
+    @Test
+    public void isZoneInDestinationOutsideContour_should_agree_with_zonesInDestinationOutsideContour() {
+        ZoneTransfer zoneTransfer = new ZoneTransfer(diagramABC_shadedSetC_A, VENN_3_ABD_DIAGRAM);
+        for (Zone zone : POWER_REGION_ABD) {
+            assertThat(
+                    zoneTransfer.isZoneInDestinationOutsideContour(zone, "C"),
+                    equalTo(zoneTransfer.zonesInDestinationOutsideContour("C").contains(zone))
+            );
+            assertThat(
+                    zoneTransfer.isZoneInDestinationInsideContour(zone, "C"),
+                    equalTo(zoneTransfer.zonesInDestinationInsideContour("C").contains(zone))
+            );
+        }
+    }
+
+    @Test
+    public void transferContour_should_not_enumerate_the_destination_zones_when_the_transferred_contour_splits_all_of_them() {
+        ArrayList<String> contours = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            contours.add("C" + i);
+        }
+        PrimarySpiderDiagram destination = createPrimarySD(null, null, null, asList(new Zone(contours, null)));
+        PrimarySpiderDiagram source = createPrimarySD(null, null, null, asList(Zone.fromInContours("X", "C0")));
+        PrimarySpiderDiagram diagramWithTransferredContour = new ZoneTransfer(source, destination).transferContour("X");
+        assertThat(
+                diagramWithTransferredContour.getPresentZonesCount(),
+                equalTo(2)
+        );
+    }
+
     private static PrimarySpiderDiagram getDiagramWithBCZones() {
         return createPrimarySD(null, null, null, asList(Zone.fromOutContours("B", "C")));
     }
@@ -0,0 +1,119 @@
+package speedith.core.server;
+
+import org.junit.Test;
+import speedith.core.lang.*;
+import speedith.core.reasoning.ProofTrace;
+import speedith.core.reasoning.args.SubDiagramIndexArg;
+import speedith.core.reasoning.persistence.ProofTraceWriter;
+import speedith.core.reasoning.rules.DoubleNegationElimination;
+import speedith.core.reasoning.util.ProofVerification;
+
+import java.io.StringWriter;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+import static speedith.core.i18n.Translations.i18n;
+import static speedith.core.lang.test.TestSpiderDiagrams.doublyNegated;
+import static speedith.core.lang.test.TestSpiderDiagrams.spiderIn;
+
+public class RequestHandlerTest {
+
+  private final RequestHandler handler = new RequestHandler();
+
+  @Test
+  public void handle_MUST_parse_the_diagram_WHEN_the_operation_is_parse() {
+    Map<?, ?> response = handle("parse", "diagram", spiderIn("s", "A").toString());
+
+    assertEquals(Boolean.TRUE, response.get("ok"));
+    assertEquals(spiderIn("s", "A").toString(), response.get("diagram"));
+    assertEquals(Boolean.TRUE, response.get("valid"));
+  }
+
+  @Test
+  public void handle_MUST_return_the_new_goals_WHEN_the_operation_is_apply() {
+    Map<?, ?> response = handle("apply", "rule", DoubleNegationElimination.InferenceRuleName,
+                                "diagram", doublyNegated(spiderIn("s", "A")).toString(),
+                                "arg", "SubDiagramIndexArg 0 0");
+
+    assertEquals(Boolean.TRUE, response.get("ok"));
+    assertEquals(1, ((List<?>) response.get("goals")).size());
+    assertEquals(spiderIn("s", "A").toString(), ((List<?>) response.get("goals")).get(0));
+  }
+
+  @Test
+  public void handle_MUST_report_an_error_and_keep_the_id_WHEN_the_operation_is_unknown() {
+    Map<?, ?> response = (Map<?, ?>) Json.parse(handler.handle("{\"id\": 7, \"op\": \"frobnicate\"}"));
+
+    assertEquals(7L, response.get("id"));
+    assertEquals(Boolean.FALSE, response.get("ok"));
+    assertNotNull(response.get("error"));
+  }
+
+  @Test
+  public void handle_MUST_report_an_error_WHEN_the_request_is_not_valid_json() {
+    Map<?, ?> response = (Map<?, ?>) Json.parse(handler.handle("{\"op\": "));
+
+    assertEquals(Boolean.FALSE, response.get("ok"));
+    assertNotNull(response.get("error"));
+  }
+
+  @Test
+  public void handle_MUST_report_an_error_WHEN_the_request_is_nested_too_deeply() {
+    StringBuilder request = new StringBuilder("{\"op\": \"parse\", \"diagram\": ");
+    // The request object itself is the first nested value.
+    int tooDeepPosition = request.length() + Json.MaxNestingDepth - 1;
+    for (int i = 0; i < 100000; i++) {
+      request.append('[');
+    }
+
+    Map<?, ?> response = (Map<?, ?>) Json.parse(handler.handle(request.toString()));
+
+    assertEquals(Boolean.FALSE, response.get("ok"));
+    assertEquals(i18n("ERR_SERVER_JSON_TOO_DEEP", tooDeepPosition, Json.MaxNestingDepth), response.get("error"));
+    assertEquals(Boolean.TRUE, handle("parse", "diagram", spiderIn("s", "A").toString()).get("ok"));
+  }
+
+  @Test
+  public void handle_MUST_report_an_error_WHEN_the_diagram_is_nested_too_deeply() {
+    String negation = "UnarySD {operator = \"op not\", arg1 = ";
+    StringBuilder diagram = new StringBuilder();
+    for (int i = 0; i < 100000; i++) {
+      diagram.append(negation);
+    }
+    diagram.append(spiderIn("s", "A"));
+    for (int i = 0; i < 100000; i++) {
+      diagram.append('}');
+    }
+    // The brace of the first negation that is too deep.
+    int tooDeepPosition = RequestHandler.MaxDiagramDepth * negation.length() + negation.indexOf('{');
+
+    Map<?, ?> response = handle("parse", "diagram", diagram.toString());
+
+    assertEquals(Boolean.FALSE, response.get("ok"));
+    assertEquals(i18n("ERR_SERVER_DIAGRAM_TOO_DEEP", tooDeepPosition, RequestHandler.MaxDiagramDepth), response.get("error"));
+  }
+
+  @Test
+  public void handle_MUST_verify_the_proof_WHEN_the_operation_is_verify() throws Exception {
+    ProofTrace proof = new ProofTrace(doublyNegated(spiderIn("s", "A")));
+    proof.applyRule(new DoubleNegationElimination(), new SubDiagramIndexArg(0, 0));
+    StringWriter out = new StringWriter();
+    ProofTraceWriter.write(proof, out, 0);
+
+    Map<?, ?> response = handle("verify", "proof", out.toString());
+
+    assertEquals(Boolean.TRUE, response.get("ok"));
+    assertEquals(ProofVerification.Verdict.Unfinished.name(), response.get("verdict"));
+  }
+
+  private Map<?, ?> handle(String operation, String... members) {
+    StringBuilder request = new StringBuilder("{\"op\":");
+    Json.write(request, operation);
+    for (int i = 0; i < members.length; i += 2) {
+      Json.write(request.append(','), members[i]).append(':');
+      Json.write(request, members[i + 1]);
+    }
+    return (Map<?, ?>) Json.parse(handler.handle(request.append('}').toString()));
+  }
+}
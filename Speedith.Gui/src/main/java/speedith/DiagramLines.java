@@ -0,0 +1,71 @@
+package speedith;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import speedith.core.lang.SpiderDiagram;
+import speedith.core.lang.reader.ReadingException;
+import speedith.core.lang.reader.SpiderDiagramsReader;
+import static speedith.i18n.Translations.i18n;
+
+/**
+ * Reads the input diagrams of a rule script lazily (one diagram per non-empty
+ * line).
+ * <p>A line that cannot be read is reported on the given error output and
+ * yields {@code null}, which the {@link
+ * speedith.core.reasoning.util.RuleScript rule script} reports as a failed
+ * input, so the remaining inputs are still processed.</p>
+ */
+class DiagramLines implements Iterator<SpiderDiagram> {
+
+    private final BufferedReader lines;
+    private final PrintStream errors;
+    private String nextLine;
+    private int lineNumber;
+
+    DiagramLines(BufferedReader lines, PrintStream errors) {
+        this.lines = lines;
+        this.errors = errors;
+    }
+
+    @Override
+    public boolean hasNext() {
+        try {
+            while (nextLine == null) {
+                String line = lines.readLine();
+                if (line == null) {
+                    return false;
+                }
+                ++lineNumber;
+                if (!line.trim().isEmpty()) {
+                    nextLine = line;
+                }
+            }
+            return true;
+        } catch (IOException ex) {
+            throw new RuntimeException(ex);
+        }
+    }
+
+    @Override
+    public SpiderDiagram next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        try {
+            return SpiderDiagramsReader.readSpiderDiagram(nextLine);
+        } catch (ReadingException ex) {
+            errors.println(i18n("ERR_SCRIPT_INPUT_INVALID", lineNumber, ex.getLocalizedMessage()));
+            return null;
+        } finally {
+            nextLine = null;
+        }
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+}
@@ -26,6 +26,19 @@
  */
 package speedith;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.SortedSet;
 import java.util.Arrays;
 import java.util.Set;
@@ -34,6 +47,7 @@ import org.apache.commons.cli.ParseException;
 import speedith.cli.CliOptions;
 import speedith.core.lang.Region;
 import speedith.core.lang.SpiderDiagram;
+import speedith.core.lang.export.ExportException;
 import speedith.core.lang.export.SDExportProvider;
 import speedith.core.lang.export.SDExporter;
 import speedith.core.lang.export.SDExporting;
@@ -44,10 +58,13 @@ import speedith.core.reasoning.InferenceRule;
 import speedith.core.reasoning.InferenceRuleProvider;
 import speedith.core.reasoning.InferenceRules;
 import speedith.core.reasoning.RuleApplicationResult;
+import speedith.core.reasoning.RuleMetrics;
 import speedith.core.reasoning.args.RuleArg;
 import speedith.core.reasoning.args.SpiderArg;
 import speedith.core.reasoning.args.SpiderRegionArg;
 import speedith.core.reasoning.args.SubDiagramIndexArg;
+import speedith.core.reasoning.util.RuleScript;
+import speedith.core.server.SpeedithServer;
 import propity.util.Strings;
 import speedith.ui.SpeedithMainForm;
 import static speedith.i18n.Translations.*;
@@ -89,6 +106,10 @@ public class Main {
                 printKnownFormats();
             } else if (clargs.isListInferenceRules()) {
                 printKnownInferenceRules();
+            } else if (clargs.isServerMode()) {
+                runServer(clargs.getServerPort());
+            } else if (clargs.isBatchMode() && clargs.getRuleScript() != null) {
+                runRuleScript(clargs);
             } else if (clargs.isBatchMode()) {
                 // ---- Starting up Speedith
                 // Did the user provide a spider diagram to Speedith?
@@ -127,7 +148,7 @@ public class Main {
                     } else {
                         throw new IllegalArgumentException(i18n("MAIN_SUBDIAGRAM_INDEX_NEGATIVE"));
                     }
-                    RuleApplicationResult subGoals = inferenceRule.apply(ruleArg, new Goals(Arrays.asList(readSpiderDiagram)));
+                    RuleApplicationResult subGoals = RuleMetrics.apply(inferenceRule, ruleArg, new Goals(Arrays.asList(readSpiderDiagram)));
 
                     if (subGoals != null && subGoals.getGoals() != null && subGoals.getGoals().getGoalsCount() > 0) {
                         readSpiderDiagram = subGoals.getGoals().getGoalAt(0);
@@ -165,6 +186,92 @@ public class Main {
     }
     // </editor-fold>
 
+    // <editor-fold defaultstate="collapsed" desc="Rule Scripts">
+    /**
+     * Applies the rule script to all the input diagrams (concurrently) and
+     * prints the goals of every input (followed by an empty line) in the
+     * chosen output format. Failures are reported on the error output.
+     *
+     * @param clargs the parsed command line arguments.
+     */
+    private static void runRuleScript(CliOptions clargs) throws Exception {
+        RuleScript script;
+        try (Reader in = new InputStreamReader(new FileInputStream(clargs.getRuleScript()), "UTF-8")) {
+            script = RuleScript.read(in);
+        }
+        final SDExporter exporter = SDExporting.getExporter(clargs.getOutputFormat(), clargs.getOutputFormatArguments());
+        if (exporter == null) {
+            throw new IllegalArgumentException(i18n("APP_UNKNOWN_EXPORTER"));
+        }
+        Iterator<SpiderDiagram> inputs;
+        BufferedReader inputLines = null;
+        if (clargs.getInputs() != null) {
+            InputStream inputStream = "-".equals(clargs.getInputs()) ? System.in : new FileInputStream(clargs.getInputs());
+            inputLines = new BufferedReader(new InputStreamReader(inputStream, "UTF-8"));
+            inputs = new DiagramLines(inputLines, System.err);
+        } else if (clargs.getSpiderDiagram() != null) {
+            inputs = Arrays.asList(SpiderDiagramsReader.readSpiderDiagram(clargs.getSpiderDiagram())).iterator();
+        } else {
+            inputs = Collections.<SpiderDiagram>emptyIterator();
+        }
+        final Writer out = new BufferedWriter(new OutputStreamWriter(System.out, "UTF-8"));
+        try {
+            script.applyAll(inputs, new RuleScript.ResultListener() {
+                @Override
+                public void goalsReached(int inputIndex, SpiderDiagram input, Goals goals) throws IOException {
+                    for (int i = 0; goals != null && i < goals.getGoalsCount(); i++) {
+                        try {
+                            exporter.exportTo(goals.getGoalAt(i), out);
+                        } catch (ExportException ex) {
+                            throw new IOException(ex.getLocalizedMessage(), ex);
+                        }
+                        out.write('\n');
+                    }
+                    out.write('\n');
+                    out.flush();
+                }
+
+                @Override
+                public void applicationFailed(int inputIndex, SpiderDiagram input, int failingStep, Exception failure) throws IOException {
+                    out.write('\n');
+                    out.flush();
+                    // Unreadable inputs (without a failing step) have already
+                    // been reported by the reader.
+                    if (failingStep >= 0) {
+                        System.err.println(i18n("ERR_SCRIPT_STEP_FAILED", inputIndex + 1, failingStep + 1, failure.getLocalizedMessage()));
+                    }
+                }
+            });
+        } finally {
+            out.flush();
+            if (inputLines != null) {
+                inputLines.close();
+            }
+        }
+    }
+
+    // </editor-fold>
+
+    // <editor-fold defaultstate="collapsed" desc="Server Mode">
+    /**
+     * Answers JSON-lines requests until the standard input ends (if no port is
+     * given) or forever on a local socket (if a port is given).
+     *
+     * @param port the port of the local socket or -1 to use the standard
+     * input and output.
+     */
+    private static void runServer(int port) throws IOException {
+        SpeedithServer server = new SpeedithServer();
+        if (port < 0) {
+            server.serve(new InputStreamReader(System.in, "UTF-8"), new BufferedWriter(new OutputStreamWriter(System.out, "UTF-8")));
+        } else {
+            try (ServerSocket serverSocket = new ServerSocket(port, 0, InetAddress.getLoopbackAddress())) {
+                server.serve(serverSocket);
+            }
+        }
+    }
+    // </editor-fold>
+
     // <editor-fold defaultstate="collapsed" desc="Help Printing Methods">
     /**
      * Prints a list of known spider diagram formula export formats (see {@link
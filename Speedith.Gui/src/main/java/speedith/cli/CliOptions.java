@@ -170,6 +170,27 @@ public class CliOptions extends Options {
      * inference rules.
      */
     public static final String OPTION_LIR = "lir";
+    /**
+     * This option starts Speedith as a long-running server that answers
+     * JSON-lines requests (see {@link speedith.core.server.SpeedithServer}).
+     * <p>The optional argument is the port of the local socket to listen on.
+     * Without it, the requests are read from the standard input.</p>
+     */
+    public static final String OPTION_SERVER = "server";
+    /**
+     * The file with the rule script (see {@link
+     * speedith.core.reasoning.util.RuleScript}) to apply in batch mode.
+     * <p>The script is applied to every diagram from the {@link
+     * CliOptions#OPTION_INPUTS inputs} file (or to the {@link
+     * CliOptions#OPTION_SD given diagram}) and all resulting goals are printed
+     * in the {@link CliOptions#OPTION_OF output format}.</p>
+     */
+    public static final String OPTION_SCRIPT = "script";
+    /**
+     * The file with the input diagrams of the {@link CliOptions#OPTION_SCRIPT
+     * rule script} (one diagram per line, {@code -} for the standard input).
+     */
+    public static final String OPTION_INPUTS = "inputs";
     private static final long serialVersionUID = 0xda37a6808b7a1245L;
     // </editor-fold>
     //<editor-fold defaultstate="collapsed" desc="Private Fields">
@@ -421,6 +442,63 @@ public class CliOptions extends Options {
     public boolean isListInferenceRules() {
         return getParsedOptions().hasOption(OPTION_LIR);
     }
+
+    /**
+     * Returns the name of the rule script file (or {@code null} if none was
+     * given).
+     * <p>This is the value of the argument to the {@link
+     * CliOptions#OPTION_SCRIPT script} option.</p>
+     * @return the name of the rule script file.
+     */
+    public String getRuleScript() {
+        return getParsedOptions().getOptionValue(OPTION_SCRIPT);
+    }
+
+    /**
+     * Returns the name of the file with the input diagrams of the rule script
+     * (or {@code null} if none was given).
+     * <p>This is the value of the argument to the {@link
+     * CliOptions#OPTION_INPUTS inputs} option.</p>
+     * @return the name of the file with the input diagrams.
+     */
+    public String getInputs() {
+        return getParsedOptions().getOptionValue(OPTION_INPUTS);
+    }
+
+    /**
+     * Indicates whether the user provided the 'server' option in the command
+     * line arguments.
+     * <p>This flag tells Speedith whether to run as a long-running server.</p>
+     * @return a flag that tells whether to run as a long-running server.
+     */
+    public boolean isServerMode() {
+        return getParsedOptions().hasOption(OPTION_SERVER);
+    }
+
+    /**
+     * Returns the port on which the server should listen (or -1 if none was
+     * given, in which case the server reads the standard input).
+     * <p>This is the value of the argument to the {@link
+     * CliOptions#OPTION_SERVER server} option.</p>
+     * @return the port on which the server should listen (or -1 if none was
+     * given).
+     * @throws RuntimeException if the given port is not formatted correctly.
+     */
+    public int getServerPort() {
+        String port = getParsedOptions().getOptionValue(OPTION_SERVER);
+        if (port != null) {
+            try {
+                int retVal = Integer.parseInt(port);
+                if (retVal < 0 || retVal > 0xffff) {
+                    throw new NumberFormatException(port);
+                }
+                return retVal;
+            } catch (NumberFormatException nfe) {
+                throw new RuntimeException(i18n("ERR_CLI_SERVER_PORT_INVALID", port), nfe);
+            }
+        }
+        return -1;
+    }
     // </editor-fold>
 
     // <editor-fold defaultstate="collapsed" desc="Initialisation">
@@ -488,6 +566,22 @@ public class CliOptions extends Options {
         // ---- List known inference rules
         opt = new Option(OPTION_LIR, false, i18n("CLI_ARG_DESCRIPTION_LIR"));
         addOption(opt);
+
+        // ---- Rule script
+        opt = new Option(OPTION_SCRIPT, true, i18n("CLI_ARG_DESCRIPTION_SCRIPT"));
+        opt.setArgName(i18n("CLI_ARG_SCRIPT_VALUE_NAME"));
+        addOption(opt);
+
+        // ---- Input diagrams of the rule script
+        opt = new Option(OPTION_INPUTS, true, i18n("CLI_ARG_DESCRIPTION_INPUTS"));
+        opt.setArgName(i18n("CLI_ARG_INPUTS_VALUE_NAME"));
+        addOption(opt);
+
+        // ---- Server mode (with an optional port)
+        opt = new Option(OPTION_SERVER, true, i18n("CLI_ARG_DESCRIPTION_SERVER"));
+        opt.setOptionalArg(true);
+        opt.setArgName(i18n("CLI_ARG_SERVER_VALUE_NAME"));
+        addOption(opt);
     }
     // </editor-fold>
 
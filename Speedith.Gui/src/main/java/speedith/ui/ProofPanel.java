@@ -33,6 +33,7 @@ import javax.swing.JPanel;
 import speedith.core.reasoning.*;
 import speedith.core.reasoning.args.RuleArg;
 import speedith.core.reasoning.args.SubgoalIndexArg;
+import speedith.core.reasoning.rules.MultiTargetRule;
 import static speedith.i18n.Translations.i18n;
 
 /**
@@ -44,7 +45,7 @@ import static speedith.i18n.Translations.i18n;
 public class ProofPanel extends javax.swing.JPanel implements Proof {
 
     // <editor-fold defaultstate="collapsed" desc="Fields">
-    private ProofTrace proof;
+    private ProofTree proof;
     // </editor-fold>
 
     //<editor-fold defaultstate="collapsed" desc="Constructors">
@@ -116,6 +117,38 @@ public class ProofPanel extends javax.swing.JPanel implements Proof {
     public void newProof(Goals initialGoals) {
         resetProof(initialGoals, true);
     }
+
+    /**
+     * Returns the proof tree that contains all branches of the displayed
+     * proof.
+     *
+     * @return the proof tree of this panel.
+     */
+    public ProofTree getProofTree() {
+        return proof;
+    }
+
+    /**
+     * Starts a new branch of the proof that shares all steps with the
+     * currently displayed branch (and displays the new branch).
+     *
+     * @return the new branch.
+     */
+    public ProofTree.Branch fork() {
+        ProofTree.Branch branch = proof.fork();
+        displayProof();
+        return branch;
+    }
+
+    /**
+     * Displays the given branch of the proof.
+     *
+     * @param branch the branch to display.
+     */
+    public void switchToBranch(ProofTree.Branch branch) {
+        proof.switchTo(branch);
+        displayProof();
+    }
     //</editor-fold>
 
     //<editor-fold defaultstate="collapsed" desc="Proof Interface Implementation">
@@ -135,11 +168,14 @@ public class ProofPanel extends javax.swing.JPanel implements Proof {
         return appResult;
     }
 
+    public <TRuleArg extends SubgoalIndexArg> RuleApplicationResult applyRuleToSubgoals(InferenceRule<? super TRuleArg> rule, TRuleArg args, int... subgoalIndices) throws RuleApplicationException {
+        return applyRule(new MultiTargetRule(rule), MultiTargetRule.createTargetArgs(args, subgoalIndices));
+    }
+
     public boolean undoStep() {
         final boolean didUndo = proof.undoStep();
         if (didUndo) {
-            // TODO: Refresh the GUI. Remove the last set of goals and step description labels.
-            throw new UnsupportedOperationException();
+            displayProof();
         }
         return didUndo;
     }
@@ -202,7 +238,29 @@ public class ProofPanel extends javax.swing.JPanel implements Proof {
         pnlGoals.add(sgp, gbc);
     }
 
-    private <TRuleArg extends RuleArg> void addGoals(int stepIndex, Goals goals, InferenceRule<? super TRuleArg> rule, TRuleArg args) {
+    /**
+     * Displays all steps of the current branch of the proof.
+     */
+    private void displayProof() {
+        cleanProofPanel();
+        displayInitialGoals();
+        // Both lists are collected in a single walk over the current branch.
+        List<Goals> goalsList = proof.getGoals();
+        List<RuleApplication> ruleApplications = proof.getRuleApplications();
+        for (int stepIndex = 1; stepIndex < goalsList.size(); stepIndex++) {
+            RuleApplication ruleApplication = ruleApplications.get(stepIndex - 1);
+            Goals goals = goalsList.get(stepIndex);
+            if (goals.isEmpty()) {
+                addProofFinished(ruleApplication.getInferenceRule(), ruleApplication.getRuleArguments());
+            } else {
+                addGoals(stepIndex, goals, ruleApplication.getInferenceRule(), ruleApplication.getRuleArguments());
+            }
+        }
+        validate();
+        repaint();
+    }
+
+    private void addGoals(int stepIndex, Goals goals, InferenceRule<?> rule, RuleArg args) {
         GridBagConstraints gbc = new java.awt.GridBagConstraints();
         gbc.fill = java.awt.GridBagConstraints.BOTH;
         gbc.gridx = 0;
@@ -221,7 +279,7 @@ public class ProofPanel extends javax.swing.JPanel implements Proof {
         }
     }
 
-    private <TRuleArg extends RuleArg> String getStepDescription(InferenceRule<? super TRuleArg> rule, TRuleArg args) {
+    private String getStepDescription(InferenceRule<?> rule, RuleArg args) {
         if (args instanceof SubgoalIndexArg) {
             return i18n("PROOF_PANEL_STEP_DESC_SUBGOAL", rule.getProvider().getPrettyName(), ((SubgoalIndexArg) args).getSubgoalIndex() + 1);
         } else {
@@ -242,7 +300,7 @@ public class ProofPanel extends javax.swing.JPanel implements Proof {
         pnlGoals.add(sgp, gbc);
     }
 
-    private <TRuleArg extends RuleArg> void addProofFinished(InferenceRule<? super TRuleArg> rule, TRuleArg args) {
+    private void addProofFinished(InferenceRule<?> rule, RuleArg args) {
         GridBagConstraints gbc = new java.awt.GridBagConstraints();
         gbc.fill = java.awt.GridBagConstraints.BOTH;
         gbc.gridx = 0;
@@ -261,7 +319,7 @@ public class ProofPanel extends javax.swing.JPanel implements Proof {
      * just after the UI has been updated.
      */
     private void resetProof(Goals initialGoals, boolean forceValidation) {
-        proof = new ProofTrace(initialGoals);
+        proof = new ProofTree(initialGoals);
         // Clean the current user interface
         cleanProofPanel();
         // And display the initial goals.
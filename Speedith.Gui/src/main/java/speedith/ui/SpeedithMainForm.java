@@ -558,7 +558,7 @@ public class SpeedithMainForm extends javax.swing.JFrame {
   private static Goals applyInferenceRule(String infRuleName, RuleArg ruleArg, Goals goals0) {
     InferenceRule<? extends RuleArg> infRule = InferenceRules.getInferenceRule(infRuleName);
     try {
-      RuleApplicationResult rar = infRule.apply(ruleArg, goals0);
+      RuleApplicationResult rar = RuleMetrics.apply(infRule, ruleArg, goals0);
       goals0 = rar.getGoals();
     } catch (RuleApplicationException ex) {
       throw new RuntimeException(ex);
@@ -257,7 +257,7 @@ public final class InteractiveRuleApplication {
             if (proof != null) {
                 return proof.applyRule((InferenceRule<RuleArg>) rule, ruleArg);
             } else {
-                return rule.apply(ruleArg, goals);
+                return RuleMetrics.apply(rule, ruleArg, goals);
             }
         } else {
             throw new IllegalArgumentException("Exactly one of 'goals' or 'proof' must be provided (the other must be null).");
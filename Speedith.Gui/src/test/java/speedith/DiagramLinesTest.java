@@ -0,0 +1,43 @@
+package speedith;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collections;
+import org.junit.Test;
+import speedith.core.lang.*;
+import speedith.core.reasoning.Goals;
+import speedith.core.reasoning.util.RuleScript;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.*;
+import static speedith.i18n.Translations.i18n;
+
+public class DiagramLinesTest {
+
+    @Test
+    public void applyAll_MUST_report_a_malformed_line_as_a_failure_and_continue() throws Exception {
+        SpiderDiagram expected = SpiderDiagrams.createPrimarySD(Collections.singletonMap("s", new Region(Zone.fromInContours("A"))), null, null);
+        SpiderDiagram input = SpiderDiagrams.createCompoundSD(Operator.Negation, SpiderDiagrams.createCompoundSD(Operator.Negation, expected));
+        ByteArrayOutputStream errors = new ByteArrayOutputStream();
+        DiagramLines inputs = new DiagramLines(new BufferedReader(new StringReader(input + "\n\nPrimarySD {\n" + input + "\n")), new PrintStream(errors, true, "UTF-8"));
+        final ArrayList<Object> outcomes = new ArrayList<>();
+
+        RuleScript.read(new StringReader("double_negation_elimination SubDiagramIndexArg 0 0")).applyAll(inputs, new RuleScript.ResultListener() {
+            @Override
+            public void goalsReached(int inputIndex, SpiderDiagram input, Goals goals) {
+                outcomes.add(asList(inputIndex, goals.getGoalAt(0)));
+            }
+
+            @Override
+            public void applicationFailed(int inputIndex, SpiderDiagram input, int failingStep, Exception failure) {
+                outcomes.add(asList(inputIndex, failingStep));
+            }
+        });
+
+        assertEquals(asList(asList(0, expected), asList(1, -1), asList(2, expected)), outcomes);
+        assertTrue(errors.toString("UTF-8").startsWith(i18n("ERR_SCRIPT_INPUT_INVALID", 3, "").trim()));
+    }
+}